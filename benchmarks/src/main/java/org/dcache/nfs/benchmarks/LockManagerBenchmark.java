@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015 - 2018 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.dcache.nfs.v4.StateOwner;
+import org.dcache.nfs.v4.nlm.IntervalTreeLm;
+import org.dcache.nfs.v4.nlm.LockException;
+import org.dcache.nfs.v4.nlm.LockManager;
+import org.dcache.nfs.v4.nlm.NlmLock;
+import org.dcache.nfs.v4.nlm.SimpleLm;
+import org.dcache.nfs.v4.xdr.clientid4;
+import org.dcache.nfs.v4.xdr.nfs_lock_type4;
+import org.dcache.nfs.v4.xdr.state_owner4;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link IntervalTreeLm} with {@link SimpleLm} on a single file
+ * which holds a large number of byte-range locks.
+ *
+ * @since 0.17
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LockManagerBenchmark {
+
+    /**
+     * Distance between the start offsets of two pre-existing locks.
+     */
+    private static final long STRIDE = 10;
+
+    /**
+     * Length of each pre-existing lock, which leaves a gap after it.
+     */
+    private static final long LENGTH = 5;
+
+    @Param({"SimpleLm", "IntervalTreeLm"})
+    private String lockManager;
+
+    @Param({"1000", "10000"})
+    private int locks;
+
+    private final byte[] file = "file1".getBytes(StandardCharsets.UTF_8);
+
+    private LockManager nlm;
+
+    private NlmLock inGap;
+    private NlmLock conflicting;
+
+    @Setup
+    public void setUp() throws LockException {
+        switch (lockManager) {
+            case "SimpleLm":
+                nlm = new SimpleLm();
+                break;
+            case "IntervalTreeLm":
+                nlm = new IntervalTreeLm();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown lock manager: " + lockManager);
+        }
+
+        for (int i = 0; i < locks; i++) {
+            nlm.lock(file, new NlmLock(owner("owner" + i), nfs_lock_type4.WRITE_LT, i * STRIDE, LENGTH));
+        }
+
+        // requests in the middle of the file
+        long middle = (locks / 2) * STRIDE;
+        inGap = new NlmLock(owner("tester"), nfs_lock_type4.WRITE_LT, middle + LENGTH, STRIDE - LENGTH);
+        conflicting = new NlmLock(owner("tester"), nfs_lock_type4.READ_LT, middle, 1);
+    }
+
+    @Benchmark
+    public void lockAndUnlock() throws LockException {
+        nlm.lock(file, inGap);
+        nlm.unlock(file, inGap);
+    }
+
+    @Benchmark
+    public void testFree() throws LockException {
+        nlm.test(file, inGap);
+    }
+
+    @Benchmark
+    public boolean testConflicting() throws LockException {
+        try {
+            nlm.test(file, conflicting);
+            return false;
+        } catch (LockException e) {
+            return true;
+        }
+    }
+
+    private static StateOwner owner(String name) {
+        state_owner4 so = new state_owner4();
+        so.owner = name.getBytes(StandardCharsets.UTF_8);
+        so.clientid = new clientid4(1);
+        return new StateOwner(so, 1);
+    }
+}
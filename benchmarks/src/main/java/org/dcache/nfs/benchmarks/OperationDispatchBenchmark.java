@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2015 - 2018 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dcache.nfs.v4.AbstractNFSv4Operation;
+import org.dcache.nfs.v4.MDSOperationFactory;
+import org.dcache.nfs.v4.NFSv4OperationFactory;
+import org.dcache.nfs.v4.OperationCLOSE;
+import org.dcache.nfs.v4.OperationGETATTR;
+import org.dcache.nfs.v4.OperationGETFH;
+import org.dcache.nfs.v4.OperationILLEGAL;
+import org.dcache.nfs.v4.OperationLOOKUP;
+import org.dcache.nfs.v4.OperationOPEN;
+import org.dcache.nfs.v4.OperationPUTFH;
+import org.dcache.nfs.v4.OperationREAD;
+import org.dcache.nfs.v4.OperationSEQUENCE;
+import org.dcache.nfs.v4.OperationWRITE;
+import org.dcache.nfs.v4.xdr.nfs_argop4;
+import org.dcache.nfs.v4.xdr.nfs_opnum4;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the array based dispatch of {@link MDSOperationFactory} with a
+ * factory which, like the pre-0.17 one, creates a new handler for each
+ * operation through a switch.
+ *
+ * @since 0.17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OperationDispatchBenchmark {
+
+    /**
+     * Operations of typical NFSv4.1 compounds: open, read, write, lookup and close.
+     */
+    private static final int[] COMPOUNDS = {
+        nfs_opnum4.OP_SEQUENCE, nfs_opnum4.OP_PUTFH, nfs_opnum4.OP_OPEN, nfs_opnum4.OP_GETFH, nfs_opnum4.OP_GETATTR,
+        nfs_opnum4.OP_SEQUENCE, nfs_opnum4.OP_PUTFH, nfs_opnum4.OP_READ,
+        nfs_opnum4.OP_SEQUENCE, nfs_opnum4.OP_PUTFH, nfs_opnum4.OP_WRITE, nfs_opnum4.OP_GETATTR,
+        nfs_opnum4.OP_SEQUENCE, nfs_opnum4.OP_PUTFH, nfs_opnum4.OP_LOOKUP, nfs_opnum4.OP_GETFH, nfs_opnum4.OP_GETATTR,
+        nfs_opnum4.OP_SEQUENCE, nfs_opnum4.OP_PUTFH, nfs_opnum4.OP_CLOSE
+    };
+
+    private final NFSv4OperationFactory shared = new MDSOperationFactory();
+    private final NFSv4OperationFactory perRequest = new PerRequestOperationFactory();
+
+    private nfs_argop4[] ops;
+
+    @Setup
+    public void setUp() {
+        ops = new nfs_argop4[COMPOUNDS.length];
+        for (int i = 0; i < COMPOUNDS.length; i++) {
+            ops[i] = new nfs_argop4();
+            ops[i].argop = COMPOUNDS[i];
+        }
+    }
+
+    @Benchmark
+    public void sharedHandlers(Blackhole bh) {
+        for (nfs_argop4 op : ops) {
+            bh.consume(shared.getOperation(op));
+        }
+    }
+
+    @Benchmark
+    public void perRequestHandlers(Blackhole bh) {
+        for (nfs_argop4 op : ops) {
+            bh.consume(perRequest.getOperation(op));
+        }
+    }
+
+    /**
+     * Dispatch as done by MDSOperationFactory before handlers became stateless:
+     * a new handler object for every operation of every request.
+     */
+    private static class PerRequestOperationFactory implements NFSv4OperationFactory {
+
+        @Override
+        public AbstractNFSv4Operation getOperation(nfs_argop4 op) {
+            switch (op.argop) {
+                case nfs_opnum4.OP_CLOSE:
+                    return new OperationCLOSE();
+                case nfs_opnum4.OP_GETATTR:
+                    return new OperationGETATTR();
+                case nfs_opnum4.OP_GETFH:
+                    return new OperationGETFH();
+                case nfs_opnum4.OP_LOOKUP:
+                    return new OperationLOOKUP();
+                case nfs_opnum4.OP_OPEN:
+                    return new OperationOPEN();
+                case nfs_opnum4.OP_PUTFH:
+                    return new OperationPUTFH();
+                case nfs_opnum4.OP_READ:
+                    return new OperationREAD();
+                case nfs_opnum4.OP_SEQUENCE:
+                    return new OperationSEQUENCE();
+                case nfs_opnum4.OP_WRITE:
+                    return new OperationWRITE();
+                default:
+                    return new OperationILLEGAL();
+            }
+        }
+    }
+}
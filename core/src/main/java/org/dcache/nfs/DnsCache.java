@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of forward and reverse DNS lookups used by export access checks.
+ * Cached entries are refreshed in the background, thus requests are not
+ * blocked by DNS, except on first lookup of a name or an address.
+ */
+final class DnsCache {
+
+    /**
+     * Time after which cached entry is refreshed.
+     */
+    static final long REFRESH_SECONDS = 60;
+
+    /**
+     * Time after which unused entry is discarded.
+     */
+    private static final long EXPIRE_SECONDS = 10 * 60;
+
+    private static final InetAddress[] NO_ADDRESSES = new InetAddress[0];
+
+    private static final Executor REFRESH_EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("dns-cache-refresh-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private static final LoadingCache<String, InetAddress[]> ADDRESSES = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .refreshAfterWrite(REFRESH_SECONDS, TimeUnit.SECONDS)
+            .expireAfterAccess(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build(CacheLoader.asyncReloading(CacheLoader.from(DnsCache::lookup), REFRESH_EXECUTOR));
+
+    private static final LoadingCache<InetAddress, String> HOST_NAMES = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .refreshAfterWrite(REFRESH_SECONDS, TimeUnit.SECONDS)
+            .expireAfterAccess(EXPIRE_SECONDS, TimeUnit.SECONDS)
+            .build(CacheLoader.asyncReloading(CacheLoader.from(DnsCache::reverseLookup), REFRESH_EXECUTOR));
+
+    private DnsCache() {
+    }
+
+    /**
+     * Get all addresses of the given host.
+     *
+     * @param host host name.
+     * @return array of addresses or empty array if host name can't be resolved.
+     */
+    static InetAddress[] resolve(String host) {
+        return ADDRESSES.getUnchecked(host);
+    }
+
+    /**
+     * Get host name of the given address.
+     *
+     * @param address address to resolve.
+     * @return host name or textual representation of the address if it
+     * can't be resolved.
+     */
+    static String hostNameOf(InetAddress address) {
+        return HOST_NAMES.getUnchecked(address);
+    }
+
+    private static InetAddress[] lookup(String host) {
+        try {
+            return InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            return NO_ADDRESSES;
+        }
+    }
+
+    private static String reverseLookup(InetAddress address) {
+        try {
+            // use a fresh object, as InetAddress keeps once resolved name
+            return InetAddress.getByAddress(address.getAddress()).getHostName();
+        } catch (UnknownHostException e) {
+            return address.getHostAddress();
+        }
+    }
+}
@@ -37,6 +37,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -47,25 +48,30 @@ public class ExportFile {
 
     private static final Logger _log = LoggerFactory.getLogger(ExportFile.class);
 
-    private volatile ImmutableMultimap<Integer,FsExport> _exports;
+    private volatile ExportIndex _exports;
     private final URI _exportFile;
 
+    /**
+     * Listeners notified each time export table is re-loaded.
+     */
+    private final List<Runnable> _reloadListeners = new CopyOnWriteArrayList<>();
+
     public ExportFile(File file) throws IOException {
         this(file.toURI());
     }
 
     public ExportFile(URI uri) throws IOException {
         _exportFile = uri;
-        _exports = parse(uri);
+        _exports = new ExportIndex(parse(uri));
     }
 
     public ExportFile(Reader reader) throws IOException  {
         _exportFile = null;
-        _exports = parse(reader);
+        _exports = new ExportIndex(parse(reader));
     }
 
     public Stream<FsExport> getExports() {
-        return _exports.values().stream();
+        return _exports.getExports().values().stream();
     }
 
     private static ImmutableMultimap<Integer,FsExport> parse(Reader reader) throws IOException {
@@ -246,22 +252,29 @@ public class ExportFile {
     }
 
     public FsExport getExport(int index, InetAddress client) {
-        for (FsExport export : _exports.get(index)) {
-            if (export.isAllowed(client)) {
-                return export;
-            }
-        }
-        return null;
+        return _exports.getExport(index, client);
     }
 
     public Stream<FsExport> exportsFor(InetAddress client) {
-        return _exports.values().stream().filter(e -> e.isAllowed(client));
+        return _exports.exportsFor(client).stream();
     }
 
     public void rescan() throws IOException {
         if (_exportFile == null) {
             throw new IllegalStateException("exports uri not set, rescan impossible");
         }
-        _exports = parse(_exportFile);
+        _exports = new ExportIndex(parse(_exportFile));
+        _reloadListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Register a listener which will be called after export table is re-loaded.
+     * Used by components which keep derived state, like compiled pseudo-fs
+     * trees, to drop the stale data.
+     *
+     * @param listener to call on reload.
+     */
+    public void addReloadListener(Runnable listener) {
+        _reloadListeners.add(listener);
     }
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.dcache.nfs.InetAddressMatcher.IpAddressMatcher;
+import org.dcache.nfs.InetAddressMatcher.RegexpNameMatcher;
+
+/**
+ * Export table compiled for fast access checks. For each export index, the
+ * IP address and network based entries are stored in a binary prefix trie,
+ * thus a client's address is matched against all of them in a single walk.
+ * The host name and wildcard based entries are checked with cached DNS
+ * results.
+ * <p>
+ * The result of access check is remembered per client address. As the index
+ * is built for a specific version of the export table, the remembered results
+ * are dropped with the index on export table reload.
+ */
+class ExportIndex {
+
+    /**
+     * Maximal number of clients to keep access check results for.
+     */
+    private static final int MAX_CLIENTS = 4096;
+
+    private final ImmutableMultimap<Integer, FsExport> _exports;
+    private final List<IndexEntries> _indexes;
+
+    /**
+     * Allowed exports per client. As host names may be re-resolved, the
+     * results are kept only as long as DNS lookups are cached.
+     */
+    private final Cache<InetAddress, ClientExports> _clients = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CLIENTS)
+            .expireAfterWrite(DnsCache.REFRESH_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    ExportIndex(ImmutableMultimap<Integer, FsExport> exports) {
+        _exports = exports;
+        ImmutableList.Builder<IndexEntries> indexes = ImmutableList.builder();
+        exports.asMap().forEach((index, e) -> indexes.add(new IndexEntries(e)));
+        _indexes = indexes.build();
+    }
+
+    ImmutableMultimap<Integer, FsExport> getExports() {
+        return _exports;
+    }
+
+    /**
+     * Get the most specific export with the given index, which is accessible
+     * by the client.
+     *
+     * @return export or null, if client has no access.
+     */
+    FsExport getExport(int index, InetAddress client) {
+        return clientExports(client)._byIndex.get(index);
+    }
+
+    /**
+     * Get all exports accessible by the client. The exports are returned in
+     * the same order as in export table.
+     */
+    List<FsExport> exportsFor(InetAddress client) {
+        return clientExports(client)._allowed;
+    }
+
+    private ClientExports clientExports(InetAddress client) {
+        try {
+            return _clients.get(client, () -> new ClientExports(client));
+        } catch (ExecutionException e) {
+            throw new UncheckedExecutionException(e.getCause());
+        }
+    }
+
+    private class ClientExports {
+
+        private final List<FsExport> _allowed;
+        private final Map<Integer, FsExport> _byIndex = new HashMap<>();
+
+        ClientExports(InetAddress client) {
+            ImmutableList.Builder<FsExport> allowed = ImmutableList.builder();
+            HostNameSupplier hostName = new HostNameSupplier(client);
+            for (IndexEntries index : _indexes) {
+                List<FsExport> exports = index.match(client, hostName);
+                if (!exports.isEmpty()) {
+                    _byIndex.put(exports.get(0).getIndex(), exports.get(0));
+                    allowed.addAll(exports);
+                }
+            }
+            _allowed = allowed.build();
+        }
+    }
+
+    /**
+     * Resolves client's host name only once and only if required.
+     */
+    private static class HostNameSupplier {
+
+        private final InetAddress _address;
+        private String _hostName;
+
+        HostNameSupplier(InetAddress address) {
+            _address = address;
+        }
+
+        String get() {
+            if (_hostName == null) {
+                _hostName = DnsCache.hostNameOf(_address);
+            }
+            return _hostName;
+        }
+    }
+
+    /**
+     * Compiled entries of a single export index.
+     */
+    private static class IndexEntries {
+
+        /**
+         * Exports in the order they are checked, most specific first.
+         */
+        private final FsExport[] _exports;
+        private final PrefixTrie _ipv4 = new PrefixTrie();
+        private final PrefixTrie _ipv6 = new PrefixTrie();
+
+        /**
+         * Positions of the exports, which matched against client's name.
+         */
+        private final int[] _byName;
+
+        IndexEntries(Collection<FsExport> exports) {
+            _exports = exports.toArray(new FsExport[exports.size()]);
+            int[] byName = new int[_exports.length];
+            int byNameCount = 0;
+            for (int i = 0; i < _exports.length; i++) {
+                InetAddressMatcher matcher = _exports[i].getClientMatcher();
+                if (matcher instanceof IpAddressMatcher && ((IpAddressMatcher) matcher).getMask() > 0) {
+                    /*
+                     * Zero mask is left to the matcher to keep existing
+                     * semantic.
+                     */
+                    IpAddressMatcher ipMatcher = (IpAddressMatcher) matcher;
+                    byte[] net = ipMatcher.getNetBytes();
+                    (net.length == 4 ? _ipv4 : _ipv6).add(net, ipMatcher.getMask(), i);
+                } else if (matcher instanceof RegexpNameMatcher && matcher.getPattern().equals(".*")) {
+                    // matches any host
+                    _ipv4.add(new byte[0], 0, i);
+                    _ipv6.add(new byte[0], 0, i);
+                } else {
+                    byName[byNameCount++] = i;
+                }
+            }
+            _byName = Arrays.copyOf(byName, byNameCount);
+        }
+
+        /**
+         * Get all exports accessible by the client, most specific first.
+         */
+        List<FsExport> match(InetAddress client, HostNameSupplier hostName) {
+            byte[] address = client.getAddress();
+            BitSet matches = new BitSet(_exports.length);
+            (address.length == 4 ? _ipv4 : _ipv6).collect(address, matches);
+
+            for (int i : _byName) {
+                InetAddressMatcher matcher = _exports[i].getClientMatcher();
+                boolean isAllowed = matcher instanceof RegexpNameMatcher
+                        ? ((RegexpNameMatcher) matcher).matchHostName(hostName.get())
+                        : matcher.match(client);
+                if (isAllowed) {
+                    matches.set(i);
+                }
+            }
+
+            ImmutableList.Builder<FsExport> allowed = ImmutableList.builder();
+            matches.stream().forEach(i -> allowed.add(_exports[i]));
+            return allowed.build();
+        }
+    }
+
+    /**
+     * Binary trie of network prefixes. Each node keeps positions of the
+     * exports, which network is described by the path to the node.
+     */
+    private static class PrefixTrie {
+
+        private final Node _root = new Node();
+
+        void add(byte[] net, int mask, int position) {
+            Node node = _root;
+            for (int bit = 0; bit < mask; bit++) {
+                int b = bitAt(net, bit);
+                if (node._children[b] == null) {
+                    node._children[b] = new Node();
+                }
+                node = node._children[b];
+            }
+            node.add(position);
+        }
+
+        /**
+         * Collect positions of all networks, which contain given address.
+         */
+        void collect(byte[] address, BitSet matches) {
+            Node node = _root;
+            int bits = address.length * 8;
+            for (int bit = 0; node != null; bit++) {
+                for (int i = 0; i < node._size; i++) {
+                    matches.set(node._positions[i]);
+                }
+                if (bit == bits) {
+                    break;
+                }
+                node = node._children[bitAt(address, bit)];
+            }
+        }
+
+        private static int bitAt(byte[] bytes, int bit) {
+            return (bytes[bit >>> 3] >>> (7 - (bit & 7))) & 1;
+        }
+
+        private static class Node {
+
+            private final Node[] _children = new Node[2];
+            private int[] _positions = new int[0];
+            private int _size;
+
+            void add(int position) {
+                if (_size == _positions.length) {
+                    _positions = Arrays.copyOf(_positions, _size + 1);
+                }
+                _positions[_size++] = position;
+            }
+        }
+    }
+}
@@ -154,6 +154,14 @@ public abstract class InetAddressMatcher implements Predicate<InetAddress> {
             }
             return (ipAsLong0 ^ netAsLong0) >> (IPv6_HALF_MASK - mask) == 0;
         }
+
+        byte[] getNetBytes() {
+            return netBytes;
+        }
+
+        int getMask() {
+            return mask;
+        }
     }
 
     private static String toRegExp(String s) {
@@ -171,7 +179,11 @@ public abstract class InetAddressMatcher implements Predicate<InetAddress> {
 
         @Override
         public boolean apply(InetAddress ip) {
-            return regexpPattern.matcher(ip.getHostName()).matches();
+            return matchHostName(ip.getHostName());
+        }
+
+        boolean matchHostName(String hostName) {
+            return regexpPattern.matcher(hostName).matches();
         }
     }
 
@@ -183,18 +195,12 @@ public abstract class InetAddressMatcher implements Predicate<InetAddress> {
 
         @Override
         public boolean apply(InetAddress ip) {
-            try {
-                // jvm caches DNS results. We are fine to query on each request
-                InetAddress[] addrs = InetAddress.getAllByName(getPattern());
-                for(InetAddress addr: addrs) {
-                    if (addr.equals(ip)) {
-                        return true;
-                    }
+            // resolved addresses are cached and refreshed in the background
+            for (InetAddress addr : DnsCache.resolve(getPattern())) {
+                if (addr.equals(ip)) {
+                    return true;
                 }
-            }catch (UnknownHostException e) {
-                return false;
             }
-
             return false;
         }
     }
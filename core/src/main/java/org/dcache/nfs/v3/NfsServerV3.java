@@ -126,7 +126,9 @@ import org.dcache.nfs.v3.xdr.FSINFO3resfail;
 import org.dcache.nfs.v3.xdr.ACCESS3res;
 import org.dcache.nfs.v3.xdr.COMMIT3resok;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Iterator;
+import java.util.concurrent.Executor;
 
 import org.dcache.nfs.v3.xdr.COMMIT3resfail;
 import org.dcache.nfs.v3.xdr.FSSTAT3resfail;
@@ -138,6 +140,8 @@ import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.dcache.nfs.vfs.Stat;
 import org.dcache.nfs.status.*;
 import org.dcache.utils.Bytes;
+import org.dcache.utils.BufferPool;
+import org.dcache.utils.RequestExecutor;
 import org.dcache.xdr.OncRpcException;
 import org.dcache.xdr.RpcCall;
 import org.slf4j.Logger;
@@ -146,10 +150,14 @@ import org.slf4j.LoggerFactory;
 import static org.dcache.nfs.v3.HimeraNfsUtils.defaultPostOpAttr;
 import static org.dcache.nfs.v3.HimeraNfsUtils.defaultWccData;
 import static org.dcache.nfs.v3.NameUtils.checkFilename;
+import static java.util.Objects.requireNonNull;
 
 import org.dcache.nfs.vfs.FsStat;
 import org.dcache.nfs.vfs.Inode;
 import org.dcache.nfs.vfs.PseudoFs;
+import org.dcache.nfs.vfs.PseudoFsTreeCache;
+import org.dcache.nfs.vfs.AccessCache;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.DirectoryStream;
 
 import javax.security.auth.Subject;
@@ -165,25 +173,113 @@ public class NfsServerV3 extends nfs3_protServerStub {
 
     private final VirtualFileSystem _vfs;
     private final ExportFile _exports;
+    private final PseudoFsTreeCache _pseudoFsTreeCache;
+    private final AccessCache _accessCache;
+    private final BufferPool _bufferPool;
 
-    private final writeverf3 writeVerifier = generateInstanceWriteVerifier();
+    /**
+     * Executor to process requests on or null, if requests are processed by
+     * the thread which have received them.
+     */
+    private final Executor _requestExecutor;
+
+    private final UncommittedWrites _uncommittedWrites;
 
     public NfsServerV3(ExportFile exports, VirtualFileSystem fs) throws OncRpcException, IOException {
+        this(exports, fs, new BufferPool("nfsv3"));
+    }
+
+    public NfsServerV3(ExportFile exports, VirtualFileSystem fs, BufferPool bufferPool) throws OncRpcException, IOException {
+        this(exports, fs, bufferPool, null);
+    }
+
+    /**
+     * Create NFSv3 server.
+     *
+     * @param exports export table.
+     * @param fs file system to export.
+     * @param bufferPool pool of data buffers.
+     * @param requestExecutor executor to process requests on, for example
+     * {@link RequestExecutor#virtualThreads}, or null to process requests by
+     * the receiving thread.
+     */
+    public NfsServerV3(ExportFile exports, VirtualFileSystem fs, BufferPool bufferPool, Executor requestExecutor) throws OncRpcException, IOException {
+        this(exports, fs, bufferPool, requestExecutor, null);
+    }
+
+    /**
+     * Create NFSv3 server.
+     *
+     * @param exports export table.
+     * @param fs file system to export.
+     * @param bufferPool pool of data buffers.
+     * @param requestExecutor executor to process requests on, or null to
+     * process requests by the receiving thread.
+     * @param accessCache cache of granted access, or null to evaluate access
+     * on each request.
+     * @since 0.17
+     */
+    public NfsServerV3(ExportFile exports, VirtualFileSystem fs, BufferPool bufferPool,
+            Executor requestExecutor, AccessCache accessCache) throws OncRpcException, IOException {
+        this(exports, fs, bufferPool, requestExecutor, accessCache,
+                new UncommittedWrites(System.currentTimeMillis(), UncommittedWrites.DEFAULT_MAX_FILES));
+    }
+
+    /**
+     * Create NFSv3 server.
+     *
+     * @param exports export table.
+     * @param fs file system to export.
+     * @param bufferPool pool of data buffers.
+     * @param requestExecutor executor to process requests on, or null to
+     * process requests by the receiving thread.
+     * @param accessCache cache of granted access, or null to evaluate access
+     * on each request.
+     * @param uncommittedWrites tracker of uncommitted writes.
+     * @since 0.17
+     */
+    public NfsServerV3(ExportFile exports, VirtualFileSystem fs, BufferPool bufferPool,
+            Executor requestExecutor, AccessCache accessCache, UncommittedWrites uncommittedWrites)
+            throws OncRpcException, IOException {
         _vfs = fs;
         _exports = exports;
+        _pseudoFsTreeCache = new PseudoFsTreeCache(fs, exports);
+        _accessCache = accessCache;
+        _bufferPool = bufferPool;
+        _requestExecutor = requestExecutor;
+        _uncommittedWrites = requireNonNull(uncommittedWrites);
+    }
+
+    @Override
+    public void dispatchOncRpcCall(RpcCall call) throws OncRpcException, IOException {
+        if (_requestExecutor == null) {
+            super.dispatchOncRpcCall(call);
+            return;
+        }
+
+        _requestExecutor.execute(() -> {
+            try {
+                super.dispatchOncRpcCall(call);
+            } catch (IOException e) {
+                _log.error("Failed to process request: {}", e.getMessage());
+            }
+        });
     }
 
-    private static writeverf3 generateInstanceWriteVerifier() {
+    /*
+     * The verifier changes when uncommitted data could have been lost.
+     */
+    private writeverf3 writeVerifier() {
         writeverf3 verf = new writeverf3();
         verf.value = new byte[nfs3_prot.NFS3_WRITEVERFSIZE];
-        Bytes.putLong(verf.value, 0, System.currentTimeMillis()); //so long as we dont restart within the same millisecond
+        Bytes.putLong(verf.value, 0, _uncommittedWrites.getVerifier());
         return verf;
     }
 
     @Override
     public ACCESS3res NFSPROC3_ACCESS_3(RpcCall call$, ACCESS3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        PseudoFs fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         ACCESS3res res = new ACCESS3res();
         _log.debug("NFS Request ACCESS uid: {}", call$.getCredential());
 
@@ -201,7 +297,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
 
             HimeraNfsUtils.fill_attributes(objStat, res.resok.obj_attributes.attributes);
 
-            int realAccess = fs.access(inode,  arg1.access.value);
+            int realAccess = fs.access(inode, arg1.access.value, objStat);
 
             res.resok.access = new uint32(realAccess);
         } catch (ChimeraNFSException hne) {
@@ -222,7 +318,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public COMMIT3res NFSPROC3_COMMIT_3(RpcCall call$, COMMIT3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         COMMIT3res res = new COMMIT3res();
 
         try {
@@ -230,7 +326,15 @@ public class NfsServerV3 extends nfs3_protServerStub {
             long offset = arg1.offset.value.value;
             int count = arg1.count.value.value;
 
-            fs.commit(inode, offset, count);
+            if (_uncommittedWrites.commitStarted(inode, offset, count)) {
+                boolean success = false;
+                try {
+                    fs.commit(inode, offset, count);
+                    success = true;
+                } finally {
+                    _uncommittedWrites.commitDone(inode, success);
+                }
+            }
 
             res.resok = new COMMIT3resok();
 
@@ -242,7 +346,8 @@ public class NfsServerV3 extends nfs3_protServerStub {
             HimeraNfsUtils.fill_attributes(fs.getattr(inode), res.resok.file_wcc.after.attributes);
             res.resok.file_wcc.before = new pre_op_attr();
             res.resok.file_wcc.before.attributes_follow = false;
-            res.resok.verf = writeVerifier;
+            // taken after the commit, thus reflects data lost in between
+            res.resok.verf = writeVerifier();
 
         } catch (ChimeraNFSException hne) {
             res.status = hne.getStatus();
@@ -262,7 +367,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public CREATE3res NFSPROC3_CREATE_3(RpcCall call$, CREATE3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request CREATE3 uid: {}", call$.getCredential());
 
         CREATE3res res = new CREATE3res();
@@ -354,7 +459,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public FSINFO3res NFSPROC3_FSINFO_3(RpcCall call$, FSINFO3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request FSINFO from: {}", call$.getCredential());
 
         FSINFO3res res = new FSINFO3res();
@@ -411,7 +516,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public FSSTAT3res NFSPROC3_FSSTAT_3(RpcCall call$, FSSTAT3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         FSSTAT3res res = new FSSTAT3res();
 
         try {
@@ -452,7 +557,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public GETATTR3res NFSPROC3_GETATTR_3(RpcCall call$, GETATTR3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request GETTATTR3 uid: {}", call$.getCredential());
 
         GETATTR3res res = new GETATTR3res();
@@ -480,7 +585,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public LINK3res NFSPROC3_LINK_3(RpcCall call$, LINK3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request LINK3 uid: {}", call$.getCredential());
 
         LINK3res res = new LINK3res();
@@ -535,7 +640,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public LOOKUP3res NFSPROC3_LOOKUP_3(RpcCall call$, LOOKUP3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         LOOKUP3res res = new LOOKUP3res();
 
         try {
@@ -583,7 +688,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public MKDIR3res NFSPROC3_MKDIR_3(RpcCall call$, MKDIR3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request MKDIR3 uid: {}", call$.getCredential());
 
         MKDIR3res res = new MKDIR3res();
@@ -696,7 +801,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public READDIRPLUS3res NFSPROC3_READDIRPLUS_3(RpcCall call$, READDIRPLUS3args arg1) {
 
-        final VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        final VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request READDIRPLUS3 uid: {}", call$.getCredential());
 
         READDIRPLUS3res res = new READDIRPLUS3res();
@@ -791,6 +896,13 @@ public class NfsServerV3 extends nfs3_protServerStub {
             res.resfail = new READDIRPLUS3resfail();
             res.resfail.dir_attributes = defaultPostOpAttr();
             res.status = hne.getStatus();
+        } catch (UncheckedIOException e) {
+            // streaming directory listing failed
+            _log.debug("READDIRPLUS3 status: {}", e.getCause().toString());
+            res.resfail = new READDIRPLUS3resfail();
+            res.resfail.dir_attributes = defaultPostOpAttr();
+            res.status = e.getCause() instanceof ChimeraNFSException
+                    ? ((ChimeraNFSException) e.getCause()).getStatus() : nfsstat.NFSERR_IO;
         } catch (Exception e) {
             _log.error("READDIRPLUS3", e);
             res.status = nfsstat.NFSERR_SERVERFAULT;
@@ -804,7 +916,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public READDIR3res NFSPROC3_READDIR_3(RpcCall call$, READDIR3args arg1) {
 
-        final VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        final VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request READDIR3 uid: {}", call$.getCredential());
 
         READDIR3res res = new READDIR3res();
@@ -884,6 +996,13 @@ public class NfsServerV3 extends nfs3_protServerStub {
             res.resfail = new READDIR3resfail();
             res.resfail.dir_attributes = defaultPostOpAttr();
             res.status = hne.getStatus();
+        } catch (UncheckedIOException e) {
+            // streaming directory listing failed
+            _log.debug("READDIR status: {}", e.getCause().toString());
+            res.resfail = new READDIR3resfail();
+            res.resfail.dir_attributes = defaultPostOpAttr();
+            res.status = e.getCause() instanceof ChimeraNFSException
+                    ? ((ChimeraNFSException) e.getCause()).getStatus() : nfsstat.NFSERR_IO;
         } catch (Exception e) {
             _log.error("READDIR", e);
             res.status = nfsstat.NFSERR_SERVERFAULT;
@@ -897,7 +1016,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public READLINK3res NFSPROC3_READLINK_3(RpcCall call$, READLINK3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         READLINK3res res = new READLINK3res();
 
 
@@ -933,7 +1052,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public READ3res NFSPROC3_READ_3(RpcCall call$, READ3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         READ3res res = new READ3res();
 
         try {
@@ -944,22 +1063,17 @@ public class NfsServerV3 extends nfs3_protServerStub {
             Stat inodeStat = fs.getattr(inode);
 
             res.resok = new READ3resok();
-            res.resok.data = new byte[count];
+            res.buffer = _bufferPool.allocate(count);
+            res.resok.data = res.buffer.buffer();
 
             res.resok.count = new count3();
             res.resok.count.value = new uint32();
 
-            byte[] b = new byte[count];
-            res.resok.count.value.value = fs.read(inode, b, offset, count);
+            res.resok.count.value.value = fs.read(inode, res.resok.data, offset);
             if (res.resok.count.value.value < 0) {
                 throw new NfsIoException("IO not allowed");
             }
-            if (res.resok.count.value.value == count) {
-                res.resok.data = b;
-            } else {
-                res.resok.data = new byte[res.resok.count.value.value];
-                System.arraycopy(b, 0, res.resok.data, 0, res.resok.count.value.value);
-            }
+            res.resok.data.flip();
 
             if (res.resok.count.value.value + offset == inodeStat.getSize()) {
                 res.resok.eof = true;
@@ -987,7 +1101,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public REMOVE3res NFSPROC3_REMOVE_3(RpcCall call$, REMOVE3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request REMOVE3 uid: {}", call$.getCredential());
 
         REMOVE3res res = new REMOVE3res();
@@ -1041,7 +1155,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public RENAME3res NFSPROC3_RENAME_3(RpcCall call$, RENAME3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request RENAME3 uid: {}", call$.getCredential());
 
         RENAME3res res = new RENAME3res();
@@ -1098,7 +1212,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public RMDIR3res NFSPROC3_RMDIR_3(RpcCall call$, RMDIR3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request RMDIR3 uid: {}", call$.getCredential());
 
         RMDIR3res res = new RMDIR3res();
@@ -1149,7 +1263,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public SETATTR3res NFSPROC3_SETATTR_3(RpcCall call$, SETATTR3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request SETATTR3 uid: {}", call$.getCredential());
 
         SETATTR3res res = new SETATTR3res();
@@ -1188,7 +1302,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public SYMLINK3res NFSPROC3_SYMLINK_3(RpcCall call$, SYMLINK3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         _log.debug("NFS Request SYMLINK3 uid: {}", call$.getCredential());
 
         SYMLINK3res res = new SYMLINK3res();
@@ -1253,7 +1367,7 @@ public class NfsServerV3 extends nfs3_protServerStub {
     @Override
     public WRITE3res NFSPROC3_WRITE_3(RpcCall call$, WRITE3args arg1) {
 
-        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports);
+        VirtualFileSystem fs = new PseudoFs(_vfs, call$, _exports, _pseudoFsTreeCache, _accessCache);
         WRITE3res res = new WRITE3res();
 
         try {
@@ -1264,12 +1378,28 @@ public class NfsServerV3 extends nfs3_protServerStub {
             res.resok = new WRITE3resok();
             res.status = nfsstat.NFS_OK;
 
-            VirtualFileSystem.StabilityLevel requiredStabilityLevel = VirtualFileSystem.StabilityLevel.fromStableHow(arg1.stable);
-            VirtualFileSystem.WriteResult ret = fs.write(inode, arg1.data, offset, count, requiredStabilityLevel);
+            VirtualFileSystem.StabilityLevel requiredStabilityLevel = _uncommittedWrites.stabilityFor(inode,
+                    VirtualFileSystem.StabilityLevel.fromStableHow(arg1.stable));
+            if (count > arg1.data.remaining()) {
+                throw new InvalException("data length less than count");
+            }
+            arg1.data.limit(arg1.data.position() + count);
+
+            // taken before the write, thus lost data is detected on COMMIT
+            writeverf3 verifier = writeVerifier();
+            VirtualFileSystem.WriteResult ret = fs.write(inode, arg1.data, offset, requiredStabilityLevel);
             if (ret.getBytesWritten() < 0) {
                 throw new NfsIoException("IO not allowed");
             }
 
+            VirtualFileSystem.StabilityLevel stabilityLevel = ret.getStabilityLevel();
+            if (stabilityLevel.compareTo(requiredStabilityLevel) < 0) {
+                // the backend didn't provide requested stability, commit explicitly
+                fs.commit(inode, offset, ret.getBytesWritten());
+                stabilityLevel = requiredStabilityLevel;
+            }
+            _uncommittedWrites.written(inode, offset, ret.getBytesWritten(), stabilityLevel);
+
             res.resok.count = new count3(new uint32(ret.getBytesWritten()));
             res.resok.file_wcc = new wcc_data();
             res.resok.file_wcc.after = new post_op_attr();
@@ -1279,8 +1409,8 @@ public class NfsServerV3 extends nfs3_protServerStub {
             HimeraNfsUtils.fill_attributes(fs.getattr(inode), res.resok.file_wcc.after.attributes);
             res.resok.file_wcc.before = new pre_op_attr();
             res.resok.file_wcc.before.attributes_follow = false;
-            res.resok.committed = ret.getStabilityLevel().toStableHow();
-            res.resok.verf = writeVerifier;
+            res.resok.committed = stabilityLevel.toStableHow();
+            res.resok.verf = verifier;
         } catch (ChimeraNFSException hne) {
             res.status = hne.getStatus();
             res.resfail = new WRITE3resfail();
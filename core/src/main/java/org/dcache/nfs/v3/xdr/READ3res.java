@@ -21,12 +21,19 @@ package org.dcache.nfs.v3.xdr;
 import org.dcache.xdr.*;
 import java.io.IOException;
 import org.dcache.nfs.nfsstat;
+import org.dcache.utils.PooledBuffer;
 
 public class READ3res implements XdrAble {
     public int status;
     public READ3resok resok;
     public READ3resfail resfail;
 
+    /**
+     * Pooled buffer referenced by the result or null. Released as soon as
+     * the reply is sent. Not a part of XDR encoding.
+     */
+    public PooledBuffer buffer;
+
     public READ3res() {
     }
 
@@ -20,12 +20,13 @@
 package org.dcache.nfs.v3.xdr;
 import org.dcache.xdr.*;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class READ3resok implements XdrAble {
     public post_op_attr file_attributes;
     public count3 count;
     public boolean eof;
-    public byte [] data;
+    public ByteBuffer data;
 
     public READ3resok() {
     }
@@ -40,7 +41,14 @@ public class READ3resok implements XdrAble {
         file_attributes.xdrEncode(xdr);
         count.xdrEncode(xdr);
         xdr.xdrEncodeBoolean(eof);
-        xdr.xdrEncodeDynamicOpaque(data);
+        /*
+         * the data is between position and limit. As the buffer is flipped
+         * on encoding, a view positioned at the end of the data is passed,
+         * thus the message can be encoded multiple times.
+         */
+        ByteBuffer bytes = data.slice();
+        bytes.position(bytes.limit());
+        xdr.xdrEncodeByteBuffer(bytes);
     }
 
     public void xdrDecode(XdrDecodingStream xdr)
@@ -48,7 +56,7 @@ public class READ3resok implements XdrAble {
         file_attributes = new post_op_attr(xdr);
         count = new count3(xdr);
         eof = xdr.xdrDecodeBoolean();
-        data = xdr.xdrDecodeDynamicOpaque();
+        data = xdr.xdrDecodeByteBuffer();
     }
 
 }
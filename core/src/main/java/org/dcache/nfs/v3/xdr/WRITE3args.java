@@ -20,13 +20,14 @@
 package org.dcache.nfs.v3.xdr;
 import org.dcache.xdr.*;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class WRITE3args implements XdrAble {
     public nfs_fh3 file;
     public offset3 offset;
     public count3 count;
     public int stable;
-    public byte [] data;
+    public ByteBuffer data;
 
     public WRITE3args() {
     }
@@ -42,7 +43,14 @@ public class WRITE3args implements XdrAble {
         offset.xdrEncode(xdr);
         count.xdrEncode(xdr);
         xdr.xdrEncodeInt(stable);
-        xdr.xdrEncodeDynamicOpaque(data);
+        /*
+         * the data is between position and limit. As the buffer is flipped
+         * on encoding, a view positioned at the end of the data is passed,
+         * thus the message can be encoded multiple times.
+         */
+        ByteBuffer bytes = data.slice();
+        bytes.position(bytes.limit());
+        xdr.xdrEncodeByteBuffer(bytes);
     }
 
     public void xdrDecode(XdrDecodingStream xdr)
@@ -51,7 +59,7 @@ public class WRITE3args implements XdrAble {
         offset = new offset3(xdr);
         count = new count3(xdr);
         stable = xdr.xdrDecodeInt();
-        data = xdr.xdrDecodeDynamicOpaque();
+        data = xdr.xdrDecodeByteBuffer();
     }
 
 }
@@ -81,7 +81,13 @@ public abstract class nfs3_protServerStub implements RpcDispatchable {
                 READ3args args$ = new READ3args();
                 call.retrieveCall(args$);
                 READ3res result$ = NFSPROC3_READ_3(call, args$);
-                call.reply(result$);
+                try {
+                    call.reply(result$);
+                } finally {
+                    if (result$.buffer != null) {
+                        result$.buffer.release();
+                    }
+                }
                 break;
             }
             case 7: {
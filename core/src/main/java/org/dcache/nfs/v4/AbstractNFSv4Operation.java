@@ -19,10 +19,14 @@
  */
 package org.dcache.nfs.v4;
 
+import com.google.common.base.Throwables;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
+import org.dcache.nfs.vfs.AsyncIo;
 import org.dcache.xdr.OncRpcException;
 
 /**
@@ -32,16 +36,73 @@ import org.dcache.xdr.OncRpcException;
  */
 public abstract class AbstractNFSv4Operation {
 
-    protected final nfs_argop4 _args;
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
 
-    public AbstractNFSv4Operation(nfs_argop4 args, int opCode) {
-        _args = args;
+    private final int _opCode;
+
+    /**
+     * Create a new operation handler. Handlers do not keep any per-request
+     * state and a single instance is used to process all requests of the
+     * given type.
+     *
+     * @param opCode operation number handled by this object.
+     */
+    public AbstractNFSv4Operation(int opCode) {
+        _opCode = opCode;
+    }
+
+    /**
+     * Get operation number handled by this object.
+     * @return operation number.
+     */
+    public int getOpCode() {
+        return _opCode;
     }
 
     /**
      * Process current operation.
-     * @return result of operation
+     * @param context compound context
+     * @param args operation arguments
+     * @param result result of operation
      */
-    public abstract void  process(CompoundContext context, nfs_resop4 result)
+    public abstract void  process(CompoundContext context, nfs_argop4 args, nfs_resop4 result)
             throws ChimeraNFSException, IOException, OncRpcException;
+
+    /**
+     * Process current operation asynchronously. The compound processing is
+     * suspended until returned future is completed. Errors are reported by
+     * completing the future exceptionally. The default implementation calls
+     * {@link #process} and returns already completed future.
+     *
+     * @param context compound context
+     * @param args operation arguments
+     * @param result result of operation
+     * @return future completed when {@code result} is filled.
+     */
+    public CompletableFuture<Void> processAsync(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
+        try {
+            process(context, args, result);
+            return DONE;
+        } catch (IOException | RuntimeException e) {
+            return AsyncIo.failed(e);
+        }
+    }
+
+    /**
+     * Wait for completion of asynchronous processing. Used by operations,
+     * which implement {@link #process} on top of {@link #processAsync}.
+     *
+     * @param future future to wait for.
+     */
+    protected static void await(CompletableFuture<?> future)
+            throws ChimeraNFSException, IOException, OncRpcException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable t = AsyncIo.unwrap(e);
+            Throwables.throwIfInstanceOf(t, IOException.class);
+            Throwables.throwIfUnchecked(t);
+            throw new RuntimeException(t);
+        }
+    }
 }
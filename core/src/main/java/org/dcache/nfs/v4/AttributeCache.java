@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.TimeUnit;
+import org.dcache.nfs.v4.xdr.attrlist4;
+import org.dcache.nfs.v4.xdr.bitmap4;
+import org.dcache.nfs.v4.xdr.fattr4;
+import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.Stat;
+import org.dcache.utils.GuavaCacheMXBeanImpl;
+
+/**
+ * A cache of XDR encoded file attributes. The entries are stored per inode
+ * and requested attribute set. An entry is used only as long as the file's
+ * change id and timestamps match the values used to encode it. Owner and
+ * group names are cached as well, thus mapping changes become visible
+ * after the entry expires.
+ * <p>
+ * The cache is useful for read-mostly workloads, where the same files
+ * are queried by many clients.
+ *
+ * @since 0.17
+ */
+public class AttributeCache {
+
+    private final Cache<Key, Entry> _cache;
+
+    /**
+     * Create a new attribute cache.
+     *
+     * @param maxEntries maximal number of cached entries.
+     * @param lifeTime maximal time to keep an entry.
+     * @param timeUnit time unit of {@code lifeTime}.
+     */
+    public AttributeCache(int maxEntries, long lifeTime, TimeUnit timeUnit) {
+        _cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(lifeTime, timeUnit)
+                .recordStats()
+                .build();
+        new GuavaCacheMXBeanImpl("nfsv4-attributes", _cache);
+    }
+
+    /**
+     * Get cached attributes, if entry exists and still valid for the given
+     * file attributes.
+     *
+     * @return encoded attributes or null.
+     */
+    fattr4 get(Inode inode, AttributeEncoder encoder, Stat stat) {
+        if (!hasChangeAttributes(stat)) {
+            return null;
+        }
+
+        Entry entry = _cache.getIfPresent(new Key(inode, encoder));
+        if (entry == null || !entry.isValidFor(stat)) {
+            return null;
+        }
+
+        /*
+         * fattr4 is mutable, thus each request gets it's own instance. The
+         * attribute values are shared and never modified.
+         */
+        fattr4 attributes = new fattr4();
+        attributes.attrmask = entry._attrmask;
+        attributes.attr_vals = entry._attrVals;
+        return attributes;
+    }
+
+    void put(Inode inode, AttributeEncoder encoder, Stat stat, fattr4 attributes) {
+        if (!hasChangeAttributes(stat)) {
+            return;
+        }
+        _cache.put(new Key(inode, encoder), new Entry(stat, attributes));
+    }
+
+    /**
+     * Discard all cached entries.
+     */
+    public void invalidateAll() {
+        _cache.invalidateAll();
+    }
+
+    /**
+     * Returns true if all attributes used to validate an entry are defined.
+     */
+    private static boolean hasChangeAttributes(Stat stat) {
+        return stat.isDefined(Stat.StatAttribute.GENERATION)
+                && stat.isDefined(Stat.StatAttribute.SIZE)
+                && stat.isDefined(Stat.StatAttribute.ATIME)
+                && stat.isDefined(Stat.StatAttribute.MTIME)
+                && stat.isDefined(Stat.StatAttribute.CTIME);
+    }
+
+    private static class Key {
+
+        private final Inode _inode;
+        private final AttributeEncoder _encoder;
+
+        Key(Inode inode, AttributeEncoder encoder) {
+            _inode = inode;
+            _encoder = encoder;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return _encoder == other._encoder && _inode.equals(other._inode);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * _inode.hashCode() + System.identityHashCode(_encoder);
+        }
+    }
+
+    private static class Entry {
+
+        private final long _generation;
+        private final long _size;
+        private final long _atime;
+        private final long _mtime;
+        private final long _ctime;
+        private final bitmap4 _attrmask;
+        private final attrlist4 _attrVals;
+
+        Entry(Stat stat, fattr4 attributes) {
+            _generation = stat.getGeneration();
+            _size = stat.getSize();
+            _atime = stat.getATime();
+            _mtime = stat.getMTime();
+            _ctime = stat.getCTime();
+            _attrmask = attributes.attrmask;
+            _attrVals = attributes.attr_vals;
+        }
+
+        boolean isValidFor(Stat stat) {
+            return _generation == stat.getGeneration()
+                    && _size == stat.getSize()
+                    && _atime == stat.getATime()
+                    && _mtime == stat.getMTime()
+                    && _ctime == stat.getCTime();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.dcache.nfs.v4.xdr.attrlist4;
+import org.dcache.nfs.v4.xdr.bitmap4;
+import org.dcache.nfs.v4.xdr.fattr4;
+import org.dcache.nfs.v4.xdr.fattr4_acl;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.dcache.nfs.v4.xdr.nfsace4;
+import org.dcache.nfs.vfs.FsStat;
+import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.Stat;
+import org.dcache.nfs.vfs.VirtualFileSystem;
+import org.dcache.xdr.OncRpcException;
+import org.dcache.xdr.XdrAble;
+import org.dcache.xdr.XdrBuffer;
+import org.dcache.xdr.XdrEncodingStream;
+import org.glassfish.grizzly.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compiled plan to encode a requested set of file attributes. The plan is
+ * created once per distinct attribute bitmap and re-used for all requests
+ * with the same bitmap. Frequently requested attributes are written directly
+ * into XDR stream without creating intermediate objects, all other
+ * attributes are encoded by {@link OperationGETATTR#fattr2xdr}.
+ */
+final class AttributeEncoder {
+
+    private static final Logger _log = LoggerFactory.getLogger(AttributeEncoder.class);
+
+    /**
+     * Maximal number of compiled plans to keep. Clients use only a handful of
+     * distinct bitmaps, thus the limit protects against misbehaving clients only.
+     */
+    private static final int MAX_PLANS = 1024;
+
+    private static final ConcurrentMap<bitmap4, AttributeEncoder> PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Requested attributes in encoding order.
+     */
+    private final int[] _attrs;
+
+    /**
+     * Whatever encoded attributes depend only on the file's {@link Stat}.
+     */
+    private final boolean _cacheable;
+
+    /**
+     * Whatever file's access control list is requested.
+     */
+    private final boolean _needsAcl;
+
+    /**
+     * Whatever file system statistics are requested.
+     */
+    private final boolean _needsFsStat;
+
+    /**
+     * Initial size of encoding buffer.
+     */
+    private final int _sizeHint;
+
+    private AttributeEncoder(bitmap4 bitmap) {
+
+        int n = 0;
+        for (int attr : bitmap) {
+            n++;
+        }
+
+        _attrs = new int[n];
+        int i = 0;
+        boolean cacheable = true;
+        for (int attr : bitmap) {
+            _attrs[i++] = attr;
+            cacheable &= isStatOnly(attr);
+        }
+        _cacheable = cacheable;
+        _needsAcl = bitmap.isSet(nfs4_prot.FATTR4_ACL);
+        _needsFsStat = bitmap.isSet(nfs4_prot.FATTR4_FILES_AVAIL)
+                || bitmap.isSet(nfs4_prot.FATTR4_FILES_FREE)
+                || bitmap.isSet(nfs4_prot.FATTR4_FILES_TOTAL)
+                || bitmap.isSet(nfs4_prot.FATTR4_SPACE_AVAIL)
+                || bitmap.isSet(nfs4_prot.FATTR4_SPACE_FREE)
+                || bitmap.isSet(nfs4_prot.FATTR4_SPACE_TOTAL);
+        // all attributes, except strings and arrays, fit into 16 bytes
+        _sizeHint = Math.max(64, n * 16);
+    }
+
+    /**
+     * Get encoder for requested attributes.
+     *
+     * @param bitmap requested attributes.
+     * @return encoder for the given bitmap.
+     */
+    static AttributeEncoder forBitmap(bitmap4 bitmap) {
+        AttributeEncoder encoder = PLANS.get(bitmap);
+        if (encoder == null) {
+            encoder = new AttributeEncoder(bitmap);
+            if (PLANS.size() < MAX_PLANS) {
+                // keep a copy, as request's bitmap may be modified
+                AttributeEncoder other = PLANS.putIfAbsent(new bitmap4(bitmap.value.clone()), encoder);
+                if (other != null) {
+                    encoder = other;
+                }
+            }
+        }
+        return encoder;
+    }
+
+    /**
+     * Returns true if result of encoding depends only on file's attributes
+     * and thus can be cached.
+     */
+    boolean isCacheable() {
+        return _cacheable;
+    }
+
+    /**
+     * Returns true if file's access control list is requested.
+     */
+    boolean needsAcl() {
+        return _needsAcl;
+    }
+
+    /**
+     * Returns true if file system statistics are requested.
+     */
+    boolean needsFsStat() {
+        return _needsFsStat;
+    }
+
+    /**
+     * Returns expected size of encoded attributes in bytes.
+     */
+    int sizeHint() {
+        return _sizeHint;
+    }
+
+    /**
+     * Encode file attributes. The encoded attributes are taken from the
+     * compound's {@link AttributeCache}, if available.
+     *
+     * @param fs file system to use.
+     * @param inode file's inode.
+     * @param stat file's attributes.
+     * @param context compound context of the request.
+     * @return encoded attributes.
+     */
+    fattr4 encode(VirtualFileSystem fs, Inode inode, Stat stat, CompoundContext context)
+            throws IOException, OncRpcException {
+        return encode(fs, inode, stat, null, null, context.getFs().getIdMapper(), context);
+    }
+
+    /**
+     * Encode file attributes using already known values. Used when attributes
+     * of multiple files are encoded at once.
+     *
+     * @param fs file system to use.
+     * @param inode file's inode.
+     * @param stat file's attributes.
+     * @param acl file's access control list or null, if not known.
+     * @param fsStat file system statistics or null, if not known.
+     * @param idMapper id mapping to use for owner and group.
+     * @param context compound context of the request.
+     * @return encoded attributes.
+     */
+    fattr4 encode(VirtualFileSystem fs, Inode inode, Stat stat, nfsace4[] acl, FsStat fsStat,
+            NfsIdMapping idMapper, CompoundContext context) throws IOException, OncRpcException {
+
+        Optional<AttributeCache> attributeCache = context.getAttributeCache();
+        if (!_cacheable || !attributeCache.isPresent()) {
+            return doEncode(fs, inode, stat, acl, fsStat, idMapper, context);
+        }
+
+        fattr4 attributes = attributeCache.get().get(inode, this, stat);
+        if (attributes == null) {
+            attributes = doEncode(fs, inode, stat, acl, fsStat, idMapper, context);
+            attributeCache.get().put(inode, this, stat, attributes);
+        }
+        return attributes;
+    }
+
+    private fattr4 doEncode(VirtualFileSystem fs, Inode inode, Stat stat, nfsace4[] acl, FsStat fsStat,
+            NfsIdMapping idMapper, CompoundContext context) throws IOException, OncRpcException {
+
+        /*
+         * bitmap we send back. can't be uninitialized.
+         */
+        bitmap4 processedAttributes = new bitmap4(new int[0]);
+
+        XdrBuffer xdr = new XdrBuffer(_sizeHint);
+        xdr.beginEncoding();
+
+        for (int attr : _attrs) {
+            switch (attr) {
+                case nfs4_prot.FATTR4_TYPE:
+                    xdr.xdrEncodeInt(OperationGETATTR.unixType2NFS(stat.getMode()));
+                    break;
+                case nfs4_prot.FATTR4_CHANGE:
+                    xdr.xdrEncodeLong(stat.getGeneration());
+                    break;
+                case nfs4_prot.FATTR4_SIZE:
+                case nfs4_prot.FATTR4_SPACE_USED:
+                    xdr.xdrEncodeLong(stat.getSize());
+                    break;
+                case nfs4_prot.FATTR4_FSID:
+                    xdr.xdrEncodeLong(17);
+                    xdr.xdrEncodeLong(17);
+                    break;
+                case nfs4_prot.FATTR4_FILEID:
+                    xdr.xdrEncodeLong(stat.getFileId());
+                    break;
+                case nfs4_prot.FATTR4_MOUNTED_ON_FILEID:
+                    xdr.xdrEncodeLong(OperationGETATTR.mountedOnFileid(stat));
+                    break;
+                case nfs4_prot.FATTR4_MODE:
+                    xdr.xdrEncodeInt(stat.getMode() & 07777);
+                    break;
+                case nfs4_prot.FATTR4_NUMLINKS:
+                    xdr.xdrEncodeInt(stat.getNlink());
+                    break;
+                case nfs4_prot.FATTR4_OWNER:
+                    encodeString(xdr, idMapper.uidToPrincipal(stat.getUid()));
+                    break;
+                case nfs4_prot.FATTR4_OWNER_GROUP:
+                    encodeString(xdr, idMapper.gidToPrincipal(stat.getGid()));
+                    break;
+                case nfs4_prot.FATTR4_RAWDEV:
+                    xdr.xdrEncodeInt(0);
+                    xdr.xdrEncodeInt(0);
+                    break;
+                case nfs4_prot.FATTR4_TIME_ACCESS:
+                    encodeTime(xdr, stat.getATime());
+                    break;
+                case nfs4_prot.FATTR4_TIME_CREATE:
+                case nfs4_prot.FATTR4_TIME_METADATA:
+                    encodeTime(xdr, stat.getCTime());
+                    break;
+                case nfs4_prot.FATTR4_TIME_MODIFY:
+                    encodeTime(xdr, stat.getMTime());
+                    break;
+                case nfs4_prot.FATTR4_ACL:
+                    if (acl == null) {
+                        acl = context.getFs().getAcl(inode);
+                    }
+                    new fattr4_acl(acl).xdrEncode(xdr);
+                    break;
+                case nfs4_prot.FATTR4_FILES_AVAIL:
+                case nfs4_prot.FATTR4_FILES_FREE:
+                    fsStat = fsStat == null ? fs.getFsStat() : fsStat;
+                    xdr.xdrEncodeLong(fsStat.getTotalFiles() - fsStat.getUsedFiles());
+                    break;
+                case nfs4_prot.FATTR4_FILES_TOTAL:
+                    fsStat = fsStat == null ? fs.getFsStat() : fsStat;
+                    xdr.xdrEncodeLong(fsStat.getTotalFiles());
+                    break;
+                case nfs4_prot.FATTR4_SPACE_AVAIL:
+                case nfs4_prot.FATTR4_SPACE_FREE:
+                    fsStat = fsStat == null ? fs.getFsStat() : fsStat;
+                    xdr.xdrEncodeLong(fsStat.getTotalSpace() - fsStat.getUsedSpace());
+                    break;
+                case nfs4_prot.FATTR4_SPACE_TOTAL:
+                    fsStat = fsStat == null ? fs.getFsStat() : fsStat;
+                    xdr.xdrEncodeLong(fsStat.getTotalSpace());
+                    break;
+                default:
+                    Optional<? extends XdrAble> optionalAttr = OperationGETATTR.fattr2xdr(attr, fs, inode, stat, context);
+                    if (!optionalAttr.isPresent()) {
+                        if (_log.isDebugEnabled()) {
+                            _log.debug("   getAttributes : {} ({}) NOT SUPPORTED.", attr, OperationGETATTR.attrMask2String(attr));
+                        }
+                        continue;
+                    }
+                    optionalAttr.get().xdrEncode(xdr);
+            }
+            processedAttributes.set(attr);
+        }
+
+        xdr.endEncoding();
+        Buffer body = xdr.asBuffer();
+        byte[] retBytes = new byte[body.remaining()];
+        body.get(retBytes);
+
+        fattr4 attributes = new fattr4();
+        attributes.attrmask = processedAttributes;
+        attributes.attr_vals = new attrlist4(retBytes);
+
+        return attributes;
+    }
+
+    private static void encodeString(XdrEncodingStream xdr, String s) throws OncRpcException, IOException {
+        xdr.xdrEncodeDynamicOpaque(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Encode time in milliseconds as nfstime4.
+     */
+    private static void encodeTime(XdrEncodingStream xdr, long millis) throws OncRpcException, IOException {
+        xdr.xdrEncodeLong(millis / 1000);
+        xdr.xdrEncodeInt((int) ((millis % 1000) * 1000000));
+    }
+
+    /**
+     * Returns true, if attribute value depends only on the file's {@link Stat},
+     * inode or is a constant.
+     */
+    private static boolean isStatOnly(int attr) {
+        switch (attr) {
+            case nfs4_prot.FATTR4_SUPPORTED_ATTRS:
+            case nfs4_prot.FATTR4_ACL:
+            case nfs4_prot.FATTR4_FILES_AVAIL:
+            case nfs4_prot.FATTR4_FILES_FREE:
+            case nfs4_prot.FATTR4_FILES_TOTAL:
+            case nfs4_prot.FATTR4_SPACE_AVAIL:
+            case nfs4_prot.FATTR4_SPACE_FREE:
+            case nfs4_prot.FATTR4_SPACE_TOTAL:
+            case nfs4_prot.FATTR4_FS_LAYOUT_TYPES:
+                return false;
+            default:
+                return true;
+        }
+    }
+}
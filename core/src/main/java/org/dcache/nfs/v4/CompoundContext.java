@@ -28,6 +28,9 @@ import org.dcache.xdr.RpcCall;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -43,7 +46,10 @@ import org.dcache.nfs.v4.xdr.server_owner4;
 import org.dcache.nfs.v4.xdr.stateid4;
 import org.dcache.nfs.v4.xdr.uint64_t;
 import org.dcache.nfs.v4.xdr.verifier4;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.VirtualFileSystem;
+import org.dcache.utils.BufferPool;
+import org.dcache.utils.PooledBuffer;
 import org.dcache.utils.net.InetSocketAddresses;
 import org.dcache.xdr.RpcAuthType;
 
@@ -96,6 +102,15 @@ public class CompoundContext {
     private final LockManager _nlm;
     private final int _exchangeIdFlags;
     private final verifier4 _rebootVerifier;
+    private final BufferPool _bufferPool;
+    private final Optional<AttributeCache> _attributeCache;
+    private final Optional<UncommittedWrites> _uncommittedWrites;
+
+    /**
+     * Buffers allocated while processing the compound. Released as soon as
+     * the reply is sent.
+     */
+    private List<PooledBuffer> _buffers = Collections.emptyList();
 
     /**
      * Create context of COUMPOUND request.
@@ -103,18 +118,35 @@ public class CompoundContext {
      * @param builder to build this {@code CompoundContext}
      */
     public CompoundContext(CompoundContextBuilder builder) {
-        _minorversion = builder.getMinorversion();
-        _fs = builder.getFs();
-        _deviceManager = Optional.ofNullable(builder.getDeviceManager());
-        _callInfo = builder.getCall();
-        _exportFile = builder.getExportFile();
-        _stateHandler = builder.getStateHandler();
-        _nlm = builder.getLm();
+        this(builder, builder.getCall(), builder.getMinorversion(), builder.getFs());
+    }
+
+    /**
+     * Create context of COUMPOUND request. The server wide settings are taken
+     * from the provided {@code template}, which allows to re-use a single,
+     * pre-configured builder for all requests.
+     *
+     * @param template builder with server wide settings.
+     * @param call rpc call of the request.
+     * @param minorversion NFSv4 minor version of the request.
+     * @param fs file system to be used by the request.
+     */
+    CompoundContext(CompoundContextBuilder template, RpcCall call, int minorversion, VirtualFileSystem fs) {
+        _minorversion = minorversion;
+        _fs = fs;
+        _deviceManager = Optional.ofNullable(template.getDeviceManager());
+        _callInfo = call;
+        _exportFile = template.getExportFile();
+        _stateHandler = template.getStateHandler();
+        _nlm = template.getLm();
 
         _subject = _callInfo.getCredential().getSubject();
         _principal = principalOf(_callInfo);
-        _exchangeIdFlags = builder.getExchangeIdFlags();
-        _rebootVerifier = builder.getRebootVerifier();
+        _exchangeIdFlags = template.getExchangeIdFlags();
+        _rebootVerifier = template.getRebootVerifier();
+        _bufferPool = template.getBufferPool();
+        _attributeCache = Optional.ofNullable(template.getAttributeCache());
+        _uncommittedWrites = Optional.ofNullable(template.getUncommittedWrites());
     }
 
     public RpcCall getRpcCall() {
@@ -125,6 +157,13 @@ public class CompoundContext {
         return _subject;
     }
 
+    /**
+     * Get file system to be used by the operations of this compound. File
+     * attributes returned by the server's file system are re-used by all
+     * operations of the compound until they are modified.
+     *
+     * @return file system.
+     */
     public VirtualFileSystem getFs() {
         return _fs;
     }
@@ -133,6 +172,22 @@ public class CompoundContext {
         return _deviceManager;
     }
 
+    /**
+     * Get cache of encoded file attributes, if configured.
+     * @return attribute cache.
+     */
+    public Optional<AttributeCache> getAttributeCache() {
+        return _attributeCache;
+    }
+
+    /**
+     * Get tracker of uncommitted writes, if configured.
+     * @return tracker of uncommitted writes.
+     */
+    public Optional<UncommittedWrites> getUncommittedWrites() {
+        return _uncommittedWrites;
+    }
+
     public LockManager getLm() {
         return _nlm;
     }
@@ -363,4 +418,52 @@ public class CompoundContext {
     public verifier4 getRebootVerifier() {
         return _rebootVerifier;
     }
+
+    /**
+     * Return verifier to be used by WRITE and COMMIT. The verifier changes
+     * if uncommitted data could have been lost.
+     * @return write verifier.
+     */
+    public verifier4 getWriteVerifier() {
+        return _uncommittedWrites.map(w -> verifier4.valueOf(w.getVerifier()))
+                .orElse(_rebootVerifier);
+    }
+
+    /**
+     * Allocate a heap buffer, which stays valid until the reply is sent.
+     *
+     * @param size requested buffer size.
+     * @return byte buffer with limit set to {@code size}.
+     */
+    public ByteBuffer allocateBuffer(int size) {
+        return track(_bufferPool == null
+                ? PooledBuffer.unpooled(ByteBuffer.allocate(size)) : _bufferPool.allocate(size));
+    }
+
+    /**
+     * Allocate a direct buffer, which stays valid until the reply is sent.
+     *
+     * @param size requested buffer size.
+     * @return byte buffer with limit set to {@code size}.
+     */
+    public ByteBuffer allocateDirectBuffer(int size) {
+        return track(_bufferPool == null
+                ? PooledBuffer.unpooled(ByteBuffer.allocateDirect(size)) : _bufferPool.allocateDirect(size));
+    }
+
+    private ByteBuffer track(PooledBuffer buffer) {
+        if (_buffers.isEmpty()) {
+            _buffers = new ArrayList<>(1);
+        }
+        _buffers.add(buffer);
+        return buffer.buffer();
+    }
+
+    /**
+     * Get buffers allocated while processing this compound.
+     * @return list of allocated buffers.
+     */
+    public List<PooledBuffer> getAllocatedBuffers() {
+        return _buffers;
+    }
 }
@@ -22,8 +22,10 @@ package org.dcache.nfs.v4;
 import org.dcache.nfs.ExportFile;
 import org.dcache.nfs.v4.nlm.LockManager;
 import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.dcache.nfs.v4.xdr.verifier4;
+import org.dcache.utils.BufferPool;
 import org.dcache.xdr.*;
 
 import static java.util.Objects.requireNonNull;
@@ -39,6 +41,9 @@ public class CompoundContextBuilder {
     private ExportFile exportFile = null;
     private int exchangeIdFlags = nfs4_prot.EXCHGID4_FLAG_USE_NON_PNFS;
     private verifier4 rebootVerifier;
+    private BufferPool bufferPool;
+    private AttributeCache attributeCache;
+    private UncommittedWrites uncommittedWrites;
 
     public CompoundContextBuilder withCall(RpcCall call) {
         this.call = call;
@@ -139,4 +144,31 @@ public class CompoundContextBuilder {
     public verifier4 getRebootVerifier() {
         return rebootVerifier;
     }
-}
\ No newline at end of file
+
+    public CompoundContextBuilder withBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+        return this;
+    }
+
+    public BufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    public CompoundContextBuilder withAttributeCache(AttributeCache attributeCache) {
+        this.attributeCache = attributeCache;
+        return this;
+    }
+
+    public AttributeCache getAttributeCache() {
+        return attributeCache;
+    }
+
+    public CompoundContextBuilder withUncommittedWrites(UncommittedWrites uncommittedWrites) {
+        this.uncommittedWrites = uncommittedWrites;
+        return this;
+    }
+
+    public UncommittedWrites getUncommittedWrites() {
+        return uncommittedWrites;
+    }
+}
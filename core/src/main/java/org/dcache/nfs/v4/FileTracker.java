@@ -20,20 +20,19 @@
 package org.dcache.nfs.v4;
 
 import com.google.common.util.concurrent.Striped;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.status.BadStateidException;
 import org.dcache.nfs.status.InvalException;
 import org.dcache.nfs.status.ShareDeniedException;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
 import org.dcache.nfs.v4.xdr.stateid4;
+import org.dcache.nfs.vfs.FileIdKey;
 import org.dcache.nfs.vfs.Inode;
-import org.dcache.utils.Opaque;
 
 /**
  * A class which tracks open files.
@@ -51,7 +50,7 @@ public class FileTracker {
      * FIXME: get number of threads from RPC service.
      */
     private final Striped<Lock> filesLock = Striped.lock(Runtime.getRuntime().availableProcessors()*4);
-    private final Map<Opaque, List<OpenState>> files = Collections.synchronizedMap(new HashMap<>());
+    private final ConcurrentMap<FileIdKey, OpenFile> files = new ConcurrentHashMap<>();
 
     private static class OpenState {
 
@@ -87,6 +86,112 @@ public class FileTracker {
 
     }
 
+    /**
+     * Share reservations of a single file. Opens are indexed by owner and
+     * stateid. In addition, the number of opens using each access and deny
+     * mode are tracked to check for conflicts without iterating over all opens.
+     *
+     * Must be accessed with file's lock held.
+     */
+    private static class OpenFile {
+
+        private final Map<StateOwner, OpenState> byOwner = new HashMap<>(2);
+        private final Map<stateid4, OpenState> byStateid = new HashMap<>(2);
+
+        /*
+         * number of opens with READ and WRITE bits in share access and deny.
+         */
+        private int readers;
+        private int writers;
+        private int readDenies;
+        private int writeDenies;
+
+        boolean isEmpty() {
+            return byStateid.isEmpty();
+        }
+
+        /**
+         * Get aggregated share access of all opens.
+         */
+        int shareAccess() {
+            return toMask(readers, writers);
+        }
+
+        /**
+         * Get aggregated share deny of all opens.
+         */
+        int shareDeny() {
+            return toMask(readDenies, writeDenies);
+        }
+
+        /**
+         * Check whatever requested share reservation conflicts with an open
+         * of a client with valid lease.
+         */
+        boolean isConflicting(int shareAccess, int shareDeny) {
+
+            if ((shareAccess & shareDeny()) == 0 && (shareDeny & shareAccess()) == 0) {
+                return false;
+            }
+
+            // check for conflicting open from not expired client (we need to check
+            // client as session GC may not been active yet
+            return byStateid.values().stream()
+                    .filter(o -> o.client.isLeaseValid())
+                    .anyMatch(o -> (shareAccess & o.getShareDeny()) != 0 || (shareDeny & o.getShareAccess()) != 0);
+        }
+
+        void add(OpenState os) {
+            byOwner.put(os.getOwner(), os);
+            byStateid.put(os.getStateid(), os);
+            count(os, 1);
+        }
+
+        void remove(OpenState os) {
+            byOwner.remove(os.getOwner(), os);
+            byStateid.remove(os.getStateid());
+            count(os, -1);
+        }
+
+        /**
+         * Update share reservation of an existing open.
+         */
+        void update(OpenState os, int shareAccess, int shareDeny) {
+            count(os, -1);
+            os.shareAccess = shareAccess;
+            os.shareDeny = shareDeny;
+            count(os, 1);
+        }
+
+        private void count(OpenState os, int delta) {
+            if ((os.shareAccess & nfs4_prot.OPEN4_SHARE_ACCESS_READ) != 0) {
+                readers += delta;
+            }
+            if ((os.shareAccess & nfs4_prot.OPEN4_SHARE_ACCESS_WRITE) != 0) {
+                writers += delta;
+            }
+            if ((os.shareDeny & nfs4_prot.OPEN4_SHARE_DENY_READ) != 0) {
+                readDenies += delta;
+            }
+            if ((os.shareDeny & nfs4_prot.OPEN4_SHARE_DENY_WRITE) != 0) {
+                writeDenies += delta;
+            }
+        }
+
+        private static int toMask(int read, int write) {
+            return (read > 0 ? nfs4_prot.OPEN4_SHARE_ACCESS_READ : 0)
+                    | (write > 0 ? nfs4_prot.OPEN4_SHARE_ACCESS_WRITE : 0);
+        }
+
+        OpenState get(NFS4Client client, stateid4 stateid) throws BadStateidException {
+            OpenState os = byStateid.get(stateid);
+            if (os == null || os.client.getId() != client.getId()) {
+                throw new BadStateidException();
+            }
+            return os;
+        }
+    }
+
     /**
      * Add a new open to the list of open files. If provided {@code shareAccess}
      * and {@code shareDeny} conflicts with existing opens, @{link ShareDeniedException}
@@ -102,43 +207,31 @@ public class FileTracker {
      */
     public stateid4 addOpen(NFS4Client client, StateOwner owner, Inode inode, int shareAccess, int shareDeny) throws  ChimeraNFSException {
 
-        Opaque fileId = new Opaque(inode.getFileId());
+        FileIdKey fileId = inode.fileIdKey();
         Lock lock = filesLock.get(fileId);
         lock.lock();
         try {
-            /*
-             * check for existing opens on that file
-             * initialize new array with size of one, as this is what the majority of cases will be
-             */
-            final List<OpenState> opens = files.computeIfAbsent(fileId, x -> new ArrayList<>(1));
-
-            stateid4 stateid;
-            // check for conflickting open from not expired client (we need to check
-            // client as session GC may not beed active yet
-            if (opens.stream()
-                    .filter(o -> o.client.isLeaseValid())
-                    .anyMatch(o -> (shareAccess & o.getShareDeny()) != 0|| (shareDeny & o.getShareAccess()) != 0)) {
-                    throw new ShareDeniedException("Conflicting share");
+            final OpenFile opens = files.computeIfAbsent(fileId, x -> new OpenFile());
+
+            if (opens.isConflicting(shareAccess, shareDeny)) {
+                throw new ShareDeniedException("Conflicting share");
             }
 
             // if there is an another open from the same client we must merge
             // access mode and return the same stateid as required by rfc5661#18.16.3
 
-            for (OpenState os : opens) {
-                if (os.client.getId() == client.getId() &&
-                        os.getOwner().equals(owner)) {
-                        os.shareAccess |= shareAccess;
-                        os.shareDeny |= shareDeny;
-                        os.stateid.seqid.value++;
-                        return os.stateid;
-                }
+            OpenState os = opens.byOwner.get(owner);
+            if (os != null && os.client.getId() == client.getId()) {
+                opens.update(os, os.shareAccess | shareAccess, os.shareDeny | shareDeny);
+                os.stateid.seqid.value++;
+                return os.stateid;
             }
 
             NFS4State state = client.createState(owner);
-            stateid = state.stateid();
+            stateid4 stateid = state.stateid();
             OpenState openState = new OpenState(client, owner, stateid, shareAccess, shareDeny);
             opens.add(openState);
-            state.addDisposeListener(s -> removeOpen(inode, stateid));
+            state.addDisposeListener(s -> removeOpen(fileId, stateid));
             return stateid;
         } finally {
             lock.unlock();
@@ -158,17 +251,16 @@ public class FileTracker {
      */
     public stateid4 downgradeOpen(NFS4Client client, stateid4 stateid, Inode inode, int shareAccess, int shareDeny) throws ChimeraNFSException {
 
-        Opaque fileId = new Opaque(inode.getFileId());
+        FileIdKey fileId = inode.fileIdKey();
         Lock lock = filesLock.get(fileId);
         lock.lock();
         try {
-            final List<OpenState> opens = files.get(fileId);
+            final OpenFile opens = files.get(fileId);
+            if (opens == null) {
+                throw new BadStateidException();
+            }
 
-            OpenState os = opens.stream()
-                    .filter(s -> client.getId() == s.client.getId())
-                    .filter(s -> s.stateid.equals(stateid))
-                    .findFirst()
-                    .orElseThrow(BadStateidException::new);
+            OpenState os = opens.get(client, stateid);
 
             if ((os.shareAccess & shareAccess) != shareAccess) {
                 throw new InvalException("downgrading to not owned share_access mode");
@@ -178,8 +270,7 @@ public class FileTracker {
                 throw new InvalException("downgrading to not owned share_deny mode");
             }
 
-            os.shareAccess = shareAccess;
-            os.shareDeny = shareDeny;
+            opens.update(os, shareAccess, shareDeny);
 
             os.stateid.seqid.value++;
             return os.stateid;
@@ -194,21 +285,20 @@ public class FileTracker {
      * @param stateid associated with the open.
      */
     void removeOpen(Inode inode, stateid4 stateid) {
+        removeOpen(inode.fileIdKey(), stateid);
+    }
+
+    private void removeOpen(FileIdKey fileId, stateid4 stateid) {
 
-        Opaque fileId = new Opaque(inode.getFileId());
         Lock lock = filesLock.get(fileId);
         lock.lock();
         try {
-            final List<OpenState> opens = files.get(fileId);
+            final OpenFile opens = files.get(fileId);
 
             if (opens != null) {
-                Iterator<OpenState> osi = opens.iterator();
-                while(osi.hasNext()) {
-                    OpenState os = osi.next();
-                    if (os.stateid.equals(stateid)) {
-                        osi.remove();
-                        break;
-                    }
+                OpenState os = opens.byStateid.get(stateid);
+                if (os != null) {
+                    opens.remove(os);
                 }
 
                 /**
@@ -233,22 +323,17 @@ public class FileTracker {
      */
     public int getShareAccess(NFS4Client client, Inode inode, stateid4 stateid) throws BadStateidException {
 
-        Opaque fileId = new Opaque(inode.getFileId());
+        FileIdKey fileId = inode.fileIdKey();
         Lock lock = filesLock.get(fileId);
         lock.lock();
         try {
-            final List<OpenState> opens = files.get(fileId);
+            final OpenFile opens = files.get(fileId);
 
             if (opens == null) {
                 throw new BadStateidException("no matching open");
             }
 
-            return opens.stream()
-                    .filter(s -> client.getId() == s.client.getId())
-                    .filter(s -> s.stateid.equals(stateid))
-                    .map(OpenState::getShareAccess)
-                    .findFirst()
-                    .orElseThrow(BadStateidException::new);
+            return opens.get(client, stateid).getShareAccess();
         } finally {
             lock.unlock();
         }
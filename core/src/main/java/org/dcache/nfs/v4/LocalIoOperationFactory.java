@@ -22,8 +22,6 @@ package org.dcache.nfs.v4;
 import org.dcache.nfs.v4.ds.DSOperationCOMMIT;
 import org.dcache.nfs.v4.ds.DSOperationREAD;
 import org.dcache.nfs.v4.ds.DSOperationWRITE;
-import org.dcache.nfs.v4.xdr.nfs_argop4;
-import org.dcache.nfs.v4.xdr.nfs_opnum4;
 import org.dcache.nfs.vfs.FsCache;
 
 /**
@@ -31,24 +29,9 @@ import org.dcache.nfs.vfs.FsCache;
  */
 public class LocalIoOperationFactory extends MDSOperationFactory {
 
-    private final FsCache _fs;
-
     public LocalIoOperationFactory(FsCache fs) {
-	_fs = fs;
-    }
-
-    @Override
-    public AbstractNFSv4Operation getOperation(nfs_argop4 op) {
-	switch (op.argop) {
-	    case nfs_opnum4.OP_READ:
-		return new DSOperationREAD(op, _fs);
-	    case nfs_opnum4.OP_COMMIT:
-		return new DSOperationCOMMIT(op, _fs);
-	    case nfs_opnum4.OP_WRITE:
-		return new DSOperationWRITE(op, _fs);
-	    default:
-		return super.getOperation(op);
-	}
+        register(new DSOperationREAD(fs));
+        register(new DSOperationCOMMIT(fs));
+        register(new DSOperationWRITE(fs));
     }
-
 }
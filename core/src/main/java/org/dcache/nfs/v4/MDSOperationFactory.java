@@ -24,129 +24,92 @@ import org.dcache.nfs.v4.xdr.nfs_opnum4;
 
 public class MDSOperationFactory implements NFSv4OperationFactory {
 
+    private static final AbstractNFSv4Operation ILLEGAL = new OperationILLEGAL();
 
-    @Override
-    public AbstractNFSv4Operation getOperation(nfs_argop4 op) {
+    /**
+     * Operation handlers indexed by operation number. As handlers are stateless,
+     * a single instance serves all requests.
+     */
+    private final AbstractNFSv4Operation[] _operations =
+            new AbstractNFSv4Operation[nfs_opnum4.OP_RECLAIM_COMPLETE + 1];
+
+    public MDSOperationFactory() {
+        register(new OperationACCESS());
+        register(new OperationCLOSE());
+        register(new OperationCOMMIT());
+        register(new OperationCREATE());
+        register(new OperationDELEGPURGE());
+        register(new OperationDELEGRETURN());
+        register(new OperationGETATTR());
+        register(new OperationGETFH());
+        register(new OperationLINK());
+        register(new OperationLOCK());
+        register(new OperationLOCKT());
+        register(new OperationLOCKU());
+        register(new OperationLOOKUP());
+        register(new OperationLOOKUPP());
+        register(new OperationNVERIFY());
+        register(new OperationOPEN());
+        register(new OperationOPENATTR());
+        register(new OperationOPEN_CONFIRM());
+        register(new OperationOPEN_DOWNGRADE());
+        register(new OperationPUTFH());
+        register(new OperationPUTPUBFH());
+        register(new OperationPUTROOTFH());
+        register(new OperationREAD());
+        register(new OperationREADDIR());
+        register(new OperationREADLINK());
+        register(new OperationREMOVE());
+        register(new OperationRENAME());
+        register(new OperationRENEW());
+        register(new OperationRESTOREFH());
+        register(new OperationSAVEFH());
+        register(new OperationSECINFO());
+        register(new OperationSETATTR());
+        register(new OperationSETCLIENTID());
+        register(new OperationSETCLIENTID_CONFIRM());
+        register(new OperationVERIFY());
+        register(new OperationWRITE());
+        register(new OperationRELEASE_LOCKOWNER());
+
+        /*
+         *  NFSv4.1 (pNFS)
+         */
+        register(new OperationGETDEVICELIST());
+        register(new OperationLAYOUTGET());
+        register(new OperationLAYOUTCOMMIT());
+        register(new OperationLAYOUTRETURN());
+        register(new OperationGETDEVICEINFO());
+        register(new OperationEXCHANGE_ID());
+        register(new OperationCREATE_SESSION());
+        register(new OperationDESTROY_SESSION());
+        register(new OperationSEQUENCE());
+        register(new OperationDESTROY_CLIENTID());
+        register(new OperationRECLAIM_COMPLETE());
+        register(new OperationBIND_CONN_TO_SESSION());
+        register(new OperationSECINFO_NO_NAME());
+        register(new OperationFREE_STATEID());
+        register(new OperationTEST_STATEID());
+    }
 
-        switch (op.argop) {
-            case nfs_opnum4.OP_ACCESS:
-                return new OperationACCESS(op);
-            case nfs_opnum4.OP_CLOSE:
-                return new OperationCLOSE(op);
-            case nfs_opnum4.OP_COMMIT:
-                return new OperationCOMMIT(op);
-            case nfs_opnum4.OP_CREATE:
-                return new OperationCREATE(op);
-            case nfs_opnum4.OP_DELEGPURGE:
-                return new OperationDELEGPURGE(op);
-            case nfs_opnum4.OP_DELEGRETURN:
-                return new OperationDELEGRETURN(op);
-            case nfs_opnum4.OP_GETATTR:
-                return new OperationGETATTR(op);
-            case nfs_opnum4.OP_GETFH:
-                return new OperationGETFH(op);
-            case nfs_opnum4.OP_LINK:
-                return new OperationLINK(op);
-            case nfs_opnum4.OP_LOCK:
-                return new OperationLOCK(op);
-            case nfs_opnum4.OP_LOCKT:
-                return new OperationLOCKT(op);
-            case nfs_opnum4.OP_LOCKU:
-                return new OperationLOCKU(op);
-            case nfs_opnum4.OP_LOOKUP:
-                return new OperationLOOKUP(op);
-            case nfs_opnum4.OP_LOOKUPP:
-                return new OperationLOOKUPP(op);
-            case nfs_opnum4.OP_NVERIFY:
-                return new OperationNVERIFY(op);
-            case nfs_opnum4.OP_OPEN:
-                return new OperationOPEN(op);
-            case nfs_opnum4.OP_OPENATTR:
-                return new OperationOPENATTR(op);
-            case nfs_opnum4.OP_OPEN_CONFIRM:
-                return new OperationOPEN_CONFIRM(op);
-            case nfs_opnum4.OP_OPEN_DOWNGRADE:
-                return new OperationOPEN_DOWNGRADE(op);
-            case nfs_opnum4.OP_PUTFH:
-                return new OperationPUTFH(op);
-            case nfs_opnum4.OP_PUTPUBFH:
-                return new OperationPUTPUBFH(op);
-            case nfs_opnum4.OP_PUTROOTFH:
-                return new OperationPUTROOTFH(op);
-            case nfs_opnum4.OP_READ:
-                return new OperationREAD(op);
-            case nfs_opnum4.OP_READDIR:
-                return new OperationREADDIR(op);
-            case nfs_opnum4.OP_READLINK:
-                return new OperationREADLINK(op);
-            case nfs_opnum4.OP_REMOVE:
-                return new OperationREMOVE(op);
-            case nfs_opnum4.OP_RENAME:
-                return new OperationRENAME(op);
-            case nfs_opnum4.OP_RENEW:
-                return new OperationRENEW(op);
-            case nfs_opnum4.OP_RESTOREFH:
-                return new OperationRESTOREFH(op);
-            case nfs_opnum4.OP_SAVEFH:
-                return new OperationSAVEFH(op);
-            case nfs_opnum4.OP_SECINFO:
-                return new OperationSECINFO(op);
-            case nfs_opnum4.OP_SETATTR:
-                return new OperationSETATTR(op);
-            case nfs_opnum4.OP_SETCLIENTID:
-                return new OperationSETCLIENTID(op);
-            case nfs_opnum4.OP_SETCLIENTID_CONFIRM:
-                return new OperationSETCLIENTID_CONFIRM(op);
-            case nfs_opnum4.OP_VERIFY:
-                return new OperationVERIFY(op);
-            case nfs_opnum4.OP_WRITE:
-                return new OperationWRITE(op);
-            case nfs_opnum4.OP_RELEASE_LOCKOWNER:
-                return new OperationRELEASE_LOCKOWNER(op);
-            /**
-             *  NFSv4.1 (pNFS)
-             */
-            case nfs_opnum4.OP_GETDEVICELIST:
-                return new OperationGETDEVICELIST(op);
-            case nfs_opnum4.OP_LAYOUTGET:
-                return new OperationLAYOUTGET(op);
-            case nfs_opnum4.OP_LAYOUTCOMMIT:
-                return new OperationLAYOUTCOMMIT(op);
-            case nfs_opnum4.OP_LAYOUTRETURN:
-                return new OperationLAYOUTRETURN(op);
-            case nfs_opnum4.OP_GETDEVICEINFO:
-                return new OperationGETDEVICEINFO(op);
-            case nfs_opnum4.OP_EXCHANGE_ID:
-                /*
-                 * By having chimera as a backend file system we need to support
-                 * legacy .(xx)(xx)... commands. To allow read of those files,
-                 * MDS ( nfsv41 door ) have to declare itself as a data server (DS).
-                 *
-                 * indicate that we are a MDS and DS at the same time.
-                 */
-            return new OperationEXCHANGE_ID(op);
-            case nfs_opnum4.OP_CREATE_SESSION:
-                return new OperationCREATE_SESSION(op);
-            case nfs_opnum4.OP_DESTROY_SESSION:
-                return new OperationDESTROY_SESSION(op);
-            case nfs_opnum4.OP_SEQUENCE:
-                return new OperationSEQUENCE(op);
-            case nfs_opnum4.OP_DESTROY_CLIENTID:
-                return new OperationDESTROY_CLIENTID(op);
-            case nfs_opnum4.OP_RECLAIM_COMPLETE:
-                return new OperationRECLAIM_COMPLETE(op);
-            case nfs_opnum4.OP_BIND_CONN_TO_SESSION:
-                return new OperationBIND_CONN_TO_SESSION(op);
-            case nfs_opnum4.OP_SECINFO_NO_NAME:
-                return new OperationSECINFO_NO_NAME(op);
-            case nfs_opnum4.OP_FREE_STATEID:
-                return new OperationFREE_STATEID(op);
-            case nfs_opnum4.OP_TEST_STATEID:
-                return new OperationTEST_STATEID(op);
-            case nfs_opnum4.OP_ILLEGAL:
+    /**
+     * Register handler for operation returned by {@link AbstractNFSv4Operation#getOpCode()}.
+     * Any previously registered handler for the same operation is replaced.
+     *
+     * @param operation handler to register.
+     */
+    protected final void register(AbstractNFSv4Operation operation) {
+        _operations[operation.getOpCode()] = operation;
+    }
 
+    @Override
+    public AbstractNFSv4Operation getOperation(nfs_argop4 op) {
+        int opCode = op.argop;
+        if (opCode < 0 || opCode >= _operations.length) {
+            return ILLEGAL;
         }
 
-        return new OperationILLEGAL(op);
+        AbstractNFSv4Operation operation = _operations[opCode];
+        return operation == null ? ILLEGAL : operation;
     }
 }
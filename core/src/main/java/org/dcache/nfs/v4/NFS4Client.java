@@ -217,6 +217,14 @@ public class NFS4Client {
         return _minorVersion;
     }
 
+    /**
+     * Get client supplied owner id.
+     * @return owner id.
+     */
+    public byte[] getOwnerId() {
+        return _ownerId;
+    }
+
     /**
      * Check whatever client belongs to the provider owner.
      * @param other client owner to test.
@@ -33,11 +33,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
 import org.dcache.nfs.v4.xdr.nfs_opnum4;
+import org.dcache.nfs.vfs.AsyncIo;
+import org.dcache.nfs.vfs.MemoizingFileSystem;
 import org.dcache.nfs.vfs.PseudoFs;
+import org.dcache.nfs.vfs.PseudoFsTreeCache;
+import org.dcache.nfs.vfs.AccessCache;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.dcache.commons.stats.RequestExecutionTimeGauges;
 import org.dcache.nfs.status.BadSessionException;
@@ -58,13 +67,22 @@ import org.dcache.nfs.status.StaleClientidException;
 import org.dcache.nfs.status.StaleStateidException;
 import org.dcache.nfs.status.TooManyOpsException;
 import org.dcache.nfs.v4.nlm.LockManager;
-import org.dcache.nfs.v4.nlm.SimpleLm;
+import org.dcache.nfs.v4.nlm.IntervalTreeLm;
 import org.dcache.nfs.v4.xdr.verifier4;
+import org.dcache.utils.BufferPool;
+import org.dcache.utils.PooledBuffer;
+import org.dcache.utils.RequestExecutor;
 
 public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
 
     private static final Logger _log = LoggerFactory.getLogger(NFSServerV41.class);
 
+    /**
+     * Default maximal number of concurrently processed requests in virtual
+     * thread mode.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4096;
+
     private static final RequestExecutionTimeGauges<String> GAUGES
             = new RequestExecutionTimeGauges<>(NFSServerV41.class.getName());
 
@@ -74,19 +92,46 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
     private final NFSv41DeviceManager _deviceManager;
     private final NFSv4StateHandler _statHandler;
     private final LockManager _nlm;
+    private final PseudoFsTreeCache _pseudoFsTreeCache;
+    private final BufferPool _bufferPool;
+    private final AttributeCache _attributeCache;
+    private final AccessCache _accessCache;
+    private final UncommittedWrites _uncommittedWrites;
+
+    /**
+     * Executor to process COMPOUND requests on or null, if requests are
+     * processed by the thread which have received them.
+     */
+    private final RequestExecutor _requestExecutor;
+
+    /**
+     * Pre-configured builder with server wide settings, used as a template
+     * for all compound contexts. Must not be modified after construction.
+     */
+    private final CompoundContextBuilder _contextTemplate;
     /**
      * Verifier to indicate client that server is rebooted. Current currentTimeMillis
      * is good enough, unless server reboots within a millisecond.
      */
-    private final verifier4 _rebootVerifier = verifier4.valueOf(System.currentTimeMillis());
+    private final long _bootTime = System.currentTimeMillis();
+    private final verifier4 _rebootVerifier = verifier4.valueOf(_bootTime);
 
     private NFSServerV41(Builder builder) {
         _deviceManager = builder.deviceManager;
         _fs = builder.vfs;
         _exportFile = builder.exportFile;
         _operationFactory = builder.operationFactory;
-        _nlm = builder.nlm == null ? new SimpleLm() : builder.nlm;
+        _nlm = builder.nlm == null ? new IntervalTreeLm() : builder.nlm;
         _statHandler = builder.stateHandler == null ? new NFSv4StateHandler() : builder.stateHandler;
+        _pseudoFsTreeCache = new PseudoFsTreeCache(_fs, _exportFile);
+        _bufferPool = builder.bufferPool == null ? new BufferPool("nfsv41") : builder.bufferPool;
+        _attributeCache = builder.attributeCache;
+        _accessCache = builder.accessCache;
+        _uncommittedWrites = builder.uncommittedWrites == null
+                ? new UncommittedWrites(_bootTime, UncommittedWrites.DEFAULT_MAX_FILES) : builder.uncommittedWrites;
+        _requestExecutor = builder.useVirtualThreads
+                ? virtualThreadExecutor(builder.maxConcurrentRequests) : null;
+        _contextTemplate = contextTemplate();
     }
 
     @Deprecated
@@ -98,8 +143,47 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
         _fs = fs;
         _exportFile = exportFile;
         _operationFactory = operationFactory;
-        _nlm = new SimpleLm();
+        _nlm = new IntervalTreeLm();
         _statHandler = new NFSv4StateHandler();
+        _pseudoFsTreeCache = new PseudoFsTreeCache(_fs, _exportFile);
+        _bufferPool = new BufferPool("nfsv41");
+        _attributeCache = null;
+        _accessCache = null;
+        _uncommittedWrites = new UncommittedWrites(_bootTime, UncommittedWrites.DEFAULT_MAX_FILES);
+        _requestExecutor = null;
+        _contextTemplate = contextTemplate();
+    }
+
+    private static RequestExecutor virtualThreadExecutor(int maxConcurrentRequests) {
+        if (!RequestExecutor.isVirtualThreadSupported()) {
+            _log.warn("Virtual threads are not supported by this JVM, requests are processed by I/O threads");
+            return null;
+        }
+        return RequestExecutor.virtualThreads("nfsv41", maxConcurrentRequests);
+    }
+
+    private CompoundContextBuilder contextTemplate() {
+
+        CompoundContextBuilder builder = new CompoundContextBuilder()
+                .withDeviceManager(_deviceManager)
+                .withStateHandler(_statHandler)
+                .withLockManager(_nlm)
+                .withExportFile(_exportFile)
+                .withRebootVerifier(_rebootVerifier)
+                .withBufferPool(_bufferPool)
+                .withAttributeCache(_attributeCache)
+                .withUncommittedWrites(_uncommittedWrites);
+
+        if (_deviceManager != null) {
+            builder.withPnfsRoleMDS();
+            // we do proxy-io
+            builder.withPnfsRoleDS();
+        } else if (_exportFile == null) {
+            builder.withPnfsRoleDS();
+        } else {
+            builder.withoutPnfs();
+        }
+        return builder;
     }
 
     @Override
@@ -107,9 +191,61 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
         _log.debug("NFS PING client: {}", call$.getTransport().getRemoteSocketAddress());
     }
 
+    @Override
+    public void dispatchOncRpcCall(RpcCall call) throws OncRpcException, IOException {
+
+        if (call.getProcedure() != nfs4_prot.NFSPROC4_COMPOUND_4) {
+            super.dispatchOncRpcCall(call);
+            return;
+        }
+
+        /*
+         * COMPOUND processing may be suspended while waiting for an
+         * asynchronous operation. Reply is sent by whichever thread
+         * completes the request.
+         */
+        COMPOUND4args args = new COMPOUND4args();
+        call.retrieveCall(args);
+        if (_requestExecutor == null) {
+            processAndReply(call, args);
+        } else {
+            _requestExecutor.executeAsync(() -> processAndReply(call, args));
+        }
+    }
+
+    private CompletableFuture<Void> processAndReply(RpcCall call, COMPOUND4args args) {
+        return processCompound(call, args).thenAccept(res -> {
+            try {
+                call.reply(res);
+            } catch (IOException e) {
+                _log.error("Failed to send reply: {}", e.getMessage());
+            } finally {
+                res.buffers.forEach(PooledBuffer::release);
+            }
+        });
+    }
+
     @Override
     public COMPOUND4res NFSPROC4_COMPOUND_4(RpcCall call$, COMPOUND4args arg1) {
+        COMPOUND4res res = processCompound(call$, arg1).join();
+        /*
+         * the result is encoded by the caller after this method returns,
+         * thus referenced buffers can't be released back into the pool.
+         */
+        res.buffers.forEach(PooledBuffer::detach);
+        res.buffers = Collections.emptyList();
+        return res;
+    }
 
+    /**
+     * Process COMPOUND request. The returned future is never completed
+     * exceptionally, as all errors are reported as a part of the result.
+     *
+     * @param call$ rpc call of the request.
+     * @param arg1 request arguments.
+     * @return future completed with request's result.
+     */
+    private CompletableFuture<COMPOUND4res> processCompound(RpcCall call$, COMPOUND4args arg1) {
 
         COMPOUND4res res = new COMPOUND4res();
 
@@ -141,100 +277,17 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
 	    }
             res.resarray = new ArrayList<>(arg1.argarray.length);
 
-            VirtualFileSystem fs = new PseudoFs(_fs, call$, _exportFile);
-
-            CompoundContextBuilder builder = new CompoundContextBuilder()
-                    .withMinorversion(arg1.minorversion.value)
-                    .withFs(fs)
-                    .withDeviceManager(_deviceManager)
-                    .withStateHandler(_statHandler)
-                    .withLockManager(_nlm)
-                    .withExportFile(_exportFile)
-                    .withRebootVerifier(_rebootVerifier)
-                    .withCall(call$);
-
-            if (_deviceManager != null) {
-                builder.withPnfsRoleMDS();
-                // we do proxy-io
-                builder.withPnfsRoleDS();
-            } else if (_exportFile == null) {
-                builder.withPnfsRoleDS();
-            } else {
-                builder.withoutPnfs();
-            }
-
-            CompoundContext context = builder.build();
-
-            boolean retransmit = false;
-            for (int position = 0; position <arg1.argarray.length; position++) {
-
-                nfs_argop4 op = arg1.argarray[position];
-                nfs_resop4 opResult = nfs_resop4.resopFor(op.argop);
-                try {
-                    if (minorversion != 0) {
-                        checkOpPosition(op.argop, position, arg1.argarray.length);
-                        if (position == 1) {
-                            /*
-                             * at this point we already have to have a session
-                             */
-			    if (arg1.argarray.length > context.getSession().getMaxOps()) {
-				throw new TooManyOpsException(String.format("Too many ops [%d]", arg1.argarray.length));
-			    }
-
-                            List<nfs_resop4> cache = context.getCache();
-                            if (cache != null) {
-
-                                if (cache.isEmpty()) {
-                                    /*
-                                     * we got a duplicated request, but there
-                                     * is nothing in the cache, though must be
-                                     * as we are the second op in the compound.
-                                     */
-                                    throw new RetryUncacheRepException();
-                                }
-
-                                res.resarray.addAll(cache.subList(position, cache.size()));
-                                res.status = statusOfLastOperation(cache);
-                                retransmit = true;
-                                break;
-                            }
-                        }
-                    }
-                    long t0 = System.nanoTime();
-                    _operationFactory.getOperation(op).process(context, opResult);
-                    GAUGES.update(nfs_opnum4.toString(op.argop), System.nanoTime() - t0);
-
-                } catch (NfsIoException | ResourceException | ServerFaultException e) {
-                    _log.error("NFS server fault: op: {} : {}", nfs_opnum4.toString(op.argop), e.getMessage());
-                    opResult.setStatus(e.getStatus());
-                } catch (BadXdrException | OpIllegalException | InvalException e) {
-                    _log.warn("Faulty NFS client: op: {} : {}", nfs_opnum4.toString(op.argop), e.getMessage());
-                    opResult.setStatus(e.getStatus());
-                } catch (BadStateidException | StaleStateidException e) {
-                    _log.warn("Bad Stateid: op: {} : {}", nfs_opnum4.toString(op.argop), e.getMessage());
-                    opResult.setStatus(e.getStatus());
-                } catch (ExpiredException | BadSessionException | StaleClientidException  e) {
-                    _log.warn("Bad client: op: {} : {}", nfs_opnum4.toString(op.argop), e.getMessage());
-                    opResult.setStatus(e.getStatus());
-                } catch (ChimeraNFSException e) {
-                    opResult.setStatus(e.getStatus());
-                } catch (OncRpcException e) {
-                    opResult.setStatus(nfsstat.NFSERR_BADXDR);
-                    _log.warn("Bad xdr: {}: ", e.getMessage());
-                }
-
-                res.resarray.add(opResult);
-                res.status = opResult.getStatus();
-                if (res.status != nfsstat.NFS_OK) {
-                    break;
-                }
-            }
-
-            if (!retransmit && context.cacheThis()) {
-                context.getSessionSlot().update(res.resarray);
-            }
+            /*
+             * Attributes fetched by one operation are re-used by the following
+             * operations of the same compound, including the permission checks.
+             */
+            VirtualFileSystem fs = new PseudoFs(new MemoizingFileSystem(_fs), call$, _exportFile,
+                    _pseudoFsTreeCache, _accessCache);
+            CompoundContext context = new CompoundContext(_contextTemplate, call$, minorversion, fs);
 
-            _log.debug( "OP: [{}] status: {}", res.tag, res.status);
+            CompoundExecution execution = new CompoundExecution(arg1, res, context, tag);
+            execution.run();
+            return execution.result();
 
         } catch (ChimeraNFSException e) {
             _log.info("NFS operation failed: {}", e.getMessage());
@@ -250,7 +303,221 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
             MDC.remove(NfsMdc.SESSION);
         }
 
-        return res;
+        return CompletableFuture.completedFuture(res);
+    }
+
+    /**
+     * The state of a single COMPOUND request. Operations are processed one
+     * after another. If an operation can't be completed immediately, the
+     * processing is suspended and resumed by the thread which completes the
+     * operation. As operations never run concurrently, no synchronization
+     * is required to access the compound context.
+     */
+    private class CompoundExecution {
+
+        private final COMPOUND4args _args;
+        private final COMPOUND4res _res;
+        private final CompoundContext _context;
+        private final String _tag;
+        private final CompletableFuture<COMPOUND4res> _result = new CompletableFuture<>();
+
+        /**
+         * Position of the next operation to process.
+         */
+        private int _position;
+        private boolean _retransmit;
+
+        CompoundExecution(COMPOUND4args args, COMPOUND4res res, CompoundContext context, String tag) {
+            _args = args;
+            _res = res;
+            _context = context;
+            _tag = tag;
+        }
+
+        CompletableFuture<COMPOUND4res> result() {
+            return _result;
+        }
+
+        /**
+         * Process operations until the end of compound, first failed
+         * operation or an operation which can't be completed immediately.
+         */
+        void run() {
+            try {
+                while (_position < _args.argarray.length) {
+
+                    nfs_argop4 op = _args.argarray[_position];
+                    nfs_resop4 opResult = nfs_resop4.resopFor(op.argop);
+
+                    CompletableFuture<Void> opFuture;
+                    long t0 = System.nanoTime();
+                    try {
+                        if (checkSequence(op)) {
+                            break;
+                        }
+                        opFuture = _operationFactory.getOperation(op).processAsync(_context, op, opResult);
+                    } catch (ChimeraNFSException e) {
+                        opFuture = AsyncIo.failed(e);
+                    }
+
+                    if (!opFuture.isDone()) {
+                        opFuture.whenComplete((v, t) -> resume(op, opResult, t0, t));
+                        return;
+                    }
+
+                    Throwable error = null;
+                    try {
+                        opFuture.join();
+                    } catch (CompletionException e) {
+                        error = e;
+                    }
+
+                    if (!complete(op, opResult, t0, error)) {
+                        break;
+                    }
+                }
+                finish();
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Resume processing after completion of an asynchronous operation.
+         */
+        private void resume(nfs_argop4 op, nfs_resop4 opResult, long t0, Throwable error) {
+            MDC.put(NfsMdc.TAG, _tag);
+            MDC.put(NfsMdc.CLIENT, _context.getRemoteSocketAddress().toString());
+            try {
+                if (complete(op, opResult, t0, error)) {
+                    run();
+                } else {
+                    finish();
+                }
+            } catch (Exception e) {
+                fail(e);
+            } finally {
+                MDC.remove(NfsMdc.TAG);
+                MDC.remove(NfsMdc.CLIENT);
+                MDC.remove(NfsMdc.SESSION);
+            }
+        }
+
+        /**
+         * Check operation position and session reply cache.
+         *
+         * @return true if the rest of the compound is served from the
+         * reply cache.
+         */
+        private boolean checkSequence(nfs_argop4 op) throws ChimeraNFSException {
+
+            if (_context.getMinorversion() == 0) {
+                return false;
+            }
+
+            checkOpPosition(op.argop, _position, _args.argarray.length);
+            if (_position == 1) {
+                /*
+                 * at this point we already have to have a session
+                 */
+                if (_args.argarray.length > _context.getSession().getMaxOps()) {
+                    throw new TooManyOpsException(String.format("Too many ops [%d]", _args.argarray.length));
+                }
+
+                List<nfs_resop4> cache = _context.getCache();
+                if (cache != null) {
+
+                    if (cache.isEmpty()) {
+                        /*
+                         * we got a duplicated request, but there
+                         * is nothing in the cache, though must be
+                         * as we are the second op in the compound.
+                         */
+                        throw new RetryUncacheRepException();
+                    }
+
+                    _res.resarray.addAll(cache.subList(_position, cache.size()));
+                    _res.status = statusOfLastOperation(cache);
+                    _retransmit = true;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Record the result of processed operation.
+         *
+         * @return true if compound processing should continue.
+         * @throws Exception if operation has failed with unexpected error.
+         */
+        private boolean complete(nfs_argop4 op, nfs_resop4 opResult, long t0, Throwable error) throws Exception {
+
+            if (error == null) {
+                GAUGES.update(nfs_opnum4.toString(op.argop), System.nanoTime() - t0);
+            } else {
+                setErrorStatus(op, opResult, AsyncIo.unwrap(error));
+            }
+
+            _res.resarray.add(opResult);
+            _res.status = opResult.getStatus();
+            _position++;
+            return _res.status == nfsstat.NFS_OK;
+        }
+
+        private void finish() {
+
+            if (!_retransmit && _context.cacheThis()) {
+                _context.getSessionSlot().update(_res.resarray);
+                /*
+                 * cached replies can be re-sent at any time, thus buffers
+                 * referenced by them can't go back into the pool.
+                 */
+                _context.getAllocatedBuffers().forEach(PooledBuffer::detach);
+            } else {
+                _res.buffers = _context.getAllocatedBuffers();
+            }
+
+            _log.debug( "OP: [{}] status: {}", _res.tag, _res.status);
+            _result.complete(_res);
+        }
+
+        private void fail(Exception e) {
+            _log.error("Unhandled exception:", e);
+            _context.getAllocatedBuffers().forEach(PooledBuffer::release);
+            _res.resarray = Collections.emptyList();
+            _res.status = nfsstat.NFSERR_SERVERFAULT;
+            _result.complete(_res);
+        }
+    }
+
+    /**
+     * Set operation status for a given error.
+     *
+     * @throws Exception if error can't be expressed as operation status.
+     */
+    private static void setErrorStatus(nfs_argop4 op, nfs_resop4 opResult, Throwable t) throws Exception {
+
+        if (t instanceof NfsIoException || t instanceof ResourceException || t instanceof ServerFaultException) {
+            _log.error("NFS server fault: op: {} : {}", nfs_opnum4.toString(op.argop), t.getMessage());
+        } else if (t instanceof BadXdrException || t instanceof OpIllegalException || t instanceof InvalException) {
+            _log.warn("Faulty NFS client: op: {} : {}", nfs_opnum4.toString(op.argop), t.getMessage());
+        } else if (t instanceof BadStateidException || t instanceof StaleStateidException) {
+            _log.warn("Bad Stateid: op: {} : {}", nfs_opnum4.toString(op.argop), t.getMessage());
+        } else if (t instanceof ExpiredException || t instanceof BadSessionException || t instanceof StaleClientidException) {
+            _log.warn("Bad client: op: {} : {}", nfs_opnum4.toString(op.argop), t.getMessage());
+        }
+
+        if (t instanceof ChimeraNFSException) {
+            opResult.setStatus(((ChimeraNFSException) t).getStatus());
+        } else if (t instanceof OncRpcException) {
+            opResult.setStatus(nfsstat.NFSERR_BADXDR);
+            _log.warn("Bad xdr: {}: ", t.getMessage());
+        } else if (t instanceof Exception) {
+            throw (Exception) t;
+        } else {
+            throw new RuntimeException(t);
+        }
     }
 
     /**
@@ -331,6 +598,12 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
         private ExportFile exportFile;
         private LockManager nlm;
         private NFSv4StateHandler stateHandler;
+        private BufferPool bufferPool;
+        private AttributeCache attributeCache;
+        private AccessCache accessCache;
+        private UncommittedWrites uncommittedWrites;
+        private boolean useVirtualThreads;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
 
         public Builder withDeviceManager(NFSv41DeviceManager deviceManager) {
             this.deviceManager = deviceManager;
@@ -362,6 +635,56 @@ public class NFSServerV41 extends nfs4_prot_NFS4_PROGRAM_ServerStub {
             return this;
         }
 
+        public Builder withBufferPool(BufferPool bufferPool) {
+            this.bufferPool = bufferPool;
+            return this;
+        }
+
+        /**
+         * Cache encoded file attributes. By default attributes are encoded
+         * on each request.
+         */
+        public Builder withAttributeCache(AttributeCache attributeCache) {
+            this.attributeCache = attributeCache;
+            return this;
+        }
+
+        /**
+         * Cache granted access per subject and file. By default access is
+         * evaluated on each request.
+         */
+        public Builder withAccessCache(AccessCache accessCache) {
+            this.accessCache = accessCache;
+            return this;
+        }
+
+        /**
+         * Use given tracker of uncommitted writes, e.g. to share the write
+         * verifier with NFSv3 server. By default each server has its own.
+         */
+        public Builder withUncommittedWrites(UncommittedWrites uncommittedWrites) {
+            this.uncommittedWrites = uncommittedWrites;
+            return this;
+        }
+
+        /**
+         * Process each COMPOUND request on a new virtual thread, if supported
+         * by the JVM. Otherwise requests are processed by I/O threads.
+         */
+        public Builder withVirtualThreads(boolean useVirtualThreads) {
+            this.useVirtualThreads = useVirtualThreads;
+            return this;
+        }
+
+        /**
+         * Set maximal number of concurrently processed requests in virtual
+         * thread mode.
+         */
+        public Builder withMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
         public NFSServerV41 build() {
             return new NFSServerV41(this);
         }
@@ -24,10 +24,13 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.status.BadSessionException;
@@ -42,6 +45,7 @@ import org.dcache.utils.Bytes;
 import org.dcache.utils.Cache;
 import org.dcache.utils.CacheElement;
 import org.dcache.utils.NopCacheEventListener;
+import org.dcache.utils.Opaque;
 
 import static com.google.common.base.Preconditions.checkState;
 
@@ -59,15 +63,26 @@ public class NFSv4StateHandler {
      */
     private final AtomicInteger _clientId = new AtomicInteger(0);
 
-    // mapping between server generated clietid and nfs_client_id, not confirmed yet
-    private final Cache<clientid4, NFS4Client> _clientsByServerId;
+    /**
+     * Mapping between server generated clientid and nfs client. Lookups are
+     * lock-free as they happen on (almost) every request. The mapping is not
+     * limited by size, as evicting a client with valid lease would discard
+     * its state. Clients are removed only when their lease expires.
+     */
+    private final Cache<Long, NFS4Client> _clientsByServerId;
+
+    /**
+     * Mapping between client supplied owner id and nfs clients, in order of
+     * creation. The lists are never modified, but replaced.
+     */
+    private final ConcurrentMap<Opaque, List<NFS4Client>> _clientsByOwner = new ConcurrentHashMap<>();
 
     /**
      * Client's lease expiration time in milliseconds.
      */
     private final long _leaseTime;
 
-    private boolean _running;
+    private volatile boolean _running;
 
     /**
      * a system wide unique id of this state handler.
@@ -82,7 +97,7 @@ public class NFSv4StateHandler {
 
     NFSv4StateHandler(long leaseTime, int instanceId) {
         _leaseTime = TimeUnit.SECONDS.toMillis(leaseTime);
-        _clientsByServerId = new Cache<>("NFSv41 clients", 5000, Long.MAX_VALUE,
+        _clientsByServerId = new Cache<>("NFSv41 clients", Integer.MAX_VALUE, Long.MAX_VALUE,
                 _leaseTime * 2,
                 new DeadClientCollector(),
                 _leaseTime * 4, TimeUnit.MILLISECONDS);
@@ -95,7 +110,7 @@ public class NFSv4StateHandler {
 
 	synchronized (this) {
 	    checkState(_running, "NFS state handler not running");
-	    _clientsByServerId.remove(client.getId());
+	    unregisterClient(client);
 	}
         client.tryDispose();
     }
@@ -103,7 +118,30 @@ public class NFSv4StateHandler {
     private synchronized void addClient(NFS4Client newClient) {
 
         checkState(_running, "NFS state handler not running");
-        _clientsByServerId.put(newClient.getId(), newClient);
+        _clientsByServerId.put(newClient.getId().value, newClient);
+        _clientsByOwner.compute(new Opaque(newClient.getOwnerId()), (k, clients) -> {
+            List<NFS4Client> newClients = clients == null ? new ArrayList<>(1) : new ArrayList<>(clients);
+            newClients.add(newClient);
+            return newClients;
+        });
+    }
+
+    /**
+     * Remove client from client id and owner id mappings.
+     *
+     * @param client to remove.
+     */
+    private void unregisterClient(NFS4Client client) {
+        _clientsByServerId.remove(client.getId().value);
+        unregisterOwner(client);
+    }
+
+    private void unregisterOwner(NFS4Client client) {
+        _clientsByOwner.computeIfPresent(new Opaque(client.getOwnerId()), (k, clients) -> {
+            List<NFS4Client> newClients = new ArrayList<>(clients);
+            newClients.remove(client);
+            return newClients.isEmpty() ? null : newClients;
+        });
     }
 
     /**
@@ -114,7 +152,7 @@ public class NFSv4StateHandler {
      * @throws StaleClientidException if there are no corresponding verified
      * valid record exist.
      */
-    public synchronized NFS4Client getConfirmedClient(clientid4 clientid) throws StaleClientidException {
+    public NFS4Client getConfirmedClient(clientid4 clientid) throws StaleClientidException {
 
         NFS4Client client = getValidClient(clientid);
 
@@ -134,7 +172,7 @@ public class NFSv4StateHandler {
      * @throws StaleClientidException if there are no corresponding verified
      * valid record exist.
      */
-    public synchronized NFS4Client getValidClient(clientid4 clientid) throws StaleClientidException {
+    public NFS4Client getValidClient(clientid4 clientid) throws StaleClientidException {
 
         NFS4Client client = getClient(clientid);
 
@@ -153,46 +191,47 @@ public class NFSv4StateHandler {
      * @return nfs client associated with clientid.
      * @throws StaleClientidException if there are no corresponding record exist.
      */
-    public synchronized NFS4Client getClient(clientid4 clientid) throws StaleClientidException {
+    public NFS4Client getClient(clientid4 clientid) throws StaleClientidException {
 
         checkState(_running, "NFS state handler not running");
 
-        NFS4Client client = _clientsByServerId.get(clientid);
+        NFS4Client client = _clientsByServerId.get(clientid.value);
         if(client == null) {
             throw new StaleClientidException("bad client id.");
         }
         return client;
     }
 
-    public synchronized NFS4Client getClientIdByStateId(stateid4 stateId) throws ChimeraNFSException {
+    public NFS4Client getClientIdByStateId(stateid4 stateId) throws ChimeraNFSException {
 
         checkState(_running, "NFS state handler not running");
 
-        clientid4 clientId = new clientid4(Bytes.getLong(stateId.other, 0));
-        NFS4Client client = _clientsByServerId.get(clientId);
+        NFS4Client client = _clientsByServerId.get(Bytes.getLong(stateId.other, 0));
         if (client == null) {
             throw new BadStateidException("no client for stateid: " + stateId);
         }
         return client;
     }
 
-    public synchronized NFS4Client getClient(sessionid4 id) throws ChimeraNFSException {
+    public NFS4Client getClient(sessionid4 id) throws ChimeraNFSException {
         checkState(_running, "NFS state handler not running");
-        clientid4 clientId = new clientid4(Bytes.getLong(id.value, 0));
-        NFS4Client client = _clientsByServerId.get(clientId);
+        NFS4Client client = _clientsByServerId.get(Bytes.getLong(id.value, 0));
         if (client == null) {
             throw new BadSessionException("session not found: " + id);
         }
         return client;
     }
 
-    public synchronized NFS4Client clientByOwner(byte[] ownerid) {
-        return _clientsByServerId.entries()
-                .stream()
-                .map(CacheElement::getObject)
-                .filter(c -> c.isOwner(ownerid))
-                .findAny()
-                .orElse(null);
+    /**
+     * Get client by client supplied owner id.
+     *
+     * @param ownerid client's owner id.
+     * @return the most recent nfs client associated with owner id or null,
+     * if there is no such client.
+     */
+    public NFS4Client clientByOwner(byte[] ownerid) {
+        List<NFS4Client> clients = _clientsByOwner.get(new Opaque(ownerid));
+        return clients == null ? null : clients.get(clients.size() - 1);
     }
 
     public void updateClientLeaseTime(stateid4  stateid) throws ChimeraNFSException {
@@ -209,7 +248,7 @@ public class NFSv4StateHandler {
         client.updateLeaseTime();
     }
 
-    public synchronized List<NFS4Client> getClients() {
+    public List<NFS4Client> getClients() {
         checkState(_running, "NFS state handler not running");
         return _clientsByServerId.entries().stream()
                 .map(CacheElement::getObject)
@@ -231,11 +270,20 @@ public class NFSv4StateHandler {
         return _openFileTracker;
     }
 
-    private class DeadClientCollector extends NopCacheEventListener<clientid4, NFS4Client> {
+    /**
+     * Remove clients which were not used for twice the lease time. Normally
+     * called periodically by the cache's cleaner thread.
+     */
+    void removeExpiredClients() {
+        _clientsByServerId.run();
+    }
+
+    private class DeadClientCollector extends NopCacheEventListener<Long, NFS4Client> {
 
         @Override
-        public void notifyExpired(Cache<clientid4, NFS4Client> cache, NFS4Client client) {
+        public void notifyExpired(Cache<Long, NFS4Client> cache, NFS4Client client) {
             _log.info("Removing expired client: {}", client);
+            unregisterOwner(client);
             client.tryDispose();
         }
     }
@@ -254,21 +302,27 @@ public class NFSv4StateHandler {
 	return true;
     }
 
-    private synchronized void drainClients() {
+    private void drainClients() {
         _clientsByServerId.entries().stream()
                 .map(CacheElement::getObject)
                 .forEach(c -> {
                     c.tryDispose();
-                    _clientsByServerId.remove(c.getId());
+                    unregisterClient(c);
                 });
     }
 
     /**
      * Shutdown session lease time watchdog thread.
      */
-    public synchronized void shutdown() {
-        checkState(_running, "NFS state handler not running");
-        _running = false;
+    public void shutdown() {
+        synchronized (this) {
+            checkState(_running, "NFS state handler not running");
+            _running = false;
+        }
+        /*
+         * disposing client states may block, thus done without holding the
+         * monitor. New clients are rejected as handler is not running.
+         */
         drainClients();
         _clientsByServerId.shutdown();
     }
@@ -35,16 +35,16 @@ public class OperationACCESS extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationACCESS.class);
 
-    public OperationACCESS(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_ACCESS);
+    public OperationACCESS() {
+        super(nfs_opnum4.OP_ACCESS);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result)
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result)
             throws ChimeraNFSException, IOException {
 
         final ACCESS4res res = result.opaccess;
-        int requestedAccess = _args.opaccess.access.value;
+        int requestedAccess = args.opaccess.access.value;
 
         int realAccess = context.getFs().access(context.currentInode(), requestedAccess);
 
@@ -27,12 +27,12 @@ import org.dcache.nfs.v4.xdr.nfs_resop4;
 
 public class OperationBIND_CONN_TO_SESSION extends AbstractNFSv4Operation {
     
-    public OperationBIND_CONN_TO_SESSION(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_BIND_CONN_TO_SESSION);
+    public OperationBIND_CONN_TO_SESSION() {
+        super(nfs_opnum4.OP_BIND_CONN_TO_SESSION);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         result.opbind_conn_to_session.bctsr_status = nfsstat.NFSERR_NOTSUPP;
     }
 }
@@ -35,18 +35,18 @@ public class OperationCLOSE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationCLOSE.class);
 
-    public OperationCLOSE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_CLOSE);
+    public OperationCLOSE() {
+        super(nfs_opnum4.OP_CLOSE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result)
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result)
             throws ChimeraNFSException, IOException {
         final CLOSE4res res = result.opclose;
 
         Inode inode = context.currentInode();
 
-        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, _args.opclose.open_stateid);
+        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, args.opclose.open_stateid);
         NFS4Client client;
         if (context.getMinorversion() > 0) {
             client = context.getSession().getClient();
@@ -58,7 +58,7 @@ public class OperationCLOSE extends AbstractNFSv4Operation {
         Stateids.checkStateId(nfsState.stateid(), stateid);
 
         if (context.getMinorversion() == 0) {
-            nfsState.getStateOwner().acceptAsNextSequence(_args.opclose.seqid);
+            nfsState.getStateOwner().acceptAsNextSequence(args.opclose.seqid);
         }
 
         client.tryReleaseState(stateid);
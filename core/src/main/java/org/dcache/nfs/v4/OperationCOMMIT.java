@@ -20,6 +20,8 @@
 package org.dcache.nfs.v4;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.nfsstat;
 import org.dcache.nfs.v4.xdr.COMMIT4res;
@@ -27,25 +29,59 @@ import org.dcache.nfs.v4.xdr.COMMIT4resok;
 import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_opnum4;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
+import org.dcache.nfs.vfs.AsyncIo;
 import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.UncommittedWrites;
+import org.dcache.xdr.OncRpcException;
 
 public class OperationCOMMIT extends AbstractNFSv4Operation {
 
-    public OperationCOMMIT(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_COMMIT);
+    public OperationCOMMIT() {
+        super(nfs_opnum4.OP_COMMIT);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+        await(processAsync(context, args, result));
+    }
+
+    @Override
+    public CompletableFuture<Void> processAsync(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
 
         final COMMIT4res res =  result.opcommit;
-        Inode inode = context.currentInode();
+        final Inode inode;
+
+        try {
+            inode = context.currentInode();
+            args.opcommit.offset.checkOverflow(args.opcommit.count.value, "offset + length overflow");
+        } catch (ChimeraNFSException e) {
+            return AsyncIo.failed(e);
+        }
 
-        _args.opcommit.offset.checkOverflow(_args.opcommit.count.value, "offset + length overflow");
-        context.getFs().commit(inode, _args.opcommit.offset.value, _args.opcommit.count.value);
+        final long offset = args.opcommit.offset.value;
+        final int count = args.opcommit.count.value;
+        final Optional<UncommittedWrites> uncommittedWrites = context.getUncommittedWrites();
+
+        /*
+         * Without tracking all data is considered as uncommitted.
+         */
+        if (!uncommittedWrites.map(w -> w.commitStarted(inode, offset, count)).orElse(true)) {
+            setResult(context, res);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return context.getFs().commitAsync(inode, offset, count)
+                .whenComplete((v, t) -> uncommittedWrites.ifPresent(w -> w.commitDone(inode, t == null)))
+                .thenRun(() -> setResult(context, res));
+    }
 
+    /*
+     * The verifier is taken after the commit. If data was lost in between,
+     * the client will see a changed verifier.
+     */
+    private static void setResult(CompoundContext context, COMMIT4res res) {
         res.resok4 = new COMMIT4resok();
-        res.resok4.writeverf = context.getRebootVerifier();
-        result.opcommit.status = nfsstat.NFS_OK;
+        res.resok4.writeverf = context.getWriteVerifier();
+        res.status = nfsstat.NFS_OK;
     }
 }
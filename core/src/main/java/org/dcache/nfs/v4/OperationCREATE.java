@@ -49,21 +49,21 @@ public class OperationCREATE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationCREATE.class);
 
-    public OperationCREATE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_CREATE);
+    public OperationCREATE() {
+        super(nfs_opnum4.OP_CREATE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         final CREATE4res res = result.opcreate;
 
-        fattr4 objAttr = _args.opcreate.createattrs;
-        int type = _args.opcreate.objtype.type;
+        fattr4 objAttr = args.opcreate.createattrs;
+        int type = args.opcreate.objtype.type;
         Inode inode;
 
         Stat stat = context.getFs().getattr(context.currentInode());
-        String name = NameFilter.convertName(_args.opcreate.objname.value);
+        String name = NameFilter.convertName(args.opcreate.objname.value);
 
         if (stat.type() != Stat.Type.DIRECTORY) {
             throw new NotDirException();
@@ -86,7 +86,7 @@ public class OperationCREATE extends AbstractNFSv4Operation {
                         context.getSubject(), mode);
                 break;
             case nfs_ftype4.NF4LNK:
-                String linkDest = NameFilter.convertPath(_args.opcreate.objtype.linkdata.value.value);
+                String linkDest = NameFilter.convertPath(args.opcreate.objtype.linkdata.value.value);
                 inode = context.getFs().symlink(context.currentInode(), name, linkDest,
                         context.getSubject(), mode);
                 break;
@@ -46,12 +46,12 @@ public class OperationCREATE_SESSION extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationCREATE_SESSION.class);
 
-    public OperationCREATE_SESSION(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_CREATE_SESSION);
+    public OperationCREATE_SESSION() {
+        super(nfs_opnum4.OP_CREATE_SESSION);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
         final CREATE_SESSION4res res = result.opcreate_session;
 
         int sessionFlags = 0;
@@ -59,14 +59,14 @@ public class OperationCREATE_SESSION extends AbstractNFSv4Operation {
         /*
          * check for correct arguments
          */
-        if (_args.opcreate_session.csa_fore_chan_attrs.ca_rdma_ird.length > 1) {
+        if (args.opcreate_session.csa_fore_chan_attrs.ca_rdma_ird.length > 1) {
             throw new BadXdrException("bad size of rdma_ird");
         }
 
         /*
          * check for correct flags
          */
-        if ((_args.opcreate_session.csa_flags.value  & ~(SESSION_FLAGS_MASK)) != 0) {
+        if ((args.opcreate_session.csa_flags.value  & ~(SESSION_FLAGS_MASK)) != 0) {
             throw new InvalException("bad ceate_session flag");
         }
 
@@ -81,7 +81,7 @@ public class OperationCREATE_SESSION extends AbstractNFSv4Operation {
          * made to any client records on the server. Otherwise, the server goes
          * to phase 2.
          */
-        NFS4Client client = context.getStateHandler().getValidClient(_args.opcreate_session.csa_clientid);
+        NFS4Client client = context.getStateHandler().getValidClient(args.opcreate_session.csa_clientid);
 
         /*
          * Phase 2:
@@ -103,24 +103,24 @@ public class OperationCREATE_SESSION extends AbstractNFSv4Operation {
             throw new ClidInUseException("client already in use: " + client.principal() + " " + context.getPrincipal());
         }
 
-        NFSv41Session session = client.createSession(_args.opcreate_session.csa_sequence.value,
-                Math.min(NFSv4Defaults.NFS4_MAX_SESSION_SLOTS, _args.opcreate_session.csa_fore_chan_attrs.ca_maxrequests.value),
-                Math.min(NFSv4Defaults.NFS4_MAX_SESSION_SLOTS, _args.opcreate_session.csa_back_chan_attrs.ca_maxrequests.value),
-                Math.min(NFSv4Defaults.NFS4_MAX_OPS, _args.opcreate_session.csa_fore_chan_attrs.ca_maxoperations.value),
-                Math.min(NFSv4Defaults.NFS4_MAX_OPS, _args.opcreate_session.csa_back_chan_attrs.ca_maxoperations.value));
+        NFSv41Session session = client.createSession(args.opcreate_session.csa_sequence.value,
+                Math.min(NFSv4Defaults.NFS4_MAX_SESSION_SLOTS, args.opcreate_session.csa_fore_chan_attrs.ca_maxrequests.value),
+                Math.min(NFSv4Defaults.NFS4_MAX_SESSION_SLOTS, args.opcreate_session.csa_back_chan_attrs.ca_maxrequests.value),
+                Math.min(NFSv4Defaults.NFS4_MAX_OPS, args.opcreate_session.csa_fore_chan_attrs.ca_maxoperations.value),
+                Math.min(NFSv4Defaults.NFS4_MAX_OPS, args.opcreate_session.csa_back_chan_attrs.ca_maxoperations.value));
         _log.debug("adding new session [{}]", session);
 
         /*
          * if client supports call backs on the same channel make use of it
          */
-        if (client.isCallbackNeede() && (_args.opcreate_session.csa_flags.value & nfs4_prot.CREATE_SESSION4_FLAG_CONN_BACK_CHAN) != 0) {
+        if (client.isCallbackNeede() && (args.opcreate_session.csa_flags.value & nfs4_prot.CREATE_SESSION4_FLAG_CONN_BACK_CHAN) != 0) {
 
             ClientCB cb = new ClientCB(
                     context.getRpcCall().getTransport().getPeerTransport(),
-                    _args.opcreate_session.csa_cb_program.value,
+                    args.opcreate_session.csa_cb_program.value,
                     session.id(),
-                    _args.opcreate_session.csa_back_chan_attrs.ca_maxrequests.value,
-                    _args.opcreate_session.csa_sec_parms);
+                    args.opcreate_session.csa_back_chan_attrs.ca_maxrequests.value,
+                    args.opcreate_session.csa_sec_parms);
             try {
                 cb.cbPing();
                 client.setCB(cb);
@@ -136,24 +136,24 @@ public class OperationCREATE_SESSION extends AbstractNFSv4Operation {
         res.csr_resok4 = new CREATE_SESSION4resok();
 
         res.csr_resok4.csr_sessionid = session.id();
-        res.csr_resok4.csr_sequence = _args.opcreate_session.csa_sequence;
+        res.csr_resok4.csr_sequence = args.opcreate_session.csa_sequence;
 
         res.csr_resok4.csr_flags = new uint32_t(sessionFlags);
 
         /*
          * res.csr_resok4.csr_headerpadsize =
-         * _args.opcreate_session.csa_headerpadsize;
+         * args.opcreate_session.csa_headerpadsize;
          *
          * res.csr_resok4.csr_conn_binding_opts = new conn_binding4res();
          * res.csr_resok4.csr_conn_binding_opts.cbr_enforce = false;
          * res.csr_resok4.csr_conn_binding_opts.cbr_hash_alg_info = new hash_alg_info4();
          */
 
-        res.csr_resok4.csr_fore_chan_attrs = _args.opcreate_session.csa_fore_chan_attrs;
+        res.csr_resok4.csr_fore_chan_attrs = args.opcreate_session.csa_fore_chan_attrs;
 	res.csr_resok4.csr_fore_chan_attrs.ca_maxoperations = new count4(session.getMaxOps());
         res.csr_resok4.csr_fore_chan_attrs.ca_maxrequests = new count4(session.getHighestSlot() +1);
 
-        res.csr_resok4.csr_back_chan_attrs = _args.opcreate_session.csa_back_chan_attrs;
+        res.csr_resok4.csr_back_chan_attrs = args.opcreate_session.csa_back_chan_attrs;
 	res.csr_resok4.csr_back_chan_attrs.ca_maxoperations = new count4(session.getMaxCbOps());
         res.csr_resok4.csr_back_chan_attrs.ca_maxrequests = new count4(session.getCbHighestSlot() +1);
 
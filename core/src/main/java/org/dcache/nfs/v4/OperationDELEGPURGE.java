@@ -30,12 +30,12 @@ public class OperationDELEGPURGE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationDELEGPURGE.class);
 
-    public OperationDELEGPURGE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_DELEGPURGE);
+    public OperationDELEGPURGE() {
+        super(nfs_opnum4.OP_DELEGPURGE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         result.opdelegpurge.status = nfsstat.NFSERR_NOTSUPP;
     }
 }
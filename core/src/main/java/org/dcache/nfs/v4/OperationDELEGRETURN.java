@@ -30,12 +30,12 @@ public class OperationDELEGRETURN extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationDELEGRETURN.class);
 
-    public OperationDELEGRETURN(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_DELEGRETURN);
+    public OperationDELEGRETURN() {
+        super(nfs_opnum4.OP_DELEGRETURN);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         result.opdelegreturn.status = nfsstat.NFSERR_NOTSUPP;
     }
 }
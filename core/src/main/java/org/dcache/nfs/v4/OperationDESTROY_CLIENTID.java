@@ -29,17 +29,17 @@ import org.dcache.nfs.status.ClientidBusyException;
 
 public class OperationDESTROY_CLIENTID extends AbstractNFSv4Operation {
 
-    public OperationDESTROY_CLIENTID(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_DESTROY_CLIENTID);
+    public OperationDESTROY_CLIENTID() {
+        super(nfs_opnum4.OP_DESTROY_CLIENTID);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final DESTROY_CLIENTID4res res = result.opdestroy_clientid;
 
         NFSv4StateHandler stateHandler = context.getStateHandler();
-        NFS4Client client = stateHandler.getClient(_args.opdestroy_clientid.dca_clientid);
+        NFS4Client client = stateHandler.getClient(args.opdestroy_clientid.dca_clientid);
         if (client.hasSessions()) {
             throw new ClientidBusyException("client holds valid sessions");
         }
@@ -33,17 +33,17 @@ public class OperationDESTROY_SESSION extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationDESTROY_SESSION.class);
 
-    public OperationDESTROY_SESSION(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_DESTROY_SESSION);
+    public OperationDESTROY_SESSION() {
+        super(nfs_opnum4.OP_DESTROY_SESSION);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final DESTROY_SESSION4res res = result.opdestroy_session;
 
-        NFS4Client client = context.getStateHandler().getClient(_args.opdestroy_session.dsa_sessionid);
-        NFSv41Session session = client.getSession(_args.opdestroy_session.dsa_sessionid);
+        NFS4Client client = context.getStateHandler().getClient(args.opdestroy_session.dsa_sessionid);
+        NFSv41Session session = client.getSession(args.opdestroy_session.dsa_sessionid);
 
         SessionConnection sessionConnection = new SessionConnection(
                 context.getLocalSocketAddress(),
@@ -53,7 +53,7 @@ public class OperationDESTROY_SESSION extends AbstractNFSv4Operation {
             throw new ConnNotBoundToSessionException("Session not " +  session +" not bound to" + sessionConnection.getRemoteConnection());
         }
 
-        client.removeSession(_args.opdestroy_session.dsa_sessionid);
+        client.removeSession(args.opdestroy_session.dsa_sessionid);
 
         res.dsr_status = nfsstat.NFS_OK;
     }
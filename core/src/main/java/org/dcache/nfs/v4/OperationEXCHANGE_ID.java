@@ -113,12 +113,12 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
         }
     }
 
-    public OperationEXCHANGE_ID(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_EXCHANGE_ID);
+    public OperationEXCHANGE_ID() {
+        super(nfs_opnum4.OP_EXCHANGE_ID);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final EXCHANGE_ID4res res = result.opexchange_id;
 
@@ -127,31 +127,31 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
          * information is not always present!!!
          *
          * for( nfs_impl_id4 impelemtation :
-         * _args.opexchange_id.eia_client_impl_id ) { _log.info("EXCHANGE_ID4: "
+         * args.opexchange_id.eia_client_impl_id ) { _log.info("EXCHANGE_ID4: "
          * + new String(impelemtation.nii_name.value.value) );
             }
          */
 
-        final byte[] clientOwner = _args.opexchange_id.eia_clientowner.co_ownerid;
+        final byte[] clientOwner = args.opexchange_id.eia_clientowner.co_ownerid;
 
         /*
          * check the state
          */
 
-        if (_args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_NONE && _args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_MACH_CRED && _args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_SSV) {
-            _log.debug("EXCHANGE_ID4: state protection : {}", _args.opexchange_id.eia_state_protect.spa_how);
+        if (args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_NONE && args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_MACH_CRED && args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_SSV) {
+            _log.debug("EXCHANGE_ID4: state protection : {}", args.opexchange_id.eia_state_protect.spa_how);
             throw new InvalException("invalid state protection");
         }
 
 
-        if (_args.opexchange_id.eia_flags.value != 0 && (_args.opexchange_id.eia_flags.value | EXCHGID4_FLAG_MASK) != EXCHGID4_FLAG_MASK) {
+        if (args.opexchange_id.eia_flags.value != 0 && (args.opexchange_id.eia_flags.value | EXCHGID4_FLAG_MASK) != EXCHGID4_FLAG_MASK) {
             throw new InvalException("invalid flag");
         }
 
         /*
          * spec. requires <1>
          */
-        if (_args.opexchange_id.eia_client_impl_id.length > 1) {
+        if (args.opexchange_id.eia_client_impl_id.length > 1) {
             throw new BadXdrException("invalid array size of client implementaion");
         }
 
@@ -159,22 +159,22 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
          * The EXCHGID4_FLAG_CONFIRMED_R bit can only be set in eir_flags; it is
          * always off in eia_flags.
          */
-        if (_args.opexchange_id.eia_flags.value != 0 && ((_args.opexchange_id.eia_flags.value & nfs4_prot.EXCHGID4_FLAG_CONFIRMED_R) == nfs4_prot.EXCHGID4_FLAG_CONFIRMED_R)) {
+        if (args.opexchange_id.eia_flags.value != 0 && ((args.opexchange_id.eia_flags.value & nfs4_prot.EXCHGID4_FLAG_CONFIRMED_R) == nfs4_prot.EXCHGID4_FLAG_CONFIRMED_R)) {
             throw new InvalException("Client used server-only flag");
         }
 
 
         //Check if there is another ssv use -> TODO: Implement SSV
-        if (_args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_NONE) {
-            _log.debug("Tried the wrong security Option! {}:", _args.opexchange_id.eia_state_protect.spa_how);
+        if (args.opexchange_id.eia_state_protect.spa_how != state_protect_how4.SP4_NONE) {
+            _log.debug("Tried the wrong security Option! {}:", args.opexchange_id.eia_state_protect.spa_how);
             throw new AccessException("SSV other than SP4NONE to use");
         }
 
         NFS4Client client = context.getStateHandler().clientByOwner(clientOwner);
         final Principal principal = context.getPrincipal();
-        final verifier4 verifier = _args.opexchange_id.eia_clientowner.co_verifier;
+        final verifier4 verifier = args.opexchange_id.eia_clientowner.co_verifier;
 
-        final boolean update = (_args.opexchange_id.eia_flags.value & nfs4_prot.EXCHGID4_FLAG_UPD_CONFIRMED_REC_A) != 0;
+        final boolean update = (args.opexchange_id.eia_flags.value & nfs4_prot.EXCHGID4_FLAG_UPD_CONFIRMED_REC_A) != 0;
 
         final InetSocketAddress remoteSocketAddress = context.getRemoteSocketAddress();
         final InetSocketAddress localSocketAddress = context.getLocalSocketAddress();
@@ -209,7 +209,7 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
                 client = stateHandler.createClient(
                         remoteSocketAddress, localSocketAddress,
                         context.getMinorversion(),
-                        clientOwner, _args.opexchange_id.eia_clientowner.co_verifier,
+                        clientOwner, args.opexchange_id.eia_clientowner.co_verifier,
                         principal, needCallBack);
 
             } else {
@@ -224,7 +224,7 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
                         client = stateHandler.createClient(
                                 remoteSocketAddress, localSocketAddress,
                                 context.getMinorversion(),
-                                clientOwner, _args.opexchange_id.eia_clientowner.co_verifier,
+                                clientOwner, args.opexchange_id.eia_clientowner.co_verifier,
                                 principal, needCallBack);
                     } else {
                         _log.debug("Case 3b: Client Collision");
@@ -233,7 +233,7 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
                             client = stateHandler.createClient(
                                     remoteSocketAddress, localSocketAddress,
                                     context.getMinorversion(),
-                                    clientOwner, _args.opexchange_id.eia_clientowner.co_verifier,
+                                    clientOwner, args.opexchange_id.eia_clientowner.co_verifier,
                                     principal, needCallBack);
                         } else {
                             throw new ClidInUseException("Principal Missmatch");
@@ -245,8 +245,8 @@ public class OperationEXCHANGE_ID extends AbstractNFSv4Operation {
                     client = stateHandler.createClient(
                             remoteSocketAddress, localSocketAddress,
                             context.getMinorversion(),
-                            _args.opexchange_id.eia_clientowner.co_ownerid,
-                            _args.opexchange_id.eia_clientowner.co_verifier,
+                            args.opexchange_id.eia_clientowner.co_ownerid,
+                            args.opexchange_id.eia_clientowner.co_verifier,
                             principal, needCallBack);
                 }
             }
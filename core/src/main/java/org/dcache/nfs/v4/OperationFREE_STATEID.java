@@ -34,18 +34,18 @@ import org.dcache.xdr.OncRpcException;
  */
 public class OperationFREE_STATEID extends AbstractNFSv4Operation {
 
-    public OperationFREE_STATEID(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_FREE_STATEID);
+    public OperationFREE_STATEID() {
+        super(nfs_opnum4.OP_FREE_STATEID);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         // FIXME: we as validating spec, as a valid open-state must rerun NFS4ERR_LOCKS_HELD.
 
         final FREE_STATEID4res res = result.opfree_stateid;
         NFS4Client client = context.getSession().getClient();
-        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, _args.opfree_stateid.fsa_stateid);
+        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, args.opfree_stateid.fsa_stateid);
         client.releaseState(stateid);
         res.fsr_status = nfsstat.NFS_OK;
     }
@@ -28,7 +28,6 @@ import java.util.concurrent.TimeUnit;
 import org.dcache.nfs.v4.xdr.fattr4_numlinks;
 import org.dcache.nfs.v4.xdr.fattr4_aclsupport;
 import org.dcache.nfs.v4.xdr.nfs_ftype4;
-import org.dcache.nfs.v4.xdr.attrlist4;
 import org.dcache.nfs.v4.xdr.fattr4_case_insensitive;
 import org.dcache.nfs.v4.xdr.nfs_fh4;
 import org.dcache.nfs.v4.xdr.fattr4_rawdev;
@@ -87,7 +86,6 @@ import org.dcache.nfs.v4.xdr.GETATTR4resok;
 import org.dcache.nfs.v4.xdr.GETATTR4res;
 
 import org.dcache.xdr.XdrAble;
-import org.dcache.xdr.XdrBuffer;
 import org.dcache.nfs.status.InvalException;
 import org.dcache.nfs.v4.xdr.fattr4_space_avail;
 import org.dcache.nfs.v4.xdr.fattr4_time_delta;
@@ -98,7 +96,6 @@ import org.dcache.nfs.vfs.Inode;
 import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.dcache.nfs.vfs.Stat;
 import org.dcache.xdr.OncRpcException;
-import org.glassfish.grizzly.Buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -110,17 +107,17 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
 
         private static final Logger _log = LoggerFactory.getLogger(OperationGETATTR.class);
 
-	public OperationGETATTR(nfs_argop4 args) {
-		super(args, nfs_opnum4.OP_GETATTR);
+	public OperationGETATTR() {
+		super(nfs_opnum4.OP_GETATTR);
 	}
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException, OncRpcException {
 
         final GETATTR4res res = result.opgetattr;
 
         res.resok4 = new GETATTR4resok();
-        res.resok4.obj_attributes = getAttributes(_args.opgetattr.attr_request,
+        res.resok4.obj_attributes = getAttributes(args.opgetattr.attr_request,
                 context.getFs(),
                 context.currentInode(), context);
 
@@ -131,36 +128,7 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
     static fattr4 getAttributes(bitmap4 bitmap, VirtualFileSystem fs, Inode inode, Stat stat, CompoundContext context)
             throws IOException, OncRpcException {
 
-        /*
-         * bitmap we send back. can't be uninitialized.
-         */
-        bitmap4 processedAttributes = new bitmap4(new int[0]);
-
-        XdrBuffer xdr = new XdrBuffer(1024);
-        xdr.beginEncoding();
-
-        for (int i : bitmap) {
-            Optional<XdrAble> optionalAttr = (Optional<XdrAble>) fattr2xdr(i, fs, inode, stat, context);
-            if (optionalAttr.isPresent()) {
-                XdrAble attr = optionalAttr.get();
-                _log.debug("   getAttributes : {} ({}) OK.", i, attrMask2String(i));
-                attr.xdrEncode(xdr);
-                processedAttributes.set(i);
-            } else {
-                _log.debug("   getAttributes : {} ({}) NOT SUPPORTED.", i, attrMask2String(i));
-            }
-        }
-
-        xdr.endEncoding();
-        Buffer body = xdr.asBuffer();
-        byte[] retBytes = new byte[body.remaining()] ;
-        body.get(retBytes);
-
-        fattr4 attributes = new fattr4();
-        attributes.attrmask = processedAttributes;
-        attributes.attr_vals = new attrlist4(retBytes);
-
-        return attributes;
+        return AttributeEncoder.forBitmap(bitmap).encode(fs, inode, stat, context);
     }
 
     static fattr4  getAttributes(bitmap4 bitmap, VirtualFileSystem fs, Inode inode, CompoundContext context)
@@ -168,13 +136,6 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
         return getAttributes(bitmap, fs, inode, context.getFs().getattr(inode), context);
     }
 
-    private static FsStat getFsStat(FsStat fsStat, VirtualFileSystem fs) throws IOException {
-        if (fsStat != null) {
-            return fsStat;
-        }
-        return fs.getFsStat();
-    }
-
     /**
      * get inodes requested attribute and converted into RPC xdr format
      * operates with READ and R/W attributes
@@ -189,7 +150,11 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
     // read/read-write
     static Optional<? extends XdrAble> fattr2xdr(int fattr, VirtualFileSystem fs, Inode inode, Stat stat, CompoundContext context) throws IOException {
 
-        FsStat fsStat = null;
+        /*
+         * file system statistics are fetched once per compound by the
+         * compound's file system.
+         */
+        FsStat fsStat;
 
         switch (fattr) {
 
@@ -258,15 +223,15 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
             case nfs4_prot.FATTR4_FILEID:
                 return Optional.of(new fattr4_fileid(stat.getFileId()));
             case nfs4_prot.FATTR4_FILES_AVAIL:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 fattr4_files_avail files_avail = new fattr4_files_avail(fsStat.getTotalFiles() - fsStat.getUsedFiles());
                 return Optional.of(files_avail);
             case nfs4_prot.FATTR4_FILES_FREE:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 fattr4_files_free files_free = new fattr4_files_free(fsStat.getTotalFiles() - fsStat.getUsedFiles());
                 return Optional.of(files_free);
             case nfs4_prot.FATTR4_FILES_TOTAL:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 return Optional.of(new fattr4_files_total(fsStat.getTotalFiles()));
             case nfs4_prot.FATTR4_FS_LOCATIONS:
                 return Optional.empty();
@@ -313,15 +278,15 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
                 dev.specdata2 = 0;
                 return Optional.of(new fattr4_rawdev(dev));
             case nfs4_prot.FATTR4_SPACE_AVAIL:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 fattr4_space_avail spaceAvail = new fattr4_space_avail(fsStat.getTotalSpace() - fsStat.getUsedSpace());
                 return Optional.of(spaceAvail);
             case nfs4_prot.FATTR4_SPACE_FREE:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 fattr4_space_free space_free = new fattr4_space_free(fsStat.getTotalSpace() - fsStat.getUsedSpace());
                 return Optional.of(space_free);
             case nfs4_prot.FATTR4_SPACE_TOTAL:
-                fsStat = getFsStat(fsStat, fs);
+                fsStat = fs.getFsStat();
                 return Optional.of(new fattr4_space_total(fsStat.getTotalSpace()));
             case nfs4_prot.FATTR4_SPACE_USED:
                 return Optional.of(new fattr4_space_used(stat.getSize()));
@@ -346,17 +311,7 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
                 return Optional.of(mtime);
             case nfs4_prot.FATTR4_MOUNTED_ON_FILEID:
 
-                /*
-                 * TODO!!!:
-                 */
-
-                long mofi = stat.getFileId();
-
-                if (mofi == 0x00b0a23a /* it's a root*/) {
-                    mofi = 0x12345678;
-                }
-
-                fattr4_mounted_on_fileid mounted_on_fileid = new fattr4_mounted_on_fileid(mofi);
+                fattr4_mounted_on_fileid mounted_on_fileid = new fattr4_mounted_on_fileid(mountedOnFileid(stat));
                 return Optional.of(mounted_on_fileid);
 
             /**
@@ -644,6 +599,20 @@ public class OperationGETATTR extends AbstractNFSv4Operation {
     }
 
 
+    static long mountedOnFileid(Stat stat) {
+
+        /*
+         * TODO!!!:
+         */
+
+        long mofi = stat.getFileId();
+
+        if (mofi == 0x00b0a23a /* it's a root*/) {
+            mofi = 0x12345678;
+        }
+        return mofi;
+    }
+
     static int unixType2NFS( int type ) {
 
         int ret = 0;
@@ -42,12 +42,12 @@ public class OperationGETDEVICEINFO extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationGETDEVICEINFO.class);
 
-    public OperationGETDEVICEINFO(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_GETDEVICEINFO);
+    public OperationGETDEVICEINFO() {
+        super(nfs_opnum4.OP_GETDEVICEINFO);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         /*
          * GETDEVICEINFO. returns the mapping of device ID to storage device
@@ -58,13 +58,13 @@ public class OperationGETDEVICEINFO extends AbstractNFSv4Operation {
                 .getDeviceManager()
                 .orElseThrow(() -> new NotSuppException("pNFS device manager not configured"));
 
-        deviceid4 deviceId = _args.opgetdeviceinfo.gdia_device_id;
+        deviceid4 deviceId = args.opgetdeviceinfo.gdia_device_id;
 
-        _log.debug("Get device info for device [{}], type {} ", deviceId, _args.opgetdeviceinfo.gdia_layout_type);
+        _log.debug("Get device info for device [{}], type {} ", deviceId, args.opgetdeviceinfo.gdia_layout_type);
 
         res.gdir_resok4 = new GETDEVICEINFO4resok();
 
-        layouttype4 layoutType = layouttype4.valueOf(_args.opgetdeviceinfo.gdia_layout_type);
+        layouttype4 layoutType = layouttype4.valueOf(args.opgetdeviceinfo.gdia_layout_type);
         device_addr4 deviceInfo = pnfsDeviceManager.getDeviceInfo(context, deviceId, layoutType);
 
         if (deviceInfo == null) {
@@ -76,10 +76,10 @@ public class OperationGETDEVICEINFO extends AbstractNFSv4Operation {
         /*
          * provide faked notification only if client expects them
          */
-        if (_args.opgetdeviceinfo.gdia_notify_types.isSet(NOTIFY_DEVICEID4_CHANGE)) {
+        if (args.opgetdeviceinfo.gdia_notify_types.isSet(NOTIFY_DEVICEID4_CHANGE)) {
             res.gdir_resok4.gdir_notification.set(NOTIFY_DEVICEID4_CHANGE);
         }
-        if (_args.opgetdeviceinfo.gdia_notify_types.isSet(NOTIFY_DEVICEID4_DELETE)) {
+        if (args.opgetdeviceinfo.gdia_notify_types.isSet(NOTIFY_DEVICEID4_DELETE)) {
             res.gdir_resok4.gdir_notification.set(NOTIFY_DEVICEID4_DELETE);
         }
 
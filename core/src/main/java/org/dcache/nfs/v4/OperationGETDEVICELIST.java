@@ -42,12 +42,12 @@ public class OperationGETDEVICELIST extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationGETDEVICELIST.class);
 
-    public OperationGETDEVICELIST(nfs_argop4 args) {
-    super(args, nfs_opnum4.OP_GETDEVICELIST);
+    public OperationGETDEVICELIST() {
+    super(nfs_opnum4.OP_GETDEVICELIST);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         final GETDEVICELIST4res res = result.opgetdevicelist;
         final NFSv41DeviceManager pnfsDeviceManager = context
@@ -61,11 +61,11 @@ public class OperationGETDEVICELIST extends AbstractNFSv4Operation {
          * particular layout type.
          */
 
-        if (_args.opgetdevicelist.gdla_maxdevices.value < 0) {
+        if (args.opgetdevicelist.gdla_maxdevices.value < 0) {
             throw new InvalException("negative maxcount");
         }
 
-        if (_args.opgetdevicelist.gdla_maxdevices.value < 1) {
+        if (args.opgetdevicelist.gdla_maxdevices.value < 1) {
             throw new TooSmallException("device list too small");
         }
 
@@ -77,7 +77,7 @@ public class OperationGETDEVICELIST extends AbstractNFSv4Operation {
 
         List<deviceid4> deviceIDs = pnfsDeviceManager.getDeviceList(context);
 
-        int deviceListSize = Math.min(deviceIDs.size(), _args.opgetdevicelist.gdla_maxdevices.value);
+        int deviceListSize = Math.min(deviceIDs.size(), args.opgetdevicelist.gdla_maxdevices.value);
 
         res.gdlr_resok4.gdlr_deviceid_list = new deviceid4[deviceListSize];
 
@@ -88,7 +88,7 @@ public class OperationGETDEVICELIST extends AbstractNFSv4Operation {
 
         _log.debug("GETDEVICELIST4: new list of #{}, maxcount {}",
                 res.gdlr_resok4.gdlr_deviceid_list.length,
-                _args.opgetdevicelist.gdla_maxdevices.value);
+                args.opgetdevicelist.gdla_maxdevices.value);
 
         /*
          * we reply only one dummy entry. The rest is dynamic
@@ -35,12 +35,12 @@ public class OperationGETFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationGETFH.class);
 
-    public OperationGETFH(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_GETFH);
+    public OperationGETFH() {
+        super(nfs_opnum4.OP_GETFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
 
         final GETFH4res res = result.opgetfh;
 
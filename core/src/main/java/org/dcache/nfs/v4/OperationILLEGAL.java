@@ -31,12 +31,12 @@ public class OperationILLEGAL extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationILLEGAL.class);
 
-    public OperationILLEGAL(nfs_argop4 op) {
-        super(op, nfs_opnum4.OP_ILLEGAL);
+    public OperationILLEGAL() {
+        super(nfs_opnum4.OP_ILLEGAL);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
-	throw new OpIllegalException("Illegal/Unsupported  operation ("  + _args.argop + ")");
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
+	throw new OpIllegalException("Illegal/Unsupported  operation ("  + args.argop + ")");
     }
 }
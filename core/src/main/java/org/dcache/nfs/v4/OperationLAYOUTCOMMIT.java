@@ -38,12 +38,12 @@ public class OperationLAYOUTCOMMIT extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLAYOUTCOMMIT.class);
 
-    public OperationLAYOUTCOMMIT(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LAYOUTCOMMIT);
+    public OperationLAYOUTCOMMIT() {
+        super(nfs_opnum4.OP_LAYOUTCOMMIT);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
 
         final LAYOUTCOMMIT4res res = result.oplayoutcommit;
 
@@ -51,19 +51,19 @@ public class OperationLAYOUTCOMMIT extends AbstractNFSv4Operation {
                 .orElseThrow(() -> new NotSuppException("pNFS device manager not configured"));
 
         _log.debug("LAYOUTCOMMIT: inode=" + context.currentInode() + " length="
-                + _args.oplayoutcommit.loca_length.value + " offset="
-                + _args.oplayoutcommit.loca_offset.value + " loca_last_write_offset="
-                + (_args.oplayoutcommit.loca_last_write_offset.no_newoffset
-                ? _args.oplayoutcommit.loca_last_write_offset.no_offset.value : "notset"));
+                + args.oplayoutcommit.loca_length.value + " offset="
+                + args.oplayoutcommit.loca_offset.value + " loca_last_write_offset="
+                + (args.oplayoutcommit.loca_last_write_offset.no_newoffset
+                ? args.oplayoutcommit.loca_last_write_offset.no_offset.value : "notset"));
 
         res.locr_resok4 = new LAYOUTCOMMIT4resok();
         res.locr_resok4.locr_newsize = new newsize4();
         res.locr_resok4.locr_newsize.ns_sizechanged = false;
 
-        if (_args.oplayoutcommit.loca_last_write_offset.no_newoffset) {
+        if (args.oplayoutcommit.loca_last_write_offset.no_newoffset) {
             Stat stat = context.getFs().getattr(context.currentInode());
             long currentSize = stat.getSize();
-            long newSize = _args.oplayoutcommit.loca_last_write_offset.no_offset.value + 1;
+            long newSize = args.oplayoutcommit.loca_last_write_offset.no_offset.value + 1;
             if (newSize > currentSize) {
                 Stat newStat = new Stat();
                 newStat.setSize(newSize);
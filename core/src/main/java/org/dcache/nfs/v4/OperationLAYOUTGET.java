@@ -49,46 +49,46 @@ public class OperationLAYOUTGET extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLAYOUTGET.class);
 
-    public OperationLAYOUTGET(nfs_argop4 args) {
-    super(args, nfs_opnum4.OP_LAYOUTGET);
+    public OperationLAYOUTGET() {
+    super(nfs_opnum4.OP_LAYOUTGET);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         final LAYOUTGET4res res = result.oplayoutget;
         final NFSv41DeviceManager pnfsDeviceManager = context
                 .getDeviceManager()
                 .orElseThrow(() -> new NotSuppException("pNFS device manager not configured"));
 
-        if ((_args.oplayoutget.loga_length.value != nfs4_prot.NFS4_UINT64_MAX) &&
-                (_args.oplayoutget.loga_length.value < _args.oplayoutget.loga_minlength.value)) {
+        if ((args.oplayoutget.loga_length.value != nfs4_prot.NFS4_UINT64_MAX) &&
+                (args.oplayoutget.loga_length.value < args.oplayoutget.loga_minlength.value)) {
             throw new InvalException("requested layout length is smaller than minlen");
         }
 
-        if (_args.oplayoutget.loga_length.value != nfs4_prot.NFS4_UINT64_MAX) {
-            _args.oplayoutget.loga_offset.checkOverflow(_args.oplayoutget.loga_length, "offset + length overflow");
+        if (args.oplayoutget.loga_length.value != nfs4_prot.NFS4_UINT64_MAX) {
+            args.oplayoutget.loga_offset.checkOverflow(args.oplayoutget.loga_length, "offset + length overflow");
         }
 
-        if (_args.oplayoutget.loga_minlength.value != nfs4_prot.NFS4_UINT64_MAX) {
-            _args.oplayoutget.loga_offset.checkOverflow(_args.oplayoutget.loga_minlength, "offset + minlength overflow");
+        if (args.oplayoutget.loga_minlength.value != nfs4_prot.NFS4_UINT64_MAX) {
+            args.oplayoutget.loga_offset.checkOverflow(args.oplayoutget.loga_minlength, "offset + minlength overflow");
         }
 
-        if (!(_args.oplayoutget.loga_iomode == layoutiomode4.LAYOUTIOMODE4_RW
-                || _args.oplayoutget.loga_iomode == layoutiomode4.LAYOUTIOMODE4_READ)) {
+        if (!(args.oplayoutget.loga_iomode == layoutiomode4.LAYOUTIOMODE4_RW
+                || args.oplayoutget.loga_iomode == layoutiomode4.LAYOUTIOMODE4_READ)) {
             throw new BadIoModeException("invalid loga_iomode");
         }
 
-        layouttype4 layoutType = layouttype4.valueOf(_args.oplayoutget.loga_layout_type);
+        layouttype4 layoutType = layouttype4.valueOf(args.oplayoutget.loga_layout_type);
         Inode inode = context.currentInode();
 
         if (!isPnfsAllowed(context, inode)) {
             throw new LayoutUnavailableException("pNFS is not allowed");
         }
 
-        int ioMode = _args.oplayoutget.loga_iomode;
+        int ioMode = args.oplayoutget.loga_iomode;
 
-        NFS4State state = context.getSession().getClient().state(_args.oplayoutget.loga_stateid);
+        NFS4State state = context.getSession().getClient().state(args.oplayoutget.loga_stateid);
         // check open file mode
         int shareAccess = context
                 .getStateHandler()
@@ -104,8 +104,8 @@ public class OperationLAYOUTGET extends AbstractNFSv4Operation {
         try {
             ioLayout = pnfsDeviceManager.layoutGet(context, inode,
                     layoutType,
-                    _args.oplayoutget.loga_iomode,
-                    _args.oplayoutget.loga_stateid);
+                    args.oplayoutget.loga_iomode,
+                    args.oplayoutget.loga_stateid);
         } catch (NfsIoException e) {
             // linux client can't handle EIO on layout get. force it to proxy IO to
             // hit a different code path.
@@ -121,7 +121,7 @@ public class OperationLAYOUTGET extends AbstractNFSv4Operation {
         int layoutBodySize = 0;
         for(layout4 layout: layoutSegments) {
             layoutBodySize += layout.lo_content.loc_body.length;
-            if ( layoutBodySize > _args.oplayoutget.loga_maxcount.value) {
+            if ( layoutBodySize > args.oplayoutget.loga_maxcount.value) {
                 break;
             }
             n++;
@@ -36,30 +36,30 @@ public class OperationLAYOUTRETURN extends AbstractNFSv4Operation {
 
         private static final Logger _log = LoggerFactory.getLogger(OperationLAYOUTRETURN.class);
 
-	OperationLAYOUTRETURN(nfs_argop4 args) {
-		super(args, nfs_opnum4.OP_LAYOUTRETURN);
+	OperationLAYOUTRETURN() {
+		super(nfs_opnum4.OP_LAYOUTRETURN);
 	}
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         final LAYOUTRETURN4res res = result.oplayoutreturn;
         final NFSv41DeviceManager pnfsDeviceManager = context
                 .getDeviceManager()
                 .orElseThrow(() -> new NotSuppException("pNFS device manager not configured"));
 
-        _log.debug("LAYOUTRETURN4args :        type: {}", _args.oplayoutreturn.lora_layout_type);
-        _log.debug("LAYOUTRETURN4args :        mode: {}", _args.oplayoutreturn.lora_iomode);
-        _log.debug("LAYOUTRETURN4args : return type: {}", _args.oplayoutreturn.lora_layoutreturn.lr_returntype);
-        _log.debug("LAYOUTRETURN4args :     reclaim: {}", _args.oplayoutreturn.lora_reclaim);
+        _log.debug("LAYOUTRETURN4args :        type: {}", args.oplayoutreturn.lora_layout_type);
+        _log.debug("LAYOUTRETURN4args :        mode: {}", args.oplayoutreturn.lora_iomode);
+        _log.debug("LAYOUTRETURN4args : return type: {}", args.oplayoutreturn.lora_layoutreturn.lr_returntype);
+        _log.debug("LAYOUTRETURN4args :     reclaim: {}", args.oplayoutreturn.lora_reclaim);
 
-        if (_args.oplayoutreturn.lora_layoutreturn.lr_returntype == layoutreturn_type4.LAYOUTRETURN4_FILE) {
+        if (args.oplayoutreturn.lora_layoutreturn.lr_returntype == layoutreturn_type4.LAYOUTRETURN4_FILE) {
 
             pnfsDeviceManager.
                     layoutReturn(context,
-                    _args.oplayoutreturn.lora_layoutreturn.lr_layout.lrf_stateid,
-                            layouttype4.valueOf(_args.oplayoutreturn.lora_layout_type),
-                    _args.oplayoutreturn.lora_layoutreturn.lr_layout.lrf_body);
+                    args.oplayoutreturn.lora_layoutreturn.lr_layout.lrf_stateid,
+                            layouttype4.valueOf(args.oplayoutreturn.lora_layout_type),
+                    args.oplayoutreturn.lora_layoutreturn.lr_layout.lrf_body);
         }
 
         res.lorr_stateid = new layoutreturn_stateid();
@@ -39,14 +39,14 @@ public class OperationLINK extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLINK.class);
 
-    public OperationLINK(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LINK);
+    public OperationLINK() {
+        super(nfs_opnum4.OP_LINK);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
 
-        String newName = NameFilter.convertName(_args.oplink.newname.value);
+        String newName = NameFilter.convertName(args.oplink.newname.value);
 
         result.oplink.resok4 = new LINK4resok();
         result.oplink.resok4.cinfo = new change_info4();
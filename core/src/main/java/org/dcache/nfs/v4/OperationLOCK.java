@@ -46,34 +46,34 @@ public class OperationLOCK extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLOCK.class);
 
-    public OperationLOCK(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LOCK);
+    public OperationLOCK() {
+        super(nfs_opnum4.OP_LOCK);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
         // to enforce current file handle existence check
         Inode inode = context.currentInode();
 
-        if(_args.oplock.length.value == 0) {
+        if(args.oplock.length.value == 0) {
             throw new InvalException("zero lock len");
         }
 
-        _args.oplock.offset.checkOverflow(_args.oplock.length, "offset + len overflow");
+        args.oplock.offset.checkOverflow(args.oplock.length, "offset + len overflow");
 
         stateid4 oldStateid;
         NFS4Client client;
         NFS4State lock_state;
         StateOwner lockOwner;
 
-        if (_args.oplock.locker.new_lock_owner) {
-            oldStateid = Stateids.getCurrentStateidIfNeeded(context, _args.oplock.locker.open_owner.open_stateid);
+        if (args.oplock.locker.new_lock_owner) {
+            oldStateid = Stateids.getCurrentStateidIfNeeded(context, args.oplock.locker.open_owner.open_stateid);
 
             if(context.getMinorversion() == 0) {
                 client = context.getStateHandler().getClientIdByStateId(oldStateid);
                 context.getStateHandler().updateClientLeaseTime(oldStateid);
                 // poke lock owner to check it's validity
-                context.getStateHandler().getConfirmedClient(_args.oplock.locker.open_owner.lock_owner.clientid);
+                context.getStateHandler().getConfirmedClient(args.oplock.locker.open_owner.lock_owner.clientid);
             } else {
                 client = context.getSession().getClient();
             }
@@ -81,31 +81,31 @@ public class OperationLOCK extends AbstractNFSv4Operation {
             NFS4State openState = client.state(oldStateid);
             Stateids.checkStateId(openState.stateid(), oldStateid);
             if (context.getMinorversion() == 0) {
-                openState.getStateOwner().acceptAsNextSequence(_args.oplock.locker.open_owner.open_seqid);
+                openState.getStateOwner().acceptAsNextSequence(args.oplock.locker.open_owner.open_seqid);
             }
 
-            lockOwner = client.getOrCreateOwner(_args.oplock.locker.open_owner.lock_owner.owner, _args.oplock.locker.open_owner.lock_seqid);
+            lockOwner = client.getOrCreateOwner(args.oplock.locker.open_owner.lock_owner.owner, args.oplock.locker.open_owner.lock_seqid);
             lock_state = client.createState(lockOwner, openState);
 
             // lock states do not requires extra confirmation
             lock_state.confirm();
 
         } else {
-            oldStateid = Stateids.getCurrentStateidIfNeeded(context, _args.oplock.locker.lock_owner.lock_stateid);
+            oldStateid = Stateids.getCurrentStateidIfNeeded(context, args.oplock.locker.lock_owner.lock_stateid);
             client = context.getStateHandler().getClientIdByStateId(oldStateid);
             lock_state = client.state(oldStateid);
             Stateids.checkStateId(lock_state.stateid(), oldStateid);
 
             lockOwner = lock_state.getStateOwner();
             if (context.getMinorversion() == 0) {
-                lockOwner.acceptAsNextSequence(_args.oplock.locker.lock_owner.lock_seqid);
+                lockOwner.acceptAsNextSequence(args.oplock.locker.lock_owner.lock_seqid);
             }
         }
 
         try {
 
             // reject write lock  on read-only open
-            if (_args.oplock.locktype == nfs_lock_type4.WRITEW_LT || _args.oplock.locktype == nfs_lock_type4.WRITE_LT) {
+            if (args.oplock.locktype == nfs_lock_type4.WRITEW_LT || args.oplock.locktype == nfs_lock_type4.WRITE_LT) {
 
                 int shareAccess = context.getStateHandler().getFileTracker()
                     .getShareAccess(client, inode, lock_state.getOpenState().stateid());
@@ -115,7 +115,7 @@ public class OperationLOCK extends AbstractNFSv4Operation {
                 }
             }
 
-            NlmLock lock = new NlmLock(lockOwner, _args.oplock.locktype,  _args.oplock.offset.value, _args.oplock.length.value);
+            NlmLock lock = new NlmLock(lockOwner, args.oplock.locktype,  args.oplock.offset.value, args.oplock.length.value);
             context.getLm().lock(inode.getFileId(), lock);
 
             // ensure, that on close locks will be released
@@ -42,16 +42,16 @@ public class OperationLOCKT extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLOCKT.class);
 
-    public OperationLOCKT(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LOCKT);
+    public OperationLOCKT() {
+        super(nfs_opnum4.OP_LOCKT);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
         // to enforce current file handle existence check
         Inode inode = context.currentInode();
 
-        if (_args.oplockt.length.value == 0) {
+        if (args.oplockt.length.value == 0) {
             throw new InvalException("zero lock len");
         }
 
@@ -62,12 +62,12 @@ public class OperationLOCKT extends AbstractNFSv4Operation {
             * not exist on the server.
             */
             state_owner4 hypotheticLockOwner = new state_owner4();
-            hypotheticLockOwner.clientid = _args.oplockt.owner.clientid;
-            hypotheticLockOwner.owner = _args.oplockt.owner.owner;
+            hypotheticLockOwner.clientid = args.oplockt.owner.clientid;
+            hypotheticLockOwner.owner = args.oplockt.owner.owner;
 
             StateOwner lockOwner = new StateOwner(hypotheticLockOwner, 0);
 
-            NlmLock lock = new NlmLock(lockOwner, _args.oplockt.locktype, _args.oplockt.offset.value, _args.oplockt.length.value);
+            NlmLock lock = new NlmLock(lockOwner, args.oplockt.locktype, args.oplockt.offset.value, args.oplockt.length.value);
             context.getLm().test(inode.getFileId(), lock);
 
             result.oplockt.status = nfsstat.NFS_OK;
@@ -39,21 +39,21 @@ public class OperationLOCKU extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLOCKU.class);
 
-    public OperationLOCKU(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LOCKU);
+    public OperationLOCKU() {
+        super(nfs_opnum4.OP_LOCKU);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
         // to enforce current file handle existence check
         Inode inode = context.currentInode();
 
-        stateid4 lockStateid = Stateids.getCurrentStateidIfNeeded(context, _args.oplocku.lock_stateid);
+        stateid4 lockStateid = Stateids.getCurrentStateidIfNeeded(context, args.oplocku.lock_stateid);
         NFS4Client client;
         StateOwner lockOwner;
         NFS4State lock_state;
 
-        if (_args.oplocku.length.value == 0) {
+        if (args.oplocku.length.value == 0) {
             throw new InvalException("zero lock len");
         }
 
@@ -68,10 +68,10 @@ public class OperationLOCKU extends AbstractNFSv4Operation {
             lock_state = client.state(lockStateid);
             lockOwner = lock_state.getStateOwner();
             if (context.getMinorversion() == 0) {
-                lockOwner.acceptAsNextSequence(_args.oplocku.seqid);
+                lockOwner.acceptAsNextSequence(args.oplocku.seqid);
             }
 
-            NlmLock lock = new NlmLock(lockOwner, _args.oplocku.locktype, _args.oplocku.offset.value, _args.oplocku.length.value);
+            NlmLock lock = new NlmLock(lockOwner, args.oplocku.locktype, args.oplocku.offset.value, args.oplocku.length.value);
             try {
                 context.getLm().unlock(inode.getFileId(), lock);
             } catch (LockRangeUnavailabeException e) {
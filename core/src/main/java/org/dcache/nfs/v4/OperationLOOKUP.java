@@ -38,15 +38,15 @@ public class OperationLOOKUP extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLOOKUP.class);
 
-    public OperationLOOKUP(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LOOKUP);
+    public OperationLOOKUP() {
+        super(nfs_opnum4.OP_LOOKUP);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final LOOKUP4res res = result.oplookup;
 
-        String name = NameFilter.convertName(_args.oplookup.objname.value);
+        String name = NameFilter.convertName(args.oplookup.objname.value);
 
         Stat stat = context.getFs().getattr(context.currentInode());
         if (stat.type() == Stat.Type.SYMLINK) {
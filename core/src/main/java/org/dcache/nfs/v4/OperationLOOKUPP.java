@@ -37,12 +37,12 @@ public class OperationLOOKUPP extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationLOOKUPP.class);
 
-    public OperationLOOKUPP(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_LOOKUPP);
+    public OperationLOOKUPP() {
+        super(nfs_opnum4.OP_LOOKUPP);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final LOOKUPP4res res = result.oplookupp;
 
         Stat stat = context.getFs().getattr(context.currentInode());
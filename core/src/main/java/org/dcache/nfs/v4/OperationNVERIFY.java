@@ -37,32 +37,32 @@ public class OperationNVERIFY extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationNVERIFY.class);
 
-    public OperationNVERIFY(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_NVERIFY);
+    public OperationNVERIFY() {
+        super(nfs_opnum4.OP_NVERIFY);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException, OncRpcException {
 
         final NVERIFY4res res = result.opnverify;
 
-        fattr4 currentAttr = OperationGETATTR.getAttributes(_args.opnverify.obj_attributes.attrmask,
+        fattr4 currentAttr = OperationGETATTR.getAttributes(args.opnverify.obj_attributes.attrmask,
                 context.getFs(),
                 context.currentInode(), context);
 
-        if (!_args.opnverify.obj_attributes.attrmask.equals(currentAttr.attrmask)) {
+        if (!args.opnverify.obj_attributes.attrmask.equals(currentAttr.attrmask)) {
             throw new AttrNotSuppException("check for not supported attribute");
         }
 
-        if (_args.opnverify.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_RDATTR_ERROR)) {
+        if (args.opnverify.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_RDATTR_ERROR)) {
             throw new InvalException("RDATTR_ERROR can be used with readdir only");
         }
 
         res.status = nfsstat.NFSERR_SAME;
 
-        for (int i = 0; i < _args.opnverify.obj_attributes.attr_vals.value.length; i++) {
+        for (int i = 0; i < args.opnverify.obj_attributes.attr_vals.value.length; i++) {
 
-            if (_args.opnverify.obj_attributes.attr_vals.value[i] != currentAttr.attr_vals.value[i]) {
+            if (args.opnverify.obj_attributes.attr_vals.value[i] != currentAttr.attr_vals.value[i]) {
                 res.status = nfsstat.NFS_OK;
                 break;
             }
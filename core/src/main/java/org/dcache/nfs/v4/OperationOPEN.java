@@ -62,12 +62,12 @@ public class OperationOPEN extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationOPEN.class);
 
-    public OperationOPEN(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_OPEN);
+    public OperationOPEN() {
+        super(nfs_opnum4.OP_OPEN);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
         final OPEN4res res = result.opopen;
 
         NFS4Client client;
@@ -75,13 +75,13 @@ public class OperationOPEN extends AbstractNFSv4Operation {
         if (context.getMinorversion() > 0) {
             client = context.getSession().getClient();
         } else {
-            client = context.getStateHandler().getConfirmedClient(_args.opopen.owner.clientid);
+            client = context.getStateHandler().getConfirmedClient(args.opopen.owner.clientid);
 
             client.updateLeaseTime();
-            _log.debug("open request form {}", _args.opopen.owner);
+            _log.debug("open request form {}", args.opopen.owner);
         }
 
-        owner = client.getOrCreateOwner(_args.opopen.owner.owner, _args.opopen.seqid);
+        owner = client.getOrCreateOwner(args.opopen.owner.owner, args.opopen.seqid);
 
         res.resok4 = new OPEN4resok();
         res.resok4.attrset = new bitmap4();
@@ -90,7 +90,7 @@ public class OperationOPEN extends AbstractNFSv4Operation {
         res.resok4.cinfo = new change_info4();
         res.resok4.cinfo.atomic = true;
 
-        switch (_args.opopen.claim.claim) {
+        switch (args.opopen.claim.claim) {
 
             case open_claim_type4.CLAIM_NULL:
 
@@ -104,14 +104,14 @@ public class OperationOPEN extends AbstractNFSv4Operation {
                     throw new NotDirException();
                 }
                 res.resok4.cinfo.before = new changeid4(stat.getGeneration());
-                String name = NameFilter.convertName(_args.opopen.claim.file.value);
+                String name = NameFilter.convertName(args.opopen.claim.file.value);
                 _log.debug("regular open for : {}", name);
 
                 Inode inode;
-                if (_args.opopen.openhow.opentype == opentype4.OPEN4_CREATE) {
+                if (args.opopen.openhow.opentype == opentype4.OPEN4_CREATE) {
 
-                    boolean exclusive = (_args.opopen.openhow.how.mode == createmode4.EXCLUSIVE4)
-                            || (_args.opopen.openhow.how.mode == createmode4.EXCLUSIVE4_1);
+                    boolean exclusive = (args.opopen.openhow.how.mode == createmode4.EXCLUSIVE4)
+                            || (args.opopen.openhow.how.mode == createmode4.EXCLUSIVE4_1);
 
                     /**
                      * According to the spec. client MAY send all allowed
@@ -124,19 +124,19 @@ public class OperationOPEN extends AbstractNFSv4Operation {
                      */
                     AttributeMap attributeMap;
 
-                    switch (_args.opopen.openhow.how.mode) {
+                    switch (args.opopen.openhow.how.mode) {
                         case createmode4.UNCHECKED4:
                         case createmode4.GUARDED4:
-                            attributeMap = new AttributeMap(_args.opopen.openhow.how.createattrs);
+                            attributeMap = new AttributeMap(args.opopen.openhow.how.createattrs);
                             break;
                         case createmode4.EXCLUSIVE4:
                             attributeMap = new AttributeMap(null);
                             break;
                         case createmode4.EXCLUSIVE4_1:
-                            attributeMap = new AttributeMap(_args.opopen.openhow.how.ch_createboth.cva_attrs);
+                            attributeMap = new AttributeMap(args.opopen.openhow.how.ch_createboth.cva_attrs);
                             break;
                         default:
-                            throw new BadXdrException("bad value: " + _args.opopen.openhow.how.mode);
+                            throw new BadXdrException("bad value: " + args.opopen.openhow.how.mode);
                     }
 
                     try {
@@ -203,7 +203,7 @@ public class OperationOPEN extends AbstractNFSv4Operation {
                     res.resok4.cinfo.after = new changeid4(stat.getGeneration());
 
                     inode = context.getFs().lookup(context.currentInode(), name);
-                    checkCanAccess(context, inode, _args.opopen.share_access);
+                    checkCanAccess(context, inode, args.opopen.share_access);
                 }
 
                 context.currentInode(inode);
@@ -242,17 +242,17 @@ public class OperationOPEN extends AbstractNFSv4Operation {
                 res.resok4.cinfo.after = new changeid4(0);
 
                 inode = context.currentInode();
-                checkCanAccess(context, inode, _args.opopen.share_access);
+                checkCanAccess(context, inode, args.opopen.share_access);
                 break;
             case open_claim_type4.CLAIM_DELEGATE_CUR:
             case open_claim_type4.CLAIM_DELEGATE_PREV:
             case open_claim_type4.CLAIM_DELEG_CUR_FH:
             case open_claim_type4.CLAIM_DELEG_PREV_FH:
-                _log.warn("Unimplemented open claim: {}", _args.opopen.claim.claim);
-                throw new InvalException("Unimplemented open claim: {}" + _args.opopen.claim.claim);
+                _log.warn("Unimplemented open claim: {}", args.opopen.claim.claim);
+                throw new InvalException("Unimplemented open claim: {}" + args.opopen.claim.claim);
             default:
-                _log.warn("BAD open claim: {}", _args.opopen.claim.claim);
-                throw new InvalException("BAD open claim: {}" + _args.opopen.claim.claim);
+                _log.warn("BAD open claim: {}", args.opopen.claim.claim);
+                throw new InvalException("BAD open claim: {}" + args.opopen.claim.claim);
 
         }
 
@@ -278,8 +278,8 @@ public class OperationOPEN extends AbstractNFSv4Operation {
                 .getStateHandler()
                 .getFileTracker()
                 .addOpen(client, owner, context.currentInode(),
-                _args.opopen.share_access.value,
-                _args.opopen.share_deny.value);
+                args.opopen.share_access.value,
+                args.opopen.share_deny.value);
 
         context.currentStateid(stateid);
         res.resok4.stateid = stateid;
@@ -30,12 +30,12 @@ public class OperationOPENATTR extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationOPENATTR.class);
 
-    public OperationOPENATTR(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_OPENATTR);
+    public OperationOPENATTR() {
+        super(nfs_opnum4.OP_OPENATTR);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         result.opopenattr.status = nfsstat.NFSERR_NOTSUPP;
     }
 }
@@ -39,12 +39,12 @@ public class OperationOPEN_CONFIRM extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationOPEN_CONFIRM.class);
 
-    public OperationOPEN_CONFIRM(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_OPEN_CONFIRM);
+    public OperationOPEN_CONFIRM() {
+        super(nfs_opnum4.OP_OPEN_CONFIRM);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         final OPEN_CONFIRM4res res = result.opopen_confirm;
 
@@ -63,12 +63,12 @@ public class OperationOPEN_CONFIRM extends AbstractNFSv4Operation {
             throw new InvalException();
         }
 
-        stateid4 stateid = _args.opopen_confirm.open_stateid;
+        stateid4 stateid = args.opopen_confirm.open_stateid;
         _log.debug("confirmed stateID: {}", stateid);
 
         NFS4Client client = context.getStateHandler().getClientIdByStateId(stateid);
         NFS4State state = client.state(stateid);
-        state.getStateOwner().acceptAsNextSequence(_args.opopen_confirm.seqid);
+        state.getStateOwner().acceptAsNextSequence(args.opopen_confirm.seqid);
 
         state.bumpSeqid();
         state.confirm();
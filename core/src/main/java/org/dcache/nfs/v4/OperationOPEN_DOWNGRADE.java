@@ -37,17 +37,17 @@ public class OperationOPEN_DOWNGRADE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationOPEN_DOWNGRADE.class);
 
-    public OperationOPEN_DOWNGRADE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_OPEN_DOWNGRADE);
+    public OperationOPEN_DOWNGRADE() {
+        super(nfs_opnum4.OP_OPEN_DOWNGRADE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final OPEN_DOWNGRADE4res res = result.opopen_downgrade;
 
-        final int shareAccess = _args.opopen_downgrade.share_access.value & ~nfs4_prot.OPEN4_SHARE_ACCESS_WANT_DELEG_MASK;
-        final int shareDeny = _args.opopen_downgrade.share_deny.value & ~nfs4_prot.OPEN4_SHARE_ACCESS_WANT_DELEG_MASK;
+        final int shareAccess = args.opopen_downgrade.share_access.value & ~nfs4_prot.OPEN4_SHARE_ACCESS_WANT_DELEG_MASK;
+        final int shareDeny = args.opopen_downgrade.share_deny.value & ~nfs4_prot.OPEN4_SHARE_ACCESS_WANT_DELEG_MASK;
 
         /*
          * Share access must be one of OPEN4_SHARE_ACCESS_READ, OPEN4_SHARE_ACCESS_WRITE
@@ -67,7 +67,7 @@ public class OperationOPEN_DOWNGRADE extends AbstractNFSv4Operation {
         }
 
         final Inode inode = context.currentInode();
-        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, _args.opopen_downgrade.open_stateid);
+        stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, args.opopen_downgrade.open_stateid);
         NFS4Client client;
         if (context.getMinorversion() > 0) {
             client = context.getSession().getClient();
@@ -79,7 +79,7 @@ public class OperationOPEN_DOWNGRADE extends AbstractNFSv4Operation {
         Stateids.checkStateId(nfsState.stateid(), stateid);
 
         if (context.getMinorversion() == 0) {
-            nfsState.getStateOwner().acceptAsNextSequence(_args.opopen_downgrade.seqid);
+            nfsState.getStateOwner().acceptAsNextSequence(args.opopen_downgrade.seqid);
         }
 
         res.status = nfsstat.NFS_OK;
@@ -34,16 +34,16 @@ public class OperationPUTFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationPUTFH.class);
 
-    public OperationPUTFH(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_PUTFH);
+    public OperationPUTFH() {
+        super(nfs_opnum4.OP_PUTFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final PUTFH4res res = result.opputfh;
 
         try {
-            context.currentInode(new Inode(_args.opputfh.object.value));
+            context.currentInode(new Inode(args.opputfh.object.value));
             context.currentStateid(Stateids.ZeroStateId());
             _log.debug("NFS Request  PUTFH4 current: {}", context.currentInode());
             res.status = nfsstat.NFS_OK;
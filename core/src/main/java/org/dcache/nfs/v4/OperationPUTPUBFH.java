@@ -33,12 +33,12 @@ public class OperationPUTPUBFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationPUTPUBFH.class);
 
-    public OperationPUTPUBFH(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_PUTPUBFH);
+    public OperationPUTPUBFH() {
+        super(nfs_opnum4.OP_PUTPUBFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final PUTPUBFH4res res = result.opputpubfh;
 
         context.currentInode(context.getFs().getRootInode());
@@ -33,12 +33,12 @@ public class OperationPUTROOTFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationPUTROOTFH.class);
 
-    public OperationPUTROOTFH(nfs_argop4 op) {
-        super(op, nfs_opnum4.OP_PUTROOTFH);
+    public OperationPUTROOTFH() {
+        super(nfs_opnum4.OP_PUTROOTFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
 
         final PUTROOTFH4res res = result.opputrootfh;
 
@@ -21,6 +21,9 @@ package org.dcache.nfs.v4;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.nfsstat;
 import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_opnum4;
@@ -30,7 +33,11 @@ import org.dcache.nfs.status.InvalException;
 import org.dcache.nfs.status.IsDirException;
 import org.dcache.nfs.status.NfsIoException;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
+import org.dcache.nfs.vfs.AsyncIo;
+import org.dcache.nfs.vfs.Inode;
 import org.dcache.nfs.vfs.Stat;
+import org.dcache.nfs.vfs.VirtualFileSystem;
+import org.dcache.xdr.OncRpcException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,15 +45,62 @@ public class OperationREAD extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationREAD.class);
 
-    public OperationREAD(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_READ);
+    public OperationREAD() {
+        super(nfs_opnum4.OP_READ);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException, OncRpcException {
+        await(processAsync(context, args, result));
+    }
+
+    @Override
+    public CompletableFuture<Void> processAsync(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         final READ4res res = result.opread;
+        final VirtualFileSystem fs = context.getFs();
+        final Inode inode;
+
+        try {
+            inode = context.currentInode();
+        } catch (ChimeraNFSException e) {
+            return AsyncIo.failed(e);
+        }
+
+        return fs.getattrAsync(inode).thenCompose(inodeStat -> {
+
+            try {
+                checkCanRead(context, args, inodeStat);
+            } catch (ChimeraNFSException e) {
+                throw new CompletionException(e);
+            }
+
+            long offset = args.opread.offset.value;
+            int count = args.opread.count.value;
+
+            ByteBuffer buf = context.allocateBuffer(count);
+
+            /*
+             * The file system fills the buffer and advances it's position,
+             * which is used as data length on encoding.
+             */
+            return fs.readAsync(inode, buf, offset).thenAccept(bytesReaded -> {
+                if (bytesReaded < 0) {
+                    throw new CompletionException(new NfsIoException("IO not allowd"));
+                }
+
+                res.status = nfsstat.NFS_OK;
+                res.resok4 = new READ4resok();
 
-        Stat inodeStat = context.getFs().getattr(context.currentInode());
+                res.resok4.data = buf;
+
+                if (offset + bytesReaded >= inodeStat.getSize()) {
+                    res.resok4.eof = true;
+                }
+            });
+        });
+    }
+
+    private static void checkCanRead(CompoundContext context, nfs_argop4 args, Stat inodeStat) throws ChimeraNFSException {
 
         if (inodeStat.type() == Stat.Type.DIRECTORY) {
             throw new IsDirException();
@@ -63,34 +117,7 @@ public class OperationREAD extends AbstractNFSv4Operation {
              * opertations. With introduction of sessions in v4.1 update of the
              * lease time done through SEQUENCE operation.
              */
-            context.getStateHandler().updateClientLeaseTime(_args.opread.stateid);
-        }
-
-
-        long offset = _args.opread.offset.value;
-        int count = _args.opread.count.value;
-
-        ByteBuffer buf = ByteBuffer.allocate(count);
-
-        int bytesReaded = context.getFs().read(context.currentInode(),
-                buf.array(), offset, count);
-        if (bytesReaded < 0) {
-            throw new NfsIoException("IO not allowd");
-        }
-
-        /*
-         * While we have written directly into back-end byte array tell the byte
-         * buffer the actual position.
-         */
-        buf.position(bytesReaded);
-
-        res.status = nfsstat.NFS_OK;
-        res.resok4 = new READ4resok();
-
-        res.resok4.data = buf;
-
-        if (offset + bytesReaded >= inodeStat.getSize()) {
-            res.resok4.eof = true;
+            context.getStateHandler().updateClientLeaseTime(args.opread.stateid);
         }
     }
 }
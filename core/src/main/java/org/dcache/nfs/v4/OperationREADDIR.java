@@ -19,8 +19,15 @@
  */
 package org.dcache.nfs.v4;
 
+import com.google.common.collect.Lists;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import org.dcache.nfs.nfsstat;
 import org.dcache.nfs.v4.xdr.entry4;
 import org.dcache.nfs.v4.xdr.dirlist4;
@@ -34,13 +41,17 @@ import org.dcache.nfs.v4.xdr.READDIR4res;
 import org.dcache.nfs.ChimeraNFSException;
 
 import org.dcache.nfs.status.BadCookieException;
+import org.dcache.nfs.status.BadOwnerException;
 import org.dcache.nfs.status.NotDirException;
 import org.dcache.nfs.status.TooSmallException;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
 import org.dcache.nfs.vfs.DirectoryEntry;
 import org.dcache.nfs.vfs.DirectoryStream;
+import org.dcache.nfs.vfs.FsStat;
 import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.InodeAttributes;
 import org.dcache.nfs.vfs.Stat;
+import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.dcache.xdr.OncRpcException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,20 +78,32 @@ public class OperationREADDIR extends AbstractNFSv4Operation {
      */
     private static final long COOKIE_OFFSET = 3;
 
-    OperationREADDIR(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_READDIR);
+    /**
+     * Maximal number of entries for which attributes are fetched with a
+     * single file system call.
+     */
+    private static final int BATCH_SIZE = 128;
+
+    /**
+     * Smallest possible contribution of an entry to dircount.
+     * 1 (name) + 4
+     */
+    private static final int MIN_DIRCOUNT_SIZE = 5;
+
+    OperationREADDIR() {
+        super(nfs_opnum4.OP_READDIR);
     }
 
     @Override
-    public void process(final CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(final CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         final READDIR4res res = result.opreaddir;
 
         final Inode dir = context.currentInode();
 
         DirectoryStream directoryStream;
-        verifier4 verifier =_args.opreaddir.cookieverf;
-        long startValue = _args.opreaddir.cookie.value;
+        verifier4 verifier =args.opreaddir.cookieverf;
+        long startValue = args.opreaddir.cookie.value;
 
         /*
          * we have to fake cookie values, while '0' and '1' is reserved so we
@@ -102,7 +125,7 @@ public class OperationREADDIR extends AbstractNFSv4Operation {
 
         directoryStream = context.getFs().list(dir, verifier.value, startValue);
         Iterator<DirectoryEntry> dirList = directoryStream.iterator();
-        if (_args.opreaddir.maxcount.value < READDIR4RESOK_SIZE) {
+        if (args.opreaddir.maxcount.value < READDIR4RESOK_SIZE) {
             throw new TooSmallException("maxcount too small");
         }
 
@@ -112,64 +135,197 @@ public class OperationREADDIR extends AbstractNFSv4Operation {
         res.resok4.reply.eof = true;
         res.resok4.cookieverf = new verifier4(directoryStream.getVerifier());
 
+        VirtualFileSystem fs = context.getFs();
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(args.opreaddir.attr_request);
+        FsStat fsStat = encoder.needsFsStat() ? fs.getFsStat() : null;
+        NfsIdMapping idMapper = new ReplyIdMapping(fs.getIdMapper());
+
         int currcount = READDIR4RESOK_SIZE;
         int dircount = 0;
         entry4 lastEntry = null;
 
         int fcount = 0;
-        while (dirList.hasNext()) {
+        List<DirectoryEntry> batch = new ArrayList<>(BATCH_SIZE);
+        fill:
+        while (nextBatch(dirList, batch, batchSize(args.opreaddir.maxcount.value - currcount,
+                args.opreaddir.dircount.value - dircount, currcount - READDIR4RESOK_SIZE, dircount,
+                fcount, encoder))) {
 
-            DirectoryEntry le = dirList.next();
-            String name = le.getName();
+            List<InodeAttributes> batchAttributes = fetchAttributes(fs, batch, encoder.needsAcl());
 
-            // skip . and .. while nfsv4 do not care about them
-            if (name.equals(".")) {
-                continue;
-            }
-            if (name.equals("..")) {
-                continue;
-            }
+            for (int i = 0; i < batch.size(); i++) {
 
-            Inode ei = le.getInode();
+                DirectoryEntry le = batch.get(i);
+                InodeAttributes attributes = batchAttributes.get(i);
+                String name = le.getName();
+                Inode ei = le.getInode();
 
-            entry4 currentEntry = new entry4();
-            currentEntry.name = new component4(name);
-            // shift all cookies by OFFSET, as 1 and 2 are reserved
-            currentEntry.cookie = new nfs_cookie4(le.getCookie() + COOKIE_OFFSET);
+                entry4 currentEntry = new entry4();
+                currentEntry.name = new component4(name);
+                // shift all cookies by OFFSET, as 1 and 2 are reserved
+                currentEntry.cookie = new nfs_cookie4(le.getCookie() + COOKIE_OFFSET);
 
-            // TODO: catch here error from getattr and reply 'fattr4_rdattr_error' to the client
-            currentEntry.attrs = OperationGETATTR.getAttributes(_args.opreaddir.attr_request, context.getFs(), ei, le.getStat(), context);
+                // TODO: catch here error from getattr and reply 'fattr4_rdattr_error' to the client
+                currentEntry.attrs = encoder.encode(fs, ei, attributes.getStat(), attributes.getAcl(),
+                        fsStat, idMapper, context);
 
-            // check if writing this entry exceeds the count limit
-            int newSize = ENTRY4_SIZE + name.length() + currentEntry.name.value.length + currentEntry.attrs.attr_vals.value.length;
-            int newDirSize = name.length() + 4; // name + sizeof(long)
-            if ((currcount + newSize > _args.opreaddir.maxcount.value) || (dircount + newDirSize > _args.opreaddir.dircount.value)) {
-                if (lastEntry == null) {
-                    //corner case - means we didnt have enough space to
-                    //write even a single entry.
-                    throw new TooSmallException("can't send even a single entry");
+                // check if writing this entry exceeds the count limit
+                int newSize = ENTRY4_SIZE + name.length() + currentEntry.name.value.length + currentEntry.attrs.attr_vals.value.length;
+                int newDirSize = name.length() + 4; // name + sizeof(long)
+                if ((currcount + newSize > args.opreaddir.maxcount.value) || (dircount + newDirSize > args.opreaddir.dircount.value)) {
+                    if (lastEntry == null) {
+                        //corner case - means we didnt have enough space to
+                        //write even a single entry.
+                        throw new TooSmallException("can't send even a single entry");
+                    }
+                    res.resok4.reply.eof = false;
+                    break fill;
                 }
-                res.resok4.reply.eof = false;
-                break;
-            }
-            fcount++;
-            dircount += newDirSize;
-            currcount += newSize;
+                fcount++;
+                dircount += newDirSize;
+                currcount += newSize;
 
-            if (lastEntry == null) {
-                res.resok4.reply.entries = currentEntry;
-            } else {
-                lastEntry.nextentry = currentEntry;
+                if (lastEntry == null) {
+                    res.resok4.reply.entries = currentEntry;
+                } else {
+                    lastEntry.nextentry = currentEntry;
+                }
+                lastEntry = currentEntry;
             }
-            lastEntry = currentEntry;
         }
 
         _log.debug("Sending {} entries ({} bytes from {}, dircount = {}) cookie = {} EOF={}",
                 fcount,
                 currcount,
-                _args.opreaddir.maxcount.value,
-                _args.opreaddir.dircount.value,
+                args.opreaddir.maxcount.value,
+                args.opreaddir.dircount.value,
                 startValue,
                 res.resok4.reply.eof);
     }
+
+    /**
+     * Estimate number of entries, which still fit into the reply. The size
+     * of an entry is taken from the entries already added to the reply, if
+     * any. This avoids fetching attributes of entries, which will not be sent.
+     *
+     * @param maxcount remaining reply size in bytes.
+     * @param dircount remaining dircount budget.
+     * @param usedMaxcount reply size used by already added entries.
+     * @param usedDircount dircount used by already added entries.
+     * @param fcount number of already added entries.
+     * @param encoder encoder of entry's attributes.
+     * @return number of entries to fetch with the next batch.
+     */
+    private static int batchSize(int maxcount, int dircount, int usedMaxcount, int usedDircount,
+            int fcount, AttributeEncoder encoder) {
+
+        int entrySize;
+        int dirEntrySize;
+        if (fcount == 0) {
+            entrySize = ENTRY4_SIZE + encoder.sizeHint();
+            dirEntrySize = MIN_DIRCOUNT_SIZE;
+        } else {
+            entrySize = Math.max(ENTRY4_SIZE, usedMaxcount / fcount);
+            dirEntrySize = Math.max(MIN_DIRCOUNT_SIZE, usedDircount / fcount);
+        }
+
+        // one more entry to detect end of the reply
+        int n = Math.min(maxcount / entrySize, dircount / dirEntrySize) + 1;
+        return Math.min(n, BATCH_SIZE);
+    }
+
+    /**
+     * Fill {@code batch} with at most {@code size} next entries of the
+     * directory listing. The {@code .} and {@code ..} entries are skipped,
+     * as NFSv4 does not use them.
+     *
+     * @return true, if at least one entry is available.
+     */
+    private static boolean nextBatch(Iterator<DirectoryEntry> dirList, List<DirectoryEntry> batch, int size) throws IOException {
+        batch.clear();
+        try {
+            while (batch.size() < size && dirList.hasNext()) {
+                DirectoryEntry le = dirList.next();
+                String name = le.getName();
+                if (name.equals(".") || name.equals("..")) {
+                    continue;
+                }
+                batch.add(le);
+            }
+        } catch (UncheckedIOException e) {
+            // streaming listing failed
+            throw e.getCause();
+        }
+        return !batch.isEmpty();
+    }
+
+    /**
+     * Get attributes of all entries in the {@code batch}. Attributes provided
+     * by the directory listing are used as is, all missing values are fetched
+     * from the file system with a single call.
+     */
+    private static List<InodeAttributes> fetchAttributes(VirtualFileSystem fs, List<DirectoryEntry> batch,
+            boolean withAcl) throws IOException {
+
+        if (withAcl) {
+            return fs.getattrs(Lists.transform(batch, DirectoryEntry::getInode), true);
+        }
+
+        InodeAttributes[] attributes = new InodeAttributes[batch.size()];
+        List<Inode> missing = new ArrayList<>();
+        for (int i = 0; i < attributes.length; i++) {
+            DirectoryEntry le = batch.get(i);
+            if (le.getStat() != null) {
+                attributes[i] = new InodeAttributes(le.getStat(), null);
+            } else {
+                missing.add(le.getInode());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Iterator<InodeAttributes> loaded = fs.getattrs(missing, false).iterator();
+            for (int i = 0; i < attributes.length; i++) {
+                if (attributes[i] == null) {
+                    attributes[i] = loaded.next();
+                }
+            }
+        }
+        return Arrays.asList(attributes);
+    }
+
+    /**
+     * {@link NfsIdMapping} which remembers owner and group names for the
+     * duration of a single reply. Directory entries typically share a handful
+     * of owners.
+     */
+    private static class ReplyIdMapping implements NfsIdMapping {
+
+        private final NfsIdMapping _inner;
+        private final Map<Integer, String> _users = new HashMap<>();
+        private final Map<Integer, String> _groups = new HashMap<>();
+
+        ReplyIdMapping(NfsIdMapping inner) {
+            _inner = inner;
+        }
+
+        @Override
+        public int principalToUid(String principal) throws BadOwnerException {
+            return _inner.principalToUid(principal);
+        }
+
+        @Override
+        public int principalToGid(String principal) throws BadOwnerException {
+            return _inner.principalToGid(principal);
+        }
+
+        @Override
+        public String uidToPrincipal(int id) {
+            return _users.computeIfAbsent(id, _inner::uidToPrincipal);
+        }
+
+        @Override
+        public String gidToPrincipal(int id) {
+            return _groups.computeIfAbsent(id, _inner::gidToPrincipal);
+        }
+    }
 }
@@ -38,12 +38,12 @@ public class OperationREADLINK extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationREADLINK.class);
 
-    public OperationREADLINK(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_READLINK);
+    public OperationREADLINK() {
+        super(nfs_opnum4.OP_READLINK);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final READLINK4res res = result.opreadlink;
 
         Stat stat = context.getFs().getattr(context.currentInode());
@@ -31,12 +31,12 @@ public class OperationRECLAIM_COMPLETE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationRECLAIM_COMPLETE.class);
 
-    public OperationRECLAIM_COMPLETE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_RECLAIM_COMPLETE);
+    public OperationRECLAIM_COMPLETE() {
+        super(nfs_opnum4.OP_RECLAIM_COMPLETE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
 	/*
 	 * we do not have any session state percistent store and,
@@ -44,7 +44,7 @@ public class OperationRECLAIM_COMPLETE extends AbstractNFSv4Operation {
 	 */
 	result.opreclaim_complete.rcr_status = nfsstat.NFS_OK;
 
-	if (_args.opreclaim_complete.rca_one_fs) {
+	if (args.opreclaim_complete.rca_one_fs) {
 	    /*
 	     * this is an optional operation. We simply check that client provided
 	     * the current file handle.
@@ -33,14 +33,14 @@ public class OperationRELEASE_LOCKOWNER extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationRELEASE_LOCKOWNER.class);
 
-    public OperationRELEASE_LOCKOWNER(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_RELEASE_LOCKOWNER);
+    public OperationRELEASE_LOCKOWNER() {
+        super(nfs_opnum4.OP_RELEASE_LOCKOWNER);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
-        lock_owner4 lockOwner = _args.oprelease_lockowner.lock_owner;
+        lock_owner4 lockOwner = args.oprelease_lockowner.lock_owner;
 
         if (context.getMinorversion() > 0) {
             throw new NotSuppException("operation RELEASE_LOCKOWNER is obsolete in 4.x, x > 0");
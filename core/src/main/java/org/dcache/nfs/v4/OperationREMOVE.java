@@ -39,12 +39,12 @@ public class OperationREMOVE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationREMOVE.class);
 
-    public OperationREMOVE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_REMOVE);
+    public OperationREMOVE() {
+        super(nfs_opnum4.OP_REMOVE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
 
         final REMOVE4res res = result.opremove;
         res.status = nfsstat.NFS_OK;
@@ -59,7 +59,7 @@ public class OperationREMOVE extends AbstractNFSv4Operation {
             throw new NotDirException();
         }
 
-        String name = NameFilter.convertName(_args.opremove.target.value);
+        String name = NameFilter.convertName(args.opremove.target.value);
 
         _log.debug("REMOVE: {} : {}", parentInode, name);
 
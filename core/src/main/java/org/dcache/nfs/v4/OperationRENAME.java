@@ -39,12 +39,12 @@ public class OperationRENAME extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationRENAME.class);
 
-    public OperationRENAME(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_RENAME);
+    public OperationRENAME() {
+        super(nfs_opnum4.OP_RENAME);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final RENAME4res res = result.oprename;
 
         res.resok4 = new RENAME4resok();
@@ -68,8 +68,8 @@ public class OperationRENAME extends AbstractNFSv4Operation {
             throw new NotDirException("destination path  not a directory");
         }
 
-        String oldName = NameFilter.convertName(_args.oprename.oldname.value);
-        String newName = NameFilter.convertName(_args.oprename.newname.value);
+        String oldName = NameFilter.convertName(args.oprename.oldname.value);
+        String newName = NameFilter.convertName(args.oprename.newname.value);
 
         _log.debug("Rename: src={} name={} dest={} name={}",
                 sourceDir,
@@ -33,12 +33,12 @@ public class OperationRENEW extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationRENEW.class);
 
-    public OperationRENEW(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_RENEW);
+    public OperationRENEW() {
+        super(nfs_opnum4.OP_RENEW);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final RENEW4res res = result.oprenew;
 
@@ -46,7 +46,7 @@ public class OperationRENEW extends AbstractNFSv4Operation {
             throw new NotSuppException("operation RENEW4 is obsolete in 4.x, x > 0");
         }
 
-        NFS4Client client = context.getStateHandler().getClient(_args.oprenew.clientid);
+        NFS4Client client = context.getStateHandler().getClient(args.oprenew.clientid);
         client.updateLeaseTime();
         res.status = nfsstat.NFS_OK;
     }
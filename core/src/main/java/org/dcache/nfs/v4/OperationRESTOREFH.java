@@ -32,12 +32,12 @@ public class OperationRESTOREFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationRESTOREFH.class);
 
-    public OperationRESTOREFH(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_RESTOREFH);
+    public OperationRESTOREFH() {
+        super(nfs_opnum4.OP_RESTOREFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final RESTOREFH4res res = result.oprestorefh;
 
@@ -32,12 +32,12 @@ public class OperationSAVEFH extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationSAVEFH.class);
 
-    public OperationSAVEFH(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SAVEFH);
+    public OperationSAVEFH() {
+        super(nfs_opnum4.OP_SAVEFH);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
         final SAVEFH4res res = result.opsavefh;
 
         context.saveCurrentInode();
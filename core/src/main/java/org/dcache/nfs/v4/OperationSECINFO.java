@@ -38,12 +38,12 @@ public class OperationSECINFO extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationSECINFO.class);
 
-    public OperationSECINFO(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SECINFO);
+    public OperationSECINFO() {
+        super(nfs_opnum4.OP_SECINFO);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws IOException {
 
         final SECINFO4res res = result.opsecinfo;
         Inode dir = context.currentInode();
@@ -54,7 +54,7 @@ public class OperationSECINFO extends AbstractNFSv4Operation {
 
         context.clearCurrentInode();
 
-        String name = NameFilter.convertName(_args.opsecinfo.name.value);
+        String name = NameFilter.convertName(args.opsecinfo.name.value);
         Inode inode = context.getFs().lookup(dir, name);
 
         try {
@@ -50,17 +50,17 @@ public class OperationSECINFO_NO_NAME extends AbstractNFSv4Operation {
     private final static uint32_t DEFAULT_QOP = new uint32_t(0);
     private final static String K5OID = "1.2.840.113554.1.2.2";
 
-    public OperationSECINFO_NO_NAME(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SECINFO_NO_NAME);
+    public OperationSECINFO_NO_NAME() {
+        super(nfs_opnum4.OP_SECINFO_NO_NAME);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         try {
             SECINFO_NO_NAME4res res = result.opsecinfo_no_name;
             Inode inode = context.currentInode();
-            switch (_args.opsecinfo_no_name.value) {
+            switch (args.opsecinfo_no_name.value) {
                 case secinfo_style4.SECINFO_STYLE4_PARENT:
 		    inode = context.getFs().parentOf(inode);
 		    // fall through
@@ -70,7 +70,7 @@ public class OperationSECINFO_NO_NAME extends AbstractNFSv4Operation {
                     res.resok4.value = secinfosOf(inode, context);
                     break;
                 default:
-                    throw new BadXdrException("bad type: " + _args.opsecinfo_no_name.value);
+                    throw new BadXdrException("bad type: " + args.opsecinfo_no_name.value);
             }
         } catch (GSSException e) {
             throw new NfsIoException(e.getMessage());
@@ -61,12 +61,12 @@ public class OperationSETATTR extends AbstractNFSv4Operation {
     private static final Logger _log = LoggerFactory.getLogger(OperationSETATTR.class);
     private static final bitmap4 EMPTY_BITMASK = new bitmap4();
 
-    public OperationSETATTR(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SETATTR);
+    public OperationSETATTR() {
+        super(nfs_opnum4.OP_SETATTR);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         final SETATTR4res res = result.opsetattr;
 
@@ -81,11 +81,11 @@ public class OperationSETATTR extends AbstractNFSv4Operation {
 
         Inode inode = context.currentInode();
 
-        if (_args.opsetattr.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_SIZE) && !Stateids.isStateLess(_args.opsetattr.stateid)) {
+        if (args.opsetattr.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_SIZE) && !Stateids.isStateLess(args.opsetattr.stateid)) {
 
             // TODO: check for DENY_WRITE for any existing opens. However, posix does not support deny masks.
             NFS4Client client;
-            stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, _args.opsetattr.stateid);
+            stateid4 stateid = Stateids.getCurrentStateidIfNeeded(context, args.opsetattr.stateid);
             if (context.getMinorversion() > 0) {
                 client = context.getSession().getClient();
             } else {
@@ -104,7 +104,7 @@ public class OperationSETATTR extends AbstractNFSv4Operation {
         }
 
         res.status = nfsstat.NFS_OK;
-        res.attrsset = setAttributes(_args.opsetattr.obj_attributes, inode, context);
+        res.attrsset = setAttributes(args.opsetattr.obj_attributes, inode, context);
     }
 
     static bitmap4 setAttributes(fattr4 attributes, Inode inode, CompoundContext context) throws IOException, OncRpcException {
@@ -38,12 +38,12 @@ public class OperationSETCLIENTID extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationSETCLIENTID.class);
 
-    public OperationSETCLIENTID(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SETCLIENTID);
+    public OperationSETCLIENTID() {
+        super(nfs_opnum4.OP_SETCLIENTID);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final SETCLIENTID4res res = result.opsetclientid;
 
@@ -51,8 +51,8 @@ public class OperationSETCLIENTID extends AbstractNFSv4Operation {
             throw new NotSuppException("operation SETCLIENTID4 is obsolete in 4.x, x > 0");
         }
 
-        verifier4 verifier = _args.opsetclientid.client.verifier;
-        final byte[] id = _args.opsetclientid.client.id;
+        verifier4 verifier = args.opsetclientid.client.verifier;
+        final byte[] id = args.opsetclientid.client.id;
         NFS4Client client = context.getStateHandler().clientByOwner(id);
 
         if (client != null && client.isConfirmed() && client.isLeaseValid()) {
@@ -70,7 +70,7 @@ public class OperationSETCLIENTID extends AbstractNFSv4Operation {
                     context.getRemoteSocketAddress(),
                     context.getLocalSocketAddress(),
                     context.getMinorversion(),
-                    _args.opsetclientid.client.id, _args.opsetclientid.client.verifier,
+                    args.opsetclientid.client.id, args.opsetclientid.client.verifier,
                     context.getPrincipal(), false);
         }
 
@@ -33,12 +33,12 @@ public class OperationSETCLIENTID_CONFIRM extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationPUTFH.class);
 
-    public OperationSETCLIENTID_CONFIRM(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_SETCLIENTID_CONFIRM);
+    public OperationSETCLIENTID_CONFIRM() {
+        super(nfs_opnum4.OP_SETCLIENTID_CONFIRM);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException {
 
         final SETCLIENTID_CONFIRM4res res = result.opsetclientid_confirm;
 
@@ -46,10 +46,10 @@ public class OperationSETCLIENTID_CONFIRM extends AbstractNFSv4Operation {
             throw new NotSuppException("operation SETCLIENTID_CONFIRM4 is obsolete in 4.x, x > 0");
         }
 
-        NFS4Client client = context.getStateHandler().getClient(_args.opsetclientid_confirm.clientid);
+        NFS4Client client = context.getStateHandler().getClient(args.opsetclientid_confirm.clientid);
 
         res.status = nfsstat.NFSERR_INVAL;
-        if (client.verifierEquals(_args.opsetclientid_confirm.setclientid_confirm)) {
+        if (client.verifierEquals(args.opsetclientid_confirm.setclientid_confirm)) {
             res.status = nfsstat.NFS_OK;
             client.setConfirmed();
         }
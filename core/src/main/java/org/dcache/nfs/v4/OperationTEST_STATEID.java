@@ -35,20 +35,20 @@ import org.dcache.xdr.OncRpcException;
  */
 public class OperationTEST_STATEID extends AbstractNFSv4Operation {
 
-    public OperationTEST_STATEID(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_TEST_STATEID);
+    public OperationTEST_STATEID() {
+        super(nfs_opnum4.OP_TEST_STATEID);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
         final TEST_STATEID4res res = result.optest_stateid;
         res.tsr_resok4 = new TEST_STATEID4resok();
-        res.tsr_resok4.tsr_status_codes = new int[_args.optest_stateid.ts_stateids.length];
+        res.tsr_resok4.tsr_status_codes = new int[args.optest_stateid.ts_stateids.length];
         res.tsr_status = nfsstat.NFS_OK;
 
         NFS4Client client = context.getSession().getClient();
-        for(int i = 0; i < _args.optest_stateid.ts_stateids.length; i++) {
-            stateid4 statid = _args.optest_stateid.ts_stateids[i];
+        for(int i = 0; i < args.optest_stateid.ts_stateids.length; i++) {
+            stateid4 statid = args.optest_stateid.ts_stateids[i];
             try {
                 NFS4State state = client.state(statid);
                 if (state.stateid().seqid.value < statid.seqid.value) {
@@ -39,12 +39,12 @@ public class OperationVERIFY extends AbstractNFSv4Operation {
 
         private static final Logger _log = LoggerFactory.getLogger(OperationVERIFY.class);
 
-	OperationVERIFY(nfs_argop4 args) {
-		super(args, nfs_opnum4.OP_VERIFY);
+	OperationVERIFY() {
+		super(nfs_opnum4.OP_VERIFY);
 	}
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
 
         final VERIFY4res res = result.opverify;
 
@@ -57,20 +57,20 @@ public class OperationVERIFY extends AbstractNFSv4Operation {
          *
          */
 
-        if (!_args.opverify.obj_attributes.attrmask.isEmpty()) {
-            fattr4 currentAttr = OperationGETATTR.getAttributes(_args.opverify.obj_attributes.attrmask,
+        if (!args.opverify.obj_attributes.attrmask.isEmpty()) {
+            fattr4 currentAttr = OperationGETATTR.getAttributes(args.opverify.obj_attributes.attrmask,
                     context.getFs(),
                     context.currentInode(), context);
 
-            if (!_args.opverify.obj_attributes.attrmask.equals(currentAttr.attrmask)) {
+            if (!args.opverify.obj_attributes.attrmask.equals(currentAttr.attrmask)) {
                 throw new AttrNotSuppException("check for not supported attribute");
             }
 
-            if (_args.opverify.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_RDATTR_ERROR)) {
+            if (args.opverify.obj_attributes.attrmask.isSet(nfs4_prot.FATTR4_RDATTR_ERROR)) {
                 throw new InvalException("RDATTR_ERROR can be used with readdir only");
             }
 
-            if (Arrays.equals(_args.opverify.obj_attributes.attr_vals.value, currentAttr.attr_vals.value)) {
+            if (Arrays.equals(args.opverify.obj_attributes.attr_vals.value, currentAttr.attr_vals.value)) {
                 res.status = nfsstat.NFS_OK;
             } else {
                 res.status = nfsstat.NFSERR_NOT_SAME;
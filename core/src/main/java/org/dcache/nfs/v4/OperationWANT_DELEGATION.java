@@ -30,12 +30,12 @@ public class OperationWANT_DELEGATION extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationWANT_DELEGATION.class);
 
-    public OperationWANT_DELEGATION(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_WANT_DELEGATION);
+    public OperationWANT_DELEGATION() {
+        super(nfs_opnum4.OP_WANT_DELEGATION);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
         result.opwant_delegation.wdr_status = nfsstat.NFSERR_NOTSUPP;
     }
 }
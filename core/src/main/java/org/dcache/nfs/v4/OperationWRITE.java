@@ -20,8 +20,10 @@
 package org.dcache.nfs.v4;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.dcache.nfs.nfsstat;
-import org.dcache.nfs.v4.xdr.stable_how4;
 import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_opnum4;
 import org.dcache.nfs.v4.xdr.count4;
@@ -33,8 +35,15 @@ import org.dcache.nfs.status.InvalException;
 import org.dcache.nfs.status.IsDirException;
 import org.dcache.nfs.status.NfsIoException;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
+import org.dcache.nfs.v4.xdr.verifier4;
+import org.dcache.nfs.vfs.AsyncIo;
+import org.dcache.nfs.vfs.Inode;
 import org.dcache.nfs.vfs.Stat;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.VirtualFileSystem;
+import org.dcache.nfs.vfs.VirtualFileSystem.StabilityLevel;
+import org.dcache.nfs.vfs.VirtualFileSystem.WriteResult;
+import org.dcache.xdr.OncRpcException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,18 +51,77 @@ public class OperationWRITE extends AbstractNFSv4Operation {
 
     private static final Logger _log = LoggerFactory.getLogger(OperationWRITE.class);
 
-    public OperationWRITE(nfs_argop4 args) {
-        super(args, nfs_opnum4.OP_WRITE);
+    public OperationWRITE() {
+        super(nfs_opnum4.OP_WRITE);
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+        await(processAsync(context, args, result));
+    }
+
+    @Override
+    public CompletableFuture<Void> processAsync(CompoundContext context, nfs_argop4 args, nfs_resop4 result) {
 
         final WRITE4res res = result.opwrite;
+        final VirtualFileSystem fs = context.getFs();
+        final Inode inode;
+
+        try {
+            args.opwrite.offset.checkOverflow(args.opwrite.data.remaining(), "offset + length overflow");
+            inode = context.currentInode();
+        } catch (ChimeraNFSException e) {
+            return AsyncIo.failed(e);
+        }
 
-        _args.opwrite.offset.checkOverflow(_args.opwrite.data.remaining(), "offset + length overflow");
+        final long offset = args.opwrite.offset.value;
+        final StabilityLevel requested = StabilityLevel.fromStableHow(args.opwrite.stable);
+        final Optional<UncommittedWrites> uncommittedWrites = context.getUncommittedWrites();
+        final StabilityLevel stabilityLevel = uncommittedWrites
+                .map(w -> w.stabilityFor(inode, requested))
+                .orElse(requested);
+
+        /*
+         * The verifier must be taken before the data is written. If data is
+         * lost in between, the client will observe verifier change on COMMIT.
+         */
+        final verifier4 verifier = context.getWriteVerifier();
+
+        return fs.getattrAsync(inode).thenCompose(stat -> {
+
+            try {
+                checkCanWrite(context, args, stat);
+            } catch (ChimeraNFSException e) {
+                throw new CompletionException(e);
+            }
+
+            return fs.writeAsync(inode, args.opwrite.data, offset, stabilityLevel);
+        }).thenCompose(writeResult -> {
+
+            if (writeResult.getBytesWritten() < 0) {
+                throw new CompletionException(new NfsIoException("IO not allowed"));
+            }
+
+            if (writeResult.getStabilityLevel().compareTo(stabilityLevel) < 0) {
+                // the backend didn't provide requested stability, commit explicitly
+                return fs.commitAsync(inode, offset, writeResult.getBytesWritten())
+                        .thenApply(v -> new WriteResult(stabilityLevel, writeResult.getBytesWritten()));
+            }
+            return CompletableFuture.completedFuture(writeResult);
+        }).thenAccept(writeResult -> {
+
+            uncommittedWrites.ifPresent(w -> w.written(inode, offset,
+                    writeResult.getBytesWritten(), writeResult.getStabilityLevel()));
+
+            res.status = nfsstat.NFS_OK;
+            res.resok4 = new WRITE4resok();
+            res.resok4.count = new count4(writeResult.getBytesWritten());
+            res.resok4.committed = writeResult.getStabilityLevel().toStableHow();
+            res.resok4.writeverf = verifier;
+        });
+    }
 
-        Stat stat = context.getFs().getattr(context.currentInode());
+    private static void checkCanWrite(CompoundContext context, nfs_argop4 args, Stat stat) throws ChimeraNFSException {
 
         if (stat.type() == Stat.Type.DIRECTORY) {
             throw new IsDirException();
@@ -66,26 +134,7 @@ public class OperationWRITE extends AbstractNFSv4Operation {
         if (context.getMinorversion() > 0) {
             context.getSession().getClient().updateLeaseTime();
         } else {
-            context.getStateHandler().updateClientLeaseTime(_args.opwrite.stateid);
+            context.getStateHandler().updateClientLeaseTime(args.opwrite.stateid);
         }
-
-        long offset = _args.opwrite.offset.value;
-        int count = _args.opwrite.data.remaining();
-        byte[] data = new byte[count];
-        _args.opwrite.data.get(data);
-
-        VirtualFileSystem.WriteResult writeResult = context.getFs().write(context.currentInode(),
-                data, offset, count, VirtualFileSystem.StabilityLevel.fromStableHow(_args.opwrite.stable));
-
-        if (writeResult.getBytesWritten() < 0) {
-            throw new NfsIoException("IO not allowed");
-        }
-
-        res.status = nfsstat.NFS_OK;
-        res.resok4 = new WRITE4resok();
-        res.resok4.count = new count4(writeResult.getBytesWritten());
-        res.resok4.committed = stable_how4.FILE_SYNC4;
-        res.resok4.writeverf = context.getRebootVerifier();
-
     }
 }
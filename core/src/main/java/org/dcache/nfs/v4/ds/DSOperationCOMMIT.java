@@ -41,16 +41,16 @@ public class DSOperationCOMMIT extends AbstractNFSv4Operation {
 
     private final FsCache _fsCache;
 
-    public DSOperationCOMMIT(nfs_argop4 args, FsCache fsCache) {
-        super(args, nfs_opnum4.OP_COMMIT);
+    public DSOperationCOMMIT(FsCache fsCache) {
+        super(nfs_opnum4.OP_COMMIT);
         _fsCache = fsCache;
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException, OncRpcException {
         // FIXME: sync the data
 
-        _args.opcommit.offset.checkOverflow(_args.opcommit.count.value, "offset + length overflow");
+        args.opcommit.offset.checkOverflow(args.opcommit.count.value, "offset + length overflow");
         final COMMIT4res res = result.opcommit;
         if (context.getFs() != null) {
 	    Inode inode = context.currentInode();
@@ -38,44 +38,42 @@ import org.dcache.nfs.vfs.FsCache;
 
 public class DSOperationFactory implements NFSv4OperationFactory {
 
-    private final FsCache _fs;
+    private static final AbstractNFSv4Operation ILLEGAL = new OperationILLEGAL();
+
+    /**
+     * Operation handlers indexed by operation number.
+     */
+    private final AbstractNFSv4Operation[] _operations =
+            new AbstractNFSv4Operation[nfs_opnum4.OP_RECLAIM_COMPLETE + 1];
 
     public DSOperationFactory(FsCache fs) {
-        _fs = fs;
+        register(new DSOperationCOMMIT(fs));
+        register(new OperationGETATTR());
+        register(new OperationPUTFH());
+        register(new OperationPUTROOTFH());
+        register(new DSOperationREAD(fs));
+        register(new DSOperationWRITE(fs));
+        register(new OperationEXCHANGE_ID());
+        register(new OperationCREATE_SESSION());
+        register(new OperationDESTROY_SESSION());
+        register(new OperationSEQUENCE());
+        register(new OperationRECLAIM_COMPLETE());
+        register(new OperationBIND_CONN_TO_SESSION());
+        register(new OperationDESTROY_CLIENTID());
+    }
+
+    private void register(AbstractNFSv4Operation operation) {
+        _operations[operation.getOpCode()] = operation;
     }
 
     @Override
     public AbstractNFSv4Operation getOperation(nfs_argop4 op) {
-
-        switch (op.argop) {
-            case nfs_opnum4.OP_COMMIT:
-                return new DSOperationCOMMIT(op, _fs);
-            case nfs_opnum4.OP_GETATTR:
-                return new OperationGETATTR(op);
-            case nfs_opnum4.OP_PUTFH:
-                return new OperationPUTFH(op);
-            case nfs_opnum4.OP_PUTROOTFH:
-                return new OperationPUTROOTFH(op);
-            case nfs_opnum4.OP_READ:
-                return new DSOperationREAD(op, _fs);
-            case nfs_opnum4.OP_WRITE:
-                return new DSOperationWRITE(op, _fs);
-            case nfs_opnum4.OP_EXCHANGE_ID:
-                return new OperationEXCHANGE_ID(op);
-            case nfs_opnum4.OP_CREATE_SESSION:
-                return new OperationCREATE_SESSION(op);
-            case nfs_opnum4.OP_DESTROY_SESSION:
-                return new OperationDESTROY_SESSION(op);
-            case nfs_opnum4.OP_SEQUENCE:
-                return new OperationSEQUENCE(op);
-            case nfs_opnum4.OP_RECLAIM_COMPLETE:
-                return new OperationRECLAIM_COMPLETE(op);
-            case nfs_opnum4.OP_BIND_CONN_TO_SESSION:
-                return new OperationBIND_CONN_TO_SESSION(op);
-            case nfs_opnum4.OP_DESTROY_CLIENTID:
-                return new OperationDESTROY_CLIENTID(op);
+        int opCode = op.argop;
+        if (opCode < 0 || opCode >= _operations.length) {
+            return ILLEGAL;
         }
 
-        return new OperationILLEGAL(op);
+        AbstractNFSv4Operation operation = _operations[opCode];
+        return operation == null ? ILLEGAL : operation;
     }
 }
@@ -46,13 +46,13 @@ public class DSOperationREAD extends AbstractNFSv4Operation {
     private static final Logger _log = LoggerFactory.getLogger(DSOperationREAD.class);
      private final FsCache _fsCache;
 
-    public DSOperationREAD(nfs_argop4 args, FsCache fsCache) {
-        super(args, nfs_opnum4.OP_READ);
+    public DSOperationREAD(FsCache fsCache) {
+        super(nfs_opnum4.OP_READ);
         _fsCache = fsCache;
     }
 
     @Override
-    public void process(CompoundContext context, nfs_resop4 result) throws ChimeraNFSException, IOException {
+    public void process(CompoundContext context, nfs_argop4 args, nfs_resop4 result) throws ChimeraNFSException, IOException {
         final READ4res res = result.opread;
 
         Inode inode = context.currentInode();
@@ -66,22 +66,22 @@ public class DSOperationREAD extends AbstractNFSv4Operation {
             throw new InvalException("Invalid object type");
         }
 
-        if ((context.getMinorversion() == 0) && !Stateids.ZeroStateId().equalsWithSeq(_args.opread.stateid) && !Stateids.OneStateId().equalsWithSeq(_args.opread.stateid)) {
+        if ((context.getMinorversion() == 0) && !Stateids.ZeroStateId().equalsWithSeq(args.opread.stateid) && !Stateids.OneStateId().equalsWithSeq(args.opread.stateid)) {
             /*
              *  The NFSv4.0 spec requires to update lease time as long as client
              * needs the file. This is done through READ, WRITE and RENEW
              * opertations. With introduction of sessions in v4.1 update of the
              * lease time done through SEQUENCE operation.
              */
-            context.getStateHandler().updateClientLeaseTime(_args.opread.stateid);
+            context.getStateHandler().updateClientLeaseTime(args.opread.stateid);
         }
 
         boolean eof = false;
 
-        long offset = _args.opread.offset.value;
-        int count = _args.opread.count.value;
+        long offset = args.opread.offset.value;
+        int count = args.opread.count.value;
 
-        ByteBuffer bb = ByteBuffer.allocateDirect(count);
+        ByteBuffer bb = context.allocateDirectBuffer(count);
         FileChannel in = _fsCache.get(inode);
 
         int bytesReaded = in.read(bb, offset);
@@ -100,6 +100,6 @@ public class DSOperationREAD extends AbstractNFSv4Operation {
         res.resok4.eof = eof;
 
         _log.debug("MOVER: {}@{} readed, {} requested.",
-                bytesReaded, offset, _args.opread.count.value);
+                bytesReaded, offset, args.opread.count.value);
     }
 }
@@ -156,7 +156,7 @@ public abstract class AbstractLockManager implements LockManager {
         dlmLock.lock();
         try {
             Collection<NlmLock> currentLocks = getActiveLocks(objId);
-            Optional<NlmLock> conflictingLock = currentLocks.stream().filter((NlmLock l) -> l.isOverlappingRange(lock) && !l.isSameOwner(lock)).findAny();
+            Optional<NlmLock> conflictingLock = currentLocks.stream().filter((NlmLock l) -> l.isConflicting(lock)).findAny();
             if (conflictingLock.isPresent()) {
                 throw new LockDeniedException("object locked", conflictingLock.get());
             }
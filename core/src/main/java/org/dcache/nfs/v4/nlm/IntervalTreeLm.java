@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 - 2018 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4.nlm;
+
+import com.google.common.util.concurrent.Striped;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.dcache.utils.Opaque;
+
+/**
+ * Non-distributed implementation of {@link LockManager}, which keeps locks
+ * of each file in an interval tree. Conflict detection, merge and split of
+ * locks require O(log n + k) time, where k is the number of locks that
+ * overlap with the requested range.
+ *
+ * @since 0.16
+ */
+public class IntervalTreeLm implements LockManager {
+
+    /**
+     * Exclusive locks on file objects.
+     */
+    private final Striped<Lock> objLock = Striped.lock(Runtime.getRuntime().availableProcessors()*4);
+
+    /**
+     * Byte range locks by file id.
+     */
+    private final ConcurrentMap<Opaque, LockTree> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public void lock(byte[] objId, NlmLock lock) throws LockException {
+        Opaque key = new Opaque(objId);
+        Lock dlmLock = objLock.get(key);
+        dlmLock.lock();
+        try {
+            LockTree tree = locks.computeIfAbsent(key, k -> new LockTree());
+
+            long lockBegin = lock.getOffset();
+            long lockEnd = LockTree.endOf(lock);
+
+            NlmLock conflictingLock = tree.findAny(lockBegin, lockEnd,
+                    l -> !l.isSameOwner(lock) && l.isConflictingType(lock));
+            if (conflictingLock != null) {
+                throw new LockDeniedException("object locked", conflictingLock);
+            }
+
+            // no conflicting locks. try to merge existing locks
+            List<NlmLock> toMerge = tree.findAll(lockBegin, lockEnd,
+                    l -> l.isSameOwner(lock) && l.getLockType() == lock.getLockType());
+            if (toMerge.isEmpty()) {
+                tree.add(lock);
+                return;
+            }
+
+            // merge overlaping locks
+            for (NlmLock l : toMerge) {
+                lockBegin = Math.min(lockBegin, l.getOffset());
+                lockEnd = Math.max(lockEnd, LockTree.endOf(l));
+                tree.remove(l);
+            }
+            tree.add(newLock(lock, lock.getLockType(), lockBegin, lockEnd));
+        } finally {
+            dlmLock.unlock();
+        }
+    }
+
+    @Override
+    public void unlock(byte[] objId, NlmLock lock) throws LockException {
+        Opaque key = new Opaque(objId);
+        Lock dlmLock = objLock.get(key);
+        dlmLock.lock();
+        try {
+            LockTree tree = locks.get(key);
+            if (tree == null) {
+                throw new LockRangeUnavailabeException("no matching lock");
+            }
+
+            // check for exact match first
+            if (!tree.remove(lock)) {
+
+                long unlockBegin = lock.getOffset();
+                long unlockEnd = LockTree.endOf(lock);
+
+                List<NlmLock> toRemove = tree.findAll(unlockBegin, unlockEnd, l -> l.isSameOwner(lock));
+                if (toRemove.isEmpty()) {
+                    throw new LockRangeUnavailabeException("no matching lock");
+                }
+
+                for (NlmLock l : toRemove) {
+                    tree.remove(l);
+                    long begin = l.getOffset();
+                    long end = LockTree.endOf(l);
+                    if (begin < unlockBegin) {
+                        tree.add(newLock(l, l.getLockType(), begin, unlockBegin - 1));
+                    }
+                    if (end > unlockEnd) {
+                        tree.add(newLock(l, l.getLockType(), unlockEnd + 1, end));
+                    }
+                }
+            }
+
+            if (tree.isEmpty()) {
+                locks.remove(key);
+            }
+        } finally {
+            dlmLock.unlock();
+        }
+    }
+
+    @Override
+    public void test(byte[] objId, NlmLock lock) throws LockException {
+        Opaque key = new Opaque(objId);
+        Lock dlmLock = objLock.get(key);
+        dlmLock.lock();
+        try {
+            LockTree tree = locks.get(key);
+            if (tree == null) {
+                return;
+            }
+
+            NlmLock conflictingLock = tree.findAny(lock.getOffset(), LockTree.endOf(lock),
+                    l -> !l.isSameOwner(lock) && l.isConflictingType(lock));
+            if (conflictingLock != null) {
+                throw new LockDeniedException("object locked", conflictingLock);
+            }
+        } finally {
+            dlmLock.unlock();
+        }
+    }
+
+    @Override
+    public void unlockIfExists(byte[] objId, NlmLock lock) {
+        Opaque key = new Opaque(objId);
+        Lock dlmLock = objLock.get(key);
+        dlmLock.lock();
+        try {
+            LockTree tree = locks.get(key);
+            if (tree != null && tree.remove(lock) && tree.isEmpty()) {
+                locks.remove(key);
+            }
+        } finally {
+            dlmLock.unlock();
+        }
+    }
+
+    /**
+     * Create a new lock of the same owner as {@code lock} for the given range.
+     */
+    private static NlmLock newLock(NlmLock lock, int lockType, long begin, long end) {
+        long length = end == Long.MAX_VALUE ? nfs4_prot.NFS4_UINT64_MAX : end - begin + 1;
+        return new NlmLock(lock.getOwner(), lockType, begin, length);
+    }
+}
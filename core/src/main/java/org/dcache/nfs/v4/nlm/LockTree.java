@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2015 - 2018 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4.nlm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+
+/**
+ * Byte-range locks of a single file kept in an interval tree. The tree is
+ * a treap ordered by lock's start offset and augmented with the maximal end
+ * offset of each subtree, which allows to find overlapping locks in
+ * O(log n + k) time.
+ *
+ * This class is not thread safe.
+ */
+class LockTree {
+
+    private static class Node {
+
+        private final NlmLock lock;
+        private final long start;
+        private final long end;
+        private final long seq;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(NlmLock lock, long seq) {
+            this.lock = lock;
+            this.start = lock.getOffset();
+            this.end = endOf(lock);
+            this.seq = seq;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+
+        void update() {
+            long max = end;
+            if (left != null) {
+                max = Math.max(max, left.maxEnd);
+            }
+            if (right != null) {
+                max = Math.max(max, right.maxEnd);
+            }
+            maxEnd = max;
+        }
+    }
+
+    private Node root;
+
+    /**
+     * Index of tree nodes to find an existing lock without tree walk.
+     */
+    private final Map<NlmLock, Node> nodes = new HashMap<>();
+
+    /**
+     * Insert counter to order locks with the same start offset.
+     */
+    private long seq;
+
+    /**
+     * Get the last byte offset (inclusive) covered by the lock.
+     */
+    static long endOf(NlmLock lock) {
+        if (lock.getLength() == nfs4_prot.NFS4_UINT64_MAX) {
+            return Long.MAX_VALUE;
+        }
+        long end = lock.getOffset() + lock.getLength() - 1;
+        return end < lock.getOffset() ? Long.MAX_VALUE : end;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    boolean contains(NlmLock lock) {
+        return nodes.containsKey(lock);
+    }
+
+    void add(NlmLock lock) {
+        if (nodes.containsKey(lock)) {
+            return;
+        }
+        Node node = new Node(lock, seq++);
+        nodes.put(lock, node);
+        root = insert(root, node);
+    }
+
+    boolean remove(NlmLock lock) {
+        Node node = nodes.remove(lock);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        return true;
+    }
+
+    /**
+     * Find any lock which overlaps with the given range and matches the
+     * predicate.
+     *
+     * @param start first byte of the range.
+     * @param end last byte of the range (inclusive).
+     * @param filter predicate to apply.
+     * @return matching lock or null.
+     */
+    NlmLock findAny(long start, long end, Predicate<NlmLock> filter) {
+        return findAny(root, start, end, filter);
+    }
+
+    /**
+     * Get all locks which overlap with the given range and match the predicate.
+     *
+     * @param start first byte of the range.
+     * @param end last byte of the range (inclusive).
+     * @param filter predicate to apply.
+     * @return list of matching locks.
+     */
+    List<NlmLock> findAll(long start, long end, Predicate<NlmLock> filter) {
+        List<NlmLock> found = new ArrayList<>();
+        collect(root, start, end, filter, found);
+        return found;
+    }
+
+    private static NlmLock findAny(Node t, long start, long end, Predicate<NlmLock> filter) {
+        while (t != null && t.maxEnd >= start) {
+            NlmLock l = findAny(t.left, start, end, filter);
+            if (l != null) {
+                return l;
+            }
+            if (t.start > end) {
+                // all nodes of the right subtree start after the range
+                return null;
+            }
+            if (t.end >= start && filter.test(t.lock)) {
+                return t.lock;
+            }
+            t = t.right;
+        }
+        return null;
+    }
+
+    private static void collect(Node t, long start, long end, Predicate<NlmLock> filter, List<NlmLock> found) {
+        while (t != null && t.maxEnd >= start) {
+            collect(t.left, start, end, filter, found);
+            if (t.start > end) {
+                return;
+            }
+            if (t.end >= start && filter.test(t.lock)) {
+                found.add(t.lock);
+            }
+            t = t.right;
+        }
+    }
+
+    private static int compare(Node a, Node b) {
+        int c = Long.compare(a.start, b.start);
+        return c != 0 ? c : Long.compare(a.seq, b.seq);
+    }
+
+    private static Node insert(Node t, Node x) {
+        if (t == null) {
+            return x;
+        }
+        if (x.priority > t.priority) {
+            Node[] parts = split(t, x);
+            x.left = parts[0];
+            x.right = parts[1];
+            x.update();
+            return x;
+        }
+        if (compare(x, t) < 0) {
+            t.left = insert(t.left, x);
+        } else {
+            t.right = insert(t.right, x);
+        }
+        t.update();
+        return t;
+    }
+
+    private static Node delete(Node t, Node x) {
+        if (t == x) {
+            return merge(t.left, t.right);
+        }
+        if (compare(x, t) < 0) {
+            t.left = delete(t.left, x);
+        } else {
+            t.right = delete(t.right, x);
+        }
+        t.update();
+        return t;
+    }
+
+    /**
+     * Split the tree into nodes smaller and greater than {@code x}.
+     */
+    private static Node[] split(Node t, Node x) {
+        if (t == null) {
+            return new Node[2];
+        }
+        Node[] parts;
+        if (compare(t, x) < 0) {
+            parts = split(t.right, x);
+            t.right = parts[0];
+            parts[0] = t;
+        } else {
+            parts = split(t.left, x);
+            t.left = parts[1];
+            parts[1] = t;
+        }
+        t.update();
+        return parts;
+    }
+
+    /**
+     * Merge two trees, where all nodes of {@code a} are smaller than nodes
+     * of {@code b}.
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            a.update();
+            return a;
+        }
+        b.left = merge(a, b.left);
+        b.update();
+        return b;
+    }
+}
@@ -22,7 +22,9 @@ package org.dcache.nfs.v4.xdr;
 import org.dcache.xdr.*;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import org.dcache.utils.PooledBuffer;
 
 public class COMPOUND4res implements XdrAble {
 
@@ -30,6 +32,12 @@ public class COMPOUND4res implements XdrAble {
     public utf8str_cs tag;
     public List<nfs_resop4> resarray;
 
+    /**
+     * Pooled buffers referenced by the results. Released as soon as the reply
+     * is sent. Not a part of XDR encoding.
+     */
+    public List<PooledBuffer> buffers = Collections.emptyList();
+
     public COMPOUND4res() {
     }
 
@@ -24,6 +24,7 @@ import org.dcache.xdr.OncRpcException;
 import org.dcache.xdr.RpcCall;
 import org.dcache.xdr.RpcDispatchable;
 import org.dcache.xdr.XdrVoid;
+import org.dcache.utils.PooledBuffer;
 
 /**
  */
@@ -46,7 +47,11 @@ public abstract class nfs4_prot_NFS4_PROGRAM_ServerStub implements RpcDispatchab
                 COMPOUND4args args$ = new COMPOUND4args();
                 call.retrieveCall(args$);
                 COMPOUND4res result$ = NFSPROC4_COMPOUND_4(call, args$);
-                call.reply(result$);
+                try {
+                    call.reply(result$);
+                } finally {
+                    result$.buffers.forEach(PooledBuffer::release);
+                }
                 break;
             }
             default:
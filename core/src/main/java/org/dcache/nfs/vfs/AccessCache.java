@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.security.auth.Subject;
+import org.dcache.nfs.ExportFile;
+
+/**
+ * A cache of granted access masks. The entries are stored per inode and
+ * subject and used as long as the file's change id, timestamps, ownership
+ * and mode match the values used to evaluate the access. Only granted
+ * access is cached, denied requests are always re-evaluated.
+ * <p>
+ * The entries are keyed by both, the subject of the request and the
+ * effective subject after export's squash options are applied, thus the
+ * same cache can be shared by differently configured exports. The cache is
+ * invalidated when export file is re-loaded.
+ *
+ * @since 0.17
+ */
+public class AccessCache {
+
+    /**
+     * Maximal number of subjects kept per inode.
+     */
+    private static final int MAX_SUBJECTS_PER_INODE = 64;
+
+    private final Cache<FileIdKey, InodeAccess> _cache;
+
+    private final AtomicLong _hits = new AtomicLong();
+    private final AtomicLong _misses = new AtomicLong();
+
+    /**
+     * Create a new access cache.
+     *
+     * @param maxEntries maximal number of inodes to cache access for.
+     * @param lifeTime maximal time to keep an entry.
+     * @param timeUnit time unit of {@code lifeTime}.
+     * @param exportFile export file, which re-load invalidates the cache, or
+     * {@code null}.
+     */
+    public AccessCache(int maxEntries, long lifeTime, TimeUnit timeUnit, ExportFile exportFile) {
+        _cache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(lifeTime, timeUnit)
+                .build();
+        if (exportFile != null) {
+            exportFile.addReloadListener(this::invalidateAll);
+        }
+    }
+
+    /**
+     * Check whatever requested access was granted before.
+     *
+     * @param inode accessed object.
+     * @param stat current attributes of the object.
+     * @param subject subject of the request.
+     * @param effectiveSubject subject used for unix permission check.
+     * @param withAcl true if ACLs are evaluated.
+     * @param requestedMask requested access mask.
+     * @return true if access is known to be granted.
+     */
+    boolean isGranted(Inode inode, Stat stat, Subject subject, Subject effectiveSubject,
+            boolean withAcl, int requestedMask) {
+        InodeAccess access = _cache.getIfPresent(inode.fileIdKey());
+        if (access != null && access.isValidFor(stat)) {
+            Integer granted = access._granted.get(new SubjectKey(subject, effectiveSubject, withAcl));
+            if (granted != null && (granted & requestedMask) == requestedMask) {
+                _hits.incrementAndGet();
+                return true;
+            }
+        }
+        _misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Record granted access.
+     */
+    void grant(Inode inode, Stat stat, Subject subject, Subject effectiveSubject,
+            boolean withAcl, int grantedMask) {
+        if (!InodeAccess.hasChangeAttributes(stat)) {
+            return;
+        }
+
+        FileIdKey key = inode.fileIdKey();
+        InodeAccess access = _cache.getIfPresent(key);
+        if (access == null || !access.isValidFor(stat)) {
+            access = new InodeAccess(stat);
+            _cache.put(key, access);
+        }
+
+        if (access._granted.size() >= MAX_SUBJECTS_PER_INODE) {
+            access._granted.clear();
+        }
+        access._granted.merge(new SubjectKey(subject, effectiveSubject, withAcl), grantedMask, (a, b) -> a | b);
+    }
+
+    /**
+     * Discard cached access for the given inode.
+     *
+     * @param inode inode to invalidate.
+     */
+    public void invalidate(Inode inode) {
+        _cache.invalidate(inode.fileIdKey());
+    }
+
+    /**
+     * Discard all cached entries.
+     */
+    public void invalidateAll() {
+        _cache.invalidateAll();
+    }
+
+    /**
+     * Get number of access checks answered by the cache.
+     * @return number of cache hits.
+     */
+    public long getHitCount() {
+        return _hits.get();
+    }
+
+    /**
+     * Get number of access checks, which required evaluation.
+     * @return number of cache misses.
+     */
+    public long getMissCount() {
+        return _misses.get();
+    }
+
+    /**
+     * Get number of inodes with cached access.
+     * @return number of cached inodes.
+     */
+    public long getSize() {
+        return _cache.size();
+    }
+
+    private static class InodeAccess {
+
+        private final long _generation;
+        private final long _ctime;
+        private final int _mode;
+        private final int _uid;
+        private final int _gid;
+        private final Map<SubjectKey, Integer> _granted = new ConcurrentHashMap<>();
+
+        InodeAccess(Stat stat) {
+            _generation = stat.getGeneration();
+            _ctime = stat.getCTime();
+            _mode = stat.getMode();
+            _uid = stat.getUid();
+            _gid = stat.getGid();
+        }
+
+        static boolean hasChangeAttributes(Stat stat) {
+            return stat.isDefined(Stat.StatAttribute.GENERATION)
+                    && stat.isDefined(Stat.StatAttribute.CTIME)
+                    && stat.isDefined(Stat.StatAttribute.MODE)
+                    && stat.isDefined(Stat.StatAttribute.OWNER)
+                    && stat.isDefined(Stat.StatAttribute.GROUP);
+        }
+
+        boolean isValidFor(Stat stat) {
+            return hasChangeAttributes(stat)
+                    && _generation == stat.getGeneration()
+                    && _ctime == stat.getCTime()
+                    && _mode == stat.getMode()
+                    && _uid == stat.getUid()
+                    && _gid == stat.getGid();
+        }
+    }
+
+    private static class SubjectKey {
+
+        private final Subject _subject;
+        private final Subject _effectiveSubject;
+        private final boolean _withAcl;
+
+        SubjectKey(Subject subject, Subject effectiveSubject, boolean withAcl) {
+            _subject = subject;
+            _effectiveSubject = effectiveSubject;
+            _withAcl = withAcl;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof SubjectKey)) {
+                return false;
+            }
+            SubjectKey other = (SubjectKey) obj;
+            return _withAcl == other._withAcl
+                    && _subject.equals(other._subject)
+                    && _effectiveSubject.equals(other._effectiveSubject);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_subject, _effectiveSubject, _withAcl);
+        }
+    }
+}
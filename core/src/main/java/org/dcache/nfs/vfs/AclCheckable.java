@@ -62,4 +62,25 @@ public interface AclCheckable {
      * @throws IOException
      */
     Access checkAcl(Subject subject, Inode inode, int accessMask) throws ChimeraNFSException, IOException;
+
+    /**
+     * Validate several access masks for a given {@code subject} and {code inode}
+     * at once. The default implementation validates each mask separately.
+     * Implementations are encouraged to override this method to fetch the
+     * ACL only once.
+     *
+     * @param subject who performs the access
+     * @param inode access to which is performed
+     * @param accessMasks masks to evaluate
+     * @return result of validation for each mask.
+     * @throws IOException
+     * @since 0.17
+     */
+    default Access[] checkAcl(Subject subject, Inode inode, int[] accessMasks) throws ChimeraNFSException, IOException {
+        Access[] access = new Access[accessMasks.length];
+        for (int i = 0; i < accessMasks.length; i++) {
+            access[i] = checkAcl(subject, inode, accessMasks[i]);
+        }
+        return access;
+    }
 }
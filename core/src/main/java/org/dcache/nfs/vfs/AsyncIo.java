@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Utility methods to work with asynchronous file system operations.
+ */
+public final class AsyncIo {
+
+    private AsyncIo() {
+        // no instances allowed
+    }
+
+    /**
+     * A blocking file system call.
+     * @param <T> type of the result.
+     */
+    @FunctionalInterface
+    public interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * Get a future which is already completed with a given exception.
+     *
+     * @param <T> type of the future's value.
+     * @param t the exception.
+     * @return exceptionally completed future.
+     */
+    public static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    /**
+     * Run a blocking file system call on a given executor.
+     *
+     * @param <T> type of the result.
+     * @param call the call to run.
+     * @param executor executor to run the call on.
+     * @return future completed with call's result.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(IoCall<T> call, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Get the original exception of a failed asynchronous call.
+     *
+     * @param t exception with which a future was completed.
+     * @return the cause, if {@code t} is a wrapper exception, or {@code t}
+     * itself.
+     */
+    public static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+}
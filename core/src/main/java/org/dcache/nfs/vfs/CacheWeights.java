@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+/**
+ * Rough estimates of heap usage by objects stored in {@link VfsCache}. The
+ * values are based on a 64-bit JVM with compressed references and include
+ * cache's internal entry overhead. They are not exact, but good enough to
+ * keep memory usage of the caches predictable.
+ */
+final class CacheWeights {
+
+    /**
+     * Cache internal entry with references to key and value.
+     */
+    static final int ENTRY = 64;
+
+    /**
+     * {@link Stat} object with attribute set.
+     */
+    static final int STAT = 144;
+
+    /**
+     * Estimated size of a single directory entry with inode and attributes.
+     */
+    static final int DIRECTORY_ENTRY = 32 + 80 + 144 + STAT;
+
+    private CacheWeights() {
+    }
+
+    /**
+     * Inode with it's file handle, opaque data and canonical handle bytes.
+     */
+    static int of(Inode inode) {
+        return 112 + 2 * inode.getFileId().length;
+    }
+
+    /**
+     * File id key with the inode it refers to.
+     */
+    static int of(FileIdKey key) {
+        return 16 + of(key.getInode());
+    }
+
+    static int of(String s) {
+        return 40 + 2 * s.length();
+    }
+
+    static int ofArray(byte[] b) {
+        return 16 + b.length;
+    }
+
+    /**
+     * Estimated size of a cached directory listing.
+     *
+     * @param maxEntries maximal number of entries in the listing.
+     */
+    static long ofDirectory(long maxEntries) {
+        return 128 + maxEntries * DIRECTORY_ENTRY;
+    }
+}
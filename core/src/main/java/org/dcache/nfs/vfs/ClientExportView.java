@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.util.List;
+import org.dcache.nfs.FsExport;
+
+/**
+ * Exports visible to a client connection. The view is resolved once per
+ * transport and re-used by all requests received over it.
+ */
+class ClientExportView {
+
+    private final List<FsExport> _exports;
+    private final long _generation;
+    private volatile PseudoFsTree _tree;
+
+    ClientExportView(List<FsExport> exports, long generation) {
+        _exports = exports;
+        _generation = generation;
+    }
+
+    /**
+     * Get exports allowed for the client, in export file order.
+     * @return list of exports.
+     */
+    List<FsExport> getExports() {
+        return _exports;
+    }
+
+    /**
+     * Get the generation of export table this view was resolved against.
+     * @return export table generation.
+     */
+    long getGeneration() {
+        return _generation;
+    }
+
+    /**
+     * Get pseudo fs tree attached to this view.
+     * @return pseudo fs tree or null, if not resolved yet.
+     */
+    PseudoFsTree getTree() {
+        return _tree;
+    }
+
+    void setTree(PseudoFsTree tree) {
+        _tree = tree;
+    }
+}
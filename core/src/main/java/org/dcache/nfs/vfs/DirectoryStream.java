@@ -19,24 +19,62 @@
  */
 package org.dcache.nfs.vfs;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Function;
 import org.dcache.nfs.v4.xdr.nfs4_prot;
 
 /**
- *
+ * A directory listing. The listing is either backed by a fully materialized
+ * set of entries or by a {@link Source}, which produces entries lazily while
+ * the listing is iterated. The later allows file systems to serve large
+ * directories without keeping all entries in memory.
  */
 public class DirectoryStream implements Iterable<DirectoryEntry>{
 
     // v4 and v3 have the same verifier size
     public final static byte[] ZERO_VERIFIER = new byte[nfs4_prot.NFS4_VERIFIER_SIZE];
 
+    /**
+     * A source of directory entries, which can be positioned at any cookie
+     * previously returned by this source.
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        /**
+         * Get entries with cookies greater than specified {@code cookie},
+         * sorted by cookies. The entries may be fetched lazily as iterator
+         * advances. The errors, which occur while iterating, are propagated
+         * as {@link java.io.UncheckedIOException}.
+         *
+         * @param cookie lowest cookie, exclusive.
+         * @return entries with cookies greater than {@code cookie}.
+         */
+        Iterator<DirectoryEntry> entriesAfter(long cookie);
+
+        /**
+         * Get all entries of this source, sorted by cookies.
+         *
+         * @return all entries.
+         */
+        default Iterator<DirectoryEntry> entries() {
+            return entriesAfter(0L);
+        }
+    }
+
     private final byte[] verifier;
-    private final NavigableSet<DirectoryEntry> entries;
+    private final Source source;
+
+    /**
+     * Cookie to start listing from or null, if all entries are listed.
+     */
+    private final Long fromCookie;
 
     public DirectoryStream(Collection<DirectoryEntry> entries) {
         this(ZERO_VERIFIER, new TreeSet<>(entries));
@@ -47,8 +85,23 @@ public class DirectoryStream implements Iterable<DirectoryEntry>{
     }
 
     public DirectoryStream(byte[] verifier, NavigableSet<DirectoryEntry> entries) {
+        this(verifier, new EntrySet(Sets.unmodifiableNavigableSet(entries)), null);
+    }
+
+    /**
+     * Create a listing backed by the given {@code source}.
+     *
+     * @param verifier directory verifier.
+     * @param source source of directory entries.
+     */
+    public DirectoryStream(byte[] verifier, Source source) {
+        this(verifier, source, null);
+    }
+
+    private DirectoryStream(byte[] verifier, Source source, Long fromCookie) {
         this.verifier = verifier;
-        this.entries = Sets.unmodifiableNavigableSet(entries);
+        this.source = source;
+        this.fromCookie = fromCookie;
     }
 
     public byte[] getVerifier() {
@@ -56,17 +109,26 @@ public class DirectoryStream implements Iterable<DirectoryEntry>{
     }
 
     /**
-     * Get listing entries sorted by cookies.
+     * Get listing entries sorted by cookies. For a listing, which is not backed
+     * by a materialized set, all entries are fetched into memory.
      *
      * @return listing entries.
+     * @deprecated use {@link #iterator()} to avoid materialization of large
+     * listings.
      */
+    @Deprecated
     public SortedSet<DirectoryEntry> getEntries() {
-        return entries;
+        if (fromCookie == null && source instanceof EntrySet) {
+            return ((EntrySet) source).entries;
+        }
+        TreeSet<DirectoryEntry> entries = new TreeSet<>();
+        Iterators.addAll(entries, iterator());
+        return Sets.unmodifiableNavigableSet(entries);
     }
 
     @Override
     public Iterator<DirectoryEntry> iterator() {
-        return entries.iterator();
+        return fromCookie == null ? source.entries() : source.entriesAfter(fromCookie);
     }
 
     /**
@@ -78,7 +140,52 @@ public class DirectoryStream implements Iterable<DirectoryEntry>{
      * greater than specified {@code fromCookie}.
      */
     public DirectoryStream tail(long fromCookie) {
-        final DirectoryEntry cookieEntry = new DirectoryEntry("", null, null, fromCookie);
-        return new DirectoryStream(verifier, entries.tailSet(cookieEntry, false));
+        return new DirectoryStream(verifier, source, fromCookie);
+    }
+
+    /**
+     * Get view of this DirectoryStream, where each entry is converted by the
+     * provided {@code function}. Entries are converted lazily, as listing is
+     * iterated. The function must preserve the entry's cookie.
+     *
+     * @param function function to apply to each entry.
+     * @return view of this DirectoryStream with converted entries.
+     */
+    public DirectoryStream transform(Function<DirectoryEntry, DirectoryEntry> function) {
+        Source transformed = new Source() {
+            @Override
+            public Iterator<DirectoryEntry> entriesAfter(long cookie) {
+                return Iterators.transform(source.entriesAfter(cookie), function::apply);
+            }
+
+            @Override
+            public Iterator<DirectoryEntry> entries() {
+                return Iterators.transform(source.entries(), function::apply);
+            }
+        };
+        return new DirectoryStream(verifier, transformed, fromCookie);
+    }
+
+    /**
+     * A {@link Source} backed by materialized set of entries.
+     */
+    private static class EntrySet implements Source {
+
+        private final NavigableSet<DirectoryEntry> entries;
+
+        EntrySet(NavigableSet<DirectoryEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Iterator<DirectoryEntry> entriesAfter(long cookie) {
+            final DirectoryEntry cookieEntry = new DirectoryEntry("", null, null, cookie);
+            return entries.tailSet(cookieEntry, false).iterator();
+        }
+
+        @Override
+        public Iterator<DirectoryEntry> entries() {
+            return entries.iterator();
+        }
     }
 }
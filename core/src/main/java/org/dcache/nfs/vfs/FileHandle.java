@@ -19,6 +19,7 @@ package org.dcache.nfs.vfs;
 import com.google.common.io.BaseEncoding;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * NFS file handle on wire representation format v1.
@@ -32,6 +33,10 @@ import java.nio.ByteOrder;
  *   byte fh_olen;         // length of opaque data
  *   byte[] fh_opaque;     // FS specific opaque data <= 114
  * </pre>
+ *
+ * The on wire representation is built once, when a file handle is created,
+ * and used for comparison and hashing. Thus file handles can be used as
+ * hash keys without re-encoding.
 */
 public class FileHandle {
 
@@ -49,6 +54,13 @@ public class FileHandle {
     private final int type;
     private final byte[] fs_opaque;
 
+    /**
+     * Canonical on wire representation of this file handle.
+     */
+    private final byte[] bytes;
+    private final int hash;
+    private final int fsOpaqueHash;
+
     public FileHandle(int generation, int exportIdx, int type, byte[] fs_opaque) {
         this.version = VERSION;
         this.magic = MAGIC;
@@ -56,9 +68,19 @@ public class FileHandle {
         this.exportIdx = exportIdx;
         this.type = type;
         this.fs_opaque = fs_opaque;
+        this.bytes = encode();
+        this.hash = Arrays.hashCode(bytes);
+        this.fsOpaqueHash = Arrays.hashCode(fs_opaque);
     }
 
 
+    /**
+     * Construct file handle from it's on wire representation. If provided
+     * bytes are already in the canonical form, then a copy of them is kept
+     * without re-encoding.
+     *
+     * @param bytes on wire representation of the file handle.
+     */
     public FileHandle(byte[] bytes) {
         if (bytes.length < MIN_LEN) {
             throw new IllegalArgumentException("too short");
@@ -82,6 +104,7 @@ public class FileHandle {
             int olen = (int) b.get();
             fs_opaque = new byte[olen];
             b.get(fs_opaque);
+            this.bytes = b.hasRemaining() ? encode() : bytes.clone();
 
         } else if (arrayEquals(bytes, FH_V0_REG, FH_V0_REG.length)
                 || arrayEquals(bytes, FH_V0_PFS, FH_V0_PFS.length)) {
@@ -101,11 +124,14 @@ public class FileHandle {
             } else {
                 version = 0;
                 exportIdx = -1;
-                fs_opaque = bytes;
+                fs_opaque = bytes.clone();
             }
+            this.bytes = encode();
         } else {
             throw new IllegalArgumentException("Unsupported version: " + geussVersion);
         }
+        hash = Arrays.hashCode(this.bytes);
+        fsOpaqueHash = Arrays.hashCode(fs_opaque);
     }
 
     public int getVersion() {
@@ -132,7 +158,38 @@ public class FileHandle {
         return fs_opaque;
     }
 
+    /**
+     * Returns true if both file handles point to the same file system object,
+     * e.g. have the same fs specific opaque data, regardless of export index
+     * or generation.
+     *
+     * @param other file handle to compare with.
+     * @return true if fs specific opaque data is equal.
+     */
+    public boolean hasSameFsOpaque(FileHandle other) {
+        return fsOpaqueHash == other.fsOpaqueHash && Arrays.equals(fs_opaque, other.fs_opaque);
+    }
+
+    /**
+     * Get hash code of fs specific opaque data. Consistent with
+     * {@link #hasSameFsOpaque(FileHandle)}.
+     *
+     * @return hash code of fs specific opaque data.
+     */
+    public int fsOpaqueHashCode() {
+        return fsOpaqueHash;
+    }
+
+    /**
+     * Get on wire representation of this file handle.
+     *
+     * @return a copy of canonical on wire representation.
+     */
     public byte[] bytes() {
+        return bytes.clone();
+    }
+
+    private byte[] encode() {
         int len = fs_opaque.length + MIN_LEN;
         byte[] bytes = new byte[len];
         ByteBuffer b = ByteBuffer.wrap(bytes);
@@ -149,7 +206,24 @@ public class FileHandle {
 
     @Override
     public String toString() {
-        return BaseEncoding.base16().lowerCase().encode(this.bytes());
+        return BaseEncoding.base16().lowerCase().encode(bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof FileHandle)) {
+            return false;
+        }
+        final FileHandle other = (FileHandle) obj;
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
     }
 
     private static boolean arrayEquals(byte[] a1, byte[] a2, int len) {
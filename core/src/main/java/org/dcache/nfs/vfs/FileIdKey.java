@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+/**
+ * A hash key, which identifies a file system object by file id of an
+ * {@link Inode}, thus ignores export index and type of the file handle.
+ * Equality and hash code are delegated to the inode without copying
+ * the file id.
+ *
+ * @since 0.17
+ */
+public final class FileIdKey {
+
+    private final Inode _inode;
+
+    FileIdKey(Inode inode) {
+        _inode = inode;
+    }
+
+    /**
+     * Get inode this key was created for.
+     * @return inode.
+     */
+    public Inode getInode() {
+        return _inode;
+    }
+
+    @Override
+    public int hashCode() {
+        return _inode.fileIdHashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof FileIdKey)) {
+            return false;
+        }
+        return _inode.hasSameFileId(((FileIdKey) obj)._inode);
+    }
+
+    @Override
+    public String toString() {
+        return _inode.toString();
+    }
+}
@@ -19,11 +19,14 @@
  */
 package org.dcache.nfs.vfs;
 
-import java.util.Arrays;
-
 public class Inode {
 
-    FileHandle fh;
+    private final FileHandle fh;
+
+    /**
+     * Lazily created file id key. Benign race, as keys of the same inode are equal.
+     */
+    private FileIdKey fileIdKey;
 
     public Inode(byte[] bytes) {
         this(new FileHandle(bytes));
@@ -41,13 +44,49 @@ public class Inode {
         return fh.getFsOpaque();
     }
 
+    /**
+     * Returns true if both inodes point to the same file system object,
+     * regardless through which export they was accessed.
+     *
+     * @param other inode to compare with.
+     * @return true if both inodes have the same file id.
+     */
+    public boolean hasSameFileId(Inode other) {
+        return fh.hasSameFsOpaque(other.fh);
+    }
+
+    /**
+     * Get hash code of this inode's file id. Consistent with
+     * {@link #hasSameFileId(Inode)}.
+     *
+     * @return hash code of file id.
+     */
+    public int fileIdHashCode() {
+        return fh.fsOpaqueHashCode();
+    }
+
+    /**
+     * Get key, which identifies the file system object of this inode
+     * regardless of export index or handle type.
+     *
+     * @return file id key.
+     */
+    public FileIdKey fileIdKey() {
+        FileIdKey key = fileIdKey;
+        if (key == null) {
+            key = new FileIdKey(this);
+            fileIdKey = key;
+        }
+        return key;
+    }
+
     public byte[] toNfsHandle() {
         return fh.bytes();
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(fh.bytes());
+        return fh.hashCode();
     }
 
     @Override
@@ -59,7 +98,7 @@ public class Inode {
             return false;
         }
         final Inode other = (Inode) obj;
-        return Arrays.equals(fh.bytes(), other.fh.bytes());
+        return fh.equals(other.fh);
     }
 
     public boolean isPesudoInode() {
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2009 - 2014 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import org.dcache.nfs.v4.xdr.nfsace4;
+
+/**
+ * Attributes of a file system object as returned by
+ * {@link VirtualFileSystem#getattrs(java.util.List, boolean)}.
+ */
+public class InodeAttributes {
+
+    private final Stat _stat;
+    private final nfsace4[] _acl;
+
+    /**
+     * Create a new attributes.
+     *
+     * @param stat object's attributes.
+     * @param acl object's access control list or null, if not requested.
+     */
+    public InodeAttributes(Stat stat, nfsace4[] acl) {
+        _stat = stat;
+        _acl = acl;
+    }
+
+    public Stat getStat() {
+        return _stat;
+    }
+
+    /**
+     * Get object's access control list.
+     *
+     * @return access control list or null, if not requested.
+     */
+    public nfsace4[] getAcl() {
+        return _acl;
+    }
+}
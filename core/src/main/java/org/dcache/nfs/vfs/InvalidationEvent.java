@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.Serializable;
+
+/**
+ * An event to notify caches about a modification of a file system object.
+ * The event either describes a change of object's attributes or a change of
+ * a directory entry with a given name.
+ *
+ * @since 0.17
+ */
+public class InvalidationEvent implements Serializable {
+
+    private static final long serialVersionUID = 2856441395521935283L;
+
+    private final String _origin;
+    private final byte[] _handle;
+    private final String _name;
+
+    /**
+     * Create a new event.
+     *
+     * @param origin identifier of event's publisher.
+     * @param inode modified object or parent directory of the modified entry.
+     * @param name name of modified directory entry or {@code null} if object's
+     * attributes were modified.
+     */
+    public InvalidationEvent(String origin, Inode inode, String name) {
+        _origin = origin;
+        _handle = inode.toNfsHandle();
+        _name = name;
+    }
+
+    /**
+     * Get identifier of event's publisher.
+     * @return identifier of event's publisher.
+     */
+    public String getOrigin() {
+        return _origin;
+    }
+
+    /**
+     * Get modified object or parent directory of the modified entry.
+     * @return the inode.
+     */
+    public Inode getInode() {
+        return new Inode(_handle);
+    }
+
+    /**
+     * Get name of modified directory entry.
+     * @return entry name or {@code null} if object's attributes were modified.
+     */
+    public String getName() {
+        return _name;
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationEvent{" + getInode() + (_name == null ? "" : ", " + _name) + "}";
+    }
+}
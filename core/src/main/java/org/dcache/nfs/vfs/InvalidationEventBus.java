@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.util.function.Consumer;
+
+/**
+ * A channel to distribute {@link InvalidationEvent}s between cache instances,
+ * which share the same back-end file system. As long as all modifications are
+ * published, cached values can be kept for long time.
+ * <p>
+ * Listeners are notified about all events, including events published by
+ * themselves. Events may be delivered asynchronously.
+ *
+ * @since 0.17
+ */
+public interface InvalidationEventBus {
+
+    /**
+     * Publish an event to all listeners.
+     *
+     * @param event event to publish.
+     */
+    void publish(InvalidationEvent event);
+
+    /**
+     * Register a listener to be notified about published events.
+     *
+     * @param listener the listener.
+     */
+    void addListener(Consumer<InvalidationEvent> listener);
+}
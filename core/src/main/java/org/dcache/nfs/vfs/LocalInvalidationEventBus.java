@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An in-process {@link InvalidationEventBus}, which delivers events to
+ * registered listeners synchronously in the publishing thread.
+ *
+ * @since 0.17
+ */
+public class LocalInvalidationEventBus implements InvalidationEventBus {
+
+    private final List<Consumer<InvalidationEvent>> _listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        _listeners.forEach(l -> l.accept(event));
+    }
+
+    @Override
+    public void addListener(Consumer<InvalidationEvent> listener) {
+        _listeners.add(listener);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.security.auth.Subject;
+import org.dcache.nfs.v4.xdr.nfsace4;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A file system, which remembers results of {@code getattr}, {@code getAcl}
+ * and {@code getFsStat} calls for the lifetime of a single request. Modifying
+ * calls made through this file system drop the affected results, thus
+ * subsequent operations of the same request observe their effects.
+ * <p>
+ * An instance is not thread-safe and must not be shared between requests.
+ * The operations of a single request are processed one after the other,
+ * which makes the instance safe to use even if an operation completes on
+ * a different thread.
+ *
+ * @since 0.17
+ */
+public class MemoizingFileSystem extends ForwardingFileSystem {
+
+    private final VirtualFileSystem _inner;
+    private final Map<Inode, Stat> _stats = new HashMap<>();
+    private final Map<Inode, nfsace4[]> _acls = new HashMap<>();
+    private FsStat _fsStat;
+
+    /**
+     * Create a new request scoped file system.
+     *
+     * @param inner file system to forward calls to.
+     */
+    public MemoizingFileSystem(VirtualFileSystem inner) {
+        _inner = requireNonNull(inner);
+    }
+
+    @Override
+    protected VirtualFileSystem delegate() {
+        return _inner;
+    }
+
+    @Override
+    public Stat getattr(Inode inode) throws IOException {
+        Stat stat = _stats.get(inode);
+        if (stat == null) {
+            stat = _inner.getattr(inode);
+            _stats.put(inode, stat);
+        }
+        return stat;
+    }
+
+    @Override
+    public CompletableFuture<Stat> getattrAsync(Inode inode) {
+        Stat stat = _stats.get(inode);
+        if (stat != null) {
+            return CompletableFuture.completedFuture(stat);
+        }
+        return _inner.getattrAsync(inode).thenApply(s -> {
+            _stats.put(inode, s);
+            return s;
+        });
+    }
+
+    @Override
+    public nfsace4[] getAcl(Inode inode) throws IOException {
+        nfsace4[] acl = _acls.get(inode);
+        if (acl == null) {
+            acl = _inner.getAcl(inode);
+            _acls.put(inode, acl);
+        }
+        return acl;
+    }
+
+    @Override
+    public FsStat getFsStat() throws IOException {
+        if (_fsStat == null) {
+            _fsStat = _inner.getFsStat();
+        }
+        return _fsStat;
+    }
+
+    @Override
+    public void setattr(Inode inode, Stat stat) throws IOException {
+        forget(inode);
+        _inner.setattr(inode, stat);
+        forget(inode);
+    }
+
+    @Override
+    public void setAcl(Inode inode, nfsace4[] acl) throws IOException {
+        forget(inode);
+        _inner.setAcl(inode, acl);
+        forget(inode);
+    }
+
+    @Override
+    public WriteResult write(Inode inode, byte[] data, long offset, int count, StabilityLevel stabilityLevel) throws IOException {
+        forget(inode);
+        return _inner.write(inode, data, offset, count, stabilityLevel);
+    }
+
+    @Override
+    public WriteResult write(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) throws IOException {
+        forget(inode);
+        return _inner.write(inode, data, offset, stabilityLevel);
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+        forget(inode);
+        return _inner.writeAsync(inode, data, offset, stabilityLevel)
+                .whenComplete((r, t) -> forget(inode));
+    }
+
+    @Override
+    public void commit(Inode inode, long offset, int count) throws IOException {
+        forget(inode);
+        _inner.commit(inode, offset, count);
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync(Inode inode, long offset, int count) {
+        forget(inode);
+        return _inner.commitAsync(inode, offset, count)
+                .whenComplete((r, t) -> forget(inode));
+    }
+
+    @Override
+    public Inode create(Inode parent, Stat.Type type, String path, Subject subject, int mode) throws IOException {
+        forget(parent);
+        return _inner.create(parent, type, path, subject, mode);
+    }
+
+    @Override
+    public Inode mkdir(Inode parent, String path, Subject subject, int mode) throws IOException {
+        forget(parent);
+        return _inner.mkdir(parent, path, subject, mode);
+    }
+
+    @Override
+    public Inode symlink(Inode parent, String path, String link, Subject subject, int mode) throws IOException {
+        forget(parent);
+        return _inner.symlink(parent, path, link, subject, mode);
+    }
+
+    @Override
+    public Inode link(Inode parent, Inode link, String path, Subject subject) throws IOException {
+        forget(parent);
+        forget(link);
+        return _inner.link(parent, link, path, subject);
+    }
+
+    /*
+     * Objects affected by remove and move are not known by the caller,
+     * thus everything is dropped.
+     */
+    @Override
+    public void remove(Inode parent, String path) throws IOException {
+        forgetAll();
+        _inner.remove(parent, path);
+    }
+
+    @Override
+    public boolean move(Inode src, String oldName, Inode dest, String newName) throws IOException {
+        forgetAll();
+        return _inner.move(src, oldName, dest, newName);
+    }
+
+    /**
+     * Drop all remembered results. Must be called when the file system is
+     * modified by other means than this instance.
+     */
+    public void forgetAll() {
+        _stats.clear();
+        _acls.clear();
+        _fsStat = null;
+    }
+
+    /**
+     * Drop remembered results which are affected by a modification of the
+     * given object.
+     */
+    private void forget(Inode inode) {
+        _stats.remove(inode);
+        _acls.remove(inode);
+        _fsStat = null;
+    }
+}
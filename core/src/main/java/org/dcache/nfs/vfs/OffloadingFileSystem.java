@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An adapter for blocking file systems, which runs data path operations on
+ * a dedicated executor. This allows request processing threads to continue
+ * with other requests while a slow back-end serves the I/O.
+ */
+public class OffloadingFileSystem extends ForwardingFileSystem {
+
+    private final VirtualFileSystem _inner;
+    private final Executor _executor;
+
+    /**
+     * Create a new adapter.
+     *
+     * @param inner blocking file system.
+     * @param executor executor to run blocking calls on.
+     */
+    public OffloadingFileSystem(VirtualFileSystem inner, Executor executor) {
+        _inner = requireNonNull(inner);
+        _executor = requireNonNull(executor);
+    }
+
+    @Override
+    protected VirtualFileSystem delegate() {
+        return _inner;
+    }
+
+    @Override
+    public CompletableFuture<Stat> getattrAsync(Inode inode) {
+        return AsyncIo.supplyAsync(() -> _inner.getattr(inode), _executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> readAsync(Inode inode, ByteBuffer data, long offset) {
+        return AsyncIo.supplyAsync(() -> _inner.read(inode, data, offset), _executor);
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+        return AsyncIo.supplyAsync(() -> _inner.write(inode, data, offset, stabilityLevel), _executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync(Inode inode, long offset, int count) {
+        return AsyncIo.supplyAsync(() -> {
+            _inner.commit(inode, offset, count);
+            return null;
+        }, _executor);
+    }
+}
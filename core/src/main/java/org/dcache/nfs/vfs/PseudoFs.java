@@ -19,16 +19,15 @@
  */
 package org.dcache.nfs.vfs;
 
-import com.google.common.base.Function;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Collections2;
 import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.security.auth.Subject;
 import org.dcache.auth.Subjects;
 import org.dcache.nfs.ChimeraNFSException;
@@ -66,17 +65,61 @@ public class PseudoFs extends ForwardingFileSystem {
     private final VirtualFileSystem _inner;
     private final ExportFile _exportFile;
     private final RpcAuth _auth;
+    private final PseudoFsTreeCache _treeCache;
+    private final AccessCache _accessCache;
+
+    /**
+     * Exports visible to the client. Resolved on first use.
+     */
+    private ClientExportView _exportView;
+
+    /**
+     * Security flavor used by the client. Resolved on first use.
+     */
+    private FsExport.Sec _usedFlavor;
 
     private final static int ACCESS4_MASK =
             ACCESS4_DELETE | ACCESS4_EXECUTE | ACCESS4_EXTEND
             | ACCESS4_LOOKUP | ACCESS4_MODIFY | ACCESS4_READ;
 
     public PseudoFs(VirtualFileSystem inner, RpcCall call, ExportFile exportFile) {
+        this(inner, call, exportFile, null);
+    }
+
+    /**
+     * Create a new {@code PseudoFs} for the given request.
+     *
+     * @param inner file system to decorate.
+     * @param call rpc call of the request.
+     * @param exportFile export file.
+     * @param treeCache cache of client's exports and pseudo fs trees shared
+     * between requests, or {@code null} if nothing should be cached.
+     */
+    public PseudoFs(VirtualFileSystem inner, RpcCall call, ExportFile exportFile, PseudoFsTreeCache treeCache) {
+        this(inner, call, exportFile, treeCache, null);
+    }
+
+    /**
+     * Create a new {@code PseudoFs} for the given request.
+     *
+     * @param inner file system to decorate.
+     * @param call rpc call of the request.
+     * @param exportFile export file.
+     * @param treeCache cache of client's exports and pseudo fs trees shared
+     * between requests, or {@code null} if nothing should be cached.
+     * @param accessCache cache of granted access shared between requests,
+     * or {@code null} if access should be evaluated on each request.
+     * @since 0.17
+     */
+    public PseudoFs(VirtualFileSystem inner, RpcCall call, ExportFile exportFile,
+            PseudoFsTreeCache treeCache, AccessCache accessCache) {
         _inner = inner;
-        _subject = call.getCredential().getSubject();
         _auth = call.getCredential();
+        _subject = _auth.getSubject();
         _inetAddress = call.getTransport().getRemoteSocketAddress().getAddress();
         _exportFile = exportFile;
+        _treeCache = treeCache;
+        _accessCache = accessCache;
     }
 
     @Override
@@ -84,60 +127,152 @@ public class PseudoFs extends ForwardingFileSystem {
         return _inner;
     }
 
-    private boolean canAccess(Inode inode, int mode) {
-        try {
-            checkAccess(inode, mode, false);
-            return true;
-        } catch (IOException e) {
-        }
-        return false;
-    }
-
     @Override
     public int access(Inode inode, int mode) throws IOException {
-        int accessmask = 0;
+        return access(inode, mode, null);
+    }
+
+    /**
+     * Check access to file system object. The export, object's attributes
+     * and ACL are evaluated only once for all requested access bits.
+     *
+     * @param inode inode of the object to check.
+     * @param mode a mask of permission bits to check.
+     * @param knownStat object's attributes, if already known by the caller,
+     * or {@code null}.
+     * @return an allowed subset of permissions from the given mask.
+     * @throws IOException
+     * @since 0.17
+     */
+    public int access(Inode inode, int mode, Stat knownStat) throws IOException {
 
         if ((mode & ~ACCESS4_MASK) != 0) {
             throw new InvalException("invalid access mask");
         }
 
-        if ((mode & ACCESS4_READ) != 0) {
-            if (canAccess(inode, ACE4_READ_DATA)) {
-                accessmask |= ACCESS4_READ;
+        int accessmask = evaluateAccess(inode, mode, knownStat);
+        return accessmask & _inner.access(inode, accessmask);
+    }
+
+    /**
+     * ACCESS4 bits and corresponding ACE4 masks.
+     */
+    private static final int[] ACCESS4_BITS = {
+        ACCESS4_READ, ACCESS4_LOOKUP, ACCESS4_MODIFY,
+        ACCESS4_EXECUTE, ACCESS4_EXTEND, ACCESS4_DELETE
+    };
+
+    private static final int[] ACCESS4_TO_ACE4 = {
+        ACE4_READ_DATA, ACE4_EXECUTE, ACE4_WRITE_DATA,
+        ACE4_EXECUTE, ACE4_APPEND_DATA, ACE4_DELETE_CHILD
+    };
+
+    /**
+     * Evaluate all requested ACCESS4 bits in a single pass. Applies the same
+     * rules as {@link #checkAccess(Inode, int, boolean, Stat)} for each bit,
+     * but without repeating export lookup, ACL check and {@code getattr}.
+     */
+    private int evaluateAccess(Inode inode, int mode, Stat knownStat) {
+
+        int[] aceMasks = new int[ACCESS4_BITS.length];
+        int count = 0;
+        for (int i = 0; i < ACCESS4_BITS.length; i++) {
+            if ((mode & ACCESS4_BITS[i]) != 0) {
+                aceMasks[count++] = ACCESS4_TO_ACE4[i];
             }
         }
+        aceMasks = Arrays.copyOf(aceMasks, count);
 
-        if ((mode & ACCESS4_LOOKUP) != 0) {
-            if (canAccess(inode, ACE4_EXECUTE)) {
-                accessmask |= ACCESS4_LOOKUP;
+        Access[] decisions = new Access[count];
+        Arrays.fill(decisions, Access.UNDEFINED);
+        Subject effectiveSubject = _subject;
+
+        if (inode.isPesudoInode()) {
+            for (int i = 0; i < count; i++) {
+                if (Acls.wantModify(aceMasks[i])) {
+                    decisions[i] = Access.DENY;
+                }
+            }
+        } else {
+            int exportIdx = getExportIndex(inode);
+            FsExport export = _exportFile.getExport(exportIdx, _inetAddress);
+            if (export == null) {
+                return 0;
             }
-        }
 
-        if ((mode & ACCESS4_MODIFY) != 0) {
-            if (canAccess(inode, ACE4_WRITE_DATA)) {
-                accessmask |= ACCESS4_MODIFY;
+            try {
+                checkSecurityFlavor(usedFlavor(), export.getSec());
+            } catch (IOException e) {
+                return 0;
             }
-        }
 
-        if ((mode & ACCESS4_EXECUTE) != 0) {
-            if (canAccess(inode, ACE4_EXECUTE)) {
-                accessmask |= ACCESS4_EXECUTE;
+            if (export.ioMode() == FsExport.IO.RO) {
+                for (int i = 0; i < count; i++) {
+                    if (Acls.wantModify(aceMasks[i])) {
+                        decisions[i] = Access.DENY;
+                    }
+                }
+            }
+
+            if (export.isAllRoot()) {
+                return toAccessMask(mode, aceMasks, decisions, -1);
             }
-        }
 
-        if ((mode & ACCESS4_EXTEND) != 0) {
-            if (canAccess(inode, ACE4_APPEND_DATA)) {
-                accessmask |= ACCESS4_EXTEND;
+            if (Subjects.isNobody(_subject) || export.hasAllSquash() || (!export.isTrusted() && Subjects.isRoot(_subject))) {
+                effectiveSubject = Subjects.of(export.getAnonUid(), export.getAnonGid());
+            }
+
+            if (export.checkAcls()) {
+                try {
+                    Access[] aclDecisions = _inner.getAclCheckable().checkAcl(_subject, inode, aceMasks);
+                    for (int i = 0; i < count; i++) {
+                        if (decisions[i] == Access.UNDEFINED) {
+                            decisions[i] = aclDecisions[i];
+                        }
+                    }
+                } catch (IOException e) {
+                    return 0;
+                }
             }
         }
 
-        if ((mode & ACCESS4_DELETE) != 0) {
-            if (canAccess(inode, ACE4_DELETE_CHILD)) {
-                accessmask |= ACCESS4_DELETE;
+        /*
+         * check for unix permission if ACL did not give us an answer.
+         */
+        int unixAccessmask = 0;
+        for (Access decision : decisions) {
+            if (decision == Access.UNDEFINED) {
+                try {
+                    Stat stat = knownStat != null ? knownStat : _inner.getattr(inode);
+                    unixAccessmask = unixToAccessmask(effectiveSubject, stat);
+                } catch (IOException e) {
+                    // deny all undecided
+                }
+                break;
             }
         }
+        return toAccessMask(mode, aceMasks, decisions, unixAccessmask);
+    }
 
-        return accessmask & _inner.access(inode, accessmask);
+    /**
+     * Convert per ACE4 mask decisions into ACCESS4 mask. Undecided masks
+     * are checked against {@code unixAccessmask}.
+     */
+    private static int toAccessMask(int mode, int[] aceMasks, Access[] decisions, int unixAccessmask) {
+        int accessmask = 0;
+        int j = 0;
+        for (int i = 0; i < ACCESS4_BITS.length; i++) {
+            if ((mode & ACCESS4_BITS[i]) == 0) {
+                continue;
+            }
+            Access decision = decisions[j];
+            int aceMask = aceMasks[j++];
+            if (decision == Access.ALLOW
+                    || (decision == Access.UNDEFINED && (unixAccessmask & aceMask) == aceMask)) {
+                accessmask |= ACCESS4_BITS[i];
+            }
+        }
+        return accessmask;
     }
 
     @Override
@@ -161,7 +296,7 @@ public class PseudoFs extends ForwardingFileSystem {
         /*
          * reject if there are no exports for this client at all
          */
-        if (!_exportFile.exportsFor(_inetAddress).findAny().isPresent()) {
+        if (exportView().getExports().isEmpty()) {
             _log.warn("Access denied: (no export) fs root for client {}", _inetAddress);
             throw new AccessException("no exports");
         }
@@ -206,10 +341,9 @@ public class PseudoFs extends ForwardingFileSystem {
     public DirectoryStream list(Inode inode, byte[] verifier, long cookie) throws IOException {
         Subject effectiveSubject = checkAccess(inode, ACE4_LIST_DIRECTORY);
         if (inode.isPesudoInode()) {
-            return new DirectoryStream(listPseudoDirectory(inode));
+            return listPseudoDirectory(inode);
         }
-        DirectoryStream innerStrem = _inner.list(inode, verifier, cookie);
-        return new DirectoryStream(innerStrem.getVerifier(), Collections2.transform(innerStrem.getEntries(), new PushParentIndex(inode)));
+        return _inner.list(inode, verifier, cookie).transform(new PushParentIndex(inode));
     }
 
     @Override
@@ -254,6 +388,12 @@ public class PseudoFs extends ForwardingFileSystem {
         return _inner.read(inode, data, offset, count);
     }
 
+    @Override
+    public int read(Inode inode, ByteBuffer data, long offset) throws IOException {
+        checkAccess(inode, ACE4_READ_DATA);
+        return _inner.read(inode, data, offset);
+    }
+
     @Override
     public String readlink(Inode inode) throws IOException {
         checkAccess(inode, ACE4_READ_DATA);
@@ -291,12 +431,66 @@ public class PseudoFs extends ForwardingFileSystem {
         return _inner.write(inode, data, offset, count, stabilityLevel);
     }
 
+    @Override
+    public WriteResult write(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) throws IOException {
+        checkAccess(inode, ACE4_WRITE_DATA);
+        return _inner.write(inode, data, offset, stabilityLevel);
+    }
+
     @Override
     public Stat getattr(Inode inode) throws IOException {
         checkAccess(inode, ACE4_READ_ATTRIBUTES);
         return _inner.getattr(inode);
     }
 
+    @Override
+    public List<InodeAttributes> getattrs(List<Inode> inodes, boolean withAcl) throws IOException {
+        /*
+         * Fetch attributes first, to use them in permission check. Nothing is
+         * returned to the caller, unless access to all objects is granted.
+         */
+        List<InodeAttributes> attributes = _inner.getattrs(inodes, withAcl);
+        for (int i = 0; i < inodes.size(); i++) {
+            Inode inode = inodes.get(i);
+            Stat stat = attributes.get(i).getStat();
+            checkAccess(inode, ACE4_READ_ATTRIBUTES, true, stat);
+            if (withAcl) {
+                checkAccess(inode, ACE4_READ_ACL, true, stat);
+            }
+        }
+        return attributes;
+    }
+
+    @Override
+    public CompletableFuture<Stat> getattrAsync(Inode inode) {
+        try {
+            checkAccess(inode, ACE4_READ_ATTRIBUTES);
+        } catch (IOException e) {
+            return AsyncIo.failed(e);
+        }
+        return _inner.getattrAsync(inode);
+    }
+
+    @Override
+    public CompletableFuture<Integer> readAsync(Inode inode, ByteBuffer data, long offset) {
+        try {
+            checkAccess(inode, ACE4_READ_DATA);
+        } catch (IOException e) {
+            return AsyncIo.failed(e);
+        }
+        return _inner.readAsync(inode, data, offset);
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+        try {
+            checkAccess(inode, ACE4_WRITE_DATA);
+        } catch (IOException e) {
+            return AsyncIo.failed(e);
+        }
+        return _inner.writeAsync(inode, data, offset, stabilityLevel);
+    }
+
     @Override
     public void setattr(Inode inode, Stat stat) throws IOException {
         int mask = ACE4_WRITE_ATTRIBUTES;
@@ -310,6 +504,9 @@ public class PseudoFs extends ForwardingFileSystem {
 
         checkAccess(inode, mask);
         _inner.setattr(inode, stat);
+        if (_accessCache != null) {
+            _accessCache.invalidate(inode);
+        }
     }
 
     @Override
@@ -322,6 +519,9 @@ public class PseudoFs extends ForwardingFileSystem {
     public void setAcl(Inode inode, nfsace4[] acl) throws IOException {
         checkAccess(inode, ACE4_WRITE_ACL);
         _inner.setAcl(inode, acl);
+        if (_accessCache != null) {
+            _accessCache.invalidate(inode);
+        }
     }
 
     private Subject checkAccess(Inode inode, int requestedMask) throws IOException {
@@ -329,9 +529,17 @@ public class PseudoFs extends ForwardingFileSystem {
     }
 
     private Subject checkAccess(Inode inode, int requestedMask, boolean shouldLog) throws IOException {
+        return checkAccess(inode, requestedMask, shouldLog, null);
+    }
+
+    /**
+     * Check access to the given inode. The unix permission check uses
+     * provided {@code stat}, if not null, to avoid an additional
+     * {@code getattr} call.
+     */
+    private Subject checkAccess(Inode inode, int requestedMask, boolean shouldLog, Stat knownStat) throws IOException {
 
         Subject effectiveSubject = _subject;
-        Access aclMatched = Access.UNDEFINED;
 
         if (inode.isPesudoInode() && Acls.wantModify(requestedMask)) {
             if (shouldLog) {
@@ -353,7 +561,7 @@ public class PseudoFs extends ForwardingFileSystem {
                 throw new AccessException("permission deny");
             }
 
-            checkSecurityFlavor(_auth, export.getSec());
+            checkSecurityFlavor(usedFlavor(), export.getSec());
 
             if ( (export.ioMode() == FsExport.IO.RO) && Acls.wantModify(requestedMask)) {
                 if (shouldLog) {
@@ -372,14 +580,39 @@ public class PseudoFs extends ForwardingFileSystem {
                 effectiveSubject = Subjects.of(export.getAnonUid(), export.getAnonGid());
             }
 
-            if (export.checkAcls()) {
-                aclMatched = _inner.getAclCheckable().checkAcl(_subject, inode, requestedMask);
-                if (aclMatched == Access.DENY) {
-                    if(shouldLog) {
-                        _log.warn("Access deny: {} {} {}", _inetAddress, acemask4.toString(requestedMask), new SubjectHolder(_subject));
-                    }
-                    throw new AccessException();
+            boolean withAcl = export.checkAcls();
+            if (_accessCache != null && (withAcl || requestedMask != ACE4_READ_ATTRIBUTES)) {
+                Stat stat = knownStat != null ? knownStat : _inner.getattr(inode);
+                if (_accessCache.isGranted(inode, stat, _subject, effectiveSubject, withAcl, requestedMask)) {
+                    return effectiveSubject;
+                }
+                checkPermissions(inode, requestedMask, shouldLog, stat, effectiveSubject, withAcl);
+                _accessCache.grant(inode, stat, _subject, effectiveSubject, withAcl, requestedMask);
+                return effectiveSubject;
+            }
+
+            checkPermissions(inode, requestedMask, shouldLog, knownStat, effectiveSubject, withAcl);
+            return effectiveSubject;
+        }
+
+        checkPermissions(inode, requestedMask, shouldLog, knownStat, effectiveSubject, false);
+        return effectiveSubject;
+    }
+
+    /**
+     * Check ACL, if enabled, and unix permissions of the given inode.
+     */
+    private void checkPermissions(Inode inode, int requestedMask, boolean shouldLog, Stat knownStat,
+            Subject effectiveSubject, boolean withAcl) throws IOException {
+
+        Access aclMatched = Access.UNDEFINED;
+        if (withAcl) {
+            aclMatched = _inner.getAclCheckable().checkAcl(_subject, inode, requestedMask);
+            if (aclMatched == Access.DENY) {
+                if(shouldLog) {
+                    _log.warn("Access deny: {} {} {}", _inetAddress, acemask4.toString(requestedMask), new SubjectHolder(_subject));
                 }
+                throw new AccessException();
             }
         }
 
@@ -389,7 +622,7 @@ public class PseudoFs extends ForwardingFileSystem {
          * always allows it.
          */
         if ((aclMatched == Access.UNDEFINED) && (requestedMask != ACE4_READ_ATTRIBUTES)) {
-            Stat stat = _inner.getattr(inode);
+            Stat stat = knownStat != null ? knownStat : _inner.getattr(inode);
             int unixAccessmask = unixToAccessmask(effectiveSubject, stat);
             if ((unixAccessmask & requestedMask) != requestedMask) {
                 if (shouldLog) {
@@ -400,7 +633,6 @@ public class PseudoFs extends ForwardingFileSystem {
                 throw new AccessException("permission deny");
             }
         }
-        return effectiveSubject;
     }
 
     /*
@@ -431,22 +663,18 @@ public class PseudoFs extends ForwardingFileSystem {
     }
 
     private Inode lookupInPseudoDirectory(Inode parent, String name) throws IOException {
-        Set<PseudoFsNode> nodes = prepareExportTree();
-
-        for (PseudoFsNode node : nodes) {
-            if (node.id().equals(parent)) {
-                PseudoFsNode n = node.getChild(name);
-                if (n != null) {
-                    return n.isMountPoint() ? pseudoIdToReal(n.id(), getIndexId(n)) : n.id();
-                }
+        PseudoFsNode node = prepareExportTree().getNode(parent);
+        if (node != null) {
+            PseudoFsNode n = node.getChild(name);
+            if (n != null) {
+                return n.isMountPoint() ? pseudoIdToReal(n.id(), getIndexId(n)) : n.id();
             }
         }
         throw new NoEntException();
     }
 
     private boolean isPseudoDirectory(Inode dir) throws IOException {
-        return prepareExportTree().stream()
-                .anyMatch(n -> n.id().equals(dir));
+        return prepareExportTree().contains(dir);
     }
 
     public static Inode pseudoIdToReal(Inode inode, int index) {
@@ -494,30 +722,29 @@ public class PseudoFs extends ForwardingFileSystem {
         }
     }
 
-    private Collection<DirectoryEntry> listPseudoDirectory(Inode parent) throws ChimeraNFSException, IOException {
-        Set<PseudoFsNode> nodes = prepareExportTree();
-        for (PseudoFsNode node : nodes) {
-            if (node.id().equals(parent)) {
-                if (node.isMountPoint()) {
-                    return Collections2.transform(_inner.list(parent, null, 0L).getEntries(), new ConvertToRealInode(node));
-                } else {
-                    long cookie = 0; // artificial cookie
-                    List<DirectoryEntry> pseudoLs = new ArrayList<>();
-                    for (String s : node.getChildren()) {
-                        PseudoFsNode subNode = node.getChild(s);
-                        Inode inode = subNode.id();
-                        Stat stat = _inner.getattr(inode);
-                        DirectoryEntry e = new DirectoryEntry(s,
-                                subNode.isMountPoint()
-                                ? pseudoIdToReal(inode, getIndexId(subNode)) : inode, stat, cookie);
-                        pseudoLs.add(e);
-                        cookie++;
-                    }
-                    return pseudoLs;
-                }
-            }
+    private DirectoryStream listPseudoDirectory(Inode parent) throws ChimeraNFSException, IOException {
+        PseudoFsNode node = prepareExportTree().getNode(parent);
+        if (node == null) {
+            throw new NoEntException();
         }
-        throw new NoEntException();
+
+        if (node.isMountPoint()) {
+            return _inner.list(parent, null, 0L).transform(new ConvertToRealInode(node));
+        }
+
+        long cookie = 0; // artificial cookie
+        List<DirectoryEntry> pseudoLs = new ArrayList<>();
+        for (String s : node.getChildren()) {
+            PseudoFsNode subNode = node.getChild(s);
+            Inode inode = subNode.id();
+            Stat stat = _inner.getattr(inode);
+            DirectoryEntry e = new DirectoryEntry(s,
+                    subNode.isMountPoint()
+                    ? pseudoIdToReal(inode, getIndexId(subNode)) : inode, stat, cookie);
+            pseudoLs.add(e);
+            cookie++;
+        }
+        return new DirectoryStream(pseudoLs);
     }
 
     private Inode pushExportIndex(Inode inode, int index) {
@@ -539,19 +766,17 @@ public class PseudoFs extends ForwardingFileSystem {
          * This can be wrong, e.g. RO vs. RW.
          */
         if (inode.handleVersion() == 0) {
-            FsExport export = _exportFile.exportsFor(_inetAddress)
-                    .findFirst()
-                    .orElse(null);
-            return export == null? -1 : export.getIndex();
+            List<FsExport> exports = exportView().getExports();
+            return exports.isEmpty() ? -1 : exports.get(0).getIndex();
         }
         return inode.exportIndex();
     }
 
-    private Inode realToPseudo(Inode inode) {
+    static Inode realToPseudo(Inode inode) {
         return realToPseudo(inode, 0);
     }
 
-    private Inode realToPseudo(Inode inode, int idx) {
+    private static Inode realToPseudo(Inode inode, int idx) {
 
         FileHandle fh = new FileHandle.FileHandleBuilder()
                 .setExportIdx(idx)
@@ -560,56 +785,55 @@ public class PseudoFs extends ForwardingFileSystem {
         return new Inode(fh);
     }
 
-    private void pathToPseudoFs(final PseudoFsNode root, Set<PseudoFsNode> all, FsExport e) {
-
-        PseudoFsNode parent = root;
-        String path = e.getPath();
-
-        if (e.getPath().equals("/")) {
-            root.addExport(e);
-            return;
-        }
-
-        Splitter splitter = Splitter.on('/').omitEmptyStrings();
-        Set<PseudoFsNode> pathNodes = new HashSet<>();
-
-        for (String s : splitter.split(path)) {
-            try {
-                PseudoFsNode node = parent.getChild(s);
-                if (node == null) {
-                    node = new PseudoFsNode(realToPseudo(_inner.lookup(parent.id(), s)));
-                    parent.addChild(s, node);
-                    pathNodes.add(node);
-                }
-                parent = node;
-            } catch (IOException ef) {
-                return;
+    private ClientExportView exportView() {
+        if (_exportView == null) {
+            if (_treeCache == null) {
+                List<FsExport> exports = _exportFile.exportsFor(_inetAddress)
+                        .collect(Collectors.toList());
+                _exportView = new ClientExportView(exports, 0);
+            } else {
+                _exportView = _treeCache.viewOf(_inetAddress, _exportFile);
             }
         }
-
-        all.addAll(pathNodes);
-        parent.setId(pseudoIdToReal(parent.id(), e.getIndex()));
-        parent.addExport(e);
+        return _exportView;
     }
 
-    private Set<PseudoFsNode> prepareExportTree() throws ChimeraNFSException, IOException {
-
-        Set<PseudoFsNode> nodes = new HashSet<>();
-        Inode rootInode = realToPseudo(_inner.getRootInode());
-        PseudoFsNode root = new PseudoFsNode(rootInode);
+    private PseudoFsTree prepareExportTree() throws ChimeraNFSException, IOException {
 
-        _exportFile.exportsFor(_inetAddress).forEach(e -> pathToPseudoFs(root, nodes, e));
+        ClientExportView view = exportView();
+        PseudoFsTree tree = view.getTree();
+        if (tree == null) {
+            tree = _treeCache == null
+                    ? PseudoFsTree.build(_inner, view.getExports())
+                    : _treeCache.get(view.getExports());
+            if (tree.isComplete()) {
+                view.setTree(tree);
+            }
+        }
 
-        if (nodes.isEmpty()) {
+        if (tree.isEmpty()) {
             _log.warn("No exports found for: {}", _inetAddress);
             throw new AccessException();
         }
 
-        nodes.add(root);
-        return nodes;
+        return tree;
+    }
+
+    private FsExport.Sec usedFlavor() throws ChimeraNFSException {
+        if (_usedFlavor == null) {
+            _usedFlavor = flavorOf(_auth);
+        }
+        return _usedFlavor;
+    }
+
+    private static void checkSecurityFlavor(FsExport.Sec usedFlavor, FsExport.Sec minFlavor) throws ChimeraNFSException {
+        if (usedFlavor.compareTo(minFlavor) < 0) {
+            throw new PermException("Authentication flavor too weak: "
+                    + "allowed <" + minFlavor + "> provided <" + usedFlavor + ">");
+        }
     }
 
-    private static void checkSecurityFlavor(RpcAuth auth, FsExport.Sec minFlavor) throws ChimeraNFSException {
+    private static FsExport.Sec flavorOf(RpcAuth auth) throws ChimeraNFSException {
 
         FsExport.Sec usedFlavor;
         switch(auth.type()) {
@@ -638,11 +862,7 @@ public class PseudoFs extends ForwardingFileSystem {
             default:
                 throw new PermException("Unsupported Authentication flavor: " + auth.type());
         }
-
-        if (usedFlavor.compareTo(minFlavor) < 0) {
-            throw new PermException("Authentication flavor too weak: "
-                    + "allowed <" + minFlavor + "> provided <" + usedFlavor + ">");
-        }
+        return usedFlavor;
     }
 
     private boolean inheritUidGid(Inode inode) {
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import com.google.common.base.Splitter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.dcache.nfs.FsExport;
+
+/**
+ * A compiled, read-only representation of the pseudo file system as seen
+ * by a set of exports. The tree is build once for a given set of exports
+ * and afterwards can be walked without any call to the underlying file
+ * system.
+ */
+public class PseudoFsTree {
+
+    private final static Splitter PATH_SPLITTER = Splitter.on('/').omitEmptyStrings();
+
+    /**
+     * Pseudo fs root node.
+     */
+    private final PseudoFsNode _root;
+
+    /**
+     * All nodes of the tree indexed by theirs inode.
+     */
+    private final Map<Inode, PseudoFsNode> _nodes;
+
+    /**
+     * true if tree does not contain any exported path.
+     */
+    private final boolean _isEmpty;
+
+    /**
+     * true if all export paths were resolved.
+     */
+    private final boolean _isComplete;
+
+    private PseudoFsTree(PseudoFsNode root, Map<Inode, PseudoFsNode> nodes,
+            boolean isEmpty, boolean isComplete) {
+        _root = root;
+        _nodes = nodes;
+        _isEmpty = isEmpty;
+        _isComplete = isComplete;
+    }
+
+    /**
+     * Get the root node of the tree.
+     * @return root node.
+     */
+    public PseudoFsNode getRoot() {
+        return _root;
+    }
+
+    /**
+     * Get the tree node which corresponds to given inode.
+     * @param inode to look for.
+     * @return tree node or null, if inode is not a part of the tree.
+     */
+    public PseudoFsNode getNode(Inode inode) {
+        return _nodes.get(inode);
+    }
+
+    /**
+     * Check whatever given inode is a part of the tree.
+     * @param inode to check.
+     * @return true, if inode is a part of the tree.
+     */
+    public boolean contains(Inode inode) {
+        return _nodes.containsKey(inode);
+    }
+
+    /**
+     * Returns true if none of exported paths is a part of the tree.
+     * @return true if none of exported paths is a part of the tree.
+     */
+    public boolean isEmpty() {
+        return _isEmpty;
+    }
+
+    /**
+     * Returns true if all exported paths have been resolved while building
+     * the tree. Incomplete trees should not be cached as missing path may
+     * appear later on.
+     * @return true if all exported paths have been resolved.
+     */
+    public boolean isComplete() {
+        return _isComplete;
+    }
+
+    /**
+     * Build a pseudo fs tree for the given exports.
+     *
+     * @param fs file system to resolve exported paths.
+     * @param exports exports visible to the client.
+     * @return compiled tree.
+     * @throws IOException if root inode can't be resolved.
+     */
+    public static PseudoFsTree build(VirtualFileSystem fs, Iterable<FsExport> exports) throws IOException {
+
+        Set<PseudoFsNode> nodes = new HashSet<>();
+        Inode rootInode = PseudoFs.realToPseudo(fs.getRootInode());
+        PseudoFsNode root = new PseudoFsNode(rootInode);
+
+        boolean isComplete = true;
+        for (FsExport e : exports) {
+            isComplete &= pathToPseudoFs(fs, root, nodes, e);
+        }
+
+        boolean isEmpty = nodes.isEmpty();
+        nodes.add(root);
+
+        /*
+         * node ids are updated while building the tree, thus build the
+         * index only when all nodes are final.
+         */
+        Map<Inode, PseudoFsNode> index = new HashMap<>();
+        nodes.forEach(n -> index.put(n.id(), n));
+        return new PseudoFsTree(root, Collections.unmodifiableMap(index), isEmpty, isComplete);
+    }
+
+    private static boolean pathToPseudoFs(VirtualFileSystem fs, final PseudoFsNode root, Set<PseudoFsNode> all, FsExport e) {
+
+        PseudoFsNode parent = root;
+        String path = e.getPath();
+
+        if (e.getPath().equals("/")) {
+            root.addExport(e);
+            return true;
+        }
+
+        Set<PseudoFsNode> pathNodes = new HashSet<>();
+
+        for (String s : PATH_SPLITTER.split(path)) {
+            try {
+                PseudoFsNode node = parent.getChild(s);
+                if (node == null) {
+                    node = new PseudoFsNode(PseudoFs.realToPseudo(fs.lookup(parent.id(), s)));
+                    parent.addChild(s, node);
+                    pathNodes.add(node);
+                }
+                parent = node;
+            } catch (IOException ef) {
+                return false;
+            }
+        }
+
+        all.addAll(pathNodes);
+        parent.setId(PseudoFs.pseudoIdToReal(parent.id(), e.getIndex()));
+        parent.addExport(e);
+        return true;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.dcache.nfs.ExportFile;
+import org.dcache.nfs.FsExport;
+
+/**
+ * A cache of compiled {@link PseudoFsTree}s. As many clients are matched by
+ * the same set of export entries, the trees are cached per such set and
+ * shared between all matching clients. In addition, the exports visible
+ * to a client are resolved only once per client address. The cache is
+ * invalidated when export file is re-loaded.
+ */
+public class PseudoFsTreeCache {
+
+    private final VirtualFileSystem _fs;
+    private final ConcurrentMap<List<FsExport>, PseudoFsTree> _trees = new ConcurrentHashMap<>();
+
+    /**
+     * Maximal number of cached client views.
+     */
+    private static final int MAX_VIEWS = 65536;
+
+    /**
+     * Exports visible to a client by client's address.
+     */
+    private final Cache<InetAddress, ClientExportView> _views = CacheBuilder.newBuilder()
+            .maximumSize(MAX_VIEWS)
+            .build();
+
+    /**
+     * Export table generation. Incremented on each invalidation to detect
+     * views resolved against an outdated export table.
+     */
+    private final AtomicLong _generation = new AtomicLong();
+
+    /**
+     * Create a new cache.
+     * @param fs file system to resolve exported paths.
+     * @param exportFile export file, which re-load invalidates the cache, or
+     * {@code null}, if there is no exports.
+     */
+    public PseudoFsTreeCache(VirtualFileSystem fs, ExportFile exportFile) {
+        _fs = fs;
+        if (exportFile != null) {
+            exportFile.addReloadListener(this::invalidate);
+        }
+    }
+
+    /**
+     * Get pseudo fs tree for a given list of exports. The tree is compiled
+     * if not cached yet.
+     *
+     * @param exports exports visible to the client.
+     * @return pseudo fs tree.
+     * @throws IOException if the tree can't be build.
+     */
+    public PseudoFsTree get(List<FsExport> exports) throws IOException {
+        PseudoFsTree tree = _trees.get(exports);
+        if (tree == null) {
+            tree = PseudoFsTree.build(_fs, exports);
+            if (tree.isComplete()) {
+                PseudoFsTree existing = _trees.putIfAbsent(exports, tree);
+                if (existing != null) {
+                    tree = existing;
+                }
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Get exports visible to a client with the given address.
+     *
+     * @param client client's address.
+     * @param exportFile export file to resolve exports.
+     * @return client's view of exports.
+     */
+    ClientExportView viewOf(InetAddress client, ExportFile exportFile) {
+        long generation = _generation.get();
+        ClientExportView view = _views.getIfPresent(client);
+        if (view == null || view.getGeneration() != generation) {
+            List<FsExport> exports = exportFile.exportsFor(client)
+                    .collect(Collectors.toList());
+            view = new ClientExportView(exports, generation);
+            _views.put(client, view);
+        }
+        return view;
+    }
+
+    /**
+     * Discard all cached trees and client views.
+     */
+    public void invalidate() {
+        _generation.incrementAndGet();
+        _views.invalidateAll();
+        _trees.clear();
+    }
+}
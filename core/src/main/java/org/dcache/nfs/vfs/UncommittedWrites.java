@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.dcache.nfs.vfs.VirtualFileSystem.StabilityLevel;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Keeps track of file ranges written with stability weaker than
+ * {@link StabilityLevel#FILE_SYNC} and not committed yet, together with the
+ * write verifier returned to the clients by WRITE and COMMIT.
+ * <p>
+ * Only ranges of tracked files can be skipped by commit. A file, which is
+ * not tracked, might be written before the tracking started or by other
+ * means, thus commit of such file always goes to the backend.
+ * <p>
+ * The verifier is changed each time uncommitted data might have been lost,
+ * e.g. when commit to the backend fails. This forces clients to re-send all
+ * uncommitted data.
+ * <p>
+ * To keep memory usage bounded, only a limited number of files with
+ * uncommitted data is tracked. When the limit is reached, writes into other
+ * files are requested to be stable.
+ *
+ * @since 0.17
+ */
+public class UncommittedWrites {
+
+    /**
+     * Default maximal number of files with uncommitted data.
+     */
+    public static final int DEFAULT_MAX_FILES = 65536;
+
+    private final Map<FileIdKey, FileWrites> _files = new ConcurrentHashMap<>();
+    private final AtomicLong _verifier;
+    private final int _maxFiles;
+
+    /**
+     * Create a new tracker.
+     *
+     * @param initialVerifier initial value of the write verifier. The value
+     * must be different on each server start, e.g. start time.
+     * @param maxFiles maximal number of files with uncommitted data.
+     */
+    public UncommittedWrites(long initialVerifier, int maxFiles) {
+        checkArgument(maxFiles >= 0, "maxFiles must be non-negative");
+        _verifier = new AtomicLong(initialVerifier);
+        _maxFiles = maxFiles;
+    }
+
+    /**
+     * Get current write verifier.
+     *
+     * @return write verifier.
+     */
+    public long getVerifier() {
+        return _verifier.get();
+    }
+
+    /**
+     * Get stability level to be requested from the backend for a write with
+     * {@code requested} stability into the given file.
+     *
+     * @param inode file to write into.
+     * @param requested stability requested by the client.
+     * @return stability level to request from the backend.
+     */
+    public StabilityLevel stabilityFor(Inode inode, StabilityLevel requested) {
+        if (requested == StabilityLevel.FILE_SYNC
+                || _files.size() < _maxFiles
+                || _files.containsKey(keyOf(inode))) {
+            return requested;
+        }
+        return StabilityLevel.FILE_SYNC;
+    }
+
+    /**
+     * Record a completed write.
+     *
+     * @param inode written file.
+     * @param offset offset of written data.
+     * @param count number of written bytes.
+     * @param achieved stability level achieved by the backend.
+     */
+    public void written(Inode inode, long offset, int count, StabilityLevel achieved) {
+        if (achieved == StabilityLevel.FILE_SYNC || count <= 0) {
+            return;
+        }
+        _files.compute(keyOf(inode), (k, f) -> {
+            if (f == null) {
+                f = new FileWrites();
+            }
+            f.add(offset, endOf(offset, count));
+            return f;
+        });
+    }
+
+    /**
+     * Check whatever the given range of the file has to be committed by the
+     * backend. If true is returned, the caller must report the result of the
+     * commit with {@link #commitDone(Inode, boolean)}.
+     *
+     * @param inode file to commit.
+     * @param offset start of the range.
+     * @param count length of the range or zero for the rest of the file.
+     * @return true if backend commit is required.
+     */
+    public boolean commitStarted(Inode inode, long offset, int count) {
+        long end = count == 0 ? Long.MAX_VALUE : endOf(offset, count);
+        boolean[] needed = new boolean[1];
+        _files.compute(keyOf(inode), (k, f) -> {
+            if (f == null) {
+                /*
+                 * Untracked files are committed by the backend. The commit
+                 * is tracked until done, as the file may be written meanwhile.
+                 */
+                f = new FileWrites();
+                needed[0] = true;
+            } else {
+                /*
+                 * A commit in progress may still fail, thus this one has to
+                 * wait for the backend as well.
+                 */
+                needed[0] = f.remove(offset, end) || f.commitsInProgress > 0;
+            }
+            if (needed[0]) {
+                f.commitsInProgress++;
+            }
+            return f.isEmpty() ? null : f;
+        });
+        return needed[0];
+    }
+
+    /**
+     * Record completion of a commit started by
+     * {@link #commitStarted(Inode, long, int)}. A failed commit might have
+     * lost uncommitted data of the file, thus the write verifier is changed.
+     *
+     * @param inode committed file.
+     * @param success true if backend commit was successful.
+     */
+    public void commitDone(Inode inode, boolean success) {
+        if (!success) {
+            _verifier.incrementAndGet();
+        }
+        _files.computeIfPresent(keyOf(inode), (k, f) -> {
+            f.commitsInProgress--;
+            if (!success) {
+                // clients will re-send everything with the new verifier
+                f.ranges.clear();
+            }
+            return f.isEmpty() ? null : f;
+        });
+    }
+
+    /**
+     * Get number of files with uncommitted data.
+     *
+     * @return number of files.
+     */
+    public int getFileCount() {
+        return _files.size();
+    }
+
+    private static long endOf(long offset, int count) {
+        long end = offset + count;
+        return end < offset ? Long.MAX_VALUE : end;
+    }
+
+    private static FileIdKey keyOf(Inode inode) {
+        return inode.fileIdKey();
+    }
+
+    /**
+     * Uncommitted ranges of a single file. Access is serialized by the
+     * map's compute methods.
+     */
+    private static class FileWrites {
+
+        /**
+         * Non-overlapping ranges, start to end (exclusive).
+         */
+        private final NavigableMap<Long, Long> ranges = new TreeMap<>();
+        private int commitsInProgress;
+
+        void add(long start, long end) {
+            Map.Entry<Long, Long> before = ranges.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                start = before.getKey();
+                end = Math.max(end, before.getValue());
+            }
+            Map.Entry<Long, Long> next;
+            while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                ranges.remove(next.getKey());
+            }
+            ranges.put(start, end);
+        }
+
+        /**
+         * Remove given range.
+         *
+         * @return true if any uncommitted data was in the range.
+         */
+        boolean remove(long start, long end) {
+            boolean found = false;
+            Map.Entry<Long, Long> before = ranges.lowerEntry(start);
+            if (before != null && before.getValue() > start) {
+                ranges.put(before.getKey(), start);
+                if (before.getValue() > end) {
+                    ranges.put(end, before.getValue());
+                }
+                found = true;
+            }
+            Map.Entry<Long, Long> next;
+            while ((next = ranges.ceilingEntry(start)) != null && next.getKey() < end) {
+                ranges.remove(next.getKey());
+                if (next.getValue() > end) {
+                    ranges.put(end, next.getValue());
+                }
+                found = true;
+            }
+            return found;
+        }
+
+        boolean isEmpty() {
+            return ranges.isEmpty() && commitsInProgress == 0;
+        }
+    }
+}
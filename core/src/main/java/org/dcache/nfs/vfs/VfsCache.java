@@ -26,70 +26,185 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.Weigher;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.security.auth.Subject;
+import org.dcache.nfs.status.NoEntException;
+import org.dcache.nfs.v4.xdr.nfsace4;
 import org.dcache.utils.GuavaCacheMXBeanImpl;
-import org.dcache.utils.Opaque;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * Caching decorator.
+ * <p>
+ * Modifications made through this cache are published to the
+ * {@link InvalidationEventBus}. Events published by other cache instances
+ * sharing the same bus are used to discard stale entries.
  */
 public class VfsCache extends ForwardingFileSystem {
 
     private final LoadingCache<CacheKey, Inode> _lookupCache;
-    private final Cache<Opaque, Stat> _statCache;
+
+    /**
+     * Keys of {@link #_lookupCache} indexed by parent's file id and name. Used
+     * to invalidate a lookup made through any export or type of handle.
+     */
+    private final ConcurrentMap<NameKey, Set<CacheKey>> _lookupIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Cache of lookups, which have failed with {@link NoEntException}. The
+     * entries are keyed by parent's file id, thus an entry created through
+     * one export invalidates failed lookups made through any other export.
+     */
+    private final Cache<NameKey, Boolean> _negativeLookupCache;
+
+    /**
+     * Number of name space modifications. Used to detect a failed lookup,
+     * which raced with creation of the entry.
+     */
+    private final AtomicLong _namespaceVersion = new AtomicLong();
+    private final Cache<FileIdKey, Stat> _statCache;
     private final LoadingCache<Inode, Inode> _parentCache;
     private final Supplier<FsStat> _fsStatSupplier;
 
-    private final Cache<InodeCacheEntry, DirectoryStream> _readdirCache;
+    private final Cache<InodeCacheEntry, CachedDirectory> _readdirCache;
+    private final int _readdirPageSize;
+    private final int _readdirMaxPages;
+
+    /**
+     * Memory budget of all cached directory pages in bytes or zero, if
+     * not limited.
+     */
+    private final long _readdirMaxBytes;
+
+    /**
+     * Estimated memory usage of all cached directory pages in bytes.
+     */
+    private final AtomicLong _readdirBytes = new AtomicLong();
 
     private final VirtualFileSystem _inner;
 
+    private final InvalidationEventBus _eventBus;
+
+    /**
+     * Identifier used to recognize own invalidation events.
+     */
+    private final String _id = UUID.randomUUID().toString();
+
     public VfsCache(VirtualFileSystem inner, VfsCacheConfig cacheConfig) {
+        this(inner, cacheConfig, new LocalInvalidationEventBus());
+    }
+
+    /**
+     * Create a new cache, which shares invalidation events with other
+     * caches through provided event bus.
+     *
+     * @param inner file system to cache.
+     * @param cacheConfig cache configuration.
+     * @param eventBus bus to publish and receive invalidation events.
+     * @since 0.17
+     */
+    public VfsCache(VirtualFileSystem inner, VfsCacheConfig cacheConfig, InvalidationEventBus eventBus) {
         _inner = inner;
-	_lookupCache = CacheBuilder.newBuilder()
-		.maximumSize(cacheConfig.getMaxEntries())
+        _eventBus = requireNonNull(eventBus);
+        _readdirPageSize = Math.max(1, cacheConfig.getReaddirPageSize());
+        _readdirMaxPages = Math.max(1, cacheConfig.getReaddirMaxPages());
+        _readdirMaxBytes = Math.max(0, cacheConfig.getReaddirMaxBytes());
+
+        Weigher<CacheKey, Inode> lookupWeigher = (k, v) -> CacheWeights.ENTRY + k.weight() + CacheWeights.of(v);
+        Weigher<NameKey, Boolean> negativeLookupWeigher = (k, v) -> CacheWeights.ENTRY + k.weight();
+        Weigher<FileIdKey, Stat> statWeigher = (k, v) -> CacheWeights.ENTRY + CacheWeights.of(k) + CacheWeights.STAT;
+        Weigher<Inode, Inode> parentWeigher = (k, v) -> CacheWeights.ENTRY + CacheWeights.of(k) + CacheWeights.of(v);
+
+        Weigher<InodeCacheEntry, CachedDirectory> readdirWeigher = (k, v) -> (int) Math.min(Integer.MAX_VALUE,
+                CacheWeights.ENTRY + v.weight());
+
+	_lookupCache = newCacheBuilder(cacheConfig.getMaxEntries(), cacheConfig.getLookupMaxBytes(), lookupWeigher)
 		.expireAfterWrite(cacheConfig.getLifeTime(), cacheConfig.getTimeUnit())
-		.softValues()
-                .recordStats()
+		.<CacheKey, Inode>removalListener(n -> {
+                    if (n.getCause() != RemovalCause.REPLACED) {
+                        unindexLookup(n.getKey());
+                    }
+                })
 		.build(new LoockupLoader());
 
-	_statCache = CacheBuilder.newBuilder()
-		.maximumSize(cacheConfig.getMaxEntries())
+        _negativeLookupCache = newCacheBuilder(cacheConfig.getNegativeLookupMaxEntries(),
+                cacheConfig.getNegativeLookupMaxBytes(), negativeLookupWeigher)
+                .expireAfterWrite(cacheConfig.getNegativeLookupLifeTime(), cacheConfig.getNegativeLookupLifeTimeUnit())
+                .build();
+
+	_statCache = newCacheBuilder(cacheConfig.getMaxEntries(), cacheConfig.getStatMaxBytes(), statWeigher)
 		.expireAfterWrite(cacheConfig.getLifeTime(), cacheConfig.getTimeUnit())
-		.softValues()
-                .recordStats()
 		.build();
 
-        _parentCache = CacheBuilder.newBuilder()
-                .maximumSize(cacheConfig.getMaxEntries())
+        _parentCache = newCacheBuilder(cacheConfig.getMaxEntries(), cacheConfig.getParentMaxBytes(), parentWeigher)
                 .expireAfterWrite(100, TimeUnit.MILLISECONDS)
-                .softValues()
-                .recordStats()
                 .build(new ParentLoader());
 
-        _readdirCache = CacheBuilder.newBuilder()
-                .maximumSize(cacheConfig.getReaddirMaxEntries())
-                .expireAfterWrite(cacheConfig.getReaddirLifeTime(), cacheConfig.getReaddirLifeTimeUnit())
-                .softValues()
+        /*
+         * Pages of a directory listing are loaded on demand, after the listing
+         * is added to the cache. Thus the pages are charged against a budget
+         * shared by all listings and the cache itself limits only the number
+         * of listings.
+         */
+        CacheBuilder<Object, Object> readdirCacheBuilder = CacheBuilder.newBuilder()
                 .recordStats()
+                .expireAfterWrite(cacheConfig.getReaddirLifeTime(), cacheConfig.getReaddirLifeTimeUnit());
+        if (_readdirMaxBytes == 0 || cacheConfig.getReaddirMaxEntries() > 0) {
+            readdirCacheBuilder.maximumSize(cacheConfig.getReaddirMaxEntries());
+        }
+        _readdirCache = readdirCacheBuilder
+                .<InodeCacheEntry, CachedDirectory>removalListener(n -> n.getValue().discard())
                 .build();
 
         _fsStatSupplier = cacheConfig.getFsStatLifeTime() > 0 ?
                 Suppliers.memoizeWithExpiration(new FsStatSupplier(), cacheConfig.getFsStatLifeTime(), cacheConfig.getFsSataTimeUnit()) :
                 new FsStatSupplier();
 
-        new GuavaCacheMXBeanImpl("vfs-stat", _statCache);
-        new GuavaCacheMXBeanImpl("vfs-parent", _parentCache);
-        new GuavaCacheMXBeanImpl("vfs-lookup", _lookupCache);
-        new GuavaCacheMXBeanImpl("vfs-readdir", _readdirCache);
+        new GuavaCacheMXBeanImpl("vfs-stat", _statCache, statWeigher);
+        new GuavaCacheMXBeanImpl("vfs-parent", _parentCache, parentWeigher);
+        new GuavaCacheMXBeanImpl("vfs-lookup", _lookupCache, lookupWeigher);
+        new GuavaCacheMXBeanImpl("vfs-negative-lookup", _negativeLookupCache, negativeLookupWeigher);
+        new GuavaCacheMXBeanImpl("vfs-readdir", _readdirCache, readdirWeigher);
+
+        _eventBus.addListener(this::onInvalidationEvent);
+    }
+
+    /**
+     * Create cache builder, which limits the cache either by total weight of
+     * the entries, if {@code maxBytes} is positive, or by number of entries.
+     * Values are kept by hard references.
+     */
+    private static <K, V> CacheBuilder<K, V> newCacheBuilder(long maxEntries, long maxBytes, Weigher<K, V> weigher) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                .recordStats();
+        if (maxBytes > 0) {
+            return builder.maximumWeight(maxBytes).weigher(weigher);
+        }
+        return builder.maximumWeight(maxEntries).<K, V>weigher((k, v) -> 1);
     }
 
     @Override
@@ -106,6 +221,7 @@ public class VfsCache extends ForwardingFileSystem {
     @Override
     public Inode symlink(Inode parent, String path, String link, Subject subject, int mode) throws IOException {
         Inode inode = _inner.symlink(parent, path, link, subject, mode);
+        invalidateLookupCache(parent, path);
 	invalidateStatCache(parent);
 	return inode;
     }
@@ -178,12 +294,96 @@ public class VfsCache extends ForwardingFileSystem {
         return statFromCacheOrLoad(inode);
     }
 
+    @Override
+    public List<InodeAttributes> getattrs(List<Inode> inodes, boolean withAcl) throws IOException {
+
+        if (withAcl) {
+            // ACLs are not cached, thus all objects must be queried anyway
+            List<InodeAttributes> attributes = _inner.getattrs(inodes, true);
+            for (int i = 0; i < inodes.size(); i++) {
+                _statCache.put(inodes.get(i).fileIdKey(), attributes.get(i).getStat());
+            }
+            return attributes;
+        }
+
+        InodeAttributes[] attributes = new InodeAttributes[inodes.size()];
+        List<Inode> missing = new ArrayList<>();
+        for (int i = 0; i < attributes.length; i++) {
+            Stat stat = _statCache.getIfPresent(inodes.get(i).fileIdKey());
+            if (stat != null) {
+                attributes[i] = new InodeAttributes(stat, null);
+            } else {
+                missing.add(inodes.get(i));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Iterator<InodeAttributes> loaded = _inner.getattrs(missing, false).iterator();
+            for (int i = 0; i < attributes.length; i++) {
+                if (attributes[i] == null) {
+                    attributes[i] = loaded.next();
+                    _statCache.put(inodes.get(i).fileIdKey(), attributes[i].getStat());
+                }
+            }
+        }
+        return Arrays.asList(attributes);
+    }
+
+    @Override
+    public CompletableFuture<Stat> getattrAsync(Inode inode) {
+        FileIdKey key = inode.fileIdKey();
+        Stat stat = _statCache.getIfPresent(key);
+        if (stat != null) {
+            return CompletableFuture.completedFuture(stat);
+        }
+        return _inner.getattrAsync(inode).thenApply(s -> {
+            _statCache.put(key, s);
+            return s;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync(Inode inode, long offset, int count) {
+        invalidateStatCache(inode);
+        return _inner.commitAsync(inode, offset, count);
+    }
+
     @Override
     public void setattr(Inode inode, Stat stat) throws IOException {
         _inner.setattr(inode, stat);
 	invalidateStatCache(inode);
     }
 
+    @Override
+    public void setAcl(Inode inode, nfsace4[] acl) throws IOException {
+        _inner.setAcl(inode, acl);
+        invalidateStatCache(inode);
+    }
+
+    @Override
+    public WriteResult write(Inode inode, byte[] data, long offset, int count, StabilityLevel stabilityLevel) throws IOException {
+        WriteResult result = _inner.write(inode, data, offset, count, stabilityLevel);
+        invalidateStatCache(inode);
+        return result;
+    }
+
+    @Override
+    public WriteResult write(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) throws IOException {
+        WriteResult result = _inner.write(inode, data, offset, stabilityLevel);
+        invalidateStatCache(inode);
+        return result;
+    }
+
+    /*
+     * The file is modified by the backend until the write completes, thus
+     * cached attributes are discarded afterwards.
+     */
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+        return _inner.writeAsync(inode, data, offset, stabilityLevel)
+                .whenComplete((r, t) -> invalidateStatCache(inode));
+    }
+
     /*
        Utility methods for cache manipulation.
      */
@@ -195,11 +395,46 @@ public class VfsCache extends ForwardingFileSystem {
      * @param path to invalidate
      */
     public void invalidateLookupCache(Inode parent, String path) {
-	_lookupCache.invalidate(new CacheKey(parent, path));
+        dropLookup(parent, path);
+        _eventBus.publish(new InvalidationEvent(_id, parent, path));
     }
 
     private void updateLookupCache(Inode parent, String path, Inode inode) {
-	_lookupCache.put(new CacheKey(parent, path), inode);
+        invalidateNegativeLookupCache(parent, path);
+        CacheKey key = new CacheKey(parent, path);
+        indexLookup(key);
+	_lookupCache.put(key, inode);
+        _eventBus.publish(new InvalidationEvent(_id, parent, path));
+    }
+
+    private void dropLookup(Inode parent, String path) {
+	_lookupCache.invalidate(new CacheKey(parent, path));
+        // the same entry looked up through other exports or handle types
+        Set<CacheKey> keys = _lookupIndex.get(new NameKey(parent, path));
+        if (keys != null) {
+            _lookupCache.invalidateAll(keys);
+        }
+        invalidateNegativeLookupCache(parent, path);
+    }
+
+    private void invalidateNegativeLookupCache(Inode parent, String path) {
+        _namespaceVersion.incrementAndGet();
+        _negativeLookupCache.invalidate(new NameKey(parent, path));
+    }
+
+    private void indexLookup(CacheKey key) {
+        _lookupIndex.compute(new NameKey(key.getParent(), key.getName()), (k, keys) -> {
+            Set<CacheKey> s = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            s.add(key);
+            return s;
+        });
+    }
+
+    private void unindexLookup(CacheKey key) {
+        _lookupIndex.computeIfPresent(new NameKey(key.getParent(), key.getName()), (k, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
     }
 
     /**
@@ -209,7 +444,25 @@ public class VfsCache extends ForwardingFileSystem {
      * @param path to invalidate
      */
     public void invalidateStatCache(final Inode inode) {
-	_statCache.invalidate(new Opaque(inode.getFileId()));
+        dropStat(inode);
+        _eventBus.publish(new InvalidationEvent(_id, inode, null));
+    }
+
+    private void dropStat(Inode inode) {
+	_statCache.invalidate(inode.fileIdKey());
+    }
+
+    private void onInvalidationEvent(InvalidationEvent event) {
+        if (_id.equals(event.getOrigin())) {
+            return;
+        }
+
+        Inode inode = event.getInode();
+        if (event.getName() == null) {
+            dropStat(inode);
+        } else {
+            dropLookup(inode, event.getName());
+        }
     }
 
     private void updateParentCache(Inode inode, Inode parent) {
@@ -220,23 +473,45 @@ public class VfsCache extends ForwardingFileSystem {
 
         @Override
         public Inode load(CacheKey k) throws Exception {
-            return _inner.lookup(k.getParent(), k.getName());
+            Inode inode = _inner.lookup(k.getParent(), k.getName());
+            indexLookup(k);
+            return inode;
         }
     }
 
     private Inode lookupFromCacheOrLoad(final Inode parent, final String path) throws IOException {
+        NameKey negativeKey = new NameKey(parent, path);
+        if (_negativeLookupCache.getIfPresent(negativeKey) != null) {
+            throw new NoEntException("Path " + path + " does not exist (cached)");
+        }
+        long namespaceVersion = _namespaceVersion.get();
 	try {
 	    return _lookupCache.get(new CacheKey(parent, path));
 	} catch (ExecutionException e) {
 	    Throwable t = e.getCause();
+            if (t instanceof NoEntException) {
+                cacheFailedLookup(negativeKey, namespaceVersion);
+            }
 	    Throwables.throwIfInstanceOf(t, IOException.class);
 	    throw new IOException(e.getMessage(), t);
 	}
     }
 
+    private void cacheFailedLookup(NameKey key, long namespaceVersion) {
+        _negativeLookupCache.put(key, Boolean.TRUE);
+        /*
+         * If the name space was modified while lookup was in progress, then
+         * the entry might be created in between. Drop the entry to be on the
+         * safe side.
+         */
+        if (_namespaceVersion.get() != namespaceVersion) {
+            _negativeLookupCache.invalidate(key);
+        }
+    }
+
     private Stat statFromCacheOrLoad(final Inode inode) throws IOException {
 	try {
-	    return _statCache.get(new Opaque(inode.getFileId()), () -> _inner.getattr(inode));
+	    return _statCache.get(inode.fileIdKey(), () -> _inner.getattr(inode));
 	} catch (ExecutionException e) {
 	    Throwable t = e.getCause();
 	    Throwables.throwIfInstanceOf(t, IOException.class);
@@ -301,6 +576,55 @@ public class VfsCache extends ForwardingFileSystem {
         public Inode getParent() {
             return _parent;
         }
+
+        /**
+         * Estimated heap usage of the key.
+         */
+        int weight() {
+            return 24 + CacheWeights.of(_parent) + CacheWeights.of(_name);
+        }
+    }
+
+    /**
+     * Key based on parent's file id and name. Unlike {@link CacheKey}, it
+     * ignores export index and type of parent's handle.
+     */
+    private static class NameKey {
+
+        private final FileIdKey _parent;
+        private final String _name;
+
+        NameKey(Inode parent, String name) {
+            _parent = parent.fileIdKey();
+            _name = name;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof NameKey)) {
+                return false;
+            }
+
+            final NameKey other = (NameKey) obj;
+            return other._parent.equals(_parent)
+                    && other._name.equals(_name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(_name, _parent);
+        }
+
+        /**
+         * Estimated heap usage of the key.
+         */
+        int weight() {
+            return 24 + CacheWeights.of(_parent) + CacheWeights.of(_name);
+        }
     }
 
     private static class InodeCacheEntry {
@@ -349,29 +673,258 @@ public class VfsCache extends ForwardingFileSystem {
         }
     }
 
+    /**
+     * Charge {@code bytes} against memory budget of directory listings.
+     *
+     * @return true, if the budget is not exhausted.
+     */
+    private boolean reserveReaddirBytes(long bytes) {
+        if (_readdirMaxBytes == 0) {
+            _readdirBytes.addAndGet(bytes);
+            return true;
+        }
+
+        long used;
+        do {
+            used = _readdirBytes.get();
+            if (used + bytes > _readdirMaxBytes) {
+                return false;
+            }
+        } while (!_readdirBytes.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    /**
+     * Get estimated memory usage of cached directory listings.
+     *
+     * @return memory usage in bytes.
+     */
+    long getReaddirBytes() {
+        return _readdirBytes.get();
+    }
+
     @Override
     public DirectoryStream list(Inode inode, byte[] verifier, long cookie) throws IOException {
 
-        InodeCacheEntry cacheKey;
+        byte[] listVerifier;
         if (cookie == 0L && Arrays.equals(verifier, DirectoryStream.ZERO_VERIFIER)) {
             /*
              * Initial listing. Lets try cache first. Use the same key as if we had
              * executed directory listing.
              */
-            cacheKey = new InodeCacheEntry(inode, delegate().directoryVerifier(inode));
+            listVerifier = delegate().directoryVerifier(inode);
         } else {
-            cacheKey = new InodeCacheEntry(inode, verifier);
+            listVerifier = verifier;
         }
 
-        DirectoryStream directoryStream = _readdirCache.getIfPresent(cacheKey);
-        if (directoryStream == null) {
-            // ask always for list from the beginning
-            directoryStream = delegate().list(inode, DirectoryStream.ZERO_VERIFIER, 0L);
-            cacheKey = new InodeCacheEntry(inode, directoryStream.getVerifier());
-            _readdirCache.put(cacheKey, directoryStream);
+        InodeCacheEntry cacheKey = new InodeCacheEntry(inode, listVerifier);
+        CachedDirectory directory;
+        try {
+            directory = _readdirCache.get(cacheKey, () -> new CachedDirectory(inode, listVerifier));
+        } catch (ExecutionException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
+
+        return new DirectoryStream(listVerifier, directory).tail(cookie);
+    }
+
+    /**
+     * A part of directory listing.
+     */
+    private static class DirectoryPage {
+
+        private final List<DirectoryEntry> _entries;
+
+        /**
+         * Estimated memory usage of the page.
+         */
+        private final long _weight;
+
+        /**
+         * Cookie of the last entry in the page.
+         */
+        private final long _lastCookie;
+
+        /**
+         * Whatever this is the last page of the listing.
+         */
+        private final boolean _isLast;
+
+        DirectoryPage(List<DirectoryEntry> entries, long lastCookie, boolean isLast) {
+            _entries = entries;
+            _lastCookie = lastCookie;
+            _isLast = isLast;
+            _weight = CacheWeights.ofDirectory(entries.size());
+        }
+
+        /**
+         * Returns true, if entries with cookies greater than given {@code cookie}
+         * are in this page, or there are no such entries in the listing at all.
+         */
+        boolean covers(long cookie) {
+            return cookie < _lastCookie || _isLast;
         }
 
-        return directoryStream.tail(cookie);
+        Iterator<DirectoryEntry> entriesAfter(long cookie) {
+            // binary search for the first entry with a greater cookie
+            int low = 0;
+            int high = _entries.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (_entries.get(mid).getCookie() <= cookie) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return _entries.subList(low, _entries.size()).iterator();
+        }
     }
 
+    /**
+     * Cached directory listing. The listing is stored as a set of pages, which
+     * are loaded on demand as clients iterate over the directory. Each page is
+     * indexed by the cookie after which it starts.
+     */
+    private class CachedDirectory implements DirectoryStream.Source {
+
+        private final Inode _inode;
+        private final byte[] _verifier;
+        private final ConcurrentNavigableMap<Long, DirectoryPage> _pages = new ConcurrentSkipListMap<>();
+
+        /**
+         * Estimated memory usage of cached pages. Modified while holding
+         * the monitor.
+         */
+        private volatile long _weight;
+
+        /**
+         * Whatever the listing was removed from the cache.
+         */
+        private boolean _discarded;
+
+        CachedDirectory(Inode inode, byte[] verifier) {
+            _inode = inode;
+            _verifier = verifier;
+        }
+
+        @Override
+        public Iterator<DirectoryEntry> entriesAfter(long cookie) {
+            return new PageIterator(cookie);
+        }
+
+        private DirectoryPage pageFor(long cookie) {
+            Map.Entry<Long, DirectoryPage> e = _pages.floorEntry(cookie);
+            if (e == null || !e.getValue().covers(cookie)) {
+                return null;
+            }
+            return e.getValue();
+        }
+
+        /**
+         * Get estimated memory usage of cached pages.
+         */
+        long weight() {
+            return _weight;
+        }
+
+        /**
+         * Add page to the listing. The page is not cached, if listing is
+         * already removed from the cache or memory budget is exhausted.
+         */
+        private synchronized void addPage(long cookie, DirectoryPage page) {
+            if (_discarded || !reserveReaddirBytes(page._weight)) {
+                return;
+            }
+            _weight += page._weight;
+            DirectoryPage old = _pages.put(cookie, page);
+            if (old != null) {
+                release(old);
+            }
+            // directories are listed forward, thus drop the leading pages first
+            while (_pages.size() > _readdirMaxPages) {
+                release(_pages.pollFirstEntry().getValue());
+            }
+        }
+
+        private void release(DirectoryPage page) {
+            _weight -= page._weight;
+            _readdirBytes.addAndGet(-page._weight);
+        }
+
+        /**
+         * Drop all pages. Called when listing is removed from the cache.
+         */
+        synchronized void discard() {
+            _discarded = true;
+            _readdirBytes.addAndGet(-_weight);
+            _weight = 0;
+            _pages.clear();
+        }
+
+        /**
+         * Iterator over cached pages. Missing pages are loaded from the file
+         * system. Once a page is missing, the remaining listing is read from the
+         * same file system listing, to avoid restarting it for every page.
+         */
+        private class PageIterator implements Iterator<DirectoryEntry> {
+
+            private long _cookie;
+            private Iterator<DirectoryEntry> _listing;
+            private Iterator<DirectoryEntry> _current = Collections.emptyIterator();
+            private boolean _isLast;
+
+            PageIterator(long cookie) {
+                _cookie = cookie;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (!_current.hasNext()) {
+                    if (_isLast) {
+                        return false;
+                    }
+
+                    DirectoryPage page = _listing == null ? pageFor(_cookie) : null;
+                    if (page == null) {
+                        page = loadPage();
+                    }
+                    _isLast = page._isLast;
+                    _current = page.entriesAfter(_cookie);
+                }
+                return true;
+            }
+
+            @Override
+            public DirectoryEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                DirectoryEntry entry = _current.next();
+                _cookie = entry.getCookie();
+                return entry;
+            }
+
+            private DirectoryPage loadPage() {
+                if (_listing == null) {
+                    byte[] verifier = _cookie == 0L ? DirectoryStream.ZERO_VERIFIER : _verifier;
+                    try {
+                        _listing = _inner.list(_inode, verifier, _cookie).tail(_cookie).iterator();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                List<DirectoryEntry> entries = new ArrayList<>();
+                while (entries.size() < _readdirPageSize && _listing.hasNext()) {
+                    entries.add(_listing.next());
+                }
+
+                long lastCookie = entries.isEmpty() ? _cookie : entries.get(entries.size() - 1).getCookie();
+                DirectoryPage page = new DirectoryPage(entries, lastCookie, !_listing.hasNext());
+                addPage(_cookie, page);
+                return page;
+            }
+        }
+    }
 }
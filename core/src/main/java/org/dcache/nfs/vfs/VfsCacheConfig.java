@@ -35,6 +35,18 @@ public class VfsCacheConfig {
     private long readdirLifeTime;
     private TimeUnit readdirLifeTimeUnit = TimeUnit.SECONDS;
     private int readdirMaxEntries;
+    private int readdirPageSize = 1024;
+    private int readdirMaxPages = 64;
+
+    private int negativeLookupMaxEntries;
+    private long negativeLookupLifeTime;
+    private TimeUnit negativeLookupLifeTimeUnit = TimeUnit.SECONDS;
+
+    private long statMaxBytes;
+    private long lookupMaxBytes;
+    private long negativeLookupMaxBytes;
+    private long parentMaxBytes;
+    private long readdirMaxBytes;
 
     /**
      * Get maximal number of entries in the cache.
@@ -102,6 +114,93 @@ public class VfsCacheConfig {
         return readdirMaxEntries;
     }
 
+    /**
+     * Get number of directory entries stored in a single page of a
+     * cached directory listing.
+     * @return number of entries per page.
+     */
+    public int getReaddirPageSize() {
+        return readdirPageSize;
+    }
+
+    /**
+     * Get maximal number of pages cached per directory listing.
+     * @return maximal number of pages.
+     */
+    public int getReaddirMaxPages() {
+        return readdirMaxPages;
+    }
+
+    /**
+     * Get maximal number of cached failed lookups. Zero disables caching of
+     * failed lookups.
+     * @return maximal number of failed lookups.
+     */
+    public int getNegativeLookupMaxEntries() {
+        return negativeLookupMaxEntries;
+    }
+
+    /**
+     * Get failed lookup cache validity time.
+     * @return validity time.
+     */
+    public long getNegativeLookupLifeTime() {
+        return negativeLookupLifeTime;
+    }
+
+    /**
+     * Get unit in which failed lookup cache validity time is expressed.
+     * @return time unit.
+     */
+    public TimeUnit getNegativeLookupLifeTimeUnit() {
+        return negativeLookupLifeTimeUnit;
+    }
+
+    /**
+     * Get estimated memory budget of the file attributes cache in bytes. Zero means, that
+     * the cache is limited by number of entries.
+     * @return memory budget in bytes.
+     */
+    public long getStatMaxBytes() {
+        return statMaxBytes;
+    }
+
+    /**
+     * Get estimated memory budget of the lookup cache in bytes. Zero means, that
+     * the cache is limited by number of entries.
+     * @return memory budget in bytes.
+     */
+    public long getLookupMaxBytes() {
+        return lookupMaxBytes;
+    }
+
+    /**
+     * Get estimated memory budget of the failed lookup cache in bytes. Zero means, that
+     * the cache is limited by number of entries.
+     * @return memory budget in bytes.
+     */
+    public long getNegativeLookupMaxBytes() {
+        return negativeLookupMaxBytes;
+    }
+
+    /**
+     * Get estimated memory budget of the parent cache in bytes. Zero means, that
+     * the cache is limited by number of entries.
+     * @return memory budget in bytes.
+     */
+    public long getParentMaxBytes() {
+        return parentMaxBytes;
+    }
+
+    /**
+     * Get estimated memory budget of the directory listing cache in bytes. Zero means, that
+     * the cache is limited by number of entries only.
+     * @return memory budget in bytes.
+     */
+    public long getReaddirMaxBytes() {
+        return readdirMaxBytes;
+    }
+
     /**
      * Set maximal number of entries in the cache.
      * @param maxEntries
@@ -165,4 +264,91 @@ public class VfsCacheConfig {
     public void setReaddirMaxEntries(int maxEntries) {
         readdirMaxEntries = maxEntries;
     }
+
+    /**
+     * Set number of directory entries stored in a single page of a
+     * cached directory listing.
+     * @param pageSize
+     */
+    public void setReaddirPageSize(int pageSize) {
+        readdirPageSize = pageSize;
+    }
+
+    /**
+     * Set maximal number of pages cached per directory listing.
+     * @param maxPages
+     */
+    public void setReaddirMaxPages(int maxPages) {
+        readdirMaxPages = maxPages;
+    }
+
+    /**
+     * Set maximal number of cached failed lookups.
+     * @param maxEntries
+     */
+    public void setNegativeLookupMaxEntries(int maxEntries) {
+        negativeLookupMaxEntries = maxEntries;
+    }
+
+    /**
+     * Set failed lookup cache validity time.
+     * @param lifeTime
+     */
+    public void setNegativeLookupLifeTime(long lifeTime) {
+        negativeLookupLifeTime = lifeTime;
+    }
+
+    /**
+     * Set unit in which failed lookup cache validity time is expressed.
+     * @param timeUnit
+     */
+    public void setNegativeLookupLifeTimeUnit(TimeUnit timeUnit) {
+        negativeLookupLifeTimeUnit = timeUnit;
+    }
+
+    /**
+     * Set estimated memory budget of the file attributes cache in bytes. If set, the number
+     * of entries is not limited.
+     * @param maxBytes
+     */
+    public void setStatMaxBytes(long maxBytes) {
+        statMaxBytes = maxBytes;
+    }
+
+    /**
+     * Set estimated memory budget of the lookup cache in bytes. If set, the number
+     * of entries is not limited.
+     * @param maxBytes
+     */
+    public void setLookupMaxBytes(long maxBytes) {
+        lookupMaxBytes = maxBytes;
+    }
+
+    /**
+     * Set estimated memory budget of the failed lookup cache in bytes. If set, the number
+     * of entries is not limited.
+     * @param maxBytes
+     */
+    public void setNegativeLookupMaxBytes(long maxBytes) {
+        negativeLookupMaxBytes = maxBytes;
+    }
+
+    /**
+     * Set estimated memory budget of the parent cache in bytes. If set, the number
+     * of entries is not limited.
+     * @param maxBytes
+     */
+    public void setParentMaxBytes(long maxBytes) {
+        parentMaxBytes = maxBytes;
+    }
+
+    /**
+     * Set estimated memory budget of the directory listing cache in bytes. The budget is shared
+     * by pages of all cached listings. If set, the number of listings is limited only if
+     * {@link #setReaddirMaxEntries(int)} is set as well.
+     * @param maxBytes
+     */
+    public void setReaddirMaxBytes(long maxBytes) {
+        readdirMaxBytes = maxBytes;
+    }
 }
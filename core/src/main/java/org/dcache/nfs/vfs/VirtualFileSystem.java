@@ -20,6 +20,10 @@
 package org.dcache.nfs.vfs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.security.auth.Subject;
 import org.dcache.nfs.v4.NfsIdMapping;
 import org.dcache.nfs.v4.xdr.nfsace4;
@@ -179,6 +183,42 @@ public interface VirtualFileSystem {
      */
     int read(Inode inode, byte[] data, long offset, int count) throws IOException;
 
+    /**
+     * Read data from file with a given inode into {@code data}. Up to
+     * {@link ByteBuffer#remaining()} bytes are read into the buffer starting
+     * at its current position. The position of the buffer is advanced by the
+     * number of bytes read.
+     * <p>
+     * The default implementation delegates to
+     * {@link #read(Inode, byte[], long, int)}. File systems which are able to
+     * fill the buffer directly, e.g. from a {@link java.nio.channels.FileChannel},
+     * should override this method to avoid intermediate copies.
+     *
+     * @param inode inode of the file to read from.
+     * @param data buffer to read into.
+     * @param offset file's position to read from.
+     * @return number of bytes read from the file, possibly zero. -1 if EOF is
+     * reached.
+     * @throws IOException
+     */
+    default int read(Inode inode, ByteBuffer data, long offset) throws IOException {
+        int count = data.remaining();
+        int n;
+        if (data.hasArray() && data.arrayOffset() + data.position() == 0) {
+            n = read(inode, data.array(), offset, count);
+            if (n > 0) {
+                data.position(n);
+            }
+        } else {
+            byte[] b = new byte[count];
+            n = read(inode, b, offset, count);
+            if (n > 0) {
+                data.put(b, 0, n);
+            }
+        }
+        return n;
+    }
+
     /**
      * Get value of a symbolic link object.
      *
@@ -224,6 +264,40 @@ public interface VirtualFileSystem {
      */
     WriteResult write(Inode inode, byte[] data, long offset, int count, StabilityLevel stabilityLevel) throws IOException;
 
+    /**
+     * Write provided {@code data} into inode with a given stability level.
+     * The bytes between buffer's current position and it's limit are written.
+     * The position of the buffer is advanced by the number of bytes written.
+     * <p>
+     * The default implementation delegates to
+     * {@link #write(Inode, byte[], long, int, StabilityLevel)}. File systems
+     * which are able to consume the buffer directly, e.g. with a
+     * {@link java.nio.channels.FileChannel}, should override this method to
+     * avoid intermediate copies.
+     *
+     * @param inode inode of the file to write.
+     * @param data data to be written.
+     * @param offset the file position to begin writing at.
+     * @param stabilityLevel data stability level.
+     * @return write result.
+     * @throws IOException
+     */
+    default WriteResult write(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) throws IOException {
+        int count = data.remaining();
+        byte[] b;
+        if (data.hasArray() && data.arrayOffset() + data.position() == 0) {
+            b = data.array();
+        } else {
+            b = new byte[count];
+            data.duplicate().get(b);
+        }
+        WriteResult res = write(inode, b, offset, count, stabilityLevel);
+        if (res.getBytesWritten() > 0) {
+            data.position(data.position() + res.getBytesWritten());
+        }
+        return res;
+    }
+
     /**
      * Flush data in {@code dirty} state to the stable storage. Typically
      * follows {@link #write()} operation.
@@ -244,6 +318,28 @@ public interface VirtualFileSystem {
      */
     Stat getattr(Inode inode) throws IOException;
 
+    /**
+     * Get attributes of multiple file system objects with a single call. Used
+     * by directory listing to fetch attributes of all entries in a batch.
+     * <p>
+     * The default implementation calls {@link #getattr(Inode)} and
+     * {@link #getAcl(Inode)} for each object. File systems which are able to
+     * fetch attributes of multiple objects in a single back-end round trip
+     * should override this method.
+     *
+     * @param inodes inodes of the file system objects.
+     * @param withAcl true, if access control lists must be fetched as well.
+     * @return object attributes in the same order as {@code inodes}.
+     * @throws IOException
+     */
+    default List<InodeAttributes> getattrs(List<Inode> inodes, boolean withAcl) throws IOException {
+        List<InodeAttributes> attributes = new ArrayList<>(inodes.size());
+        for (Inode inode : inodes) {
+            attributes.add(new InodeAttributes(getattr(inode), withAcl ? getAcl(inode) : null));
+        }
+        return attributes;
+    }
+
     /**
      * Set/update file system object's attributes.
      *
@@ -296,6 +392,80 @@ public interface VirtualFileSystem {
      */
     NfsIdMapping getIdMapper();
 
+    /*
+     * Asynchronous variants of data path operations. The default
+     * implementations call blocking methods and return already completed
+     * futures. File systems with high latency back-ends should override them
+     * to release request processing threads while I/O is in progress.
+     * Failures are reported by completing the returned future exceptionally.
+     */
+
+    /**
+     * Asynchronous variant of {@link #getattr(Inode)}.
+     *
+     * @param inode inode of the file system object.
+     * @return future completed with file's attributes.
+     */
+    default CompletableFuture<Stat> getattrAsync(Inode inode) {
+        try {
+            return CompletableFuture.completedFuture(getattr(inode));
+        } catch (IOException | RuntimeException e) {
+            return AsyncIo.failed(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #read(Inode, ByteBuffer, long)}. The
+     * buffer must not be accessed until returned future is completed.
+     *
+     * @param inode inode of the file to read from.
+     * @param data buffer to read into.
+     * @param offset file's position to read from.
+     * @return future completed with the number of bytes read.
+     */
+    default CompletableFuture<Integer> readAsync(Inode inode, ByteBuffer data, long offset) {
+        try {
+            return CompletableFuture.completedFuture(read(inode, data, offset));
+        } catch (IOException | RuntimeException e) {
+            return AsyncIo.failed(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #write(Inode, ByteBuffer, long, StabilityLevel)}.
+     * The buffer must not be accessed until returned future is completed.
+     *
+     * @param inode inode of the file to write.
+     * @param data data to be written.
+     * @param offset the file position to begin writing at.
+     * @param stabilityLevel data stability level.
+     * @return future completed with write result.
+     */
+    default CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+        try {
+            return CompletableFuture.completedFuture(write(inode, data, offset, stabilityLevel));
+        } catch (IOException | RuntimeException e) {
+            return AsyncIo.failed(e);
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #commit(Inode, long, int)}.
+     *
+     * @param inode inode of the file to commit.
+     * @param offset the file position to start commit at.
+     * @param count number of bytes to commit.
+     * @return future completed when data is on stable storage.
+     */
+    default CompletableFuture<Void> commitAsync(Inode inode, long offset, int count) {
+        try {
+            commit(inode, offset, count);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            return AsyncIo.failed(e);
+        }
+    }
+
     /**
      * Object which represents write operation result.
      */
@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A pool of heap and direct {@link ByteBuffer}s used by data operations.
+ * <p>
+ * Buffers are grouped into power of two size classes between
+ * {@link #MIN_POOLED_SIZE} and {@link #MAX_POOLED_SIZE}. Larger buffers are
+ * allocated on each request and never pooled. Buffers released by the
+ * allocating thread are kept in a small per-thread cache first and in a
+ * shared, bounded, free list otherwise. Virtual threads are short living,
+ * thus they always use the shared free lists.
+ * <p>
+ * When leak detection is enabled, the allocation site of each buffer is
+ * recorded and reported if buffer is garbage collected without being
+ * released.
+ */
+public class BufferPool {
+
+    private static final Logger _log = LoggerFactory.getLogger(BufferPool.class);
+
+    private static final int MIN_SHIFT = 12;
+    private static final int MAX_SHIFT = 22;
+
+    /**
+     * The smallest pooled buffer size.
+     */
+    public static final int MIN_POOLED_SIZE = 1 << MIN_SHIFT;
+
+    /**
+     * The largest pooled buffer size.
+     */
+    public static final int MAX_POOLED_SIZE = 1 << MAX_SHIFT;
+
+    /**
+     * Default number of bytes kept in the shared free lists per buffer type.
+     */
+    public static final long DEFAULT_MAX_POOLED_BYTES = 64 * 1024 * 1024;
+
+    private static final int SIZE_CLASSES = MAX_SHIFT - MIN_SHIFT + 1;
+
+    /**
+     * Number of buffers per size class kept in a per-thread cache.
+     */
+    private static final int THREAD_CACHE_DEPTH = 2;
+
+    /**
+     * Largest buffer size, which is kept in a per-thread cache.
+     */
+    private static final int THREAD_CACHE_MAX_SIZE = 1024 * 1024;
+
+    /**
+     * {@code Thread#isVirtual} or null, if not supported by the JVM.
+     */
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private final Arena _heap;
+    private final Arena _direct;
+
+    private final ThreadLocal<ThreadCache> _threadCache = ThreadLocal.withInitial(ThreadCache::new);
+
+    private final LongAdder _hits = new LongAdder();
+    private final LongAdder _misses = new LongAdder();
+    private final LongAdder _bytesOutstanding = new LongAdder();
+    private final LongAdder _buffersOutstanding = new LongAdder();
+    private final LongAdder _leaks = new LongAdder();
+
+    private final boolean _leakDetection;
+    private final ReferenceQueue<PooledBuffer> _leakQueue = new ReferenceQueue<>();
+    private final Set<LeakTracker> _trackers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new pool with default settings. Leak detection is enabled if
+     * debug logging is enabled for this class.
+     *
+     * @param name the name of the pool used to register JMX bean.
+     */
+    public BufferPool(String name) {
+        this(name, DEFAULT_MAX_POOLED_BYTES, _log.isDebugEnabled());
+    }
+
+    /**
+     * Create a new pool.
+     *
+     * @param name the name of the pool used to register JMX bean.
+     * @param maxPooledBytes maximal number of bytes kept in shared free lists
+     * per buffer type.
+     * @param leakDetection true if leak detection should be enabled.
+     */
+    public BufferPool(String name, long maxPooledBytes, boolean leakDetection) {
+        checkArgument(maxPooledBytes >= 0, "Negative pool size");
+        _heap = new Arena(maxPooledBytes);
+        _direct = new Arena(maxPooledBytes);
+        _leakDetection = leakDetection;
+        new BufferPoolMXBeanImpl(name, this);
+    }
+
+    /**
+     * Allocate a heap buffer. The returned buffer has position zero and
+     * limit equal to {@code size}.
+     *
+     * @param size requested buffer size.
+     * @return the allocated buffer.
+     */
+    public PooledBuffer allocate(int size) {
+        return allocate(size, false);
+    }
+
+    /**
+     * Allocate a direct buffer. The returned buffer has position zero and
+     * limit equal to {@code size}.
+     *
+     * @param size requested buffer size.
+     * @return the allocated buffer.
+     */
+    public PooledBuffer allocateDirect(int size) {
+        return allocate(size, true);
+    }
+
+    private PooledBuffer allocate(int size, boolean direct) {
+        checkArgument(size >= 0, "Negative buffer size");
+
+        if (_leakDetection) {
+            reportLeaks();
+        }
+
+        int sizeClass = sizeClass(size);
+        ByteBuffer buffer = null;
+        boolean useThreadCache = !isVirtual(Thread.currentThread());
+        if (sizeClass >= 0) {
+            if (useThreadCache) {
+                buffer = _threadCache.get().poll(sizeClass, direct);
+            }
+            if (buffer == null) {
+                buffer = arena(direct).poll(sizeClass);
+            }
+        }
+
+        if (buffer == null) {
+            _misses.increment();
+            int capacity = sizeClass < 0 ? size : sizeOf(sizeClass);
+            buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        } else {
+            _hits.increment();
+        }
+
+        buffer.limit(size);
+        PooledBuffer pooledBuffer = new PooledBuffer(this, buffer);
+        if (useThreadCache) {
+            pooledBuffer._allocator = Thread.currentThread();
+        }
+        _bytesOutstanding.add(buffer.capacity());
+        _buffersOutstanding.increment();
+
+        if (_leakDetection) {
+            LeakTracker tracker = new LeakTracker(pooledBuffer, _leakQueue, buffer.capacity());
+            pooledBuffer._tracker = tracker;
+            _trackers.add(tracker);
+        }
+        return pooledBuffer;
+    }
+
+    /**
+     * Return released buffer back into the pool.
+     */
+    void recycle(PooledBuffer pooledBuffer) {
+        ByteBuffer buffer = pooledBuffer.buffer();
+        forget(pooledBuffer);
+
+        int sizeClass = sizeClass(buffer.capacity());
+        if (sizeClass < 0 || sizeOf(sizeClass) != buffer.capacity()) {
+            return;
+        }
+
+        buffer.clear();
+        boolean direct = buffer.isDirect();
+        /*
+         * Buffers released by other threads go into the shared lists, as
+         * the releasing thread might never allocate a buffer.
+         */
+        boolean useThreadCache = pooledBuffer._allocator == Thread.currentThread();
+        if (!useThreadCache || !_threadCache.get().offer(sizeClass, direct, buffer)) {
+            arena(direct).offer(sizeClass, buffer);
+        }
+    }
+
+    /**
+     * Stop tracking the buffer, which is not going to be returned.
+     */
+    void forget(PooledBuffer pooledBuffer) {
+        _bytesOutstanding.add(-pooledBuffer.buffer().capacity());
+        _buffersOutstanding.decrement();
+
+        LeakTracker tracker = pooledBuffer._tracker;
+        if (tracker != null) {
+            _trackers.remove(tracker);
+            tracker.clear();
+        }
+    }
+
+    private void reportLeaks() {
+        LeakTracker tracker;
+        while ((tracker = (LeakTracker) _leakQueue.poll()) != null) {
+            if (_trackers.remove(tracker)) {
+                _leaks.increment();
+                _bytesOutstanding.add(-tracker.capacity);
+                _buffersOutstanding.decrement();
+                _log.error("Buffer garbage collected without being released. Allocated at:",
+                        tracker.allocationSite);
+            }
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check whatever given thread is a virtual thread.
+     */
+    private static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private Arena arena(boolean direct) {
+        return direct ? _direct : _heap;
+    }
+
+    /**
+     * Get size class index for a given size or -1, if buffers of that size
+     * are not pooled.
+     */
+    private static int sizeClass(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        }
+        if (size > MAX_POOLED_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    private static int sizeOf(int sizeClass) {
+        return 1 << (sizeClass + MIN_SHIFT);
+    }
+
+    /**
+     * Get number of allocations served from the pool.
+     * @return number of pool hits.
+     */
+    public long getHitCount() {
+        return _hits.sum();
+    }
+
+    /**
+     * Get number of allocations which required a new buffer.
+     * @return number of pool misses.
+     */
+    public long getMissCount() {
+        return _misses.sum();
+    }
+
+    /**
+     * Get capacity of all allocated, but not released buffers.
+     * @return number of outstanding bytes.
+     */
+    public long getBytesOutstanding() {
+        return _bytesOutstanding.sum();
+    }
+
+    /**
+     * Get number of allocated, but not released buffers.
+     * @return number of outstanding buffers.
+     */
+    public long getBuffersOutstanding() {
+        return _buffersOutstanding.sum();
+    }
+
+    /**
+     * Get number of buffers garbage collected without being released. Always
+     * zero, if leak detection is disabled.
+     * @return number of detected leaks.
+     */
+    public long getLeakCount() {
+        return _leaks.sum();
+    }
+
+    /**
+     * Shared free lists of a single buffer type.
+     */
+    private static class Arena {
+
+        private final ConcurrentLinkedQueue<ByteBuffer>[] _free;
+        private final AtomicInteger[] _size;
+        private final int[] _limit;
+
+        @SuppressWarnings("unchecked")
+        Arena(long maxPooledBytes) {
+            _free = new ConcurrentLinkedQueue[SIZE_CLASSES];
+            _size = new AtomicInteger[SIZE_CLASSES];
+            _limit = new int[SIZE_CLASSES];
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                _free[i] = new ConcurrentLinkedQueue<>();
+                _size[i] = new AtomicInteger();
+                _limit[i] = (int) Math.min(Integer.MAX_VALUE, maxPooledBytes / SIZE_CLASSES / sizeOf(i));
+            }
+        }
+
+        ByteBuffer poll(int sizeClass) {
+            ByteBuffer buffer = _free[sizeClass].poll();
+            if (buffer != null) {
+                _size[sizeClass].decrementAndGet();
+            }
+            return buffer;
+        }
+
+        void offer(int sizeClass, ByteBuffer buffer) {
+            if (_size[sizeClass].incrementAndGet() > _limit[sizeClass]) {
+                _size[sizeClass].decrementAndGet();
+                return;
+            }
+            _free[sizeClass].offer(buffer);
+        }
+    }
+
+    /**
+     * Per-thread cache of recently released buffers. Accessed only by the
+     * owning thread.
+     */
+    private static class ThreadCache {
+
+        private final ByteBuffer[][] _heap = new ByteBuffer[SIZE_CLASSES][THREAD_CACHE_DEPTH];
+        private final ByteBuffer[][] _direct = new ByteBuffer[SIZE_CLASSES][THREAD_CACHE_DEPTH];
+        private final int[] _heapCount = new int[SIZE_CLASSES];
+        private final int[] _directCount = new int[SIZE_CLASSES];
+
+        ByteBuffer poll(int sizeClass, boolean direct) {
+            ByteBuffer[] stack = direct ? _direct[sizeClass] : _heap[sizeClass];
+            int[] count = direct ? _directCount : _heapCount;
+            if (count[sizeClass] == 0) {
+                return null;
+            }
+            int i = --count[sizeClass];
+            ByteBuffer buffer = stack[i];
+            stack[i] = null;
+            return buffer;
+        }
+
+        boolean offer(int sizeClass, boolean direct, ByteBuffer buffer) {
+            if (sizeOf(sizeClass) > THREAD_CACHE_MAX_SIZE) {
+                return false;
+            }
+            ByteBuffer[] stack = direct ? _direct[sizeClass] : _heap[sizeClass];
+            int[] count = direct ? _directCount : _heapCount;
+            if (count[sizeClass] == THREAD_CACHE_DEPTH) {
+                return false;
+            }
+            stack[count[sizeClass]++] = buffer;
+            return true;
+        }
+    }
+
+    /**
+     * Reference to an allocated buffer, which is enqueued if buffer is
+     * garbage collected.
+     */
+    static class LeakTracker extends PhantomReference<PooledBuffer> {
+
+        private final Throwable allocationSite;
+        private final int capacity;
+
+        LeakTracker(PooledBuffer referent, ReferenceQueue<PooledBuffer> q, int capacity) {
+            super(referent, q);
+            this.capacity = capacity;
+            this.allocationSite = new Throwable("buffer allocation site");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.lang.management.ManagementFactory;
+import javax.management.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A JMX wrapper for {@link BufferPool}.
+ */
+public class BufferPoolMXBeanImpl implements BufferPoolMXBean {
+
+    private final static Logger _log = LoggerFactory.getLogger(BufferPoolMXBeanImpl.class);
+
+    private final BufferPool _pool;
+
+    public BufferPoolMXBeanImpl(String name, BufferPool pool) {
+        _pool = pool;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName mxBeanName = new ObjectName(String.format("%s:type=BufferPool,name=%s",
+                    BufferPool.class.getPackage().getName(), name));
+            if (!server.isRegistered(mxBeanName)) {
+                server.registerMBean(this, mxBeanName);
+            }
+        } catch (MalformedObjectNameException | InstanceAlreadyExistsException
+                | MBeanRegistrationException | NotCompliantMBeanException ex) {
+            _log.warn("Failed to create JMX bean: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public long getHitCount() {
+        return _pool.getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return _pool.getMissCount();
+    }
+
+    @Override
+    public long getBytesOutstanding() {
+        return _pool.getBytesOutstanding();
+    }
+
+    @Override
+    public long getBuffersOutstanding() {
+        return _pool.getBuffersOutstanding();
+    }
+
+    @Override
+    public long getLeakCount() {
+        return _pool.getLeakCount();
+    }
+}
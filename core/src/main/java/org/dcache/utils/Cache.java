@@ -22,11 +22,10 @@ package org.dcache.utils;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.time.Clock;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.MissingResourceException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -52,6 +51,16 @@ import org.slf4j.LoggerFactory;
  *     }
  *
  * </pre>
+ *
+ * The entries are kept in a concurrent map, thus lookups do not block each
+ * other. Expired entries are detected with a hashed timing wheel: each entry
+ * is placed into the wheel's bucket which corresponds to its expiration time,
+ * and the cleaner thread checks only the buckets which became due. Entries
+ * used in the meantime are re-scheduled at their new expiration time.
+ *
+ * The size of the cache is a soft limit. When exceeded, entries closest to
+ * the expiration are evicted.
+ *
  * @author Tigran Mkrtchyan
  * @param <K> the type of keys maintained by this cache
  * @param <V> the type of cached values
@@ -59,6 +68,12 @@ import org.slf4j.LoggerFactory;
 public class Cache<K, V> implements Runnable {
 
     private static final Logger _log = LoggerFactory.getLogger(Cache.class);
+
+    /**
+     * Number of buckets in the timing wheel.
+     */
+    private static final int WHEEL_SIZE = 64;
+
     private final Clock _timeSource;
 
     /**
@@ -68,24 +83,22 @@ public class Cache<K, V> implements Runnable {
     public void run() {
         List<V> expiredEntries = new ArrayList<>();
 
-        _accessLock.lock();
+        _expiryLock.lock();
         try {
-            long now = System.currentTimeMillis();
-            Iterator<Map.Entry<K, CacheElement<V>>> entries = _storage.entrySet().iterator();
-            while(entries.hasNext()) {
-                Map.Entry<K, CacheElement<V>> entry = entries.next();
-                CacheElement<V> cacheElement = entry.getValue();
-
-                if (!cacheElement.validAt(now)) {
-                    _log.debug("Cleaning expired entry key = [{}], value = [{}]",
-                            entry.getKey(), cacheElement.getObject());
-                    entries.remove();
-                    expiredEntries.add(cacheElement.getObject());
-                }
+            long now = _timeSource.millis();
+            /*
+             * process only buckets of completed ticks, as new entries can
+             * be still added into the current one.
+             */
+            long lastTick = now / _tick - 1;
+            long firstTick = Math.max(_processedTick + 1, lastTick - WHEEL_SIZE + 1);
+            for (long tick = firstTick; tick <= lastTick; tick++) {
+                expireBucket(tick, now, expiredEntries);
             }
+            _processedTick = Math.max(_processedTick, lastTick);
             _lastClean.set(now);
         } finally {
-            _accessLock.unlock();
+            _expiryLock.unlock();
         }
         for (V v : expiredEntries) {
             _eventListener.notifyExpired(this, v);
@@ -111,7 +124,7 @@ public class Cache<K, V> implements Runnable {
     private final long _defaultEntryIdleTime;
 
     /**
-     * Maximum number of entries in cache.
+     * Soft limit of number of entries in cache.
      */
 
     private final int _size;
@@ -119,16 +132,36 @@ public class Cache<K, V> implements Runnable {
     /**
      * The storage.
      */
-    private final Map<K, CacheElement<V>> _storage;
+    private final ConcurrentMap<K, CacheElement<V>> _storage;
+
+    /**
+     * Timing wheel. Entries are placed into the bucket of the tick on which
+     * they expire. The bucket may contain outdated nodes of removed or replaced
+     * entries, which are discarded as soon as the bucket is processed.
+     */
+    private final ConcurrentLinkedQueue<Node>[] _wheel;
+
+    /**
+     * Duration of a single wheel tick in milliseconds.
+     */
+    private final long _tick;
+
+    /**
+     * The last tick, which bucket have been processed by the cleaner.
+     */
+    private volatile long _processedTick;
 
     /**
      * 'Expire thread' used to detect and remove expired entries.
      */
     private final ScheduledExecutorService _cleanerScheduler;
+
     /**
-     * Internal storage access lock.
+     * Lock to serialize draining of wheel buckets. Lookups and updates
+     * never take this lock.
      */
-    private final Lock _accessLock = new ReentrantLock();
+    private final Lock _expiryLock = new ReentrantLock();
+
     /**
      * Cache event listener.
      */
@@ -190,14 +223,22 @@ public class Cache<K, V> implements Runnable {
      * @param clock {@link Clock} to use
      * <code>timeValue</code> parameter.
      */
+    @SuppressWarnings("unchecked")
     public Cache(final String name, int size, long entryLifeTime, long entryIdleTime,
             CacheEventListener<K, V> eventListener, long timeValue, TimeUnit timeUnit, Clock clock) {
         _name = name;
         _size = size;
         _defaultEntryMaxLifeTime = entryLifeTime;
         _defaultEntryIdleTime = entryIdleTime;
-        _storage = new HashMap<>(_size);
+        _storage = new ConcurrentHashMap<>(Math.min(_size, 1024));
         _eventListener = eventListener;
+        _timeSource = clock;
+        _tick = Math.max(1, timeUnit.toMillis(timeValue));
+        _wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            _wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        _processedTick = _timeSource.millis() / _tick - 1;
         _mxBean = new CacheMXBeanImpl<>(this);
         _cleanerScheduler = Executors.newSingleThreadScheduledExecutor(
                 new ThreadFactoryBuilder()
@@ -206,7 +247,6 @@ public class Cache<K, V> implements Runnable {
                         .build()
         );
         _cleanerScheduler.scheduleAtFixedRate(this, timeValue, timeValue, timeUnit);
-        _timeSource = clock;
     }
 
     /**
@@ -218,42 +258,37 @@ public class Cache<K, V> implements Runnable {
     }
 
     /**
-     * Put/Update cache entry.
+     * Put/Update cache entry. If cache size limit is exceeded, entries closest
+     * to expiration are evicted.
      *
      * @param k key associated with the value.
      * @param v value associated with key.
-     *
-     * @throws MissingResourceException if Cache limit is reached.
      */
     public void put(K k, V v) {
         this.put(k, v, _defaultEntryMaxLifeTime, _defaultEntryIdleTime);
     }
 
     /**
-     * Put/Update cache entry.
+     * Put/Update cache entry. If cache size limit is exceeded, entries closest
+     * to expiration are evicted.
      *
      * @param k key associated with the value.
      * @param v value associated with key.
      * @param entryMaxLifeTime maximal life time in milliseconds.
      * @param entryIdleTime maximal idle time in milliseconds.
-     *
-     * @throws MissingResourceException if Cache limit is reached.
      */
     public void put(K k, V v, long entryMaxLifeTime, long entryIdleTime) {
         _log.debug("Adding new cache entry: key = [{}], value = [{}]", k, v);
 
-        _accessLock.lock();
-        try {
-            if( _storage.size() >= _size && !_storage.containsKey(k)) {
-                _log.warn("Cache limit reached: {}", _size);
-                throw new MissingResourceException("Cache limit reached", Cache.class.getName(), "");
-            }
-            _storage.put(k, new CacheElement<>(v, _timeSource, entryMaxLifeTime, entryIdleTime));
-        } finally {
-            _accessLock.unlock();
-        }
+        CacheElement<V> element = new CacheElement<>(v, _timeSource, entryMaxLifeTime, entryIdleTime);
+        _storage.put(k, element);
+        schedule(new Node(k, element), _processedTick + 1);
 
         _eventListener.notifyPut(this, v);
+
+        if (_storage.size() > _size) {
+            evict();
+        }
     }
 
     /**
@@ -264,38 +299,24 @@ public class Cache<K, V> implements Runnable {
      */
     public V get(K k) {
 
-        V v;
-        boolean valid;
-
-        _accessLock.lock();
-        try {
-            CacheElement<V> element = _storage.get(k);
-
-            if (element == null) {
-                _log.debug("No cache hits for key = [{}]", k);
-                return null;
-            }
+        CacheElement<V> element = _storage.get(k);
+        if (element == null) {
+            _log.debug("No cache hits for key = [{}]", k);
+            return null;
+        }
 
-            long now = _timeSource.millis();
-            valid = element.validAt(now);
-            v = element.getObject();
-
-            if ( !valid ) {
-                _log.debug("Cache hits but entry expired for key = [{}], value = [{}]", k, v);
-                _storage.remove(k);
-            } else {
-                _log.debug("Cache hits for key = [{}], value = [{}]", k, v);
+        if (!element.validAt(_timeSource.millis())) {
+            V v = element.peekObject();
+            _log.debug("Cache hits but entry expired for key = [{}], value = [{}]", k, v);
+            if (_storage.remove(k, element)) {
+                _eventListener.notifyExpired(this, v);
             }
-        } finally {
-            _accessLock.unlock();
+            return null;
         }
 
-        if(!valid) {
-            _eventListener.notifyExpired(this, v);
-            v = null;
-        }else{
-            _eventListener.notifyGet(this, v);
-        }
+        V v = element.getObject();
+        _log.debug("Cache hits for key = [{}], value = [{}]", k, v);
+        _eventListener.notifyGet(this, v);
         return v;
     }
 
@@ -308,19 +329,14 @@ public class Cache<K, V> implements Runnable {
      */
     public V remove(K k) {
 
-        V v;
-        boolean valid;
-
-        _accessLock.lock();
-        try {
-            CacheElement<V> element = _storage.remove(k);
-            if( element == null ) return null;
-            valid = element.validAt(_timeSource.millis());
-            v = element.getObject();
-        } finally {
-            _accessLock.unlock();
+        CacheElement<V> element = _storage.remove(k);
+        if (element == null) {
+            return null;
         }
 
+        boolean valid = element.validAt(_timeSource.millis());
+        V v = element.peekObject();
+
         _log.debug("Removing entry: active = [{}] key = [{}], value = [{}]",
                 valid, k, v);
 
@@ -335,13 +351,7 @@ public class Cache<K, V> implements Runnable {
      * @return number of elements.
      */
     int size() {
-
-        _accessLock.lock();
-        try {
-          return _storage.size();
-        } finally {
-            _accessLock.unlock();
-        }
+        return _storage.size();
     }
 
     /**
@@ -368,13 +378,7 @@ public class Cache<K, V> implements Runnable {
     public void clear() {
 
         _log.debug("Cleaning the cache");
-
-        _accessLock.lock();
-        try {
-            _storage.clear();
-        } finally {
-            _accessLock.unlock();
-        }
+        _storage.clear();
     }
 
     /**
@@ -382,16 +386,7 @@ public class Cache<K, V> implements Runnable {
      * @return list of entries.
      */
     public List<CacheElement<V>> entries() {
-        List<CacheElement<V>> entries;
-
-        _accessLock.lock();
-        try {
-            entries = new ArrayList<>(_storage.size());
-            entries.addAll(_storage.values());
-        } finally {
-            _accessLock.unlock();
-        }
-        return entries;
+        return new ArrayList<>(_storage.values());
     }
 
     public long lastClean() {
@@ -407,4 +402,100 @@ public class Cache<K, V> implements Runnable {
     public void shutdown() {
         _cleanerScheduler.shutdown();
     }
+
+    /**
+     * Place the node into the wheel bucket of its expiration tick, but not
+     * earlier than {@code minTick}.
+     */
+    private void schedule(Node node, long minTick) {
+        long tick = Math.max(node.element.expiresAt() / _tick, minTick);
+        _wheel[(int) (tick % WHEEL_SIZE)].add(node);
+    }
+
+    /**
+     * Check all nodes in the bucket of the given tick. Expired entries are
+     * removed, still valid entries are re-scheduled.
+     */
+    private void expireBucket(long tick, long now, List<V> expiredEntries) {
+
+        ConcurrentLinkedQueue<Node> bucket = _wheel[(int) (tick % WHEEL_SIZE)];
+
+        // nodes re-scheduled into the same bucket will be added after the marker
+        Node marker = new Node(null, null);
+        bucket.add(marker);
+
+        Node node;
+        while ((node = bucket.poll()) != marker) {
+            if (!node.isLive()) {
+                continue;
+            }
+
+            if (node.element.validAt(now)) {
+                schedule(node, tick + 1);
+            } else if (_storage.remove(node.key, node.element)) {
+                V v = node.element.peekObject();
+                _log.debug("Cleaning expired entry key = [{}], value = [{}]", node.key, v);
+                expiredEntries.add(v);
+            }
+        }
+    }
+
+    /**
+     * Evict entries closest to expiration until size of the cache is back
+     * within the limit. The eviction is skipped if an other thread is
+     * processing the wheel.
+     */
+    private void evict() {
+
+        if (!_expiryLock.tryLock()) {
+            return;
+        }
+
+        List<V> evictedEntries = new ArrayList<>();
+        try {
+            long tick = _processedTick + 1;
+            for (int i = 0; i < WHEEL_SIZE && _storage.size() > _size; i++, tick++) {
+                ConcurrentLinkedQueue<Node> bucket = _wheel[(int) (tick % WHEEL_SIZE)];
+                Node node;
+                while (_storage.size() > _size && (node = bucket.poll()) != null) {
+                    if (node.isLive() && _storage.remove(node.key, node.element)) {
+                        V v = node.element.peekObject();
+                        _log.debug("Evicting entry key = [{}], value = [{}]", node.key, v);
+                        evictedEntries.add(v);
+                    }
+                }
+            }
+        } finally {
+            _expiryLock.unlock();
+        }
+
+        if (!evictedEntries.isEmpty()) {
+            _log.warn("Cache limit reached: {}, evicted {} entries", _size, evictedEntries.size());
+        }
+        for (V v : evictedEntries) {
+            _eventListener.notifyEvicted(this, v);
+        }
+    }
+
+    /**
+     * A timing wheel node.
+     */
+    private class Node {
+
+        private final K key;
+        private final CacheElement<V> element;
+
+        Node(K key, CacheElement<V> element) {
+            this.key = key;
+            this.element = element;
+        }
+
+        /**
+         * Check that node's entry is still stored in the cache, e.g. was not
+         * removed or replaced.
+         */
+        boolean isLive() {
+            return _storage.get(key) == element;
+        }
+    }
 }
@@ -47,7 +47,7 @@ public class CacheElement<V> {
     /**
      * Elements last access time.
      */
-    private long _lastAccessTime;
+    private volatile long _lastAccessTime;
     /**
      * internal object.
      */
@@ -75,6 +75,31 @@ public class CacheElement<V> {
         return _inner;
     }
 
+    /**
+     * Get internal object stored in this element without updating last
+     * access time.
+     *
+     * @return internal object.
+     */
+    V peekObject() {
+        return _inner;
+    }
+
+    /**
+     * Get the time when this element expires, if not accessed in the meantime.
+     *
+     * @return time in milliseconds since 1 of January 1970.
+     */
+    long expiresAt() {
+        return Math.min(saturatedAdd(_lastAccessTime, _idleTime),
+                saturatedAdd(_creationTime, _maxLifeTime));
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return (sum < a) ? Long.MAX_VALUE : sum;
+    }
+
     /**
      * Check the entry's validity at the specified time.
      *
@@ -26,6 +26,7 @@ package org.dcache.utils;
  * <code>get</code>
  * <code>remove</code>
  * <code>expire</code>
+ * <code>evict</code>
  * </pre>
  *
  * @param <T> the type of value objects of the cache.
@@ -61,4 +62,14 @@ public interface CacheEventListener<K,V> {
      * @param v entry
      */
     void notifyExpired(Cache<K,V> cache, V v);
+
+    /**
+     * Fired when a valid entry was removed to keep the {@link Cache} within
+     * its size limit. By default handled as expired entry.
+     * @param cache {@link Cache} from which the value was evicted.
+     * @param v entry
+     */
+    default void notifyEvicted(Cache<K,V> cache, V v) {
+        notifyExpired(cache, v);
+    }
 }
@@ -47,6 +47,12 @@ public interface GuavaCacheMXBean {
 
     public long getSize();
 
+    /**
+     * Get estimated memory usage of cached entries in bytes.
+     * @return estimated size in bytes or -1, if not available.
+     */
+    public long getEstimatedBytes();
+
     public void cleanUp();
 
     public void invalidateAll();
@@ -20,6 +20,7 @@
 package org.dcache.utils;
 
 import java.lang.management.ManagementFactory;
+import java.util.Map;
 import javax.management.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,9 +33,25 @@ public class GuavaCacheMXBeanImpl implements GuavaCacheMXBean {
     private final static Logger _log = LoggerFactory.getLogger(GuavaCacheMXBeanImpl.class);
 
     private final com.google.common.cache.Cache _cache;
+    private final com.google.common.cache.Weigher _weigher;
 
     public GuavaCacheMXBeanImpl(String cname, com.google.common.cache.Cache cache) {
+        this(cname, cache, null);
+    }
+
+    /**
+     * Create JMX bean, which reports estimated memory usage of the cache.
+     *
+     * @param cname name of the cache.
+     * @param cache the cache.
+     * @param weigher weigher to estimate size of each entry in bytes or
+     * {@code null}, if estimation is not available.
+     * @since 0.17
+     */
+    public GuavaCacheMXBeanImpl(String cname, com.google.common.cache.Cache cache,
+            com.google.common.cache.Weigher weigher) {
         _cache = cache;
+        _weigher = weigher;
         MBeanServer server = ManagementFactory.getPlatformMBeanServer();
         try {
             String name = String.format("%s:type=Cache,name=%s",
@@ -114,6 +131,20 @@ public class GuavaCacheMXBeanImpl implements GuavaCacheMXBean {
         return _cache.size();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public long getEstimatedBytes() {
+        if (_weigher == null) {
+            return -1;
+        }
+        Map<Object, Object> entries = _cache.asMap();
+        long bytes = 0;
+        for (Map.Entry<Object, Object> e : entries.entrySet()) {
+            bytes += _weigher.weigh(e.getKey(), e.getValue());
+        }
+        return bytes;
+    }
+
     @Override
     public void cleanUp() {
         _cache.cleanUp();
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A reference counted {@link ByteBuffer} allocated from a {@link BufferPool}.
+ * The buffer is returned back into the pool as soon as the last reference is
+ * released. The buffer must not be accessed after that.
+ */
+public final class PooledBuffer {
+
+    private static final AtomicIntegerFieldUpdater<PooledBuffer> REF_CNT
+            = AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "_refCnt");
+
+    /**
+     * The pool to return buffer to or null, if buffer is not pooled.
+     */
+    private final BufferPool _pool;
+    private final ByteBuffer _buffer;
+    private volatile int _refCnt = 1;
+
+    /**
+     * Allocation tracker, if pool's leak detection is enabled.
+     */
+    BufferPool.LeakTracker _tracker;
+
+    /**
+     * The thread which have allocated the buffer or null, if thread's cache
+     * should not be used to recycle the buffer.
+     */
+    Thread _allocator;
+
+    PooledBuffer(BufferPool pool, ByteBuffer buffer) {
+        _pool = pool;
+        _buffer = buffer;
+    }
+
+    /**
+     * Wrap given {@code buffer} into a {@code PooledBuffer}, which is not
+     * backed by any pool. Releasing such buffer has no effect.
+     *
+     * @param buffer the buffer to wrap.
+     * @return un-pooled buffer.
+     */
+    public static PooledBuffer unpooled(ByteBuffer buffer) {
+        return new PooledBuffer(null, buffer);
+    }
+
+    /**
+     * Get the underlying byte buffer. The buffer's limit is set to the
+     * requested size.
+     *
+     * @return the underlying byte buffer.
+     */
+    public ByteBuffer buffer() {
+        return _buffer;
+    }
+
+    /**
+     * Get current reference count.
+     *
+     * @return current reference count.
+     */
+    public int refCnt() {
+        return _refCnt;
+    }
+
+    /**
+     * Increment the reference count.
+     *
+     * @return this buffer.
+     * @throws IllegalStateException if buffer is already released.
+     */
+    public PooledBuffer retain() {
+        for (;;) {
+            int refCnt = _refCnt;
+            if (refCnt <= 0) {
+                throw new IllegalStateException("buffer already released");
+            }
+            if (REF_CNT.compareAndSet(this, refCnt, refCnt + 1)) {
+                return this;
+            }
+        }
+    }
+
+    /**
+     * Decrement the reference count and return the buffer into the pool,
+     * if count reaches zero.
+     *
+     * @return true, if the last reference is released.
+     * @throws IllegalStateException if buffer is already released.
+     */
+    public boolean release() {
+        int refCnt = REF_CNT.decrementAndGet(this);
+        if (refCnt < 0) {
+            throw new IllegalStateException("buffer already released");
+        }
+        if (refCnt == 0 && _pool != null) {
+            _pool.recycle(this);
+        }
+        return refCnt == 0;
+    }
+
+    /**
+     * Detach the buffer from the pool. The buffer will not be returned into
+     * the pool and will be garbage collected as a regular buffer. Used when
+     * buffer's life time can't be tracked, for example when it's kept in the
+     * session reply cache.
+     */
+    public void detach() {
+        if (REF_CNT.getAndSet(this, 0) > 0 && _pool != null) {
+            _pool.forget(this);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An {@link Executor} to process RPC requests, which limits the number of
+ * concurrently processed requests. When the limit is reached, the submitting
+ * thread is blocked until one of the running requests completes. This
+ * throttles reading of new requests from the network.
+ * <p>
+ * The primary use is to run each request on a separate virtual thread, when
+ * running on a JVM which supports them. As virtual threads are cheap, the
+ * limiter is the only bound on the number of requests in progress.
+ */
+public class RequestExecutor implements Executor {
+
+    private final Executor _executor;
+    private final Semaphore _permits;
+    private final int _maxConcurrency;
+
+    /**
+     * Create a new executor.
+     *
+     * @param executor executor to run requests on.
+     * @param maxConcurrency maximal number of requests processed concurrently.
+     */
+    public RequestExecutor(Executor executor, int maxConcurrency) {
+        checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+        _executor = requireNonNull(executor);
+        _maxConcurrency = maxConcurrency;
+        _permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Create an executor, which runs each request on a new virtual thread.
+     *
+     * @param name prefix of virtual thread names.
+     * @param maxConcurrency maximal number of requests processed concurrently.
+     * @return new executor.
+     * @throws UnsupportedOperationException if JVM does not support virtual
+     * threads.
+     */
+    public static RequestExecutor virtualThreads(String name, int maxConcurrency) {
+        return new RequestExecutor(newVirtualThreadExecutor(name), maxConcurrency);
+    }
+
+    /**
+     * Check whatever JVM supports virtual threads.
+     *
+     * @return true if virtual threads are supported.
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /*
+     * The code is compiled for older JVMs, thus virtual threads are
+     * created by reflection.
+     */
+    private static Executor newVirtualThreadExecutor(String name) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, name + "-", 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (Executor) newExecutor.invoke(null, factory);
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException e) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        } catch (InvocationTargetException e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread executor", e.getCause());
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        _permits.acquireUninterruptibly();
+        try {
+            _executor.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    _permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            _permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Execute a request, which may complete asynchronously. The request is
+     * counted as in progress until the returned stage is completed.
+     *
+     * @param request request to execute.
+     */
+    public void executeAsync(Supplier<? extends CompletionStage<?>> request) {
+        _permits.acquireUninterruptibly();
+        try {
+            _executor.execute(() -> {
+                CompletionStage<?> stage;
+                try {
+                    stage = request.get();
+                } catch (RuntimeException | Error e) {
+                    _permits.release();
+                    throw e;
+                }
+                stage.whenComplete((r, t) -> _permits.release());
+            });
+        } catch (RejectedExecutionException e) {
+            _permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get number of requests currently in progress.
+     * @return number of active requests.
+     */
+    public int getActiveCount() {
+        return _maxConcurrency - _permits.availablePermits();
+    }
+
+    /**
+     * Get maximal number of concurrently processed requests.
+     * @return maximal number of concurrent requests.
+     */
+    public int getMaxConcurrency() {
+        return _maxConcurrency;
+    }
+}
@@ -20,9 +20,13 @@
 package org.dcache.nfs;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.InetAddress;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.dcache.nfs.v4.xdr.layouttype4;
 
 import org.junit.Before;
@@ -260,4 +264,44 @@ public class FsExportTest {
         assertTrue("No layout types expected", export.getLayoutTypes().isEmpty());
     }
 
+    @Test
+    public void testMostSpecificNetworkFirst() throws Exception {
+        ExportFile exportFile = new ExportFile(new StringReader(
+                "/data 10.0.0.0/8(ro) 10.1.0.0/16(rw)\n"
+                + "/any *(ro,all_squash)\n"));
+
+        assertEquals(FsExport.IO.RW, exportFile.getExport("/data", InetAddress.getByName("10.1.2.3")).ioMode());
+        assertEquals(FsExport.IO.RO, exportFile.getExport("/data", InetAddress.getByName("10.2.2.3")).ioMode());
+        assertNull(exportFile.getExport("/data", InetAddress.getByName("172.16.1.1")));
+        assertTrue(exportFile.getExport("/any", InetAddress.getByName("172.16.1.1")).hasAllSquash());
+        assertTrue(exportFile.getExport("/any", InetAddress.getByName("fe80::1")).hasAllSquash());
+    }
+
+    @Test
+    public void testIPv6Networks() throws Exception {
+        ExportFile exportFile = new ExportFile(new StringReader(
+                "/data fe80::/16(ro) fe80::21c:c0ff:fea0:0/112(rw)\n"));
+
+        assertEquals(FsExport.IO.RW, exportFile.getExport("/data", InetAddress.getByName("fe80::21c:c0ff:fea0:caf4")).ioMode());
+        assertEquals(FsExport.IO.RO, exportFile.getExport("/data", InetAddress.getByName("fe80::1")).ioMode());
+        assertNull(exportFile.getExport("/data", InetAddress.getByName("ae80::1")));
+        assertNull(exportFile.getExport("/data", InetAddress.getByName("10.0.0.1")));
+    }
+
+    @Test
+    public void testReloadDropsCachedAccess() throws Exception {
+        Path exports = Files.createTempFile("exports", null);
+        try {
+            Files.write(exports, "/data 10.0.0.0/8\n".getBytes(StandardCharsets.US_ASCII));
+            ExportFile exportFile = new ExportFile(exports.toUri());
+            InetAddress client = InetAddress.getByName("10.1.1.1");
+            assertNotNull(exportFile.getExport("/data", client));
+
+            Files.write(exports, "/data 192.168.0.0/16\n".getBytes(StandardCharsets.US_ASCII));
+            exportFile.rescan();
+            assertNull(exportFile.getExport("/data", client));
+        } finally {
+            Files.delete(exports);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v3.xdr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.dcache.xdr.OncRpcException;
+import org.dcache.xdr.Xdr;
+import org.dcache.xdr.XdrAble;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferXdrTest {
+
+    private static final byte[] DATA = "some file data".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void testReadResultRoundTrip() throws Exception {
+        READ3resok resok = new READ3resok();
+        resok.file_attributes = new post_op_attr();
+        resok.count = new count3(new uint32(DATA.length));
+        resok.data = ByteBuffer.wrap(DATA);
+
+        READ3resok decoded = new READ3resok();
+        decode(encode(resok), decoded);
+        assertArrayEquals(DATA, toArray(decoded.data));
+        assertEquals(DATA.length, resok.data.remaining());
+
+        // decoded message must encode the same data
+        READ3resok again = new READ3resok();
+        decode(encode(decoded), again);
+        assertArrayEquals(DATA, toArray(again.data));
+    }
+
+    @Test
+    public void testWriteArgsRoundTrip() throws Exception {
+        WRITE3args args = new WRITE3args();
+        args.file = new nfs_fh3();
+        args.file.data = new byte[]{0x01, 0x02};
+        args.offset = new offset3(new uint64(0));
+        args.count = new count3(new uint32(DATA.length));
+        args.stable = stable_how.UNSTABLE;
+        args.data = ByteBuffer.wrap(DATA);
+
+        WRITE3args decoded = new WRITE3args();
+        decode(encode(args), decoded);
+        assertArrayEquals(DATA, toArray(decoded.data));
+        assertEquals(DATA.length, args.data.remaining());
+
+        // decoded message must encode the same data
+        WRITE3args again = new WRITE3args();
+        decode(encode(decoded), again);
+        assertArrayEquals(DATA, toArray(again.data));
+    }
+
+    private static Xdr encode(XdrAble message) throws OncRpcException, IOException {
+        Xdr xdr = new Xdr(1024);
+        xdr.beginEncoding();
+        message.xdrEncode(xdr);
+        xdr.endEncoding();
+        return xdr;
+    }
+
+    private static void decode(Xdr xdr, XdrAble message) throws OncRpcException, IOException {
+        xdr.beginDecoding();
+        message.xdrDecode(xdr);
+        xdr.endDecoding();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
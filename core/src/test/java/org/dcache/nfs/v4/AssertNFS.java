@@ -24,15 +24,16 @@ import org.dcache.nfs.v4.AbstractNFSv4Operation;
 import junit.framework.AssertionFailedError;
 import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.nfsstat;
+import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
 
 public class AssertNFS {
 
-    public static void assertNFS(AbstractNFSv4Operation op,
+    public static void assertNFS(AbstractNFSv4Operation op, nfs_argop4 args,
             CompoundContext context, nfs_resop4 result, int expectedStatus) throws Exception {
 
         try {
-            op.process(context, result);
+            op.process(context, args, result);
             assertNFSStatus(expectedStatus, result.getStatus());
         } catch (ChimeraNFSException e) {
             assertNFSStatus(expectedStatus, e.getStatus());
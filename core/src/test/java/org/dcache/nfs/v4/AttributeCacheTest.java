@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4;
+
+import java.util.concurrent.TimeUnit;
+import org.dcache.nfs.v4.xdr.attrlist4;
+import org.dcache.nfs.v4.xdr.bitmap4;
+import org.dcache.nfs.v4.xdr.fattr4;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.Stat;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AttributeCacheTest {
+
+    private AttributeCache cache;
+    private AttributeEncoder encoder;
+    private Inode inode;
+    private fattr4 attributes;
+
+    @Before
+    public void setUp() {
+        cache = new AttributeCache(100, 1, TimeUnit.MINUTES);
+        encoder = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_CHANGE, nfs4_prot.FATTR4_SIZE));
+        inode = Inode.forFile(new byte[]{0x01, 0x02});
+        attributes = new fattr4();
+        attributes.attrmask = bitmap4.of(nfs4_prot.FATTR4_CHANGE, nfs4_prot.FATTR4_SIZE);
+        attributes.attr_vals = new attrlist4(new byte[16]);
+    }
+
+    @Test
+    public void testMiss() {
+        assertNull(cache.get(inode, encoder, newStat(1)));
+    }
+
+    @Test
+    public void testHit() {
+        cache.put(inode, encoder, newStat(1), attributes);
+
+        fattr4 cached = cache.get(inode, encoder, newStat(1));
+        assertNotNull(cached);
+        assertNotSame(attributes, cached);
+        assertSame(attributes.attr_vals, cached.attr_vals);
+        assertEquals(attributes.attrmask, cached.attrmask);
+    }
+
+    @Test
+    public void testChangedFile() {
+        cache.put(inode, encoder, newStat(1), attributes);
+        assertNull(cache.get(inode, encoder, newStat(2)));
+    }
+
+    @Test
+    public void testAccessTimeChange() {
+        cache.put(inode, encoder, newStat(1), attributes);
+        Stat stat = newStat(1);
+        stat.setATime(stat.getATime() + 1);
+        assertNull(cache.get(inode, encoder, stat));
+    }
+
+    @Test
+    public void testOtherBitmap() {
+        cache.put(inode, encoder, newStat(1), attributes);
+        AttributeEncoder other = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_CHANGE));
+        assertNull(cache.get(inode, other, newStat(1)));
+    }
+
+    @Test
+    public void testIncompleteStatNotCached() {
+        Stat stat = new Stat();
+        stat.setGeneration(1);
+        cache.put(inode, encoder, stat, attributes);
+        assertNull(cache.get(inode, encoder, stat));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.put(inode, encoder, newStat(1), attributes);
+        cache.invalidateAll();
+        assertNull(cache.get(inode, encoder, newStat(1)));
+    }
+
+    private static Stat newStat(long generation) {
+        Stat stat = new Stat();
+        stat.setGeneration(generation);
+        stat.setSize(1024);
+        stat.setATime(1000);
+        stat.setMTime(2000);
+        stat.setCTime(3000);
+        return stat;
+    }
+}
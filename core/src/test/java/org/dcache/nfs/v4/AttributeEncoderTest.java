@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4;
+
+import java.util.Optional;
+import org.dcache.nfs.v4.acl.Acls;
+import org.dcache.nfs.v4.xdr.bitmap4;
+import org.dcache.nfs.v4.xdr.fattr4;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.dcache.nfs.vfs.FsStat;
+import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.Stat;
+import org.dcache.nfs.vfs.VirtualFileSystem;
+import org.dcache.xdr.XdrAble;
+import org.dcache.xdr.XdrBuffer;
+import org.glassfish.grizzly.Buffer;
+import org.junit.Test;
+
+import static org.dcache.nfs.v4.NfsTestUtils.generateRpcCall;
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class AttributeEncoderTest {
+
+    @Test
+    public void testEncoderReusedForEqualBitmaps() {
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_TYPE, nfs4_prot.FATTR4_SIZE));
+        // trailing zero elements are ignored
+        AttributeEncoder other = AttributeEncoder.forBitmap(new bitmap4(new int[]{
+            1 << nfs4_prot.FATTR4_TYPE | 1 << nfs4_prot.FATTR4_SIZE, 0, 0}));
+        assertSame(encoder, other);
+    }
+
+    @Test
+    public void testEncoderNotAffectedByBitmapChange() {
+        bitmap4 bitmap = bitmap4.of(nfs4_prot.FATTR4_CHANGE);
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(bitmap);
+        bitmap.set(nfs4_prot.FATTR4_FILEID);
+
+        assertSame(encoder, AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_CHANGE)));
+        assertNotSame(encoder, AttributeEncoder.forBitmap(bitmap));
+    }
+
+    @Test
+    public void testStatAttributesCacheable() {
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_TYPE,
+                nfs4_prot.FATTR4_CHANGE, nfs4_prot.FATTR4_SIZE, nfs4_prot.FATTR4_OWNER,
+                nfs4_prot.FATTR4_TIME_MODIFY, nfs4_prot.FATTR4_MOUNTED_ON_FILEID));
+        assertTrue(encoder.isCacheable());
+    }
+
+    @Test
+    public void testFsAttributesNotCacheable() {
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_SIZE,
+                nfs4_prot.FATTR4_SPACE_AVAIL));
+        assertFalse(encoder.isCacheable());
+    }
+
+    @Test
+    public void testAclNotCacheable() {
+        AttributeEncoder encoder = AttributeEncoder.forBitmap(bitmap4.of(nfs4_prot.FATTR4_ACL));
+        assertFalse(encoder.isCacheable());
+    }
+
+    @Test
+    public void testEncodingMatchesFattr2xdr() throws Exception {
+        int[] attrs = {
+            nfs4_prot.FATTR4_SUPPORTED_ATTRS, nfs4_prot.FATTR4_TYPE,
+            nfs4_prot.FATTR4_CHANGE, nfs4_prot.FATTR4_SIZE, nfs4_prot.FATTR4_FSID,
+            nfs4_prot.FATTR4_FILEHANDLE, nfs4_prot.FATTR4_ACL, nfs4_prot.FATTR4_FILEID,
+            nfs4_prot.FATTR4_FILES_AVAIL, nfs4_prot.FATTR4_FILES_FREE,
+            nfs4_prot.FATTR4_FILES_TOTAL, nfs4_prot.FATTR4_MODE,
+            nfs4_prot.FATTR4_NUMLINKS, nfs4_prot.FATTR4_OWNER,
+            nfs4_prot.FATTR4_OWNER_GROUP, nfs4_prot.FATTR4_RAWDEV,
+            nfs4_prot.FATTR4_SPACE_AVAIL, nfs4_prot.FATTR4_SPACE_FREE,
+            nfs4_prot.FATTR4_SPACE_TOTAL, nfs4_prot.FATTR4_SPACE_USED,
+            nfs4_prot.FATTR4_TIME_ACCESS, nfs4_prot.FATTR4_TIME_CREATE,
+            nfs4_prot.FATTR4_TIME_METADATA, nfs4_prot.FATTR4_TIME_MODIFY,
+            nfs4_prot.FATTR4_MOUNTED_ON_FILEID
+        };
+
+        Inode inode = Inode.forFile(new byte[]{0x01, 0x02});
+        Stat stat = new Stat();
+        stat.setMode(Stat.S_IFREG | 0644);
+        stat.setGeneration(7);
+        stat.setSize(4097);
+        stat.setFileid(42);
+        stat.setNlink(1);
+        stat.setUid(1);
+        stat.setGid(2);
+        stat.setATime(1001);
+        stat.setMTime(2002);
+        stat.setCTime(3003);
+
+        NfsIdMapping idMapper = mock(NfsIdMapping.class);
+        given(idMapper.uidToPrincipal(1)).willReturn("alice");
+        given(idMapper.gidToPrincipal(2)).willReturn("users");
+
+        VirtualFileSystem fs = mock(VirtualFileSystem.class);
+        given(fs.getIdMapper()).willReturn(idMapper);
+        given(fs.getAcl(inode)).willReturn(Acls.of(0644, false));
+        given(fs.getFsStat()).willReturn(new FsStat(1L << 40, 1000, 1L << 30, 10));
+
+        CompoundContext context = new CompoundContextBuilder()
+                .withFs(fs)
+                .withCall(generateRpcCall())
+                .withMinorversion(1)
+                .build();
+
+        fattr4 attributes = AttributeEncoder.forBitmap(bitmap4.of(attrs)).encode(fs, inode, stat, context);
+
+        XdrBuffer xdr = new XdrBuffer(1024);
+        xdr.beginEncoding();
+        for (int attr : attrs) {
+            Optional<? extends XdrAble> value = OperationGETATTR.fattr2xdr(attr, fs, inode, stat, context);
+            value.get().xdrEncode(xdr);
+        }
+        xdr.endEncoding();
+        Buffer body = xdr.asBuffer();
+        byte[] expected = new byte[body.remaining()];
+        body.get(expected);
+
+        assertEquals(bitmap4.of(attrs), attributes.attrmask);
+        assertArrayEquals(expected, attributes.attr_vals.value);
+    }
+}
@@ -184,6 +184,40 @@ public class FileTrackerTest {
         tracker.addOpen(client1, stateOwner1, inode, OPEN4_SHARE_ACCESS_WRITE, OPEN4_SHARE_ACCESS_READ);
     }
 
+    @Test
+    public void shouldAllowConflictingOpensAfterDowngrade() throws Exception {
+
+        NFS4Client client1 = createClient(sh);
+        StateOwner stateOwner1 = client1.getOrCreateOwner("client1".getBytes(StandardCharsets.UTF_8), new seqid4(0));
+
+        NFS4Client client2 = createClient(sh);
+        StateOwner stateOwner2 = client2.getOrCreateOwner("client2".getBytes(StandardCharsets.UTF_8), new seqid4(0));
+
+        nfs_fh4 fh = generateFileHandle();
+        Inode inode = Inode.forFile(fh.value);
+
+        stateid4 s = tracker.addOpen(client1, stateOwner1, inode, OPEN4_SHARE_ACCESS_BOTH, 0);
+        tracker.downgradeOpen(client1, s, inode, OPEN4_SHARE_ACCESS_READ, 0);
+
+        tracker.addOpen(client2, stateOwner2, inode, OPEN4_SHARE_ACCESS_READ, OPEN4_SHARE_ACCESS_WRITE);
+    }
+
+    @Test(expected = ShareDeniedException.class)
+    public void shouldRejectConflictingOpensFromOtherClient() throws Exception {
+
+        NFS4Client client1 = createClient(sh);
+        StateOwner stateOwner1 = client1.getOrCreateOwner("client1".getBytes(StandardCharsets.UTF_8), new seqid4(0));
+
+        NFS4Client client2 = createClient(sh);
+        StateOwner stateOwner2 = client2.getOrCreateOwner("client2".getBytes(StandardCharsets.UTF_8), new seqid4(0));
+
+        nfs_fh4 fh = generateFileHandle();
+        Inode inode = Inode.forFile(fh.value);
+
+        tracker.addOpen(client1, stateOwner1, inode, OPEN4_SHARE_ACCESS_READ, OPEN4_SHARE_ACCESS_WRITE);
+        tracker.addOpen(client2, stateOwner2, inode, OPEN4_SHARE_ACCESS_WRITE, 0);
+    }
+
     @Test(expected = BadStateidException.class)
     public void shouldFailToGetAccessModeWithBadStateid() throws Exception {
 
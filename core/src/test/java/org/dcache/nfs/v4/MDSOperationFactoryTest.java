@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2009 - 2012 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.v4;
+
+import org.dcache.nfs.v4.xdr.nfs_argop4;
+import org.dcache.nfs.v4.xdr.nfs_opnum4;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MDSOperationFactoryTest {
+
+    private MDSOperationFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new MDSOperationFactory();
+    }
+
+    @Test
+    public void testOperationReused() {
+        AbstractNFSv4Operation op = factory.getOperation(argsOf(nfs_opnum4.OP_GETATTR));
+        assertTrue(op instanceof OperationGETATTR);
+        assertSame(op, factory.getOperation(argsOf(nfs_opnum4.OP_GETATTR)));
+    }
+
+    @Test
+    public void testIllegalOperation() {
+        assertTrue(factory.getOperation(argsOf(nfs_opnum4.OP_ILLEGAL)) instanceof OperationILLEGAL);
+        assertTrue(factory.getOperation(argsOf(-1)) instanceof OperationILLEGAL);
+    }
+
+    @Test
+    public void testUnsupportedOperation() {
+        assertTrue(factory.getOperation(argsOf(nfs_opnum4.OP_BACKCHANNEL_CTL)) instanceof OperationILLEGAL);
+    }
+
+    private static nfs_argop4 argsOf(int opCode) {
+        nfs_argop4 args = new nfs_argop4();
+        args.argop = opCode;
+        return args;
+    }
+}
@@ -69,7 +69,7 @@ public class NFS4ClientTest {
                 .withClose(state.stateid(), 1)
                 .build().argarray[0];
 
-        OperationCLOSE CLOSE = new OperationCLOSE(close_args);
+        OperationCLOSE CLOSE = new OperationCLOSE();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CLOSE);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
@@ -81,7 +81,7 @@ public class NFS4ClientTest {
         context.currentInode( Inode.forFile( new byte[] {}));
         context.setSession(session);
 
-        AssertNFS.assertNFS(CLOSE, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(CLOSE, close_args, context, result, nfsstat.NFS_OK);
         assertFalse("client state not cleaned", nfsClient.hasState());
     }
 
@@ -96,7 +96,7 @@ public class NFS4ClientTest {
                 .withClose(state.stateid(), 1)
                 .build().argarray[0];
 
-        OperationCLOSE CLOSE = new OperationCLOSE(close_args);
+        OperationCLOSE CLOSE = new OperationCLOSE();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CLOSE);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
@@ -106,7 +106,7 @@ public class NFS4ClientTest {
 
         context.currentInode(Inode.forFile(new byte[]{}));
 
-        AssertNFS.assertNFS(CLOSE, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(CLOSE, close_args, context, result, nfsstat.NFS_OK);
         assertFalse("client state not cleaned", nfsClient.hasState());
     }
 
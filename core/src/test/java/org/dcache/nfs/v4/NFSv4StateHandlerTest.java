@@ -66,6 +66,63 @@ public class NFSv4StateHandlerTest {
         assertEquals(_client,  _stateHandler.getClient(_client.getId()));
     }
 
+    @Test
+    public void testGetClientBySession() throws Exception {
+        NFSv41Session session = _client.createSession(1, 1024, 1024, 8, 8);
+        assertEquals(_client, _stateHandler.getClient(session.id()));
+    }
+
+    @Test(expected=StaleClientidException.class)
+    public void testGetRemovedClient() throws Exception {
+        _stateHandler.removeClient(_client);
+        _stateHandler.getClient(_client.getId());
+    }
+
+    @Test
+    public void testActiveClientNotExpired() throws Exception {
+        _stateHandler.removeExpiredClients();
+        assertEquals(_client, _stateHandler.getClient(_client.getId()));
+    }
+
+    @Test
+    public void testManyClientsKeepState() throws Exception {
+        stateid4 stateid = _client.createState(_owner).stateid();
+        for (int i = 0; i < 6000; i++) {
+            createClient(_stateHandler);
+        }
+
+        assertEquals(_client, _stateHandler.getClient(_client.getId()));
+        assertEquals(_client, _stateHandler.getClientIdByStateId(stateid));
+        assertEquals(stateid, _client.state(stateid).stateid());
+    }
+
+    @Test
+    public void testClientByOwner() throws Exception {
+        assertEquals(_client, _stateHandler.clientByOwner(_client.getOwnerId().clone()));
+    }
+
+    @Test
+    public void testClientByOwnerAfterRemove() throws Exception {
+        _stateHandler.removeClient(_client);
+        assertNull(_stateHandler.clientByOwner(_client.getOwnerId()));
+    }
+
+    @Test
+    public void testClientByOwnerReplaced() throws Exception {
+        NFS4Client newClient = _stateHandler.createClient(_client.getRemoteAddress(), _client.getLocalAddress(),
+                1, _client.getOwnerId(), _client.verifier(), null, false);
+        _stateHandler.removeClient(_client);
+        assertEquals(newClient, _stateHandler.clientByOwner(_client.getOwnerId()));
+    }
+
+    @Test
+    public void testClientByOwnerNewestRemoved() throws Exception {
+        NFS4Client newClient = _stateHandler.createClient(_client.getRemoteAddress(), _client.getLocalAddress(),
+                1, _client.getOwnerId(), _client.verifier(), null, false);
+        _stateHandler.removeClient(newClient);
+        assertEquals(_client, _stateHandler.clientByOwner(_client.getOwnerId()));
+    }
+
     @Test
     public void testUpdateLeaseTime() throws Exception {
         NFS4State state = _client.createState(_owner);
@@ -28,6 +28,7 @@ import org.dcache.nfs.ChimeraNFSException;
 import org.dcache.nfs.nfsstat;
 import org.dcache.nfs.v4.xdr.nfs4_prot;
 import org.dcache.nfs.v4.xdr.nfs_fh4;
+import org.dcache.nfs.v4.xdr.nfs_argop4;
 import org.dcache.nfs.v4.xdr.nfs_resop4;
 import org.dcache.nfs.v4.xdr.verifier4;
 import org.dcache.utils.Bytes;
@@ -57,17 +58,17 @@ class NfsTestUtils {
         return stateHandler.createClient(address, address, 1, owner, new verifier4(bootTime), null, false);
     }
 
-    public static nfs_resop4 execute(CompoundContext context, AbstractNFSv4Operation op) throws ChimeraNFSException, IOException {
-        nfs_resop4 result = nfs_resop4.resopFor(op._args.argop);
-        op.process(context, result);
+    public static nfs_resop4 execute(CompoundContext context, AbstractNFSv4Operation op, nfs_argop4 args) throws ChimeraNFSException, IOException {
+        nfs_resop4 result = nfs_resop4.resopFor(args.argop);
+        op.process(context, args, result);
         return result;
     }
 
-    public void executeWithStatus(CompoundContext context, AbstractNFSv4Operation op, int status) throws ChimeraNFSException, IOException {
-        nfs_resop4 result = nfs_resop4.resopFor(op._args.argop);
+    public void executeWithStatus(CompoundContext context, AbstractNFSv4Operation op, nfs_argop4 args, int status) throws ChimeraNFSException, IOException {
+        nfs_resop4 result = nfs_resop4.resopFor(args.argop);
         int currentStatus = nfsstat.NFS_OK;
         try {
-            op.process(context, result);
+            op.process(context, args, result);
         } catch (ChimeraNFSException e) {
             currentStatus = e.getStatus();
         }
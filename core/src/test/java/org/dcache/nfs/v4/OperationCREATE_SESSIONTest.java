@@ -58,7 +58,7 @@ public class OperationCREATE_SESSIONTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -66,7 +66,7 @@ public class OperationCREATE_SESSIONTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -74,14 +74,14 @@ public class OperationCREATE_SESSIONTest {
                         result.opexchange_id.eir_resok4.eir_sequenceid)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-         AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -93,14 +93,14 @@ public class OperationCREATE_SESSIONTest {
                 .withCreatesession(new clientid4(0), new sequenceid4(0))
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-       AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFSERR_STALE_CLIENTID);
+       AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFSERR_STALE_CLIENTID);
     }
 
     @Test
@@ -112,7 +112,7 @@ public class OperationCREATE_SESSIONTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -120,7 +120,7 @@ public class OperationCREATE_SESSIONTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         sequenceid4 badSequence = new sequenceid4(result.opexchange_id.eir_resok4.eir_sequenceid.value + 1);
         nfs_argop4 cretaesession_args = new CompoundBuilder()
@@ -129,14 +129,14 @@ public class OperationCREATE_SESSIONTest {
                         badSequence)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFSERR_SEQ_MISORDERED);
+        AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFSERR_SEQ_MISORDERED);
     }
 
     @Test(expected = BadSessionException.class)
@@ -148,7 +148,7 @@ public class OperationCREATE_SESSIONTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -156,7 +156,7 @@ public class OperationCREATE_SESSIONTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -164,28 +164,28 @@ public class OperationCREATE_SESSIONTest {
                         result.opexchange_id.eir_resok4.eir_sequenceid)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFS_OK);
 
         sessionid4 session = result.opcreate_session.csr_resok4.csr_sessionid;
         nfs_argop4 destroysession_args = new CompoundBuilder()
                 .withDestroysession(result.opcreate_session.csr_resok4.csr_sessionid)
                 .build().argarray[0];
 
-        OperationDESTROY_SESSION DESTROY_SESSION = new OperationDESTROY_SESSION(destroysession_args);
+        OperationDESTROY_SESSION DESTROY_SESSION = new OperationDESTROY_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_DESTROY_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(DESTROY_SESSION, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(DESTROY_SESSION, destroysession_args, context, result, nfsstat.NFS_OK);
         stateHandler.getClient(session).getSession(session);
     }
 
@@ -201,9 +201,9 @@ public class OperationCREATE_SESSIONTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
-        result = execute(contextBdr.build(), EXCHANGE_ID);
+        result = execute(contextBdr.build(), EXCHANGE_ID, exchangeid_args);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -211,8 +211,8 @@ public class OperationCREATE_SESSIONTest {
                         result.opexchange_id.eir_resok4.eir_sequenceid)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
-        result = execute(contextBdr.build(), CREATE_SESSION);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
+        result = execute(contextBdr.build(), CREATE_SESSION, cretaesession_args);
         sessionid4 session = result.opcreate_session.csr_resok4.csr_sessionid;
 
         nfs_argop4 sequence_args = new CompoundBuilder()
@@ -224,8 +224,8 @@ public class OperationCREATE_SESSIONTest {
                         2).build().argarray[0];
 
         // sequnce implicitly binds connection to session
-        OperationSEQUENCE SEQUENCE = new OperationSEQUENCE(sequence_args);
-        result = execute(contextBdr.build(), SEQUENCE);
+        OperationSEQUENCE SEQUENCE = new OperationSEQUENCE();
+        result = execute(contextBdr.build(), SEQUENCE, sequence_args);
 
         // new context, new client
         contextBdr = new CompoundContextBuilder()
@@ -236,8 +236,8 @@ public class OperationCREATE_SESSIONTest {
                 .withDestroysession(session)
                 .build().argarray[0];
 
-        OperationDESTROY_SESSION DESTROY_SESSION = new OperationDESTROY_SESSION(destroysession_args);
-        result = execute(contextBdr.build(), DESTROY_SESSION);
+        OperationDESTROY_SESSION DESTROY_SESSION = new OperationDESTROY_SESSION();
+        result = execute(contextBdr.build(), DESTROY_SESSION, destroysession_args);
 
     }
 }
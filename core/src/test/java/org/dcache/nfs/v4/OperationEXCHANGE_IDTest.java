@@ -56,7 +56,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -64,7 +64,7 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -76,7 +76,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -84,8 +84,8 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -97,7 +97,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -105,7 +105,7 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -114,16 +114,16 @@ public class OperationEXCHANGE_IDTest {
                 .build().argarray[0];
 
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-         AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFS_OK);
          result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
-         AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -135,7 +135,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -143,7 +143,7 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -151,22 +151,22 @@ public class OperationEXCHANGE_IDTest {
                         result.opexchange_id.eir_resok4.eir_sequenceid)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-         AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFS_OK);
 
          nfs_argop4 exchangeid_reboot_args = new CompoundBuilder()
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-         EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_reboot_args);
+         EXCHANGE_ID = new OperationEXCHANGE_ID();
          result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
-         AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_reboot_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -178,7 +178,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -186,7 +186,7 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
 
         nfs_argop4 cretaesession_args = new CompoundBuilder()
                 .withCreatesession(
@@ -194,14 +194,14 @@ public class OperationEXCHANGE_IDTest {
                         result.opexchange_id.eir_resok4.eir_sequenceid)
                 .build().argarray[0];
 
-        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION(cretaesession_args);
+        OperationCREATE_SESSION CREATE_SESSION = new OperationCREATE_SESSION();
         result = nfs_resop4.resopFor(nfs_opnum4.OP_CREATE_SESSION);
         context = new CompoundContextBuilder()
                 .withStateHandler(stateHandler)
                 .withCall(generateRpcCall())
                 .build();
 
-         AssertNFS.assertNFS(CREATE_SESSION, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(CREATE_SESSION, cretaesession_args, context, result, nfsstat.NFS_OK);
 
          TimeUnit.SECONDS.sleep(3);
 
@@ -213,13 +213,13 @@ public class OperationEXCHANGE_IDTest {
                         0,
                         0).build().argarray[0];
 
-         OperationSEQUENCE SEQUENCE = new OperationSEQUENCE(sequence_args);
+         OperationSEQUENCE SEQUENCE = new OperationSEQUENCE();
          result = nfs_resop4.resopFor(nfs_opnum4.OP_SEQUENCE);
-         AssertNFS.assertNFS(SEQUENCE, context, result, nfsstat.NFSERR_EXPIRED);
+         AssertNFS.assertNFS(SEQUENCE, sequence_args, context, result, nfsstat.NFSERR_EXPIRED);
 
-         EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+         EXCHANGE_ID = new OperationEXCHANGE_ID();
          result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
-         AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+         AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
     }
 
     @Test
@@ -231,7 +231,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -239,7 +239,7 @@ public class OperationEXCHANGE_IDTest {
                 .withCall(generateRpcCall())
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
         assertEquals("Invalid pNFS-capabilities returned", nfs4_prot.EXCHGID4_FLAG_USE_NON_PNFS, result.opexchange_id.eir_resok4.eir_flags.value);
     }
 
@@ -252,7 +252,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -261,7 +261,7 @@ public class OperationEXCHANGE_IDTest {
                 .withoutPnfs()
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
         assertEquals("Invalid pNFS-capabilities returned", nfs4_prot.EXCHGID4_FLAG_USE_NON_PNFS, result.opexchange_id.eir_resok4.eir_flags.value);
     }
 
@@ -274,7 +274,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -283,7 +283,7 @@ public class OperationEXCHANGE_IDTest {
                 .withPnfsRoleMDS()
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
         assertEquals("Invalid pNFS-capabilities returned", nfs4_prot.EXCHGID4_FLAG_USE_PNFS_MDS, result.opexchange_id.eir_resok4.eir_flags.value);
     }
 
@@ -296,7 +296,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -305,7 +305,7 @@ public class OperationEXCHANGE_IDTest {
                 .withPnfsRoleDS()
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
         assertEquals("Invalid pNFS-capabilities returned", nfs4_prot.EXCHGID4_FLAG_USE_PNFS_DS, result.opexchange_id.eir_resok4.eir_flags.value);
     }
 
@@ -318,7 +318,7 @@ public class OperationEXCHANGE_IDTest {
                 .withExchangeId(domain, name, clientId, 0, state_protect_how4.SP4_NONE)
                 .build().argarray[0];
 
-        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID(exchangeid_args);
+        OperationEXCHANGE_ID EXCHANGE_ID = new OperationEXCHANGE_ID();
 
         result = nfs_resop4.resopFor(nfs_opnum4.OP_EXCHANGE_ID);
         context = new CompoundContextBuilder()
@@ -328,7 +328,7 @@ public class OperationEXCHANGE_IDTest {
                 .withPnfsRoleDS()
                 .build();
 
-        AssertNFS.assertNFS(EXCHANGE_ID, context, result, nfsstat.NFS_OK);
+        AssertNFS.assertNFS(EXCHANGE_ID, exchangeid_args, context, result, nfsstat.NFS_OK);
         assertEquals("Invalid pNFS-capabilities returned",
                 nfs4_prot.EXCHGID4_FLAG_USE_PNFS_MDS | nfs4_prot.EXCHGID4_FLAG_USE_PNFS_DS,
                 result.opexchange_id.eir_resok4.eir_flags.value);
@@ -14,6 +14,7 @@ import org.dcache.nfs.vfs.DirectoryEntry;
 import org.dcache.nfs.vfs.DirectoryStream;
 import org.dcache.nfs.vfs.FileHandle;
 import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.InodeAttributes;
 import org.dcache.nfs.vfs.Stat;
 import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.junit.Test;
@@ -23,6 +24,7 @@ import org.junit.Before;
 import static org.dcache.nfs.v4.NfsTestUtils.generateRpcCall;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class OperationREADDIRTest {
@@ -74,8 +76,8 @@ public class OperationREADDIRTest {
                 .withReaddir(0, cookieVerifier, 1024, 512)
                 .build().argarray[0];
 
-        OperationREADDIR readdirOp = new OperationREADDIR(op);
-        readdirOp.process(context, result);
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
     }
 
     @Test(expected = TooSmallException.class)
@@ -94,8 +96,8 @@ public class OperationREADDIRTest {
                 .build()
                 .argarray[0];
 
-        OperationREADDIR readdirOp = new OperationREADDIR(op);
-        readdirOp.process(context, result);
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
     }
 
     @Test
@@ -116,8 +118,8 @@ public class OperationREADDIRTest {
                 .withReaddir(cookie, cookieVerifier, 1024, 512)
                 .build().argarray[0];
 
-        OperationREADDIR readdirOp = new OperationREADDIR(op);
-        readdirOp.process(context, result);
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
     }
 
     @Test
@@ -140,8 +142,8 @@ public class OperationREADDIRTest {
                 .withReaddir(0, cookieVerifier, 1024, 1000) // only 20 entry will fit
                 .build().argarray[0];
 
-        OperationREADDIR readdirOp = new OperationREADDIR(op);
-        readdirOp.process(context, result);
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
 
         int n = 0;
 
@@ -154,4 +156,69 @@ public class OperationREADDIRTest {
         assertEquals("Not all antries returned", dirContents.size() - 3, n);
         assertFalse("The last entry is missed", result.opreaddir.resok4.reply.eof);
     }
+
+    @Test
+    public void testBulkAttributesFetch() throws Exception {
+
+        verifier4 cookieVerifier = new verifier4(DirectoryStream.ZERO_VERIFIER);
+        Inode fileInode = new Inode(new FileHandle(0, 1, 0, new byte[]{0, 0, 0, 2}));
+
+        // entries without attributes
+        List<DirectoryEntry> dirContents = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            dirContents.add(new DirectoryEntry("file" + i, fileInode, null, 3 + i));
+        }
+
+        Mockito.when(vfs.list(eq(dirInode), anyObject(), anyLong())).thenReturn(new DirectoryStream(cookieVerifier.value, dirContents));
+        Mockito.when(vfs.getattrs(anyListOf(Inode.class), eq(false))).thenAnswer(invocation -> {
+            List<Inode> inodes = (List<Inode>) invocation.getArguments()[0];
+            List<InodeAttributes> attributes = new ArrayList<>();
+            inodes.forEach(inode -> attributes.add(new InodeAttributes(dirStat, null)));
+            return attributes;
+        });
+
+        nfs_argop4 op = new CompoundBuilder()
+                .withReaddir(0, cookieVerifier, 4096, 4096)
+                .build().argarray[0];
+
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
+
+        verify(vfs, times(1)).getattrs(anyListOf(Inode.class), eq(false));
+        verify(vfs, never()).getattr(fileInode);
+    }
+
+    @Test
+    public void testAttributesFetchedForFittingEntriesOnly() throws Exception {
+
+        verifier4 cookieVerifier = new verifier4(DirectoryStream.ZERO_VERIFIER);
+        Inode fileInode = new Inode(new FileHandle(0, 1, 0, new byte[]{0, 0, 0, 2}));
+
+        List<DirectoryEntry> dirContents = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            dirContents.add(new DirectoryEntry("file" + i, fileInode, null, 3 + i));
+        }
+
+        List<Integer> batches = new ArrayList<>();
+        Mockito.when(vfs.list(eq(dirInode), anyObject(), anyLong())).thenReturn(new DirectoryStream(cookieVerifier.value, dirContents));
+        Mockito.when(vfs.getattrs(anyListOf(Inode.class), eq(false))).thenAnswer(invocation -> {
+            List<Inode> inodes = (List<Inode>) invocation.getArguments()[0];
+            batches.add(inodes.size());
+            List<InodeAttributes> attributes = new ArrayList<>();
+            inodes.forEach(inode -> attributes.add(new InodeAttributes(dirStat, null)));
+            return attributes;
+        });
+
+        // only a handful of entries fit into the reply
+        nfs_argop4 op = new CompoundBuilder()
+                .withReaddir(0, cookieVerifier, 4096, 512)
+                .build().argarray[0];
+
+        OperationREADDIR readdirOp = new OperationREADDIR();
+        readdirOp.process(context, op, result);
+
+        int fetched = batches.stream().mapToInt(Integer::intValue).sum();
+        assertTrue("Too many attributes fetched: " + fetched, fetched < 32);
+        assertFalse(result.opreaddir.resok4.reply.eof);
+    }
 }
@@ -37,16 +37,17 @@ import static org.dcache.nfs.v4.NfsTestUtils.generateRpcCall;
 public class OperationSECINFO_NO_NAMETest {
 
     private OperationSECINFO_NO_NAME op;
+    private nfs_argop4 arg;
     private Inode inode;
 
     @Before
     public void setUp() throws IOException {
 
-        nfs_argop4 arg =  new nfs_argop4();
+        arg =  new nfs_argop4();
         arg.argop = nfs_opnum4.OP_SECINFO_NO_NAME;
         arg.opsecinfo_no_name = new SECINFO_NO_NAME4args(0);
 
-        op  = new OperationSECINFO_NO_NAME(arg);
+        op  = new OperationSECINFO_NO_NAME();
         inode = mock(Inode.class);
 
     }
@@ -60,7 +61,7 @@ public class OperationSECINFO_NO_NAMETest {
                 .build();
         context.currentInode(inode);
         nfs_resop4 result = nfs_resop4.resopFor(nfs_opnum4.OP_SECINFO_NO_NAME);
-        op.process(context, result);
+        op.process(context, arg, result);
 
         assertEquals("Sec Sys not detected", RpcAuthType.UNIX, result.opsecinfo_no_name.resok4.value[0].flavor);
     }
@@ -75,7 +76,7 @@ public class OperationSECINFO_NO_NAMETest {
                 .build();
         context.currentInode(inode);
         nfs_resop4 result = nfs_resop4.resopFor(nfs_opnum4.OP_SECINFO_NO_NAME);
-        op.process(context, result);
+        op.process(context, arg, result);
 
         assertEquals("Sec Krb5 not detected", RpcAuthType.RPCGSS_SEC, result.opsecinfo_no_name.resok4.value[0].flavor);
     }
@@ -90,7 +91,7 @@ public class OperationSECINFO_NO_NAMETest {
                 .build();
         context.currentInode(inode);
         nfs_resop4 result = nfs_resop4.resopFor(nfs_opnum4.OP_SECINFO_NO_NAME);
-        op.process(context, result);
+        op.process(context, arg, result);
 
         assertEquals("Sec Krb5 not detected", RpcAuthType.RPCGSS_SEC, result.opsecinfo_no_name.resok4.value[0].flavor);
         assertEquals("Sec Sys not detected", RpcAuthType.UNIX, result.opsecinfo_no_name.resok4.value[1].flavor);
@@ -0,0 +1,143 @@
+package org.dcache.nfs.v4.nlm;
+
+import java.nio.charset.StandardCharsets;
+import org.dcache.nfs.v4.xdr.nfs4_prot;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntervalTreeLmTest extends SimpleLmTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        nlm = new IntervalTreeLm();
+        file1 = "file1".getBytes(StandardCharsets.UTF_8);
+        file2 = "file2".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testManyLocks() throws LockException {
+        for (int i = 0; i < 10000; i++) {
+            NlmLock lock = new LockBuilder()
+                    .withOwner("owner" + (i % 7))
+                    .from(i * 10)
+                    .length(5)
+                    .forWrite()
+                    .build();
+            nlm.lock(file1, lock);
+        }
+
+        NlmLock lock = new LockBuilder()
+                .withOwner("owner1")
+                .from(5)
+                .length(5)
+                .forWrite()
+                .build();
+        nlm.lock(file1, lock);
+    }
+
+    @Test(expected = LockDeniedException.class)
+    public void testConflictInTheMiddleOfManyLocks() throws LockException {
+        for (int i = 0; i < 10000; i++) {
+            NlmLock lock = new LockBuilder()
+                    .withOwner("owner1")
+                    .from(i * 10)
+                    .length(5)
+                    .forWrite()
+                    .build();
+            nlm.lock(file1, lock);
+        }
+
+        NlmLock lock = new LockBuilder()
+                .withOwner("owner2")
+                .from(50003)
+                .length(1)
+                .forRead()
+                .build();
+        nlm.lock(file1, lock);
+    }
+
+    @Test
+    public void testSharedReadLocks() throws LockException {
+        NlmLock lock1 = new LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(nfs4_prot.NFS4_UINT64_MAX)
+                .forRead()
+                .build();
+        nlm.lock(file1, lock1);
+
+        NlmLock lock2 = new LockBuilder()
+                .withOwner("owner2")
+                .from(100)
+                .length(100)
+                .forRead()
+                .build();
+        nlm.lock(file1, lock2);
+        nlm.test(file1, lock2);
+    }
+
+    @Test(expected = LockDeniedException.class)
+    public void testUnlockKeepsTail() throws LockException {
+        NlmLock lock1 = new LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(nfs4_prot.NFS4_UINT64_MAX)
+                .forWrite()
+                .build();
+        nlm.lock(file1, lock1);
+
+        NlmLock lock2 = new LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(100)
+                .forWrite()
+                .build();
+        nlm.unlock(file1, lock2);
+
+        NlmLock lock3 = new LockBuilder()
+                .withOwner("owner2")
+                .from(0)
+                .length(100)
+                .forWrite()
+                .build();
+        nlm.lock(file1, lock3);
+
+        NlmLock lock4 = new LockBuilder()
+                .withOwner("owner2")
+                .from(1000)
+                .length(1)
+                .forWrite()
+                .build();
+        nlm.lock(file1, lock4);
+    }
+
+    @Test
+    public void testMergeAdjacentAndUnlockWhole() throws LockException {
+        for (int i = 0; i < 100; i++) {
+            NlmLock lock = new LockBuilder()
+                    .withOwner("owner1")
+                    .from(i * 10)
+                    .length(20)
+                    .forWrite()
+                    .build();
+            nlm.lock(file1, lock);
+        }
+
+        NlmLock unlock = new LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(nfs4_prot.NFS4_UINT64_MAX)
+                .forWrite()
+                .build();
+        nlm.unlock(file1, unlock);
+
+        NlmLock lock = new LockBuilder()
+                .withOwner("owner2")
+                .from(0)
+                .length(nfs4_prot.NFS4_UINT64_MAX)
+                .forWrite()
+                .build();
+        nlm.lock(file1, lock);
+    }
+}
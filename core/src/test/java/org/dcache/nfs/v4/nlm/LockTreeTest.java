@@ -0,0 +1,59 @@
+package org.dcache.nfs.v4.nlm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LockTreeTest {
+
+    @Test
+    public void testFindAllMatchesFullScan() {
+        Random random = new Random(1);
+        LockTree tree = new LockTree();
+        List<NlmLock> all = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            if (!all.isEmpty() && random.nextInt(4) == 0) {
+                NlmLock l = all.remove(random.nextInt(all.size()));
+                assertTrue(tree.remove(l));
+            } else {
+                NlmLock l = new SimpleLmTest.LockBuilder()
+                        .withOwner("owner" + i)
+                        .from(random.nextInt(10000))
+                        .length(1 + random.nextInt(100))
+                        .forRead()
+                        .build();
+                all.add(l);
+                tree.add(l);
+            }
+
+            long start = random.nextInt(10000);
+            long end = start + random.nextInt(200);
+            Set<NlmLock> expected = all.stream()
+                    .filter(l -> l.getOffset() <= end && LockTree.endOf(l) >= start)
+                    .collect(Collectors.toSet());
+            assertEquals(expected, new HashSet<>(tree.findAll(start, end, l -> true)));
+            assertEquals(!expected.isEmpty(), tree.findAny(start, end, l -> true) != null);
+        }
+        assertEquals(all.size(), tree.size());
+    }
+
+    @Test
+    public void testRemoveNotExisting() {
+        LockTree tree = new LockTree();
+        NlmLock lock = new SimpleLmTest.LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(1)
+                .forRead()
+                .build();
+        assertFalse(tree.remove(lock));
+        assertTrue(tree.isEmpty());
+    }
+}
@@ -14,9 +14,9 @@ import org.junit.Before;
  */
 public class SimpleLmTest {
 
-    private LockManager nlm;
-    private byte[] file1;
-    private byte[] file2;
+    protected LockManager nlm;
+    protected byte[] file1;
+    protected byte[] file2;
 
     @Before
     public void setUp() throws Exception {
@@ -181,6 +181,27 @@ public class SimpleLmTest {
         nlm.test(file1, lock2);
     }
 
+    @Test
+    public void testTestOfSharedReadLock() throws LockException {
+        NlmLock lock1 = new LockBuilder()
+                .withOwner("owner1")
+                .from(0)
+                .length(1)
+                .forRead()
+                .build();
+        nlm.lock(file1, lock1);
+
+        NlmLock lock2 = new LockBuilder()
+                .withOwner("owner2")
+                .from(0)
+                .length(1)
+                .forRead()
+                .build();
+        // test must agree with lock: read locks of different owners do not conflict
+        nlm.test(file1, lock2);
+        nlm.lock(file1, lock2);
+    }
+
     @Test
     public void testNonOverlapingLocks() throws LockException {
         NlmLock lock1 = new LockBuilder()
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.util.concurrent.TimeUnit;
+import javax.security.auth.Subject;
+import org.dcache.auth.Subjects;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.dcache.nfs.v4.xdr.nfs4_prot.*;
+
+public class AccessCacheTest {
+
+    private AccessCache cache;
+    private Inode inode;
+    private Stat stat;
+    private Subject user;
+
+    @Before
+    public void setUp() {
+        cache = new AccessCache(10, 1, TimeUnit.MINUTES, null);
+        inode = Inode.forFile(new byte[]{0x01});
+        stat = newStat(1);
+        user = Subjects.of(1, 1);
+    }
+
+    @Test
+    public void testGrantedAccessCached() {
+        assertFalse(cache.isGranted(inode, stat, user, user, false, ACE4_READ_DATA));
+        cache.grant(inode, stat, user, user, false, ACE4_READ_DATA);
+
+        assertTrue(cache.isGranted(inode, stat, user, user, false, ACE4_READ_DATA));
+        assertFalse(cache.isGranted(inode, stat, user, user, false, ACE4_WRITE_DATA));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testChangedFileNotGranted() {
+        cache.grant(inode, stat, user, user, false, ACE4_READ_DATA);
+        assertFalse(cache.isGranted(inode, newStat(2), user, user, false, ACE4_READ_DATA));
+    }
+
+    @Test
+    public void testSquashedSubjectNotShared() {
+        Subject nobody = Subjects.of(65534, 65534);
+        cache.grant(inode, stat, Subjects.ROOT, Subjects.ROOT, false, ACE4_WRITE_DATA);
+        assertFalse(cache.isGranted(inode, stat, Subjects.ROOT, nobody, false, ACE4_WRITE_DATA));
+    }
+
+    @Test
+    public void testAclFlagNotShared() {
+        cache.grant(inode, stat, user, user, false, ACE4_READ_DATA);
+        assertFalse(cache.isGranted(inode, stat, user, user, true, ACE4_READ_DATA));
+    }
+
+    @Test
+    public void testInvalidate() {
+        cache.grant(inode, stat, user, user, false, ACE4_READ_DATA);
+        cache.invalidate(inode);
+        assertFalse(cache.isGranted(inode, stat, user, user, false, ACE4_READ_DATA));
+    }
+
+    private static Stat newStat(long generation) {
+        Stat stat = new Stat();
+        stat.setGeneration(generation);
+        stat.setCTime(1);
+        stat.setMode(0644 | Stat.S_IFREG);
+        stat.setUid(1);
+        stat.setGid(1);
+        return stat;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009 - 2014 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DirectoryStreamTest {
+
+    private List<DirectoryEntry> entries;
+
+    @Before
+    public void setUp() {
+        entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(new DirectoryEntry("file" + i, null, null, i));
+        }
+    }
+
+    @Test
+    public void testMaterializedListsAll() {
+        DirectoryStream stream = new DirectoryStream(entries);
+        assertEquals(10, Lists.newArrayList(stream).size());
+    }
+
+    @Test
+    public void testMaterializedTail() {
+        DirectoryStream stream = new DirectoryStream(entries).tail(4);
+        List<DirectoryEntry> tail = Lists.newArrayList(stream);
+        assertEquals(5, tail.size());
+        assertEquals(5, tail.get(0).getCookie());
+    }
+
+    @Test
+    public void testSourceIsLazy() {
+        CountingSource source = new CountingSource();
+        DirectoryStream stream = new DirectoryStream(DirectoryStream.ZERO_VERIFIER, source).tail(2);
+
+        Iterator<DirectoryEntry> i = stream.iterator();
+        assertEquals(3, i.next().getCookie());
+        assertEquals(1, source.consumed);
+    }
+
+    @Test
+    public void testTransform() {
+        DirectoryStream stream = new DirectoryStream(entries)
+                .tail(7)
+                .transform(e -> new DirectoryEntry(e.getName().toUpperCase(), null, null, e.getCookie()));
+
+        List<DirectoryEntry> transformed = Lists.newArrayList(stream);
+        assertEquals(2, transformed.size());
+        assertEquals("FILE8", transformed.get(0).getName());
+    }
+
+    @Test
+    public void testEntriesOfSource() {
+        DirectoryStream stream = new DirectoryStream(DirectoryStream.ZERO_VERIFIER, new CountingSource());
+        assertEquals(10, stream.getEntries().size());
+    }
+
+    private class CountingSource implements DirectoryStream.Source {
+
+        int consumed;
+
+        @Override
+        public Iterator<DirectoryEntry> entriesAfter(long cookie) {
+            return entries.stream()
+                    .filter(e -> e.getCookie() > cookie)
+                    .peek(e -> consumed++)
+                    .iterator();
+        }
+
+        @Override
+        public Iterator<DirectoryEntry> entries() {
+            return entriesAfter(-1);
+        }
+    }
+}
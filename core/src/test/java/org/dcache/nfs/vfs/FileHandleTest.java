@@ -18,6 +18,7 @@ package org.dcache.nfs.vfs;
 
 import com.google.common.io.BaseEncoding;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -103,4 +104,64 @@ public class FileHandleTest {
         assertEquals(1, fh.getType());
         assertEquals(oldIdReg, new String(opaque, ACSII));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCanonicalBytesReused() {
+        byte[] bytes = BaseEncoding.base16().lowerCase().decode("01caffee00000000ea15b996002e303a494e4f44453a3030303043333732333331373433393234353645423833453434383434453844323844363a30");
+        FileHandle fh = new FileHandle(bytes);
+        FileHandle built = new FileHandle.FileHandleBuilder()
+                .setExportIdx("/export/data".hashCode())
+                .build(fh.getFsOpaque());
+
+        assertEquals(fh, built);
+        assertEquals(fh.hashCode(), built.hashCode());
+        assertArrayEquals(bytes, built.bytes());
+    }
+
+    @Test
+    public void testBytesReturnsCopy() {
+        FileHandle fh = new FileHandle.FileHandleBuilder().build(new byte[]{0x01, 0x02});
+        byte[] bytes = fh.bytes();
+        bytes[bytes.length - 1] = 0x03;
+
+        assertEquals(0x02, fh.bytes()[bytes.length - 1]);
+    }
+
+    @Test
+    public void testCallerBytesNotShared() {
+        FileHandle fh = new FileHandle.FileHandleBuilder().build(new byte[]{0x01, 0x02});
+        byte[] bytes = fh.bytes();
+        FileHandle parsed = new FileHandle(bytes);
+        bytes[bytes.length - 1] = 0x03;
+
+        assertEquals(fh, parsed);
+        assertEquals(fh.hashCode(), parsed.hashCode());
+        assertArrayEquals(fh.bytes(), parsed.bytes());
+    }
+
+    @Test
+    public void testTrailingBytesIgnored() {
+        FileHandle fh = new FileHandle.FileHandleBuilder().build(new byte[]{0x01, 0x02});
+        byte[] bytes = Arrays.copyOf(fh.bytes(), fh.bytes().length + 2);
+
+        FileHandle parsed = new FileHandle(bytes);
+        assertEquals(fh, parsed);
+        assertArrayEquals(fh.bytes(), parsed.bytes());
+    }
+
+    @Test
+    public void testSameFileIdThroughOtherExport() {
+        byte[] fileId = new byte[]{0x01, 0x02};
+        Inode inode1 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(1).build(fileId));
+        Inode inode2 = new Inode(new FileHandle(new FileHandle.FileHandleBuilder().setExportIdx(2).setType(1).build(fileId).bytes()));
+        Inode other = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(1).build(new byte[]{0x01, 0x03}));
+
+        assertNotEquals(inode1, inode2);
+        assertTrue(inode1.hasSameFileId(inode2));
+        assertFalse(inode1.hasSameFileId(other));
+        assertEquals(inode1.fileIdKey(), inode2.fileIdKey());
+        assertEquals(inode1.fileIdKey().hashCode(), inode2.fileIdKey().hashCode());
+        assertNotEquals(inode1.fileIdKey(), other.fileIdKey());
+        assertSame(inode1.fileIdKey(), inode1.fileIdKey());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.dcache.nfs.status.NoEntException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class MemoizingFileSystemTest {
+
+    private VirtualFileSystem inner;
+    private MemoizingFileSystem fs;
+    private Inode inode;
+
+    @Before
+    public void setUp() throws IOException {
+        inner = mock(VirtualFileSystem.class);
+        fs = new MemoizingFileSystem(inner);
+        inode = Inode.forFile(new byte[]{0x01});
+        given(inner.getattr(inode)).willReturn(new Stat());
+        given(inner.getFsStat()).willReturn(new FsStat(10, 10, 1, 1));
+    }
+
+    @Test
+    public void testGetattrCalledOnce() throws IOException {
+        Stat stat = fs.getattr(inode);
+        assertSame(stat, fs.getattr(inode));
+        assertSame(stat, fs.getattrAsync(inode).join());
+        verify(inner, times(1)).getattr(inode);
+    }
+
+    @Test
+    public void testFsStatCalledOnce() throws IOException {
+        fs.getFsStat();
+        fs.getFsStat();
+        verify(inner, times(1)).getFsStat();
+    }
+
+    @Test
+    public void testWriteDropsAttributes() throws IOException {
+        fs.getattr(inode);
+        fs.getFsStat();
+        fs.write(inode, ByteBuffer.allocate(1), 0, VirtualFileSystem.StabilityLevel.UNSTABLE);
+        fs.getattr(inode);
+        fs.getFsStat();
+        verify(inner, times(2)).getattr(inode);
+        verify(inner, times(2)).getFsStat();
+    }
+
+    @Test
+    public void testSetattrDropsAttributes() throws IOException {
+        fs.getattr(inode);
+        fs.setattr(inode, new Stat());
+        fs.getattr(inode);
+        verify(inner, times(2)).getattr(inode);
+    }
+
+    @Test
+    public void testRemoveDropsAll() throws IOException {
+        Inode parent = Inode.forFile(new byte[]{0x02});
+        fs.getattr(inode);
+        fs.remove(parent, "foo");
+        fs.getattr(inode);
+        verify(inner, times(2)).getattr(inode);
+    }
+
+    @Test
+    public void testErrorNotRemembered() throws IOException {
+        Inode missing = Inode.forFile(new byte[]{0x03});
+        given(inner.getattr(missing)).willThrow(new NoEntException());
+        for (int i = 0; i < 2; i++) {
+            try {
+                fs.getattr(missing);
+                fail("exception expected");
+            } catch (NoEntException e) {
+                // expected
+            }
+        }
+        verify(inner, times(2)).getattr(missing);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import org.dcache.nfs.status.NoEntException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class OffloadingFileSystemTest {
+
+    private VirtualFileSystem inner;
+    private QueueExecutor executor;
+    private OffloadingFileSystem fs;
+    private Inode inode;
+
+    @Before
+    public void setUp() {
+        inner = mock(VirtualFileSystem.class);
+        executor = new QueueExecutor();
+        fs = new OffloadingFileSystem(inner, executor);
+        inode = Inode.forFile(new byte[]{0x01});
+    }
+
+    @Test
+    public void testGetattrRunsOnExecutor() throws IOException {
+        Stat stat = new Stat();
+        given(inner.getattr(inode)).willReturn(stat);
+
+        CompletableFuture<Stat> future = fs.getattrAsync(inode);
+        assertFalse(future.isDone());
+        verify(inner, never()).getattr(inode);
+
+        executor.runAll();
+        assertSame(stat, future.join());
+    }
+
+    @Test
+    public void testErrorPropagated() throws IOException {
+        given(inner.getattr(inode)).willThrow(new NoEntException());
+
+        CompletableFuture<Stat> future = fs.getattrAsync(inode);
+        executor.runAll();
+
+        try {
+            future.join();
+            fail("exception expected");
+        } catch (CompletionException e) {
+            assertTrue(AsyncIo.unwrap(e) instanceof NoEntException);
+        }
+    }
+
+    @Test
+    public void testCommitRunsOnExecutor() throws IOException {
+        CompletableFuture<Void> future = fs.commitAsync(inode, 0, 10);
+        verify(inner, never()).commit(inode, 0, 10);
+
+        executor.runAll();
+        future.join();
+        verify(inner).commit(inode, 0, 10);
+    }
+
+    @Test
+    public void testBlockingCallsNotOffloaded() throws IOException {
+        fs.getattr(inode);
+        verify(inner).getattr(inode);
+    }
+
+    private static class QueueExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            tasks.forEach(Runnable::run);
+            tasks.clear();
+        }
+    }
+}
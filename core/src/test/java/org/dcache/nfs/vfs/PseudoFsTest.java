@@ -21,7 +21,9 @@ package org.dcache.nfs.vfs;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.stream.Stream;
+import javax.security.auth.Subject;
 import org.dcache.auth.Subjects;
 import org.dcache.nfs.ExportFile;
 import org.dcache.nfs.FsExport;
@@ -35,7 +37,9 @@ import org.dcache.xdr.gss.RpcAuthGss;
 import org.dcache.xdr.gss.RpcGssService;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
+import static org.dcache.nfs.v4.xdr.nfs4_prot.*;
 import static org.mockito.BDDMockito.given;
 
 import org.junit.Before;
@@ -222,4 +226,42 @@ public class PseudoFsTest {
         pseudoFs = new PseudoFs(mockedFs, mockedRpc, mockedExportFile);
         pseudoFs.getattr(inode);
     }
+
+    @Test
+    public void testAccessEvaluatedInSinglePass() throws IOException {
+
+        given(mockedTransport.getRemoteSocketAddress()).willReturn(localAddress);
+        given(mockedAuth.getSubject()).willReturn(Subjects.of(1, 1));
+        given(mockedRpc.getTransport()).willReturn(mockedTransport);
+        given(mockedRpc.getCredential()).willReturn(mockedAuth);
+
+        given(mockedExport.ioMode()).willReturn(FsExport.IO.RW);
+        given(mockedExport.isTrusted()).willReturn(true);
+        given(mockedExport.checkAcls()).willReturn(true);
+        given(mockedExport.getSec()).willReturn(FsExport.Sec.NONE);
+
+        given(mockedExportFile.getExport(1, localAddress.getAddress())).willReturn(mockedExport);
+
+        AclCheckable aclCheckable = mock(AclCheckable.class);
+        given(aclCheckable.checkAcl(any(Subject.class), eq(inode), any(int[].class))).willAnswer(
+                invocation -> {
+                    AclCheckable.Access[] access = new AclCheckable.Access[((int[]) invocation.getArguments()[2]).length];
+                    Arrays.fill(access, AclCheckable.Access.UNDEFINED);
+                    return access;
+                });
+        given(mockedFs.getAclCheckable()).willReturn(aclCheckable);
+        given(mockedFs.access(eq(inode), anyInt())).willAnswer(invocation -> invocation.getArguments()[1]);
+
+        int mask = ACCESS4_READ | ACCESS4_LOOKUP | ACCESS4_MODIFY
+                | ACCESS4_EXECUTE | ACCESS4_EXTEND | ACCESS4_DELETE;
+
+        pseudoFs = new PseudoFs(mockedFs, mockedRpc, mockedExportFile);
+        int access = pseudoFs.access(inode, mask);
+
+        assertEquals(ACCESS4_READ | ACCESS4_MODIFY, access & (ACCESS4_READ | ACCESS4_MODIFY));
+        verify(mockedFs, times(1)).getattr(inode);
+        verify(aclCheckable, times(1)).checkAcl(any(Subject.class), eq(inode), any(int[].class));
+        verify(aclCheckable, never()).checkAcl(any(Subject.class), eq(inode), anyInt());
+        verify(mockedExportFile, times(1)).getExport(1, localAddress.getAddress());
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.dcache.nfs.ExportFile;
+import org.dcache.nfs.FsExport;
+import org.dcache.nfs.status.NoEntException;
+import org.dcache.xdr.XdrTransport;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+public class PseudoFsTreeCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private VirtualFileSystem fs;
+    private Inode root;
+    private Inode data;
+
+    @Before
+    public void setUp() throws IOException {
+        fs = mock(VirtualFileSystem.class);
+        root = Inode.forFile(new byte[]{0x01});
+        data = Inode.forFile(new byte[]{0x02});
+
+        given(fs.getRootInode()).willReturn(root);
+        given(fs.lookup(root, "data")).willReturn(data);
+    }
+
+    @Test
+    public void testTreeReused() throws IOException {
+        ExportFile exportFile = exportFileOf("/data 127.0.0.1(rw)");
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+        List<FsExport> exports = exportFile.getExports().collect(Collectors.toList());
+
+        PseudoFsTree tree = cache.get(exports);
+        assertSame(tree, cache.get(exports));
+        verify(fs, times(1)).lookup(root, "data");
+    }
+
+    @Test
+    public void testPseudoNodes() throws IOException {
+        ExportFile exportFile = exportFileOf("/data 127.0.0.1(rw)");
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+        List<FsExport> exports = exportFile.getExports().collect(Collectors.toList());
+
+        PseudoFsTree tree = cache.get(exports);
+        assertFalse(tree.isEmpty());
+        assertTrue(tree.contains(PseudoFs.realToPseudo(root)));
+
+        PseudoFsNode node = tree.getRoot().getChild("data");
+        assertNotNull(node);
+        assertTrue(node.isMountPoint());
+    }
+
+    @Test
+    public void testIncompleteTreeNotCached() throws IOException {
+        ExportFile exportFile = exportFileOf("/data 127.0.0.1(rw)");
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+        List<FsExport> exports = exportFile.getExports().collect(Collectors.toList());
+
+        given(fs.lookup(root, "data")).willThrow(new NoEntException());
+
+        PseudoFsTree tree = cache.get(exports);
+        assertFalse(tree.isComplete());
+        assertNotSame(tree, cache.get(exports));
+    }
+
+    @Test
+    public void testInvalidateOnReload() throws IOException {
+        File file = tmp.newFile("exports");
+        Files.write(file.toPath(), Collections.singletonList("/data 127.0.0.1(rw)"), StandardCharsets.UTF_8);
+
+        ExportFile exportFile = new ExportFile(file);
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+        List<FsExport> exports = exportFile.getExports().collect(Collectors.toList());
+
+        PseudoFsTree tree = cache.get(exports);
+        exportFile.rescan();
+
+        assertNotSame(tree, cache.get(exports));
+        verify(fs, times(2)).lookup(root, "data");
+    }
+
+    @Test
+    public void testViewReusedPerClient() throws IOException {
+        ExportFile exportFile = spy(exportFileOf("/data 127.0.0.1(rw)"));
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+
+        // each call comes with its own transport object
+        ClientExportView view = cache.viewOf(clientOf(transportFrom("127.0.0.1", 1021)), exportFile);
+        assertEquals(1, view.getExports().size());
+        assertSame(view, cache.viewOf(clientOf(transportFrom("127.0.0.1", 1021)), exportFile));
+        verify(exportFile, times(1)).exportsFor(any());
+    }
+
+    @Test
+    public void testViewInvalidated() throws IOException {
+        ExportFile exportFile = exportFileOf("/data 127.0.0.1(rw)");
+        PseudoFsTreeCache cache = new PseudoFsTreeCache(fs, exportFile);
+        InetAddress client = clientOf(transportFrom("127.0.0.1", 1021));
+
+        ClientExportView view = cache.viewOf(client, exportFile);
+        cache.invalidate();
+        assertNotSame(view, cache.viewOf(client, exportFile));
+    }
+
+    private static XdrTransport transportFrom(String address, int port) {
+        XdrTransport transport = mock(XdrTransport.class);
+        given(transport.getRemoteSocketAddress()).willReturn(new InetSocketAddress(address, port));
+        return transport;
+    }
+
+    private static InetAddress clientOf(XdrTransport transport) {
+        return transport.getRemoteSocketAddress().getAddress();
+    }
+
+    private static ExportFile exportFileOf(String... lines) throws IOException {
+        return new ExportFile(new StringReader(String.join("\n", lines)));
+    }
+}
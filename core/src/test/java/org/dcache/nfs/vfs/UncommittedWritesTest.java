@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import org.dcache.nfs.vfs.VirtualFileSystem.StabilityLevel;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UncommittedWritesTest {
+
+    private UncommittedWrites writes;
+    private Inode inode;
+
+    @Before
+    public void setUp() {
+        writes = new UncommittedWrites(17L, 2);
+        inode = Inode.forFile(new byte[]{0x01});
+    }
+
+    @Test
+    public void testFileSyncWriteNotTracked() {
+        writes.written(inode, 0, 100, StabilityLevel.FILE_SYNC);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testCommitOfUntrackedFile() {
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.commitDone(inode, true);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testCommitOfDataSyncWrite() {
+        writes.written(inode, 0, 100, StabilityLevel.DATA_SYNC);
+        assertEquals(1, writes.getFileCount());
+        assertFalse(writes.commitStarted(inode, 200, 100));
+
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.commitDone(inode, true);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testCommitOfUnstableWrite() {
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.commitDone(inode, true);
+
+        assertEquals(0, writes.getFileCount());
+        assertEquals(17L, writes.getVerifier());
+    }
+
+    @Test
+    public void testCommitOfOtherRange() {
+        writes.written(inode, 100, 100, StabilityLevel.UNSTABLE);
+        assertFalse(writes.commitStarted(inode, 0, 100));
+        assertFalse(writes.commitStarted(inode, 200, 100));
+
+        assertTrue(writes.commitStarted(inode, 150, 10));
+        writes.commitDone(inode, true);
+
+        // the rest of the written range is still uncommitted
+        assertTrue(writes.commitStarted(inode, 100, 10));
+        writes.commitDone(inode, true);
+        assertTrue(writes.commitStarted(inode, 190, 10));
+        writes.commitDone(inode, true);
+    }
+
+    @Test
+    public void testAdjacentWritesMerged() {
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        writes.written(inode, 100, 100, StabilityLevel.UNSTABLE);
+        assertTrue(writes.commitStarted(inode, 0, 200));
+        writes.commitDone(inode, true);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testFailedCommitChangesVerifier() {
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        assertTrue(writes.commitStarted(inode, 0, 10));
+        writes.commitDone(inode, false);
+
+        assertNotEquals(17L, writes.getVerifier());
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testCommitWaitsForCommitInProgress() {
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.commitDone(inode, true);
+        assertEquals(1, writes.getFileCount());
+        writes.commitDone(inode, true);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testWriteDuringCommitOfUntrackedFile() {
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        writes.commitDone(inode, true);
+
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        // the first commit is still in progress and may fail
+        assertTrue(writes.commitStarted(inode, 0, 0));
+        writes.commitDone(inode, true);
+        writes.commitDone(inode, true);
+        assertEquals(0, writes.getFileCount());
+    }
+
+    @Test
+    public void testStableWritesWhenFull() {
+        Inode other = Inode.forFile(new byte[]{0x02});
+        Inode third = Inode.forFile(new byte[]{0x03});
+        writes.written(inode, 0, 100, StabilityLevel.UNSTABLE);
+        writes.written(other, 0, 100, StabilityLevel.UNSTABLE);
+
+        assertEquals(StabilityLevel.UNSTABLE, writes.stabilityFor(inode, StabilityLevel.UNSTABLE));
+        assertEquals(StabilityLevel.FILE_SYNC, writes.stabilityFor(third, StabilityLevel.UNSTABLE));
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2009 - 2014 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.vfs;
+
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.security.auth.Subject;
+import org.dcache.nfs.status.NoEntException;
+import org.dcache.nfs.v4.xdr.nfsace4;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class VfsCacheTest {
+
+    private static final byte[] VERIFIER = new byte[]{0, 0, 0, 0, 0, 0, 0, 1};
+
+    private ListingFileSystem inner;
+    private VfsCache cache;
+    private Inode dir;
+
+    @Before
+    public void setUp() {
+        inner = new ListingFileSystem(100);
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setMaxEntries(10);
+        config.setLifeTime(1);
+        config.setReaddirMaxEntries(10);
+        config.setReaddirLifeTime(1);
+        config.setReaddirPageSize(10);
+        config.setNegativeLookupMaxEntries(10);
+        config.setNegativeLookupLifeTime(1);
+        cache = new VfsCache(inner, config);
+        dir = Inode.forFile(new byte[]{0x01});
+    }
+
+    @Test
+    public void testListAll() throws IOException {
+        List<DirectoryEntry> entries = Lists.newArrayList(cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L));
+        assertEquals(100, entries.size());
+        assertEquals(1, entries.get(0).getCookie());
+        assertEquals(100, entries.get(99).getCookie());
+        assertEquals("listing must be streamed from a single backend call", 1, inner.listCalls);
+    }
+
+    @Test
+    public void testContinueFromCache() throws IOException {
+        Lists.newArrayList(cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L));
+
+        List<DirectoryEntry> entries = Lists.newArrayList(cache.list(dir, VERIFIER, 42L));
+        assertEquals(58, entries.size());
+        assertEquals(43, entries.get(0).getCookie());
+        assertEquals(1, inner.listCalls);
+    }
+
+    @Test
+    public void testPartialListingLoadsOnDemand() throws IOException {
+        DirectoryStream stream = cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L);
+        stream.iterator().next();
+        assertEquals("only first page expected", 11, inner.consumed);
+
+        List<DirectoryEntry> entries = Lists.newArrayList(cache.list(dir, VERIFIER, 5L));
+        assertEquals(95, entries.size());
+        assertEquals(2, inner.listCalls);
+    }
+
+    @Test
+    public void testEmptyDirectory() throws IOException {
+        inner = new ListingFileSystem(0);
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setReaddirMaxEntries(10);
+        config.setReaddirLifeTime(1);
+        cache = new VfsCache(inner, config);
+
+        assertFalse(cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L).iterator().hasNext());
+    }
+
+    @Test
+    public void testFailedLookupCached() throws IOException {
+        assertNoEntry(dir, "missing");
+        assertNoEntry(dir, "missing");
+        assertEquals(1, inner.lookupCalls);
+    }
+
+    @Test
+    public void testFailedLookupInvalidatedOnCreate() throws IOException {
+        assertNoEntry(dir, "newfile");
+
+        Inode inode = cache.create(dir, Stat.Type.REGULAR, "newfile", null, 0644);
+        assertEquals(inode, cache.lookup(dir, "newfile"));
+    }
+
+    @Test
+    public void testFailedLookupInvalidatedOnMove() throws IOException {
+        assertNoEntry(dir, "target");
+
+        inner.names.add("target");
+        cache.move(dir, "source", dir, "target");
+        assertNotNull(cache.lookup(dir, "target"));
+        assertEquals(2, inner.lookupCalls);
+    }
+
+    @Test
+    public void testFailedLookupInvalidatedThroughOtherExport() throws IOException {
+        byte[] fileId = new byte[]{0x02};
+        Inode dir1 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(1).build(fileId));
+        Inode dir2 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(2).build(fileId));
+        assertNoEntry(dir1, "newfile");
+
+        cache.create(dir2, Stat.Type.REGULAR, "newfile", null, 0644);
+        assertNotNull(cache.lookup(dir1, "newfile"));
+    }
+
+    @Test
+    public void testLookupInvalidatedThroughOtherExport() throws IOException {
+        byte[] fileId = new byte[]{0x02};
+        Inode dir1 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(1).build(fileId));
+        Inode dir2 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(2).build(fileId));
+        inner.names.add("file");
+        assertNotNull(cache.lookup(dir1, "file"));
+
+        cache.remove(dir2, "file");
+        assertNoEntry(dir1, "file");
+    }
+
+    @Test
+    public void testRemoteRemoveInvalidatesLookupOfOtherExport() throws IOException {
+        InvalidationEventBus bus = new LocalInvalidationEventBus();
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setMaxEntries(10);
+        config.setLifeTime(1);
+        VfsCache cache1 = new VfsCache(inner, config, bus);
+        VfsCache cache2 = new VfsCache(inner, config, bus);
+        cache = cache2;
+
+        byte[] fileId = new byte[]{0x02};
+        Inode dir1 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(1).build(fileId));
+        Inode dir2 = new Inode(new FileHandle.FileHandleBuilder().setExportIdx(2).build(fileId));
+        inner.names.add("file");
+        assertNotNull(cache2.lookup(dir1, "file"));
+
+        cache1.remove(dir2, "file");
+        assertNoEntry(dir1, "file");
+    }
+
+    @Test
+    public void testRemoteModificationInvalidatesCache() throws IOException {
+        InvalidationEventBus bus = new LocalInvalidationEventBus();
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setMaxEntries(10);
+        config.setLifeTime(1);
+        config.setNegativeLookupMaxEntries(10);
+        config.setNegativeLookupLifeTime(1);
+        VfsCache cache1 = new VfsCache(inner, config, bus);
+        VfsCache cache2 = new VfsCache(inner, config, bus);
+        cache = cache2;
+
+        cache2.getattr(dir);
+        cache1.setattr(dir, new Stat());
+        cache2.getattr(dir);
+        assertEquals(2, inner.getattrCalls);
+
+        assertNoEntry(dir, "newfile");
+        cache1.create(dir, Stat.Type.REGULAR, "newfile", null, 0644);
+        assertNotNull(cache2.lookup(dir, "newfile"));
+    }
+
+    @Test
+    public void testRemoteWriteInvalidatesStat() throws IOException {
+        InvalidationEventBus bus = new LocalInvalidationEventBus();
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setMaxEntries(10);
+        config.setLifeTime(1);
+        VfsCache cache1 = new VfsCache(inner, config, bus);
+        VfsCache cache2 = new VfsCache(inner, config, bus);
+
+        cache2.getattr(dir);
+        cache1.write(dir, ByteBuffer.allocate(1), 0, VirtualFileSystem.StabilityLevel.UNSTABLE);
+        cache2.getattr(dir);
+        assertEquals(2, inner.getattrCalls);
+
+        CompletableFuture<VirtualFileSystem.WriteResult> write =
+                cache1.writeAsync(dir, ByteBuffer.allocate(1), 0, VirtualFileSystem.StabilityLevel.UNSTABLE);
+        cache2.getattr(dir);
+        inner.pendingWrite.complete(new VirtualFileSystem.WriteResult(VirtualFileSystem.StabilityLevel.UNSTABLE, 1));
+        write.join();
+        cache2.getattr(dir);
+        assertEquals("attributes must be invalidated when write completes", 3, inner.getattrCalls);
+
+        cache1.setAcl(dir, new nfsace4[0]);
+        cache2.getattr(dir);
+        assertEquals(4, inner.getattrCalls);
+    }
+
+    @Test
+    public void testStatCacheLimitedByBytes() throws IOException {
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setMaxEntries(10);
+        config.setLifeTime(1);
+        config.setStatMaxBytes(CacheWeights.STAT / 2);
+        cache = new VfsCache(inner, config);
+
+        cache.getattr(dir);
+        cache.getattr(dir);
+        assertEquals("entry larger than budget must not be cached", 2, inner.getattrCalls);
+    }
+
+    @Test
+    public void testStatCacheWithinBudget() throws IOException {
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setLifeTime(1);
+        config.setStatMaxBytes(1024 * 1024);
+        cache = new VfsCache(inner, config);
+
+        cache.getattr(dir);
+        cache.getattr(dir);
+        assertEquals(1, inner.getattrCalls);
+    }
+
+    @Test
+    public void testReaddirWeightOfLoadedPages() throws IOException {
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setReaddirLifeTime(1);
+        config.setReaddirPageSize(10);
+        config.setReaddirMaxBytes(2 * CacheWeights.ofDirectory(10));
+        cache = new VfsCache(inner, config);
+
+        // listing is cached, even if all pages would exceed the budget
+        cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L).iterator().next();
+        assertEquals(CacheWeights.ofDirectory(10), cache.getReaddirBytes());
+        Iterator<DirectoryEntry> iterator = cache.list(dir, VERIFIER, 5L).iterator();
+        for (int i = 6; i <= 10; i++) {
+            assertEquals(i, iterator.next().getCookie());
+        }
+        assertEquals(1, inner.listCalls);
+    }
+
+    @Test
+    public void testReaddirPagesLimitedByBytes() throws IOException {
+        VfsCacheConfig config = new VfsCacheConfig();
+        config.setReaddirLifeTime(1);
+        config.setReaddirPageSize(10);
+        config.setReaddirMaxBytes(2 * CacheWeights.ofDirectory(10));
+        cache = new VfsCache(inner, config);
+
+        List<DirectoryEntry> entries = Lists.newArrayList(cache.list(dir, DirectoryStream.ZERO_VERIFIER, 0L));
+        assertEquals(100, entries.size());
+        assertEquals(2 * CacheWeights.ofDirectory(10), cache.getReaddirBytes());
+
+        // only the first two pages are cached
+        entries = Lists.newArrayList(cache.list(dir, VERIFIER, 0L));
+        assertEquals(100, entries.size());
+        assertEquals(2, inner.listCalls);
+    }
+
+    private void assertNoEntry(Inode parent, String name) throws IOException {
+        try {
+            cache.lookup(parent, name);
+            fail("NoEntException expected");
+        } catch (NoEntException e) {
+            // expected
+        }
+    }
+
+    /**
+     * File system with a single directory of {@code size} entries.
+     */
+    private static class ListingFileSystem extends ForwardingFileSystem {
+
+        private final List<DirectoryEntry> entries = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        int listCalls;
+        int consumed;
+        int lookupCalls;
+        int getattrCalls;
+        final CompletableFuture<WriteResult> pendingWrite = new CompletableFuture<>();
+
+        ListingFileSystem(int size) {
+            for (int i = 1; i <= size; i++) {
+                entries.add(new DirectoryEntry("file" + i, null, null, i));
+            }
+        }
+
+        @Override
+        protected VirtualFileSystem delegate() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Inode lookup(Inode parent, String name) throws IOException {
+            lookupCalls++;
+            if (!names.contains(name)) {
+                throw new NoEntException();
+            }
+            return Inode.forFile(name.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Inode create(Inode parent, Stat.Type type, String name, Subject subject, int mode) {
+            names.add(name);
+            return Inode.forFile(name.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Stat getattr(Inode inode) {
+            getattrCalls++;
+            return new Stat();
+        }
+
+        @Override
+        public void setattr(Inode inode, Stat stat) {
+        }
+
+        @Override
+        public void setAcl(Inode inode, nfsace4[] acl) {
+        }
+
+        @Override
+        public WriteResult write(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+            int count = data.remaining();
+            data.position(data.limit());
+            return new WriteResult(stabilityLevel, count);
+        }
+
+        @Override
+        public CompletableFuture<WriteResult> writeAsync(Inode inode, ByteBuffer data, long offset, StabilityLevel stabilityLevel) {
+            return pendingWrite;
+        }
+
+        @Override
+        public void remove(Inode parent, String name) {
+            names.remove(name);
+        }
+
+        @Override
+        public boolean move(Inode src, String oldName, Inode dest, String newName) {
+            return true;
+        }
+
+        @Override
+        public byte[] directoryVerifier(Inode inode) {
+            return VERIFIER;
+        }
+
+        @Override
+        public DirectoryStream list(Inode inode, byte[] verifier, long cookie) {
+            listCalls++;
+            return new DirectoryStream(VERIFIER, c -> entries.stream()
+                    .filter(e -> e.getCookie() > c)
+                    .peek(e -> consumed++)
+                    .iterator()).tail(cookie);
+        }
+    }
+}
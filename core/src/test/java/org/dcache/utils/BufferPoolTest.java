@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.nio.ByteBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    private BufferPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new BufferPool("test", BufferPool.DEFAULT_MAX_POOLED_BYTES, true);
+    }
+
+    @Test
+    public void testLimitSetToRequestedSize() {
+        PooledBuffer buffer = pool.allocate(5000);
+        ByteBuffer bb = buffer.buffer();
+        assertEquals(0, bb.position());
+        assertEquals(5000, bb.limit());
+        assertEquals(8192, bb.capacity());
+        assertFalse(bb.isDirect());
+    }
+
+    @Test
+    public void testDirectBuffer() {
+        PooledBuffer buffer = pool.allocateDirect(100);
+        assertTrue(buffer.buffer().isDirect());
+    }
+
+    @Test
+    public void testReuseReleased() {
+        PooledBuffer buffer = pool.allocate(1024);
+        ByteBuffer bb = buffer.buffer();
+        bb.put((byte) 1);
+        assertTrue(buffer.release());
+
+        PooledBuffer other = pool.allocate(2048);
+        assertSame(bb, other.buffer());
+        assertEquals(0, other.buffer().position());
+        assertEquals(2048, other.buffer().limit());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    public void testHeapAndDirectNotMixed() {
+        pool.allocate(1024).release();
+        assertTrue(pool.allocateDirect(1024).buffer().isDirect());
+        assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void testOutstanding() {
+        PooledBuffer buffer = pool.allocate(1024);
+        assertEquals(BufferPool.MIN_POOLED_SIZE, pool.getBytesOutstanding());
+        assertEquals(1, pool.getBuffersOutstanding());
+
+        buffer.release();
+        assertEquals(0, pool.getBytesOutstanding());
+        assertEquals(0, pool.getBuffersOutstanding());
+    }
+
+    @Test
+    public void testRetain() {
+        PooledBuffer buffer = pool.allocate(1024);
+        buffer.retain();
+        assertFalse(buffer.release());
+        assertEquals(1, pool.getBuffersOutstanding());
+        assertTrue(buffer.release());
+        assertEquals(0, pool.getBuffersOutstanding());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleRelease() {
+        PooledBuffer buffer = pool.allocate(1024);
+        buffer.release();
+        buffer.release();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRetainReleased() {
+        PooledBuffer buffer = pool.allocate(1024);
+        buffer.release();
+        buffer.retain();
+    }
+
+    @Test
+    public void testLargeBufferNotPooled() {
+        int size = BufferPool.MAX_POOLED_SIZE + 1;
+        PooledBuffer buffer = pool.allocate(size);
+        assertEquals(size, buffer.buffer().capacity());
+        buffer.release();
+
+        assertNotSame(buffer.buffer(), pool.allocate(size).buffer());
+        assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void testDetached() {
+        PooledBuffer buffer = pool.allocate(1024);
+        buffer.detach();
+        assertEquals(0, pool.getBuffersOutstanding());
+
+        assertNotSame(buffer.buffer(), pool.allocate(1024).buffer());
+        assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void testReleasedByOtherThread() throws Exception {
+        PooledBuffer buffer = pool.allocate(1024);
+        Thread thread = new Thread(buffer::release);
+        thread.start();
+        thread.join();
+
+        assertSame(buffer.buffer(), pool.allocate(1024).buffer());
+        assertEquals(1, pool.getHitCount());
+    }
+
+    @Test
+    public void testAllocatedByOtherThread() throws Exception {
+        PooledBuffer[] buffer = new PooledBuffer[1];
+        Thread thread = new Thread(() -> buffer[0] = pool.allocate(1024));
+        thread.start();
+        thread.join();
+        buffer[0].release();
+
+        assertSame(buffer[0].buffer(), pool.allocate(1024).buffer());
+        assertEquals(1, pool.getHitCount());
+    }
+
+    @Test
+    public void testUnpooled() {
+        ByteBuffer bb = ByteBuffer.allocate(10);
+        PooledBuffer buffer = PooledBuffer.unpooled(bb);
+        assertSame(bb, buffer.buffer());
+        assertTrue(buffer.release());
+    }
+}
@@ -22,6 +22,8 @@ package org.dcache.utils;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Before;
@@ -33,13 +35,15 @@ public class CacheTest {
 
     private Cache<String, String> _cache;
     private ManualClock _clock;
+    private RecordingListener _listener;
 
     @Before
     public void setUp() {
         _clock = new ManualClock();
+        _listener = new RecordingListener();
         _cache = new Cache<>("test cache", 10, TimeUnit.SECONDS.toMillis(5),
                 TimeUnit.SECONDS.toMillis(5),
-                new NopCacheEventListener(),
+                _listener,
                 30, TimeUnit.SECONDS,
                 _clock);
     }
@@ -106,13 +110,69 @@ public class CacheTest {
           assertNotNull("Object expired", _cache.get("key1"));
     }
 
+    @Test
+    public void testPutAboveLimit() {
+        for (int i = 0; i < 11; i++) {
+            _cache.put("key" + i, "value" + i);
+        }
+        assertEquals(10, _cache.size());
+        assertEquals(1, _listener.evicted.size());
+        assertEquals("value0", _listener.evicted.get(0));
+        assertNull(_cache.get("key0"));
+    }
+
+    @Test
+    public void testExpiredByCleaner() {
+        _cache.put("key1", "value1");
+        _clock.advance(61, TimeUnit.SECONDS);
+        _cache.run();
+        assertEquals(0, _cache.size());
+        assertEquals("value1", _listener.expired.get(0));
+    }
+
+    @Test
+    public void testAccessedNotExpiredByCleaner() {
+        _cache.put("key1", "value1", TimeUnit.MINUTES.toMillis(10), TimeUnit.SECONDS.toMillis(40));
+        _clock.advance(30, TimeUnit.SECONDS);
+        assertNotNull(_cache.get("key1"));
+        _clock.advance(31, TimeUnit.SECONDS);
+        _cache.run();
+        assertNotNull(_cache.get("key1"));
+        assertTrue(_listener.expired.isEmpty());
+    }
+
+    @Test
+    public void testRemovedNotExpiredByCleaner() {
+        _cache.put("key1", "value1");
+        _cache.remove("key1");
+        _clock.advance(61, TimeUnit.SECONDS);
+        _cache.run();
+        assertTrue(_listener.expired.isEmpty());
+    }
+
+    private static class RecordingListener extends NopCacheEventListener<String, String> {
+
+        private final List<String> expired = new ArrayList<>();
+        private final List<String> evicted = new ArrayList<>();
+
+        @Override
+        public void notifyExpired(Cache<String, String> cache, String v) {
+            expired.add(v);
+        }
+
+        @Override
+        public void notifyEvicted(Cache<String, String> cache, String v) {
+            evicted.add(v);
+        }
+    }
+
     private static class ManualClock extends Clock {
 
         private final AtomicLong currentTime = new AtomicLong();
 
         @Override
         public Instant instant() {
-            return Instant.ofEpochSecond(currentTime.get());
+            return Instant.ofEpochMilli(currentTime.get());
         }
 
         void advance(long time, TimeUnit unit) {
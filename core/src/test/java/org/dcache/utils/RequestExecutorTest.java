@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2009 - 2017 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RequestExecutorTest {
+
+    @Test
+    public void testPermitReleasedOnCompletion() {
+        RequestExecutor executor = new RequestExecutor(Runnable::run, 1);
+        executor.execute(() -> assertEquals(1, executor.getActiveCount()));
+        executor.execute(() -> {});
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testPermitReleasedOnFailure() {
+        RequestExecutor executor = new RequestExecutor(Runnable::run, 1);
+        try {
+            executor.execute(() -> {
+                throw new IllegalStateException();
+            });
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testPermitReleasedOnReject() {
+        RequestExecutor executor = new RequestExecutor(r -> {
+            throw new RejectedExecutionException();
+        }, 1);
+        try {
+            executor.execute(() -> {});
+            fail("exception expected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testPermitHeldUntilAsyncCompletion() {
+        RequestExecutor executor = new RequestExecutor(Runnable::run, 1);
+        CompletableFuture<Void> reply = new CompletableFuture<>();
+        executor.executeAsync(() -> reply);
+        assertEquals(1, executor.getActiveCount());
+
+        reply.complete(null);
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testPermitReleasedOnAsyncFailure() {
+        RequestExecutor executor = new RequestExecutor(Runnable::run, 1);
+        CompletableFuture<Void> reply = new CompletableFuture<>();
+        executor.executeAsync(() -> reply);
+        reply.completeExceptionally(new IllegalStateException());
+        assertEquals(0, executor.getActiveCount());
+
+        try {
+            executor.executeAsync(() -> {
+                throw new IllegalStateException();
+            });
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, executor.getActiveCount());
+    }
+
+    @Test
+    public void testConcurrencyLimited() throws InterruptedException {
+        List<Runnable> queued = new ArrayList<>();
+        Executor queue = queued::add;
+        RequestExecutor executor = new RequestExecutor(queue, 1);
+
+        executor.execute(() -> {});
+        assertEquals(1, executor.getActiveCount());
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread t = new Thread(() -> {
+            executor.execute(() -> {});
+            submitted.countDown();
+        });
+        t.start();
+
+        assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+        queued.remove(0).run();
+        assertTrue(submitted.await(1, TimeUnit.SECONDS));
+        t.join();
+    }
+
+    @Test
+    public void testVirtualThreads() throws InterruptedException {
+        if (!RequestExecutor.isVirtualThreadSupported()) {
+            try {
+                RequestExecutor.virtualThreads("test", 1);
+                fail("exception expected");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            return;
+        }
+
+        RequestExecutor executor = RequestExecutor.virtualThreads("test", 1);
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        assertTrue(done.await(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 - 2018 Deutsches Elektronen-Synchroton,
+ * Member of the Helmholtz Association, (DESY), HAMBURG, GERMANY
+ *
+ * This library is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Library General Public License as
+ * published by the Free Software Foundation; either version 2 of the
+ * License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Library General Public License for more details.
+ *
+ * You should have received a copy of the GNU Library General Public
+ * License along with this program (see the file COPYING.LIB for more
+ * details); if not, write to the Free Software Foundation, Inc.,
+ * 675 Mass Ave, Cambridge, MA 02139, USA.
+ */
+package org.dcache.nfs.dlm;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ITopic;
+import java.util.function.Consumer;
+import org.dcache.nfs.vfs.InvalidationEvent;
+import org.dcache.nfs.vfs.InvalidationEventBus;
+
+/**
+ * An implementation of {@link InvalidationEventBus} which uses Hazelcast's
+ * distributed {@link ITopic} to deliver events to all cluster members.
+ *
+ * <p>
+ * Example:
+ *
+ * <pre>
+ *   HazelcastInstance hz = ...;
+ *   InvalidationEventBus bus = new DistributedInvalidationEventBus(hz, "vfs-cache-invalidation");
+ *   VirtualFileSystem vfs = new VfsCache(inner, cacheConfig, bus);
+ * </pre>
+ *
+ * All caches which use a bus with the same name will discard entries modified
+ * through any of them.
+ *
+ * @since 0.17
+ */
+public class DistributedInvalidationEventBus implements InvalidationEventBus {
+
+    private final ITopic<InvalidationEvent> topic;
+
+    /**
+     * Create a new {@code DistributedInvalidationEventBus} with a given {@code name}.
+     *
+     * @param hz reference to Haselcast instance.
+     * @param name name of the topic used to deliver events.
+     */
+    public DistributedInvalidationEventBus(HazelcastInstance hz, String name) {
+        topic = hz.getTopic(name);
+    }
+
+    @Override
+    public void publish(InvalidationEvent event) {
+        topic.publish(event);
+    }
+
+    @Override
+    public void addListener(Consumer<InvalidationEvent> listener) {
+        topic.addMessageListener(m -> listener.accept(m.getMessageObject()));
+    }
+}
@@ -0,0 +1,68 @@
+package org.dcache.nfs.dlm;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.dcache.nfs.vfs.Inode;
+import org.dcache.nfs.vfs.InvalidationEvent;
+import org.dcache.nfs.vfs.InvalidationEventBus;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DistributedInvalidationEventBusTest {
+
+    private HazelcastInstance hzSerrver;
+    private HazelcastInstance hzClient;
+    private InvalidationEventBus bus1;
+    private InvalidationEventBus bus2;
+
+    @Before
+    public void setUp() throws Exception {
+
+        hzSerrver = Hazelcast.newHazelcastInstance();
+
+        ClientConfig config = new ClientConfig();
+        config.getNetworkConfig().setAddresses(Arrays.asList(
+
+                hzSerrver.getCluster().getLocalMember().getAddress().getHost() +
+                        ":" + hzSerrver.getCluster().getLocalMember().getAddress().getPort()));
+
+        hzClient = HazelcastClient.newHazelcastClient(config);
+        bus1 = new DistributedInvalidationEventBus(hzClient, "vfs-cache-invalidation");
+        bus2 = new DistributedInvalidationEventBus(hzSerrver, "vfs-cache-invalidation");
+    }
+
+    @Test
+    public void testEventDelivered() throws InterruptedException {
+        BlockingQueue<InvalidationEvent> events = new LinkedBlockingQueue<>();
+        bus2.addListener(events::add);
+
+        Inode inode = Inode.forFile(new byte[]{0x01, 0x02});
+        bus1.publish(new InvalidationEvent("door1", inode, "file1"));
+
+        InvalidationEvent event = events.poll(10, TimeUnit.SECONDS);
+        assertNotNull("event is not delivered", event);
+        assertEquals("door1", event.getOrigin());
+        assertEquals(inode, event.getInode());
+        assertEquals("file1", event.getName());
+    }
+
+    @After
+    public void tearDown() {
+        if (hzClient != null) {
+            hzClient.shutdown();
+        }
+        if (hzSerrver != null) {
+            hzSerrver.shutdown();
+        }
+    }
+}
@@ -21,6 +21,8 @@ package org.dcache.nfs.v4;
 
 import org.dcache.nfs.ExportFile;
 import org.dcache.nfs.v4.nlm.LockManager;
+import org.dcache.nfs.vfs.AccessCache;
+import org.dcache.nfs.vfs.UncommittedWrites;
 import org.dcache.nfs.vfs.VirtualFileSystem;
 import org.springframework.beans.factory.FactoryBean;
 
@@ -70,4 +72,24 @@ public class NFSServerV41Factory implements FactoryBean<NFSServerV41> {
         builder.withStateHandler(stateHandler);
     }
 
+    public void setAttributeCache(AttributeCache attributeCache) {
+        builder.withAttributeCache(attributeCache);
+    }
+
+    public void setAccessCache(AccessCache accessCache) {
+        builder.withAccessCache(accessCache);
+    }
+
+    public void setUncommittedWrites(UncommittedWrites uncommittedWrites) {
+        builder.withUncommittedWrites(uncommittedWrites);
+    }
+
+    public void setVirtualThreads(boolean useVirtualThreads) {
+        builder.withVirtualThreads(useVirtualThreads);
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        builder.withMaxConcurrentRequests(maxConcurrentRequests);
+    }
+
 }